@@ -0,0 +1,137 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.DefaultRTJarAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.JrtFileSystemAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * The inputs of the benchmarks: the jars, directories and war files of the shared test resources.
+ * The resource directory defaults to <code>../shared-test-resources</code> i.e. the benchmarks are
+ * expected to be run from the module directory - it can be changed via the system property <code>
+ * sootup.benchmarks.resources</code>.
+ */
+final class BenchmarkInputs {
+
+  /** jars of the shared test resources that are used as analysis input */
+  static final String MINI_APP_JAR = "java-miniapps/MiniApp.jar";
+
+  static final String JPUSH_JAR = "soot-1580/jpush-android_v3.0.5.jar";
+
+  static final String CLASS_DIRECTORY = "miniTestSuite/java6/binary";
+
+  static final String WAR = "java-warApp/dummyWarApp.war";
+
+  private BenchmarkInputs() {}
+
+  @Nonnull
+  static Path resolve(@Nonnull String resource) {
+    return Paths.get(System.getProperty("sootup.benchmarks.resources", "../shared-test-resources"))
+        .resolve(resource);
+  }
+
+  /**
+   * Creates the input location of the given type.
+   *
+   * @param type one of <code>jar</code>, <code>directory</code>, <code>war</code> and <code>
+   *     classpath</code>
+   */
+  @Nonnull
+  static AnalysisInputLocation createInputLocation(
+      @Nonnull String type, @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    switch (type) {
+      case "jar":
+        return new ArchiveBasedAnalysisInputLocation(
+            resolve(JPUSH_JAR), SourceType.Application, bodyInterceptors);
+      case "directory":
+        return PathBasedAnalysisInputLocation.create(
+            resolve(CLASS_DIRECTORY), SourceType.Application, bodyInterceptors);
+      case "war":
+        return PathBasedAnalysisInputLocation.create(
+            resolve(WAR), SourceType.Application, bodyInterceptors);
+      case "classpath":
+        return new JavaClassPathAnalysisInputLocation(
+            resolve(JPUSH_JAR) + File.pathSeparator + resolve(MINI_APP_JAR),
+            SourceType.Application,
+            bodyInterceptors);
+      default:
+        throw new IllegalArgumentException("Unknown input location type: " + type);
+    }
+  }
+
+  /** Returns the input location of the runtime library of the executing JVM. */
+  @Nonnull
+  static AnalysisInputLocation createRuntimeInputLocation() {
+    String version = System.getProperty("java.specification.version");
+    if (version.startsWith("1.")) {
+      return new DefaultRTJarAnalysisInputLocation();
+    }
+    return new JrtFileSystemAnalysisInputLocation();
+  }
+
+  /** Creates a view of the given jar of the shared test resources and the runtime library. */
+  @Nonnull
+  static JavaView createViewWithRuntime(@Nonnull String jar) {
+    return new JavaView(
+        Arrays.asList(
+            new ArchiveBasedAnalysisInputLocation(resolve(jar), SourceType.Application),
+            createRuntimeInputLocation()));
+  }
+
+  /** Returns the concrete methods of the application classes of the view. */
+  @Nonnull
+  static List<SootMethod> getApplicationMethods(@Nonnull JavaView view) {
+    return view.getClasses()
+        .filter(sootClass -> sootClass.isApplicationClass())
+        .flatMap(sootClass -> sootClass.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  /** Returns the signatures of all concrete methods of the application classes of the view. */
+  @Nonnull
+  static List<MethodSignature> getEntryPoints(@Nonnull JavaView view) {
+    List<MethodSignature> entryPoints =
+        getApplicationMethods(view).stream()
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    return Collections.unmodifiableList(entryPoints);
+  }
+}
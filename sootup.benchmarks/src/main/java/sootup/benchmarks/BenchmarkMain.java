@@ -0,0 +1,48 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Runs the JMH benchmarks with the usual JMH command line, e.g. <code>
+ * java -jar target/benchmarks.jar CallGraphBenchmark</code>. Unless a result format is given via
+ * <code>-rf</code>, the results are written as JSON to <code>jmh-result.json</code>, so that they
+ * can be compared across releases.
+ */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    List<String> arguments = new ArrayList<>(Arrays.asList(args));
+    if (!arguments.contains("-rf")) {
+      arguments.add(0, "-rf");
+      arguments.add(1, "json");
+    }
+    Main.main(arguments.toArray(new String[0]));
+  }
+}
@@ -0,0 +1,130 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.transform.BodyInterceptor;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Applies a single {@link BodyInterceptor} to the Bodies of all methods of a jar. The input of an
+ * interceptor of the default chain ({@link BytecodeBodyInterceptors#Default}) are the Bodies as
+ * transformed by its predecessors in the chain, the input of any other interceptor are the Bodies
+ * transformed by the complete chain. Every invocation intercepts copies of these Bodies - <code>
+ * none</code> measures just the copying.
+ *
+ * <p>TrapTightener is not implemented yet and StaticSingleAssignmentFormer fails on some Bodies of
+ * the jar, so they are not benchmarked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BodyInterceptorBenchmark {
+
+  @Param({
+    "none",
+    "NopEliminator",
+    "EmptySwitchEliminator",
+    "CastAndReturnInliner",
+    "LocalSplitter",
+    "Aggregator",
+    "CopyPropagator",
+    "ConstantPropagatorAndFolder",
+    "TypeAssigner",
+    "ConditionalBranchFolder",
+    "DeadAssignmentEliminator",
+    "UnreachableCodeEliminator",
+    "UnusedLocalEliminator",
+    "LocalPacker",
+    "LocalNameStandardizer"
+  })
+  public String interceptorName;
+
+  private JavaView view;
+  private BodyInterceptor interceptor;
+  private final List<SootMethod> methods = new ArrayList<>();
+  private final List<Body> inputBodies = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    List<BodyInterceptor> defaultInterceptors =
+        BytecodeBodyInterceptors.Default.getBodyInterceptors();
+    List<BodyInterceptor> preparingInterceptors = defaultInterceptors;
+    if (interceptorName.equals("none")) {
+      interceptor = (builder, view) -> {};
+    } else {
+      interceptor =
+          (BodyInterceptor)
+              Class.forName("sootup.interceptors." + interceptorName)
+                  .getConstructor()
+                  .newInstance();
+      for (int i = 0; i < defaultInterceptors.size(); i++) {
+        if (defaultInterceptors.get(i).getClass() == interceptor.getClass()) {
+          preparingInterceptors = defaultInterceptors.subList(0, i);
+          break;
+        }
+      }
+    }
+
+    view = new JavaView(BenchmarkInputs.createInputLocation("jar", Collections.emptyList()));
+    for (SootMethod method : BenchmarkInputs.getApplicationMethods(view)) {
+      Body.BodyBuilder builder = Body.builder(method.getBody(), method.getModifiers());
+      for (BodyInterceptor preparingInterceptor : preparingInterceptors) {
+        preparingInterceptor.interceptBody(builder, view);
+      }
+      methods.add(method);
+      inputBodies.add(builder.build());
+    }
+  }
+
+  @Benchmark
+  public void intercept(Blackhole blackhole) {
+    for (int i = 0; i < inputBodies.size(); i++) {
+      Body.BodyBuilder builder =
+          Body.builder(inputBodies.get(i), methods.get(i).getModifiers());
+      interceptor.interceptBody(builder, view);
+      blackhole.consume(builder);
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.core.frontend.BodyRetention;
+import sootup.core.model.SootMethod;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.conversion.BodyConversionOptions;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Resolves the Bodies of all methods of a jar, either just converted from bytecode or additionally
+ * transformed by the default {@link BytecodeBodyInterceptors}, one after another or in parallel.
+ * The classes are loaded once - the Bodies are released after each resolution, so every invocation
+ * converts them again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BodyResolutionBenchmark {
+
+  /**
+   * The BodyInterceptors: none, the default ones or the default ones with a validation of the
+   * StmtGraph after each interceptor.
+   */
+  @Param({"none", "default", "validated"})
+  public String interceptors;
+
+  /** The number of threads of {@link #resolveBodiesInParallel()}. */
+  @Param({"4"})
+  public int threads;
+
+  private JavaView view;
+  private List<SootMethod> methods;
+  private ExecutorService executor;
+
+  @Setup
+  public void setUp() {
+    PathBasedAnalysisInputLocation inputLocation =
+        (PathBasedAnalysisInputLocation)
+            BenchmarkInputs.createInputLocation(
+                "jar",
+                interceptors.equals("none")
+                    ? Collections.emptyList()
+                    : BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    inputLocation.setBodyConversionOptions(
+        BodyConversionOptions.DEFAULT
+            .withBodyRetention(BodyRetention.RELEASABLE)
+            .withValidatingInterceptors(interceptors.equals("validated")));
+    view = new JavaView(inputLocation);
+    methods = BenchmarkInputs.getApplicationMethods(view);
+    executor = Executors.newFixedThreadPool(threads);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public long resolveBodies() {
+    long stmtCount = 0;
+    for (SootMethod method : methods) {
+      stmtCount += method.getBody().getStmtGraph().getNodes().size();
+      method.releaseBody();
+    }
+    return stmtCount;
+  }
+
+  /** Resolves the Bodies on a fixed thread pool via {@link JavaView#resolveBodies}. */
+  @Benchmark
+  public int resolveBodiesInParallel() {
+    int resolvedBodies = view.resolveBodies(methods, executor, 4 * threads).getResolvedBodyCount();
+    methods.forEach(SootMethod::releaseBody);
+    return resolvedBodies;
+  }
+}
@@ -0,0 +1,91 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallGraphAlgorithm;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.callgraph.VariableTypeAnalysisAlgorithm;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Constructs the call graph of a jar with the runtime library, starting at all concrete methods of
+ * the jar. The view is shared by all invocations, i.e. classes and Bodies are resolved in the
+ * warmup - the measurement covers the call graph algorithm itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallGraphBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP_JAR, BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  @Param({"CHA", "RTA", "VTA"})
+  public String algorithm;
+
+  private JavaView view;
+  private List<MethodSignature> entryPoints;
+
+  @Setup
+  public void setUp() {
+    view = BenchmarkInputs.createViewWithRuntime(jar);
+    entryPoints = BenchmarkInputs.getEntryPoints(view);
+  }
+
+  private CallGraphAlgorithm createAlgorithm() {
+    switch (algorithm) {
+      case "CHA":
+        return new ClassHierarchyAnalysisAlgorithm(view);
+      case "RTA":
+        return new RapidTypeAnalysisAlgorithm(view);
+      case "VTA":
+        return new VariableTypeAnalysisAlgorithm(view);
+      default:
+        throw new IllegalArgumentException("Unknown call graph algorithm: " + algorithm);
+    }
+  }
+
+  @Benchmark
+  public CallGraph constructCallGraph() {
+    return createAlgorithm().initialize(entryPoints);
+  }
+}
@@ -0,0 +1,153 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallGraphReachability;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.FrozenCallGraph;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Builds the {@link CallGraphReachability} of the CHA call graph of a jar with the runtime library
+ * and answers reachability queries with it and, for comparison, with walks of the call graph. Each
+ * query benchmark answers the same {@value #QUERY_COUNT} random pairs of methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallGraphReachabilityBenchmark {
+
+  static final int QUERY_COUNT = 1000;
+
+  @Param({BenchmarkInputs.MINI_APP_JAR, BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  private CallGraph callGraph;
+  private CallGraphReachability reachability;
+  private List<MethodSignature> sources;
+  private List<MethodSignature> targets;
+  private List<MethodSignature> entryPoints;
+
+  @Setup
+  public void setUp() {
+    JavaView view = BenchmarkInputs.createViewWithRuntime(jar);
+    entryPoints = BenchmarkInputs.getEntryPoints(view);
+    callGraph =
+        new FrozenCallGraph(new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints));
+    reachability = new CallGraphReachability(callGraph);
+
+    List<MethodSignature> methods = new ArrayList<>(callGraph.getMethodSignatures());
+    methods.sort(Comparator.comparing(MethodSignature::toString));
+    Random random = new Random(42);
+    sources = new ArrayList<>();
+    targets = new ArrayList<>();
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      sources.add(methods.get(random.nextInt(methods.size())));
+      targets.add(methods.get(random.nextInt(methods.size())));
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public CallGraphReachability build() {
+    return new CallGraphReachability(callGraph);
+  }
+
+  @Benchmark
+  public int isReachable() {
+    int reachable = 0;
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      if (reachability.isReachable(sources.get(i), targets.get(i))) {
+        reachable++;
+      }
+    }
+    return reachable;
+  }
+
+  /** Answers the queries by walking the targets of the calls breadth-first. */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int isReachableByWalk() {
+    int reachable = 0;
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      if (walk(sources.get(i), targets.get(i))) {
+        reachable++;
+      }
+    }
+    return reachable;
+  }
+
+  private boolean walk(MethodSignature source, MethodSignature target) {
+    Set<MethodSignature> visited = new HashSet<>();
+    Deque<MethodSignature> workList = new ArrayDeque<>();
+    visited.add(source);
+    workList.add(source);
+    while (!workList.isEmpty()) {
+      MethodSignature method = workList.poll();
+      if (method.equals(target)) {
+        return true;
+      }
+      for (MethodSignature next : callGraph.callTargetsFrom(method)) {
+        if (visited.add(next)) {
+          workList.add(next);
+        }
+      }
+    }
+    return false;
+  }
+
+  @Benchmark
+  public Set<MethodSignature> reachableMethods() {
+    return reachability.reachableMethods(entryPoints);
+  }
+
+  @Benchmark
+  public Set<MethodSignature> callersWithinThreeHops() {
+    return reachability.callersWithin(targets.subList(0, 10), 3);
+  }
+}
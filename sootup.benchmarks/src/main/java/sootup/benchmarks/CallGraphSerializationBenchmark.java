@@ -0,0 +1,120 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallGraphWriter;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.MappedCallGraph;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Writes the CHA call graph of a jar with the runtime library with the {@link CallGraphWriter}
+ * and loads it as {@link MappedCallGraph}. The Bodies are resolved in the setup, so the queries
+ * of the calls measure the decoding and not the frontend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallGraphSerializationBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP_JAR, BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  private JavaView view;
+  private CallGraph callGraph;
+  private Path directory;
+  private Path file;
+
+  @Setup
+  public void setUp() throws IOException {
+    view = BenchmarkInputs.createViewWithRuntime(jar);
+    callGraph =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(BenchmarkInputs.getEntryPoints(view));
+    directory = Files.createTempDirectory("sootup-callgraph");
+    file = directory.resolve("callgraph.bin");
+    CallGraphWriter.write(callGraph, view, file);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(directory.resolve("written.bin"));
+    Files.delete(directory);
+  }
+
+  @Benchmark
+  public Path write() throws IOException {
+    Path written = directory.resolve("written.bin");
+    CallGraphWriter.write(callGraph, view, written);
+    return written;
+  }
+
+  /** Loads the call graph and visits its calls via the ids, i.e. without decoding signatures. */
+  @Benchmark
+  public int loadAndVisitCalls() throws IOException {
+    MappedCallGraph loaded = MappedCallGraph.load(file, view);
+    int targetIds = 0;
+    for (int method = 0; method < loaded.getMethodCount(); method++) {
+      for (int i = 0; i < loaded.getCallSiteCountOf(method); i++) {
+        int callSite = loaded.getCallSite(method, i);
+        for (int j = 0; j < loaded.getTargetCount(callSite); j++) {
+          targetIds += loaded.getTarget(callSite, j);
+        }
+      }
+    }
+    return targetIds;
+  }
+
+  /** Loads the call graph and decodes all of its calls. */
+  @Benchmark
+  public int loadAndQueryCalls() throws IOException {
+    MappedCallGraph loaded = MappedCallGraph.load(file, view);
+    int calls = 0;
+    for (MethodSignature method : loaded.getMethodSignatures()) {
+      calls += loaded.callsFrom(method).size();
+    }
+    return calls;
+  }
+}
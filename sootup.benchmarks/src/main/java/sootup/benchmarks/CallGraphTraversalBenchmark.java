@@ -0,0 +1,121 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.CompactCallGraph;
+import sootup.callgraph.FrozenCallGraph;
+import sootup.callgraph.IndexedCallGraph;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Copies and traverses the CHA call graph of a jar with the runtime library in the {@link
+ * sootup.callgraph.GraphBasedCallGraph}, the {@link CompactCallGraph} and the {@link
+ * FrozenCallGraph} representation. Run with <code>-prof gc</code> to compare the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CallGraphTraversalBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP_JAR, BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  @Param({"graph", "compact", "frozen"})
+  public String representation;
+
+  private CallGraph callGraph;
+
+  @Setup
+  public void setUp() {
+    JavaView view = BenchmarkInputs.createViewWithRuntime(jar);
+    CallGraph graphBased =
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(BenchmarkInputs.getEntryPoints(view));
+    switch (representation) {
+      case "compact":
+        callGraph = new CompactCallGraph(graphBased);
+        break;
+      case "frozen":
+        callGraph = new FrozenCallGraph(graphBased);
+        break;
+      default:
+        callGraph = graphBased;
+    }
+  }
+
+  @Benchmark
+  public CallGraph copy() {
+    return callGraph.copy();
+  }
+
+  /** Queries the targets of every method via the {@link CallGraph} interface. */
+  @Benchmark
+  public int callTargetsFrom() {
+    int targets = 0;
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      targets += callGraph.callTargetsFrom(method).size();
+    }
+    return targets;
+  }
+
+  /** Visits every call via the ids; the GraphBasedCallGraph is visited via its calls instead. */
+  @Benchmark
+  public int visitCalls() {
+    if (!(callGraph instanceof IndexedCallGraph)) {
+      int calls = 0;
+      for (MethodSignature method : callGraph.getMethodSignatures()) {
+        calls += callGraph.callsFrom(method).size();
+      }
+      return calls;
+    }
+    IndexedCallGraph indexed = (IndexedCallGraph) callGraph;
+    int targetIds = 0;
+    for (int method = 0; method < indexed.getMethodCount(); method++) {
+      for (int i = 0; i < indexed.getCallSiteCountOf(method); i++) {
+        int callSite = indexed.getCallSite(method, i);
+        for (int j = 0; j < indexed.getTargetCount(callSite); j++) {
+          targetIds += indexed.getTarget(callSite, j);
+        }
+      }
+    }
+    return targetIds;
+  }
+}
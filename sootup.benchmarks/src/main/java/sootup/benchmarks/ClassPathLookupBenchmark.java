@@ -0,0 +1,184 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassPathIndex;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Looks up classes on a class path of all jars of the shared test resources, once by asking every
+ * input location in the order of the class path and once by asking only the candidates of the
+ * {@link ClassPathIndex}. The looked up types are the classes of the jars and their supertypes,
+ * which are partially not on the class path (e.g. the JDK classes). The number of input locations
+ * that are asked is reported as the <code>probes</code> counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClassPathLookupBenchmark {
+
+  @Param({"linear", "indexed"})
+  public String lookup;
+
+  private List<CountingInputLocation> inputLocations;
+  private JavaView view;
+  private ClassPathIndex index;
+  private List<ClassType> types;
+
+  /** The number of input locations that are asked for a class. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Probes {
+    public long probes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      probes = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    try (Stream<Path> files = Files.walk(BenchmarkInputs.resolve(""))) {
+      inputLocations =
+          files
+              .filter(file -> file.toString().endsWith(".jar"))
+              .sorted()
+              .map(
+                  jar ->
+                      new CountingInputLocation(
+                          new ArchiveBasedAnalysisInputLocation(jar, SourceType.Library)))
+              .collect(Collectors.toList());
+    }
+    view = new JavaView(new ArrayList<>(inputLocations));
+    index = new ClassPathIndex(inputLocations);
+
+    Set<ClassType> typeSet = new LinkedHashSet<>();
+    for (AnalysisInputLocation location : inputLocations) {
+      for (SootClassSource classSource : location.getClassSources(view)) {
+        typeSet.add(classSource.getClassType());
+        classSource.resolveSuperclass().ifPresent(typeSet::add);
+        typeSet.addAll(classSource.resolveInterfaces());
+      }
+    }
+    types = new ArrayList<>(typeSet);
+  }
+
+  @Benchmark
+  public int lookUpClasses(Probes probes) {
+    int found = 0;
+    for (ClassType type : types) {
+      List<? extends AnalysisInputLocation> candidates =
+          lookup.equals("linear") ? inputLocations : index.getCandidates(type);
+      for (AnalysisInputLocation location : candidates) {
+        if (location.getClassSource(type, view).isPresent()) {
+          found++;
+          break;
+        }
+      }
+    }
+    for (CountingInputLocation location : inputLocations) {
+      probes.probes += location.probes.getAndSet(0);
+    }
+    return found;
+  }
+
+  /** Counts the lookups of classes in the delegate. */
+  private static class CountingInputLocation implements AnalysisInputLocation {
+    private final AnalysisInputLocation delegate;
+    private final AtomicLong probes = new AtomicLong();
+
+    CountingInputLocation(@Nonnull AnalysisInputLocation delegate) {
+      this.delegate = delegate;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<? extends SootClassSource> getClassSource(
+        @Nonnull ClassType type, @Nonnull View view) {
+      probes.incrementAndGet();
+      return delegate.getClassSource(type, view);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<? extends SootClassSource> getClassSources(@Nonnull View view) {
+      return delegate.getClassSources(view);
+    }
+
+    @Nonnull
+    @Override
+    public SourceType getSourceType() {
+      return delegate.getSourceType();
+    }
+
+    @Nonnull
+    @Override
+    public List<BodyInterceptor> getBodyInterceptors() {
+      return delegate.getBodyInterceptors();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Set<String>> getPackageNames() {
+      return delegate.getPackageNames();
+    }
+  }
+}
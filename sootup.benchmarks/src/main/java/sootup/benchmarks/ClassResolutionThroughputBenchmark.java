@@ -0,0 +1,138 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.types.ClassType;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Resolves classes of a jar via {@link JavaView#getClass(ClassType)} from an increasing number of
+ * threads that all ask for all classes: once in a new view (cold) and once in a view that has
+ * cached all classes already (warm, 200,000 lookups per thread). Additionally resolves all classes
+ * of the jar and the runtime library via {@link JavaView#getClasses()} with a single thread and via
+ * {@link JavaView#getClasses(java.util.concurrent.Executor)} with more threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClassResolutionThroughputBenchmark {
+  static final int WARM_LOOKUPS_PER_THREAD = 200_000;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int threads;
+
+  private AnalysisInputLocation inputLocation;
+  private List<ClassType> classTypes;
+  private ExecutorService executor;
+  private JavaView warmView;
+  private JavaView coldView;
+
+  @Setup
+  public void setUp() {
+    inputLocation = BenchmarkInputs.createInputLocation("jar", Collections.emptyList());
+    warmView = new JavaView(inputLocation);
+    classTypes =
+        inputLocation.getClassSources(warmView).stream()
+            .map(AbstractClassSource::getClassType)
+            .collect(Collectors.toList());
+    classTypes.forEach(warmView::getClassOrThrow);
+    executor = Executors.newFixedThreadPool(threads);
+  }
+
+  @Setup(Level.Iteration)
+  public void createColdView() {
+    coldView = new JavaView(inputLocation);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public void resolveCold() throws Exception {
+    run(coldView, 1);
+  }
+
+  @Benchmark
+  public void lookUpWarm() throws Exception {
+    run(warmView, Math.max(1, WARM_LOOKUPS_PER_THREAD / classTypes.size()));
+  }
+
+  @Benchmark
+  public long resolveAllClasses() {
+    JavaView view =
+        new JavaView(
+            Arrays.asList(
+                BenchmarkInputs.createInputLocation("jar", Collections.emptyList()),
+                BenchmarkInputs.createRuntimeInputLocation()));
+    return threads == 1 ? view.getClasses().count() : view.getClasses(executor).count();
+  }
+
+  /** Lets every thread resolve all classes <code>rounds</code> times. */
+  private void run(JavaView view, int rounds) throws InterruptedException, ExecutionException {
+    List<Future<?>> futures = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                for (int round = 0; round < rounds; round++) {
+                  for (ClassType type : classTypes) {
+                    view.getClassOrThrow(type);
+                  }
+                }
+              }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.views.TraversalCacheMode;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Resolves all Bodies of a jar in a new view, once via {@link JavaView#traverseClasses(int,
+ * TraversalCacheMode, java.util.function.Consumer)} with {@link TraversalCacheMode#TOUCH_ONCE} and
+ * different batch sizes and once via {@link JavaView#getClasses()} with the default full cache. The
+ * heap that is retained at the end of each batch (respectively at the end of the pass) is reported
+ * as the <code>peakRetainedKiB</code> counter. A garbage collection is triggered to measure it, so
+ * the time includes these collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ClassTraversalMemoryBenchmark {
+
+  @Param({"16", "128", "1024", "full-cache"})
+  public String batchSize;
+
+  /** The heap that is retained by the view at the end of a batch, at most. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class RetainedHeap {
+    public long peakRetainedKiB;
+    private long baseline;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      peakRetainedKiB = 0;
+      baseline = usedHeap();
+    }
+
+    void measure() {
+      peakRetainedKiB = Math.max(peakRetainedKiB, (usedHeap() - baseline) / 1024);
+    }
+  }
+
+  @Benchmark
+  public JavaView resolveBodies(RetainedHeap retainedHeap) {
+    JavaView view =
+        new JavaView(BenchmarkInputs.createInputLocation("jar", Collections.emptyList()));
+    if (batchSize.equals("full-cache")) {
+      view.getClasses().forEach(ClassTraversalMemoryBenchmark::resolveBodies);
+      retainedHeap.measure();
+    } else {
+      view.traverseClasses(
+          Integer.parseInt(batchSize),
+          TraversalCacheMode.TOUCH_ONCE,
+          batch -> {
+            batch.forEach(ClassTraversalMemoryBenchmark::resolveBodies);
+            retainedHeap.measure();
+          });
+    }
+    return view;
+  }
+
+  private static void resolveBodies(SootClass sootClass) {
+    for (SootMethod method : sootClass.getMethods()) {
+      if (method.hasBody()) {
+        method.getBody();
+      }
+    }
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,90 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.LazyCallGraph;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Queries the calls of {@value #QUERY_COUNT} methods of a jar with the runtime library, once with
+ * the {@link LazyCallGraph} and once with the CHA call graph that is constructed from all concrete
+ * methods of the jar. The view is shared by all invocations, like in the {@link
+ * CallGraphBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LazyCallGraphBenchmark {
+
+  static final int QUERY_COUNT = 10;
+
+  @Param({BenchmarkInputs.MINI_APP_JAR, BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  private JavaView view;
+  private List<MethodSignature> entryPoints;
+
+  @Setup
+  public void setUp() {
+    view = BenchmarkInputs.createViewWithRuntime(jar);
+    entryPoints = BenchmarkInputs.getEntryPoints(view);
+  }
+
+  private int queryCalls(CallGraph callGraph) {
+    int calls = 0;
+    int queryCount = Math.min(QUERY_COUNT, entryPoints.size());
+    for (MethodSignature method : entryPoints.subList(0, queryCount)) {
+      calls += callGraph.callsFrom(method).size();
+    }
+    return calls;
+  }
+
+  @Benchmark
+  public int lazy() {
+    return queryCalls(new LazyCallGraph(new ClassHierarchyAnalysisAlgorithm(view), entryPoints));
+  }
+
+  @Benchmark
+  public int constructed() {
+    return queryCalls(new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints));
+  }
+}
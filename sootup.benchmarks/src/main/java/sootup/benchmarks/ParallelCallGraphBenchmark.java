@@ -0,0 +1,87 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.AbstractCallGraphAlgorithm;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Measures how the call graph construction scales with the number of threads. Every iteration
+ * starts with a new view, so that the Bodies are resolved by the call graph algorithm - which is
+ * the part of the construction that profits most from the parallel work list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelCallGraphBenchmark {
+
+  @Param({BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  @Param({"CHA", "RTA"})
+  public String algorithm;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  public int threads;
+
+  private JavaView view;
+  private List<MethodSignature> entryPoints;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    view = BenchmarkInputs.createViewWithRuntime(jar);
+    // resolves all classes, only the Bodies are left to the measurement
+    entryPoints = BenchmarkInputs.getEntryPoints(view);
+  }
+
+  @Benchmark
+  public CallGraph constructCallGraph() {
+    AbstractCallGraphAlgorithm callGraphAlgorithm =
+        algorithm.equals("CHA")
+            ? new ClassHierarchyAnalysisAlgorithm(view)
+            : new RapidTypeAnalysisAlgorithm(view);
+    callGraphAlgorithm.setParallelism(threads);
+    return callGraphAlgorithm.initialize(entryPoints);
+  }
+}
@@ -0,0 +1,89 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.signatures.SignatureInterner;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Requests the method signatures of all calls of a jar from the {@link JavaIdentifierFactory},
+ * which returns them interned by the {@link SignatureInterner}, and compares them the way a call
+ * graph algorithm does. Run it with <code>-prof gc</code> to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SignatureFactoryBenchmark {
+
+  private final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+  private final List<MethodSignature> signatures = new ArrayList<>();
+
+  @Setup
+  public void setUp() {
+    JavaView view = BenchmarkInputs.createViewWithRuntime(BenchmarkInputs.MINI_APP_JAR);
+    for (MethodSignature entryPoint : BenchmarkInputs.getEntryPoints(view)) {
+      view.getMethod(entryPoint)
+          .ifPresent(
+              method ->
+                  method.getBody().getStmts().stream()
+                      .filter(stmt -> stmt.isInvokableStmt())
+                      .forEach(
+                          stmt ->
+                              stmt.asInvokableStmt()
+                                  .getInvokeExpr()
+                                  .ifPresent(expr -> signatures.add(expr.getMethodSignature()))));
+    }
+  }
+
+  @Benchmark
+  public void getMethodSignature(Blackhole blackhole) {
+    for (MethodSignature signature : signatures) {
+      MethodSubSignature subSignature =
+          identifierFactory.getMethodSubSignature(
+              signature.getName(), signature.getType(), signature.getParameterTypes());
+      MethodSignature requested =
+          identifierFactory.getMethodSignature(signature.getDeclClassType(), subSignature);
+      blackhole.consume(requested.equals(signature));
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SignatureInterner;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Constructs the CHA call graph of a jar with the runtime library; run it with <code>-prof gc
+ * </code> for the allocations and collections. After each iteration it checks that the method
+ * signatures of the call graph are interned by the {@link SignatureInterner}, i.e. that equal
+ * signatures referenced by the calls are the same instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SignatureInterningBenchmark {
+
+  private JavaView view;
+  private List<MethodSignature> entryPoints;
+  private CallGraph callGraph;
+
+  @Setup
+  public void setUp() {
+    view = BenchmarkInputs.createViewWithRuntime(BenchmarkInputs.JPUSH_JAR);
+    entryPoints = BenchmarkInputs.getEntryPoints(view);
+  }
+
+  @Benchmark
+  public CallGraph constructCallGraph() {
+    callGraph = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    return callGraph;
+  }
+
+  @TearDown(Level.Iteration)
+  public void checkInterning() {
+    Set<MethodSignature> signatures = new HashSet<>();
+    Set<MethodSignature> signatureInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      for (CallGraph.Call call : callGraph.callsFrom(method)) {
+        signatures.add(call.getSourceMethodSignature());
+        signatures.add(call.getTargetMethodSignature());
+        signatureInstances.add(call.getSourceMethodSignature());
+        signatureInstances.add(call.getTargetMethodSignature());
+      }
+    }
+    if (signatures.size() != signatureInstances.size()) {
+      throw new IllegalStateException(
+          signatures.size()
+              + " distinct signatures are referenced by "
+              + signatureInstances.size()
+              + " instances.");
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.core.model.SootClass;
+import sootup.core.typehierarchy.CompactTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Queries the type hierarchy of a jar and the runtime library for the application classes of the
+ * jar and for the widest types of the runtime library. The hierarchy is built once in the setup,
+ * except for {@link #firstSubtypesOf()} which measures the first query on a new view; the <code>
+ * hierarchy</code> parameter compares the graph based {@link ViewTypeHierarchy} with the array
+ * encoded {@link CompactTypeHierarchy}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TypeHierarchyBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP_JAR, BenchmarkInputs.JPUSH_JAR})
+  public String jar;
+
+  @Param({"view", "compact"})
+  public String hierarchy;
+
+  private JavaView view;
+  private TypeHierarchy typeHierarchy;
+  private List<ClassType> classTypes;
+  private List<ClassType> runtimeTypes;
+  private ClassType objectType;
+
+  @Setup
+  public void setUp() {
+    view = BenchmarkInputs.createViewWithRuntime(jar);
+    typeHierarchy = createTypeHierarchy(view);
+    classTypes =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .map(SootClass::getType)
+            .collect(Collectors.toList());
+    objectType = view.getIdentifierFactory().getClassType("java.lang.Object");
+    runtimeTypes =
+        Stream.of(
+                "java.lang.Object",
+                "java.io.Serializable",
+                "java.lang.Cloneable",
+                "java.lang.Iterable",
+                "java.util.Collection",
+                "java.lang.Exception")
+            .map(view.getIdentifierFactory()::getClassType)
+            .collect(Collectors.toList());
+    // build the hierarchy before the measurement
+    typeHierarchy.contains(objectType);
+  }
+
+  private TypeHierarchy createTypeHierarchy(JavaView view) {
+    switch (hierarchy) {
+      case "view":
+        return new ViewTypeHierarchy(view);
+      case "compact":
+        return new CompactTypeHierarchy(view);
+      default:
+        throw new IllegalArgumentException("Unknown type hierarchy: " + hierarchy);
+    }
+  }
+
+  /** Scans the classes of the view into a new hierarchy. */
+  @Benchmark
+  public boolean build() {
+    return createTypeHierarchy(view).contains(objectType);
+  }
+
+  /**
+   * Queries the hierarchy of a new view whose classes are not resolved yet, i.e. the hierarchy is
+   * scanned from the class headers of the input locations.
+   */
+  @Benchmark
+  public long firstSubtypesOf() {
+    JavaView newView = BenchmarkInputs.createViewWithRuntime(jar);
+    return createTypeHierarchy(newView).subtypesOf(objectType).count();
+  }
+
+  @Benchmark
+  public long subtypesOfRuntimeTypes() {
+    long count = 0;
+    for (ClassType runtimeType : runtimeTypes) {
+      count += typeHierarchy.subtypesOf(runtimeType).count();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long subtypesOf() {
+    long count = 0;
+    for (ClassType classType : classTypes) {
+      count += typeHierarchy.subtypesOf(classType).count();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long superClassesOf() {
+    long count = 0;
+    for (ClassType classType : classTypes) {
+      count += typeHierarchy.superClassesOf(classType).count();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long implementedInterfacesOf() {
+    long count = 0;
+    for (ClassType classType : classTypes) {
+      count += typeHierarchy.implementedInterfacesOf(classType).count();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long isSubtype() {
+    long count = 0;
+    for (ClassType supertype : classTypes) {
+      for (ClassType potentialSubtype : classTypes) {
+        if (typeHierarchy.isSubtype(supertype, potentialSubtype)) {
+          count++;
+        }
+      }
+      if (typeHierarchy.isSubtype(objectType, supertype)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long isSubtypeOfRuntimeTypes() {
+    long count = 0;
+    for (ClassType supertype : runtimeTypes) {
+      for (ClassType potentialSubtype : classTypes) {
+        if (typeHierarchy.isSubtype(supertype, potentialSubtype)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
@@ -23,9 +23,18 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.callgraph.CallGraph.Call;
@@ -59,8 +68,59 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   @Nonnull protected final View view;
 
+  /** memoizes the dispatch of calls; it can be shared with other algorithms on the same view */
+  @Nonnull protected final DispatchCache dispatchCache;
+
   protected AbstractCallGraphAlgorithm(@Nonnull View view) {
+    this(view, new DispatchCache(view));
+  }
+
+  protected AbstractCallGraphAlgorithm(@Nonnull View view, @Nonnull DispatchCache dispatchCache) {
+    if (dispatchCache.getView() != view) {
+      throw new IllegalArgumentException("The dispatch cache belongs to another view.");
+    }
     this.view = view;
+    this.dispatchCache = dispatchCache;
+  }
+
+  /**
+   * The number of threads that process the work list. With more than one thread, the methods of the
+   * work list are processed by a work-stealing {@link ForkJoinPool}.
+   */
+  private int parallelism = 1;
+
+  /** the type hierarchy of the view when the last call graph was constructed or updated */
+  @Nullable private TypeHierarchy constructedTypeHierarchy;
+
+  /** the entry points of the last constructed call graph, without the found static initializers */
+  @Nullable private List<MethodSignature> constructedEntryPoints;
+
+  /** the running update, its reusable methods keep the calls of the old call graph */
+  @Nullable private CallGraphUpdate runningUpdate;
+
+  /** Returns the cache of the resolved calls, e.g. to inspect its hit rate. */
+  @Nonnull
+  public DispatchCache getDispatchCache() {
+    return dispatchCache;
+  }
+
+  /**
+   * Sets the number of threads that construct the call graph. With one thread, which is the
+   * default, the work list is processed sequentially. Otherwise, the methods of the work list are
+   * processed concurrently and the call graph is a {@link ConcurrentCallGraph} - both modes
+   * construct the same call graph.
+   *
+   * @param parallelism the number of threads, at least one
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be at least 1: " + parallelism);
+    }
+    this.parallelism = parallelism;
+  }
+
+  public int getParallelism() {
+    return parallelism;
   }
 
   /**
@@ -82,6 +142,8 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
     workList.addAll(clinits);
     MutableCallGraph cg = initializeCallGraph(entryPoints, clinits);
+    constructedTypeHierarchy = view.getTypeHierarchy();
+    constructedEntryPoints = new ArrayList<>(entryPoints);
 
     processWorkList(view, workList, processed, cg);
     return cg;
@@ -89,7 +151,8 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   /**
    * This method creates the mutable call graph which is used in the call graph algorithm. Overwrite
-   * it to change the used mutable call graph
+   * it to change the used mutable call graph. If the {@link #getParallelism() parallelism} is
+   * greater than one, the call graph has to be thread-safe.
    *
    * @return the initialized call graph used in the call graph algorithm
    */
@@ -97,6 +160,9 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       List<MethodSignature> entryPoints, List<MethodSignature> clinits) {
     ArrayList<MethodSignature> rootSignatures = new ArrayList<>(entryPoints);
     rootSignatures.addAll(clinits);
+    if (parallelism > 1) {
+      return new ConcurrentCallGraph(rootSignatures);
+    }
     return new GraphBasedCallGraph(rootSignatures);
   }
 
@@ -139,44 +205,214 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       Deque<MethodSignature> workList,
       Set<MethodSignature> processed,
       MutableCallGraph cg) {
+    if (parallelism > 1) {
+      processWorkListInParallel(view, workList, processed, cg);
+      return;
+    }
     while (!workList.isEmpty()) {
       MethodSignature currentMethodSignature = workList.pop();
       // skip if already processed
       if (processed.contains(currentMethodSignature)) {
         continue;
       }
+      processMethod(view, currentMethodSignature, workList, processed, cg);
+    }
+  }
 
-      // skip if library class
-      SootClass currentClass =
-          view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
-      if (currentClass == null || currentClass.isLibraryClass()) {
-        continue;
+  /**
+   * Processes the <code>workList</code> like {@link #processWorkList(View, Deque, Set,
+   * MutableCallGraph)} with a work-stealing pool of {@link #getParallelism()} threads. Each method
+   * is processed by a task with its own work list; the methods found by the task are claimed in a
+   * concurrent set, so that every method is processed once.
+   */
+  private void processWorkListInParallel(
+      View view,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    ParallelWorkList parallelWorkList = new ParallelWorkList(view, processed, cg);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      for (MethodSignature method : workList) {
+        parallelWorkList.submit(method, pool::execute);
+      }
+      workList.clear();
+      parallelWorkList.await();
+    } finally {
+      pool.shutdownNow();
+    }
+    processed.addAll(parallelWorkList.processed);
+
+    Throwable throwable = parallelWorkList.failure.get();
+    if (throwable instanceof RuntimeException) {
+      throw (RuntimeException) throwable;
+    } else if (throwable instanceof Error) {
+      throw (Error) throwable;
+    } else if (throwable != null) {
+      throw new IllegalStateException(throwable);
+    }
+  }
+
+  /**
+   * The state shared by the tasks of a parallel work list. The pending tasks are counted, since the
+   * quiescence of the pool does not tell whether externally submitted tasks were run.
+   */
+  private class ParallelWorkList {
+    @Nonnull private final View view;
+    @Nonnull private final MutableCallGraph cg;
+    @Nonnull private final Set<MethodSignature> claimed = ConcurrentHashMap.newKeySet();
+    @Nonnull private final Set<MethodSignature> processed = ConcurrentHashMap.newKeySet();
+    @Nonnull private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /** the submitting thread holds one count until all initial methods are submitted */
+    @Nonnull private final AtomicInteger pendingTasks = new AtomicInteger(1);
+
+    @Nonnull private final CountDownLatch finished = new CountDownLatch(1);
+
+    private ParallelWorkList(
+        @Nonnull View view,
+        @Nonnull Set<MethodSignature> alreadyProcessed,
+        @Nonnull MutableCallGraph cg) {
+      this.view = view;
+      this.cg = cg;
+      claimed.addAll(alreadyProcessed);
+    }
+
+    /** Submits a task for the method unless the method was claimed before. */
+    private void submit(
+        @Nonnull MethodSignature method, @Nonnull Consumer<ForkJoinTask<?>> scheduler) {
+      if (claimed.add(method)) {
+        pendingTasks.incrementAndGet();
+        scheduler.accept(new MethodTask(this, method));
       }
+    }
 
-      // perform pre-processing if needed
-      preProcessingMethod(view, currentMethodSignature, workList, cg);
+    private void taskFinished() {
+      if (pendingTasks.decrementAndGet() == 0) {
+        finished.countDown();
+      }
+    }
 
-      // process the method
-      if (!cg.containsMethod(currentMethodSignature)) {
-        cg.addMethod(currentMethodSignature);
+    /** Waits until all submitted tasks and the tasks forked by them are finished. */
+    private void await() {
+      taskFinished();
+      try {
+        finished.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure.compareAndSet(null, e);
       }
+    }
+  }
+
+  /** Processes one method of the parallel work list and forks the tasks of the found methods. */
+  private class MethodTask extends RecursiveAction {
+    @Nonnull private final ParallelWorkList parallelWorkList;
+    @Nonnull private final MethodSignature method;
+
+    private MethodTask(
+        @Nonnull ParallelWorkList parallelWorkList, @Nonnull MethodSignature method) {
+      this.parallelWorkList = parallelWorkList;
+      this.method = method;
+    }
+
+    @Override
+    protected void compute() {
+      try {
+        if (parallelWorkList.failure.get() != null) {
+          return;
+        }
+        Deque<MethodSignature> workList = new ArrayDeque<>();
+        processMethod(
+            parallelWorkList.view,
+            method,
+            workList,
+            parallelWorkList.processed,
+            parallelWorkList.cg);
+        for (MethodSignature foundMethod : workList) {
+          parallelWorkList.submit(foundMethod, ForkJoinTask::fork);
+        }
+      } catch (Throwable throwable) {
+        parallelWorkList.failure.compareAndSet(null, throwable);
+      } finally {
+        parallelWorkList.taskFinished();
+      }
+    }
+  }
+
+  /**
+   * Adds the call edges of a single method of the work list to the call graph. Methods of library
+   * classes and of classes that are not contained in the view are skipped.
+   */
+  private void processMethod(
+      View view,
+      MethodSignature currentMethodSignature,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    // skip if library class
+    SootClass currentClass = view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
+    if (currentClass == null || currentClass.isLibraryClass()) {
+      return;
+    }
 
-      // transform the method signature to the actual SootMethod
-      SootMethod currentMethod =
-          currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+    // perform pre-processing if needed
+    preProcessingMethod(view, currentMethodSignature, workList, cg);
 
+    // process the method
+    if (!cg.containsMethod(currentMethodSignature)) {
+      cg.addMethod(currentMethodSignature);
+    }
+
+    // transform the method signature to the actual SootMethod
+    SootMethod currentMethod =
+        currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+
+    CallGraphUpdate update = runningUpdate;
+    if (update != null && update.isReusable(currentMethodSignature)) {
+      // keep the calls of the old call graph
+      for (Call call : update.getOldCallGraph().callsFrom(currentMethodSignature)) {
+        addCallToCG(
+            currentMethodSignature,
+            call.getTargetMethodSignature(),
+            call.getInvokableStmt(),
+            cg,
+            workList);
+      }
+    } else {
       // get all call targets of invocations in the method body
       resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
 
       // get all call targets of implicit edges in the method body
       resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
+    }
 
-      // set method as processed
-      processed.add(currentMethodSignature);
+    // set method as processed
+    processed.add(currentMethodSignature);
 
-      // perform post-processing if needed
-      postProcessingMethod(view, currentMethodSignature, workList, cg);
+    // perform post-processing if needed
+    postProcessingMethod(view, currentMethodSignature, workList, cg);
+  }
+
+  /**
+   * Resolves the calls of a single method like the construction of the call graph, i.e. its
+   * invocations and implicit calls, without processing the methods it calls. Methods of library
+   * classes and of classes that are not contained in the view have no calls.
+   */
+  @Nonnull
+  Set<Call> resolveCallsFrom(@Nonnull MethodSignature methodSignature) {
+    SootClass sootClass = view.getClass(methodSignature.getDeclClassType()).orElse(null);
+    if (sootClass == null || sootClass.isLibraryClass()) {
+      return Collections.emptySet();
     }
+    SootMethod method = sootClass.getMethod(methodSignature.getSubSignature()).orElse(null);
+    MutableCallGraph calls = new CompactCallGraph(Collections.emptyList());
+    Deque<MethodSignature> workList = new ArrayDeque<>();
+    resolveAllCallsFromSourceMethod(method, calls, workList);
+    resolveAllImplicitCallsFromSourceMethod(method, calls, workList);
+    return calls.containsMethod(methodSignature)
+        ? calls.callsFrom(methodSignature)
+        : Collections.emptySet();
   }
 
   /**
@@ -392,7 +628,10 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       return oldCallGraph;
     }
 
-    MutableCallGraph updated = oldCallGraph.copy();
+    MutableCallGraph updated =
+        parallelism > 1 ? new ConcurrentCallGraph(oldCallGraph) : oldCallGraph.copy();
+    // the new class adds targets to the calls of its supertypes
+    dispatchCache.clear();
 
     // Step 1: Add edges from the new methods to other methods
     Deque<MethodSignature> workList = new ArrayDeque<>(newMethodSignatures);
@@ -437,6 +676,106 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     return updated;
   }
 
+  @Nonnull
+  @Override
+  public CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses) {
+    Set<ClassType> modifiedClasses = new HashSet<>(addedClasses);
+    modifiedClasses.addAll(changedClasses);
+    modifiedClasses.addAll(removedClasses);
+    if (modifiedClasses.isEmpty()) {
+      return oldCallGraph;
+    }
+
+    // without the hierarchy of the old call graph, the supertypes are assumed to be unchanged
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    CallGraphUpdate update =
+        new CallGraphUpdate(
+            view,
+            oldCallGraph,
+            modifiedClasses,
+            constructedTypeHierarchy == null ? typeHierarchy : constructedTypeHierarchy,
+            typeHierarchy);
+    Set<ClassType> relatedClasses = update.relatedClasses(modifiedClasses);
+    dispatchCache.invalidate(relatedClasses);
+
+    // the methods of modified classes and the calls to related classes are resolved again
+    update.invalidate(
+        oldCallGraph.getMethodSignatures().stream()
+            .filter(method -> modifiedClasses.contains(method.getDeclClassType()))
+            .collect(Collectors.toList()));
+    update.invalidate(update.methodsReferencing(relatedClasses));
+
+    // the static initializers of the entry points are found again, they may have been removed
+    List<MethodSignature> entryPoints = entryPointsOf(oldCallGraph);
+    List<MethodSignature> clinits = getClinitFromEntryPoints(entryPoints);
+    runningUpdate = update;
+    try {
+      MutableCallGraph updated;
+      do {
+        updated = reconstructCallGraph(update, entryPoints, clinits);
+      } while (update.invalidate(invalidatedByUpdate(update, updated)));
+      constructedTypeHierarchy = typeHierarchy;
+      return updated;
+    } finally {
+      runningUpdate = null;
+    }
+  }
+
+  /**
+   * Returns the entry points the old call graph was constructed with. If it was not constructed by
+   * this algorithm, its entry methods without the static initializers are returned.
+   */
+  @Nonnull
+  List<MethodSignature> entryPointsOf(@Nonnull CallGraph oldCallGraph) {
+    if (constructedEntryPoints != null
+        && oldCallGraph.getEntryMethods().containsAll(constructedEntryPoints)) {
+      return constructedEntryPoints;
+    }
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    return oldCallGraph.getEntryMethods().stream()
+        .filter(
+            method -> !identifierFactory.isStaticInitializerSubSignature(method.getSubSignature()))
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Constructs the call graph of an update from the entry points and their static initializers.
+   * The reusable methods of the update keep their calls of the old call graph, the dirty and new
+   * methods are resolved. Methods that are not reachable anymore are not contained in the returned
+   * call graph.
+   */
+  @Nonnull
+  protected MutableCallGraph reconstructCallGraph(
+      @Nonnull CallGraphUpdate update,
+      @Nonnull List<MethodSignature> entryPoints,
+      @Nonnull List<MethodSignature> clinits) {
+    Deque<MethodSignature> workList = new ArrayDeque<>(entryPoints);
+    workList.addAll(clinits);
+    MutableCallGraph cg = initializeCallGraph(entryPoints, clinits);
+    processWorkList(view, workList, new HashSet<>(), cg);
+    return cg;
+  }
+
+  /**
+   * Returns further methods whose calls of the old call graph became invalid in the reconstructed
+   * call graph. If there are new ones, the call graph is reconstructed again with these methods
+   * marked as dirty. The calls of the call graph algorithms that only depend on the type hierarchy
+   * and the method bodies stay valid.
+   *
+   * @param update the running update
+   * @param reconstructed the call graph reconstructed with the current dirty methods
+   */
+  @Nonnull
+  protected Set<MethodSignature> invalidatedByUpdate(
+      @Nonnull CallGraphUpdate update, @Nonnull CallGraph reconstructed) {
+    return Collections.emptySet();
+  }
+
   /**
    * The method iterates over all classes present in view, and finds method with name main and
    * SourceType - Application. This method is used by initialize() method used for creating call
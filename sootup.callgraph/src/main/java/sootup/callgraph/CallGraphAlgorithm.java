@@ -22,6 +22,7 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nonnull;
 import sootup.core.signatures.MethodSignature;
@@ -60,4 +61,23 @@ public interface CallGraphAlgorithm {
    */
   @Nonnull
   CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType);
+
+  /**
+   * Updates a call graph after classes of the view were added, changed or removed, e.g. in a
+   * mutable view. The calls of the methods that are affected by the modified classes are resolved
+   * again, the calls of all other methods are taken from the old call graph. The updated call graph
+   * equals the call graph that is constructed from scratch with the same entry points.
+   *
+   * @param oldCallGraph the call graph of the classes before the modification. It is not modified.
+   * @param addedClasses the classes that were added to the view
+   * @param changedClasses the classes whose methods or supertypes changed
+   * @param removedClasses the classes that were removed from the view
+   * @return the updated call graph
+   */
+  @Nonnull
+  CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses);
 }
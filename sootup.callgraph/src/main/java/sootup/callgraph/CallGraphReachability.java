@@ -0,0 +1,288 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * An index of the transitive closure of a call graph, which answers whether a method is reachable
+ * from another one without traversing the call graph.
+ *
+ * <p>The strongly connected components of the call graph, e.g. recursive methods, are collapsed
+ * and numbered in the post-order of a depth first search. The methods that are reachable from a
+ * component are stored as a sorted list of intervals of component numbers: every component covers
+ * the interval of its search tree and adds the intervals of its successors, which are merged where
+ * they overlap. A query is a binary search in the intervals of the source method.
+ *
+ * <p>The index is a snapshot of the call graph: it is not updated when a mutable call graph is
+ * modified afterwards. It can be shared between threads.
+ */
+public final class CallGraphReachability {
+
+  @Nonnull private final IndexedCallGraph callGraph;
+
+  /** the component of each method */
+  @Nonnull private final int[] components;
+
+  private final int componentCount;
+
+  /** the intervals of component i are stored from intervals[intervalOffsets[i]] in pairs */
+  @Nonnull private final int[] intervalOffsets;
+
+  /** the first and the last component of each interval */
+  @Nonnull private final int[] intervals;
+
+  /** Builds the index of the given call graph. */
+  public CallGraphReachability(@Nonnull CallGraph callGraph) {
+    this.callGraph =
+        callGraph instanceof FrozenCallGraph || callGraph instanceof MappedCallGraph
+            ? (IndexedCallGraph) callGraph
+            : new FrozenCallGraph(callGraph);
+    IndexedCallGraph graph = this.callGraph;
+    int methodCount = graph.getMethodCount();
+
+    // the target methods of each method
+    int[] offsets = new int[methodCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      int targetCount = 0;
+      for (int i = 0; i < graph.getCallSiteCountOf(method); i++) {
+        targetCount += graph.getTargetCount(graph.getCallSite(method, i));
+      }
+      offsets[method + 1] = offsets[method] + targetCount;
+    }
+    int[] successors = new int[offsets[methodCount]];
+    for (int method = 0, position = 0; method < methodCount; method++) {
+      for (int i = 0; i < graph.getCallSiteCountOf(method); i++) {
+        int callSite = graph.getCallSite(method, i);
+        for (int j = 0; j < graph.getTargetCount(callSite); j++) {
+          successors[position++] = graph.getTarget(callSite, j);
+        }
+      }
+    }
+
+    components = new int[methodCount];
+    int[] firstComponents = new int[methodCount];
+    componentCount =
+        StronglyConnectedComponents.find(offsets, successors, components, firstComponents);
+
+    // the methods of each component
+    int[] memberOffsets = new int[componentCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      memberOffsets[components[method] + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      memberOffsets[component + 1] += memberOffsets[component];
+    }
+    int[] members = new int[methodCount];
+    int[] positions = Arrays.copyOf(memberOffsets, componentCount);
+    for (int method = 0; method < methodCount; method++) {
+      members[positions[components[method]]++] = method;
+    }
+
+    // the successors of a component have smaller numbers, so their intervals are complete
+    intervalOffsets = new int[componentCount + 1];
+    int[] allIntervals = new int[Math.max(16, componentCount * 2)];
+    int intervalCount = 0;
+    long[] collected = new long[16];
+    for (int component = 0; component < componentCount; component++) {
+      int first = firstComponents[component];
+      int collectedCount = 0;
+      collected[collectedCount++] = interval(first, component);
+      for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+        int method = members[i];
+        for (int j = offsets[method]; j < offsets[method + 1]; j++) {
+          int successor = components[successors[j]];
+          int from = intervalOffsets[successor];
+          int to = intervalOffsets[successor + 1];
+          if (to - from == 2 && allIntervals[from] >= first) {
+            // covered by the interval of the search tree
+            continue;
+          }
+          if (collectedCount + (to - from) / 2 > collected.length) {
+            int length = Math.max(collected.length * 2, collectedCount + to - from);
+            collected = Arrays.copyOf(collected, length);
+          }
+          for (int k = from; k < to; k += 2) {
+            collected[collectedCount++] = interval(allIntervals[k], allIntervals[k + 1]);
+          }
+        }
+      }
+
+      Arrays.sort(collected, 0, collectedCount);
+      intervalOffsets[component] = intervalCount;
+      int start = -1;
+      int end = -2;
+      for (int i = 0; i < collectedCount; i++) {
+        int nextStart = (int) (collected[i] >>> 32);
+        int nextEnd = (int) collected[i];
+        if (nextStart > end + 1) {
+          if (start >= 0) {
+            allIntervals = append(allIntervals, intervalCount, start, end);
+            intervalCount += 2;
+          }
+          start = nextStart;
+          end = nextEnd;
+        } else {
+          end = Math.max(end, nextEnd);
+        }
+      }
+      allIntervals = append(allIntervals, intervalCount, start, end);
+      intervalCount += 2;
+      intervalOffsets[component + 1] = intervalCount;
+    }
+    intervals = Arrays.copyOf(allIntervals, intervalCount);
+  }
+
+  private static long interval(int start, int end) {
+    return ((long) start << 32) | end;
+  }
+
+  @Nonnull
+  private static int[] append(@Nonnull int[] intervals, int count, int start, int end) {
+    if (count + 2 > intervals.length) {
+      intervals = Arrays.copyOf(intervals, intervals.length * 2);
+    }
+    intervals[count] = start;
+    intervals[count + 1] = end;
+    return intervals;
+  }
+
+  /** Returns the number of strongly connected components of the call graph. */
+  public int getComponentCount() {
+    return componentCount;
+  }
+
+  /** Returns the number of intervals that are stored for all components. */
+  public int getIntervalCount() {
+    return intervals.length / 2;
+  }
+
+  /**
+   * Returns whether the target method is reachable from the source method via calls. Every method
+   * of the call graph is reachable from itself. Returns false if one of the methods is not
+   * contained in the call graph.
+   */
+  public boolean isReachable(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    int source = callGraph.getMethodId(sourceMethod);
+    int target = callGraph.getMethodId(targetMethod);
+    if (source < 0 || target < 0) {
+      return false;
+    }
+    return isReachable(components[source], components[target]);
+  }
+
+  private boolean isReachable(int sourceComponent, int targetComponent) {
+    // the last interval that starts before the target
+    int first = intervalOffsets[sourceComponent] / 2;
+    int low = first;
+    int high = intervalOffsets[sourceComponent + 1] / 2 - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (intervals[middle * 2] <= targetComponent) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return high >= first && intervals[high * 2 + 1] >= targetComponent;
+  }
+
+  /**
+   * Returns the methods that are reachable from one of the given methods, including the given
+   * methods themselves.
+   *
+   * @throws IllegalArgumentException if one of the methods is not contained in the call graph
+   */
+  @Nonnull
+  public Set<MethodSignature> reachableMethods(@Nonnull Collection<MethodSignature> methods) {
+    BitSet reachableComponents = new BitSet(componentCount);
+    for (MethodSignature method : methods) {
+      int component = components[callGraph.methodIdOf(method)];
+      for (int i = intervalOffsets[component]; i < intervalOffsets[component + 1]; i += 2) {
+        reachableComponents.set(intervals[i], intervals[i + 1] + 1);
+      }
+    }
+    Set<MethodSignature> reachable = new HashSet<>();
+    for (int method = 0; method < components.length; method++) {
+      if (reachableComponents.get(components[method])) {
+        reachable.add(callGraph.getMethodSignature(method));
+      }
+    }
+    return reachable;
+  }
+
+  /**
+   * Returns the methods that call one of the given methods via at most the given number of calls,
+   * e.g. the direct callers for one hop. A given method is contained if it calls another one or
+   * itself within the hops.
+   *
+   * @throws IllegalArgumentException if one of the methods is not contained in the call graph
+   */
+  @Nonnull
+  public Set<MethodSignature> callersWithin(
+      @Nonnull Collection<MethodSignature> methods, int hops) {
+    int methodCount = callGraph.getMethodCount();
+    BitSet visited = new BitSet(methodCount);
+    BitSet callers = new BitSet(methodCount);
+    int[] frontier = new int[methodCount];
+    int frontierSize = 0;
+    for (MethodSignature method : methods) {
+      int methodId = callGraph.methodIdOf(method);
+      if (!visited.get(methodId)) {
+        visited.set(methodId);
+        frontier[frontierSize++] = methodId;
+      }
+    }
+
+    // the methods of a hop are appended behind the methods of the previous hop
+    int hopStart = 0;
+    for (int hop = 0; hop < hops && hopStart < frontierSize; hop++) {
+      int hopEnd = frontierSize;
+      for (int i = hopStart; i < hopEnd; i++) {
+        int method = frontier[i];
+        for (int j = 0; j < callGraph.getIncomingCallSiteCount(method); j++) {
+          int caller = callGraph.getCallSiteSource(callGraph.getIncomingCallSite(method, j));
+          callers.set(caller);
+          if (!visited.get(caller)) {
+            visited.set(caller);
+            frontier[frontierSize++] = caller;
+          }
+        }
+      }
+      hopStart = hopEnd;
+    }
+
+    Set<MethodSignature> result = new HashSet<>();
+    for (int method = callers.nextSetBit(0); method >= 0; method = callers.nextSetBit(method + 1)) {
+      result.add(callGraph.getMethodSignature(method));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,212 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.ref.JStaticFieldRef;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * The state of an update of a call graph by {@link
+ * CallGraphAlgorithm#updateClasses(CallGraph, Collection, Collection, Collection)}. The methods of
+ * the old call graph are either dirty, i.e. their calls are resolved again, or they keep their
+ * calls of the old call graph.
+ */
+public class CallGraphUpdate {
+
+  @Nonnull private final View view;
+  @Nonnull private final CallGraph oldCallGraph;
+  @Nonnull private final Set<ClassType> modifiedClasses;
+
+  /** the type hierarchy of the classes the old call graph was constructed with */
+  @Nonnull private final TypeHierarchy previousTypeHierarchy;
+
+  @Nonnull private final TypeHierarchy typeHierarchy;
+
+  @Nonnull private final Set<MethodSignature> dirtyMethods = new HashSet<>();
+
+  /** the classes that are called, accessed statically or instantiated by each method */
+  @Nonnull private final Map<MethodSignature, Set<ClassType>> referencedClasses = new HashMap<>();
+
+  CallGraphUpdate(
+      @Nonnull View view,
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Set<ClassType> modifiedClasses,
+      @Nonnull TypeHierarchy previousTypeHierarchy,
+      @Nonnull TypeHierarchy typeHierarchy) {
+    this.view = view;
+    this.oldCallGraph = oldCallGraph;
+    this.modifiedClasses = modifiedClasses;
+    this.previousTypeHierarchy = previousTypeHierarchy;
+    this.typeHierarchy = typeHierarchy;
+  }
+
+  @Nonnull
+  public CallGraph getOldCallGraph() {
+    return oldCallGraph;
+  }
+
+  /** Returns the added, changed and removed classes. */
+  @Nonnull
+  public Set<ClassType> getModifiedClasses() {
+    return Collections.unmodifiableSet(modifiedClasses);
+  }
+
+  /** Returns the methods of the old call graph whose calls are resolved again. */
+  @Nonnull
+  public Set<MethodSignature> getDirtyMethods() {
+    return Collections.unmodifiableSet(dirtyMethods);
+  }
+
+  /** Returns whether the method keeps its calls of the old call graph. */
+  public boolean isReusable(@Nonnull MethodSignature method) {
+    return !dirtyMethods.contains(method) && oldCallGraph.containsMethod(method);
+  }
+
+  /**
+   * Marks the methods as dirty.
+   *
+   * @return whether a method was not dirty before
+   */
+  boolean invalidate(@Nonnull Collection<MethodSignature> methods) {
+    return dirtyMethods.addAll(methods);
+  }
+
+  /**
+   * Returns the given classes with their supertypes and subtypes before and after the update, i.e.
+   * the declared classes of all calls whose targets may differ.
+   */
+  @Nonnull
+  public Set<ClassType> relatedClasses(@Nonnull Collection<ClassType> classTypes) {
+    Set<ClassType> relatedClasses = new HashSet<>(classTypes);
+    for (ClassType classType : classTypes) {
+      addRelatedClasses(previousTypeHierarchy, classType, relatedClasses);
+      if (typeHierarchy != previousTypeHierarchy) {
+        addRelatedClasses(typeHierarchy, classType, relatedClasses);
+      }
+    }
+    return relatedClasses;
+  }
+
+  /**
+   * Returns the given classes with their supertypes before and after the update, i.e. the declared
+   * classes of all calls that may dispatch to one of the given classes.
+   */
+  @Nonnull
+  public Set<ClassType> supertypesOf(@Nonnull Collection<ClassType> classTypes) {
+    Set<ClassType> supertypes = new HashSet<>(classTypes);
+    for (ClassType classType : classTypes) {
+      addSupertypes(previousTypeHierarchy, classType, supertypes);
+      if (typeHierarchy != previousTypeHierarchy) {
+        addSupertypes(typeHierarchy, classType, supertypes);
+      }
+    }
+    return supertypes;
+  }
+
+  private static void addRelatedClasses(
+      @Nonnull TypeHierarchy typeHierarchy,
+      @Nonnull ClassType classType,
+      @Nonnull Set<ClassType> relatedClasses) {
+    if (!typeHierarchy.contains(classType)) {
+      return;
+    }
+    addSupertypes(typeHierarchy, classType, relatedClasses);
+    typeHierarchy.subtypesOf(classType).forEach(relatedClasses::add);
+  }
+
+  private static void addSupertypes(
+      @Nonnull TypeHierarchy typeHierarchy,
+      @Nonnull ClassType classType,
+      @Nonnull Set<ClassType> supertypes) {
+    if (!typeHierarchy.contains(classType)) {
+      return;
+    }
+    typeHierarchy.superClassesOf(classType).forEach(supertypes::add);
+    typeHierarchy.implementedInterfacesOf(classType).forEach(supertypes::add);
+  }
+
+  /**
+   * Returns the methods of the old call graph that call a method of, access a static field of or
+   * instantiate one of the given classes. Methods of modified classes are not inspected, since they
+   * are dirty anyway.
+   */
+  @Nonnull
+  public Set<MethodSignature> methodsReferencing(@Nonnull Set<ClassType> classTypes) {
+    return oldCallGraph.getMethodSignatures().stream()
+        .filter(method -> !modifiedClasses.contains(method.getDeclClassType()))
+        .filter(
+            method ->
+                referencedClasses.computeIfAbsent(method, this::collectReferencedClasses).stream()
+                    .anyMatch(classTypes::contains))
+        .collect(Collectors.toSet());
+  }
+
+  @Nonnull
+  private Set<ClassType> collectReferencedClasses(@Nonnull MethodSignature methodSignature) {
+    SootMethod method = view.getMethod(methodSignature).orElse(null);
+    if (method == null || !method.hasBody()) {
+      return Collections.emptySet();
+    }
+    Set<ClassType> classTypes = new HashSet<>();
+    InstantiateClassValueVisitor instantiateVisitor = new InstantiateClassValueVisitor();
+    for (Stmt stmt : method.getBody().getStmts()) {
+      if (!stmt.isInvokableStmt()) {
+        continue;
+      }
+      InvokableStmt invokableStmt = stmt.asInvokableStmt();
+      invokableStmt
+          .getInvokeExpr()
+          .map(AbstractInvokeExpr::getMethodSignature)
+          .ifPresent(signature -> classTypes.add(signature.getDeclClassType()));
+      if (invokableStmt.containsFieldRef()
+          && invokableStmt.getFieldRef() instanceof JStaticFieldRef) {
+        classTypes.add(invokableStmt.getFieldRef().getFieldSignature().getDeclClassType());
+      }
+      if (invokableStmt instanceof JAssignStmt) {
+        instantiateVisitor.init();
+        ((JAssignStmt) invokableStmt).getRightOp().accept(instantiateVisitor);
+        ClassType instantiatedClass = instantiateVisitor.getResult();
+        if (instantiatedClass != null) {
+          classTypes.add(instantiatedClass);
+        }
+      }
+    }
+    return classTypes;
+  }
+}
@@ -0,0 +1,467 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.IgnoreLocalNameComparator;
+import sootup.core.jimple.basic.JimpleComparator;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Position;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * Writes a {@link CallGraph} in a compact binary format, which is loaded by {@link
+ * MappedCallGraph}. The names of the classes, methods and types are stored once, the signatures
+ * refer to them by their ids. The stmt of a call site is stored as its position in the Body of
+ * the source method, so a call graph has to be loaded with a view of the same input and the same
+ * BodyInterceptors. For the same reason the call graph can be written after the Bodies were
+ * released or collected: the call sites are matched with the equivalent stmts at the same source
+ * positions of the Bodies that are resolved again, see {@link StmtPositions}.
+ *
+ * <p>File layout, all numbers are big-endian ints:
+ *
+ * <ol>
+ *   <li>magic, version and the sizes of the following sections
+ *   <li>the name table: the offsets of the names and their UTF-8 bytes, padded to whole ints
+ *   <li>the signature table: the offsets of the signatures and for each signature the ids of the
+ *       declaring class, the name, the return type and the parameter types. The methods of the
+ *       call graph come first, followed by the entry methods that are not contained in it.
+ *   <li>the signature ids of the entry methods
+ *   <li>the call sites, the targets and the incoming call sites of the methods in compressed
+ *       sparse rows like in the {@link FrozenCallGraph}: offsets and values for each of them
+ * </ol>
+ *
+ * <p>The call graph is written method by method, the writer only keeps the name and the signature
+ * table and a renumbering of the call sites in memory.
+ */
+public final class CallGraphWriter {
+
+  static final int MAGIC = 0x53554347;
+
+  /** needs to be increased whenever the format changes */
+  static final int VERSION = 1;
+
+  private CallGraphWriter() {}
+
+  /**
+   * Writes the call graph to the file.
+   *
+   * @param view the view the call graph was constructed in, it provides the Bodies of the methods
+   * @throws IllegalArgumentException if a method with calls has no Body in the view
+   */
+  public static void write(@Nonnull CallGraph callGraph, @Nonnull View view, @Nonnull Path file)
+      throws IOException {
+    try (OutputStream outputStream = Files.newOutputStream(file)) {
+      write(callGraph, view, outputStream);
+    }
+  }
+
+  /**
+   * Writes the call graph to the stream, which is not closed.
+   *
+   * @param view the view the call graph was constructed in, it provides the Bodies of the methods
+   * @throws IllegalArgumentException if a method with calls has no Body in the view
+   */
+  public static void write(
+      @Nonnull CallGraph callGraph, @Nonnull View view, @Nonnull OutputStream outputStream)
+      throws IOException {
+    IndexedCallGraph indexed =
+        callGraph instanceof IndexedCallGraph
+            ? (IndexedCallGraph) callGraph
+            : new CompactCallGraph(callGraph);
+    int methodCount = indexed.getMethodCount();
+    int callSiteCount = indexed.getCallSiteCount();
+
+    // the signatures of the methods keep their ids, the other entry methods are appended
+    Map<MethodSignature, Integer> signatureIds = new HashMap<>();
+    List<MethodSignature> signatures = new ArrayList<>();
+    for (int method = 0; method < methodCount; method++) {
+      MethodSignature signature = indexed.getMethodSignature(method);
+      signatureIds.put(signature, method);
+      signatures.add(signature);
+    }
+    int[] entryMethods = new int[indexed.getEntryMethods().size()];
+    for (int i = 0; i < entryMethods.length; i++) {
+      MethodSignature entryMethod = indexed.getEntryMethods().get(i);
+      Integer id = signatureIds.get(entryMethod);
+      if (id == null) {
+        id = signatures.size();
+        signatureIds.put(entryMethod, id);
+        signatures.add(entryMethod);
+      }
+      entryMethods[i] = id;
+    }
+
+    NameTable names = new NameTable();
+    int[] signatureOffsets = new int[signatures.size() + 1];
+    int[] signatureInts = new int[0];
+    int size = 0;
+    for (int i = 0; i < signatures.size(); i++) {
+      MethodSignature signature = signatures.get(i);
+      List<Type> parameterTypes = signature.getParameterTypes();
+      int length = 3 + parameterTypes.size();
+      if (size + length > signatureInts.length) {
+        signatureInts = Arrays.copyOf(signatureInts, Math.max(2 * signatureInts.length, 1024));
+      }
+      signatureOffsets[i] = size;
+      signatureInts[size++] = names.idOf(signature.getDeclClassType().getFullyQualifiedName());
+      signatureInts[size++] = names.idOf(signature.getName());
+      signatureInts[size++] = names.idOf(signature.getType().toString());
+      for (Type parameterType : parameterTypes) {
+        signatureInts[size++] = names.idOf(parameterType.toString());
+      }
+    }
+    signatureOffsets[signatures.size()] = size;
+
+    // the call sites are renumbered, so that the call sites of a method have consecutive ids
+    int[] newCallSites = new int[callSiteCount];
+    int targetCount = 0;
+    int callSite = 0;
+    for (int method = 0; method < methodCount; method++) {
+      for (int i = 0; i < indexed.getCallSiteCountOf(method); i++) {
+        int oldCallSite = indexed.getCallSite(method, i);
+        newCallSites[oldCallSite] = callSite++;
+        targetCount += indexed.getTargetCount(oldCallSite);
+      }
+    }
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(names.size());
+    out.writeInt(names.byteCount);
+    out.writeInt(signatures.size());
+    out.writeInt(size);
+    out.writeInt(methodCount);
+    out.writeInt(entryMethods.length);
+    out.writeInt(callSiteCount);
+    out.writeInt(targetCount);
+
+    names.write(out);
+    writeInts(out, signatureOffsets, signatureOffsets.length);
+    writeInts(out, signatureInts, size);
+    writeInts(out, entryMethods, entryMethods.length);
+
+    // call sites
+    int offset = 0;
+    for (int method = 0; method < methodCount; method++) {
+      out.writeInt(offset);
+      offset += indexed.getCallSiteCountOf(method);
+    }
+    out.writeInt(offset);
+    for (int method = 0; method < methodCount; method++) {
+      for (int i = 0; i < indexed.getCallSiteCountOf(method); i++) {
+        out.writeInt(method);
+      }
+    }
+    for (int method = 0; method < methodCount; method++) {
+      int callSites = indexed.getCallSiteCountOf(method);
+      if (callSites == 0) {
+        continue;
+      }
+      StmtPositions positions = new StmtPositions(view, indexed.getMethodSignature(method));
+      writeInts(out, positions.positionsOf(indexed, method), callSites);
+    }
+
+    // targets
+    offset = 0;
+    for (int method = 0; method < methodCount; method++) {
+      for (int i = 0; i < indexed.getCallSiteCountOf(method); i++) {
+        out.writeInt(offset);
+        offset += indexed.getTargetCount(indexed.getCallSite(method, i));
+      }
+    }
+    out.writeInt(offset);
+    int[] ids = new int[0];
+    for (int method = 0; method < methodCount; method++) {
+      for (int i = 0; i < indexed.getCallSiteCountOf(method); i++) {
+        int oldCallSite = indexed.getCallSite(method, i);
+        int targets = indexed.getTargetCount(oldCallSite);
+        ids = ids.length < targets ? new int[targets] : ids;
+        for (int j = 0; j < targets; j++) {
+          ids[j] = indexed.getTarget(oldCallSite, j);
+        }
+        Arrays.sort(ids, 0, targets);
+        writeInts(out, ids, targets);
+      }
+    }
+
+    // incoming call sites
+    offset = 0;
+    for (int method = 0; method < methodCount; method++) {
+      out.writeInt(offset);
+      offset += indexed.getIncomingCallSiteCount(method);
+    }
+    out.writeInt(offset);
+    for (int method = 0; method < methodCount; method++) {
+      int incoming = indexed.getIncomingCallSiteCount(method);
+      ids = ids.length < incoming ? new int[incoming] : ids;
+      for (int i = 0; i < incoming; i++) {
+        ids[i] = newCallSites[indexed.getIncomingCallSite(method, i)];
+      }
+      Arrays.sort(ids, 0, incoming);
+      writeInts(out, ids, incoming);
+    }
+    out.flush();
+  }
+
+  /**
+   * The positions of the stmts in the Body of a method. A call site stmt is looked up by identity
+   * first; if the Body was resolved again since the call graph was constructed (e.g. after it was
+   * released), the stmt is matched with an equivalent stmt of the current Body at the same source
+   * position instead. The names of generated Locals can differ between two resolutions of a Body,
+   * so they are ignored. Equivalent call sites at the same position are only assigned in the order
+   * of the Body if they are interchangeable, i.e. they have the same targets and there are as many
+   * of them as equivalent stmts - otherwise the call site of a stmt is ambiguous.
+   */
+  private static class StmtPositions {
+    @Nonnull private static final JimpleComparator COMPARATOR = new IgnoreLocalNameComparator();
+
+    @Nonnull private final MethodSignature method;
+    @Nonnull private final List<Stmt> stmts;
+    @Nonnull private final Map<Stmt, Integer> positions;
+
+    StmtPositions(@Nonnull View view, @Nonnull MethodSignature method) {
+      this.method = method;
+      SootMethod sootMethod =
+          view.getMethod(method)
+              .filter(SootMethod::hasBody)
+              .orElseThrow(
+                  () -> new IllegalArgumentException("The method " + method + " has no Body."));
+      stmts = sootMethod.getBody().getStmts();
+      positions = new IdentityHashMap<>(stmts.size());
+      for (int i = 0; i < stmts.size(); i++) {
+        positions.put(stmts.get(i), i);
+      }
+    }
+
+    /**
+     * Returns the positions of the call sites of the method in their order.
+     *
+     * @throws IllegalArgumentException if a call site is not contained in the Body or can not be
+     *     matched unambiguously
+     */
+    @Nonnull
+    int[] positionsOf(@Nonnull IndexedCallGraph indexed, int methodId) {
+      int callSiteCount = indexed.getCallSiteCountOf(methodId);
+      int[] callSitePositions = new int[callSiteCount];
+      boolean[] assigned = new boolean[stmts.size()];
+      // the call sites that are not contained in the Body by identity, by their match key
+      Map<Object, List<Integer>> unassignedCallSites = new LinkedHashMap<>();
+      for (int i = 0; i < callSiteCount; i++) {
+        InvokableStmt callSiteStmt = indexed.getCallSiteStmt(indexed.getCallSite(methodId, i));
+        Integer position = positions.get(callSiteStmt);
+        if (position != null) {
+          callSitePositions[i] = position;
+          assigned[position] = true;
+        } else {
+          unassignedCallSites
+              .computeIfAbsent(matchKey(callSiteStmt), key -> new ArrayList<>())
+              .add(i);
+        }
+      }
+      if (unassignedCallSites.isEmpty()) {
+        return callSitePositions;
+      }
+
+      Map<Object, List<Integer>> unassignedPositions = new HashMap<>();
+      for (int i = 0; i < stmts.size(); i++) {
+        Stmt stmt = stmts.get(i);
+        if (!assigned[i] && stmt instanceof InvokableStmt) {
+          Object key = matchKey((InvokableStmt) stmt);
+          if (unassignedCallSites.containsKey(key)) {
+            unassignedPositions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+          }
+        }
+      }
+      for (Map.Entry<Object, List<Integer>> entry : unassignedCallSites.entrySet()) {
+        List<Integer> callSites = entry.getValue();
+        List<Integer> candidates =
+            unassignedPositions.getOrDefault(entry.getKey(), Collections.emptyList());
+        while (!callSites.isEmpty()) {
+          InvokableStmt callSiteStmt =
+              indexed.getCallSiteStmt(indexed.getCallSite(methodId, callSites.get(0)));
+          List<Integer> equivalentCallSites =
+              removeEquivalent(callSites, callSiteStmt, indexed, methodId);
+          List<Integer> equivalentPositions = new ArrayList<>();
+          for (Iterator<Integer> iterator = candidates.iterator(); iterator.hasNext(); ) {
+            int candidate = iterator.next();
+            if (callSiteStmt.equivTo(stmts.get(candidate), COMPARATOR)) {
+              iterator.remove();
+              equivalentPositions.add(candidate);
+            }
+          }
+          if (equivalentPositions.size() < equivalentCallSites.size()) {
+            throw new IllegalArgumentException(
+                "The stmt " + callSiteStmt + " is not contained in the Body of " + method);
+          }
+          if (equivalentPositions.size() > 1
+              && (equivalentPositions.size() != equivalentCallSites.size()
+                  || !haveSameTargets(indexed, methodId, equivalentCallSites))) {
+            throw new IllegalArgumentException(
+                "The stmt "
+                    + callSiteStmt
+                    + " matches "
+                    + equivalentPositions.size()
+                    + " stmts of the Body of "
+                    + method
+                    + " with other calls, write the call graph before its Bodies are released.");
+          }
+          for (int i = 0; i < equivalentCallSites.size(); i++) {
+            callSitePositions[equivalentCallSites.get(i)] = equivalentPositions.get(i);
+          }
+        }
+      }
+      return callSitePositions;
+    }
+
+    /**
+     * Removes the call sites, given by their ordinal in the method, that are equivalent to the stmt
+     * from the list and returns them.
+     */
+    @Nonnull
+    private static List<Integer> removeEquivalent(
+        @Nonnull List<Integer> callSites,
+        @Nonnull InvokableStmt stmt,
+        @Nonnull IndexedCallGraph indexed,
+        int methodId) {
+      List<Integer> equivalent = new ArrayList<>();
+      for (Iterator<Integer> iterator = callSites.iterator(); iterator.hasNext(); ) {
+        int ordinal = iterator.next();
+        if (stmt.equivTo(
+            indexed.getCallSiteStmt(indexed.getCallSite(methodId, ordinal)), COMPARATOR)) {
+          iterator.remove();
+          equivalent.add(ordinal);
+        }
+      }
+      return equivalent;
+    }
+
+    private static boolean haveSameTargets(
+        @Nonnull IndexedCallGraph indexed, int methodId, @Nonnull List<Integer> callSites) {
+      int[] targets = targetsOf(indexed, indexed.getCallSite(methodId, callSites.get(0)));
+      for (int i = 1; i < callSites.size(); i++) {
+        if (!Arrays.equals(
+            targets, targetsOf(indexed, indexed.getCallSite(methodId, callSites.get(i))))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Nonnull
+    private static int[] targetsOf(@Nonnull IndexedCallGraph indexed, int callSite) {
+      int[] targets = new int[indexed.getTargetCount(callSite)];
+      for (int i = 0; i < targets.length; i++) {
+        targets[i] = indexed.getTarget(callSite, i);
+      }
+      Arrays.sort(targets);
+      return targets;
+    }
+
+    /**
+     * the invoked method, or the kind of stmt if it invokes a static initializer implicitly, and
+     * the source position of the stmt
+     */
+    @Nonnull
+    private static Object matchKey(@Nonnull InvokableStmt invokableStmt) {
+      Position position = invokableStmt.getPositionInfo().getStmtPosition();
+      return Arrays.asList(
+          invokableStmt
+              .getInvokeExpr()
+              .<Object>map(AbstractInvokeExpr::getMethodSignature)
+              .orElse(invokableStmt.getClass()),
+          position.getFirstLine(),
+          position.getFirstCol(),
+          position.getLastLine(),
+          position.getLastCol());
+    }
+  }
+
+  private static void writeInts(@Nonnull DataOutputStream out, @Nonnull int[] ints, int length)
+      throws IOException {
+    for (int i = 0; i < length; i++) {
+      out.writeInt(ints[i]);
+    }
+  }
+
+  /** Assigns the ids of the names in the order of their first occurrence. */
+  private static final class NameTable {
+    @Nonnull private final Map<String, Integer> ids = new HashMap<>();
+    @Nonnull private final List<byte[]> names = new ArrayList<>();
+    private int byteCount = 0;
+
+    private int idOf(@Nonnull String name) {
+      Integer id = ids.get(name);
+      if (id == null) {
+        id = names.size();
+        ids.put(name, id);
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        names.add(bytes);
+        byteCount += bytes.length;
+      }
+      return id;
+    }
+
+    private int size() {
+      return names.size();
+    }
+
+    private void write(@Nonnull DataOutputStream out) throws IOException {
+      int offset = 0;
+      for (byte[] name : names) {
+        out.writeInt(offset);
+        offset += name.length;
+      }
+      out.writeInt(offset);
+      for (byte[] name : names) {
+        out.write(name);
+      }
+      for (int i = byteCount; i % 4 != 0; i++) {
+        out.write(0);
+      }
+    }
+  }
+}
@@ -54,6 +54,17 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
     super(view);
   }
 
+  /**
+   * The constructor of the CHA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param dispatchCache the cache of resolved calls that is shared with other algorithms
+   */
+  public ClassHierarchyAnalysisAlgorithm(
+      @Nonnull View view, @Nonnull DispatchCache dispatchCache) {
+    super(view, dispatchCache);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -89,34 +100,45 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
       return Stream.empty();
     }
 
-    SootMethod targetMethod = findConcreteMethod(view, targetMethodSignature).orElse(null);
+    SootMethod targetMethod = dispatchCache.findConcreteMethod(targetMethodSignature).orElse(null);
 
     if (targetMethod == null
         || MethodModifier.isStatic(targetMethod.getModifiers())
         || (invokeExpr instanceof JSpecialInvokeExpr)) {
       return Stream.of(targetMethodSignature);
     } else {
-      ArrayList<ClassType> noImplementedMethod = new ArrayList<>();
-      List<MethodSignature> targets =
-          resolveAllCallTargets(targetMethodSignature, noImplementedMethod);
-      if (!targetMethod.isAbstract()) {
-        targets.add(targetMethod.getSignature());
-      }
-      if (invokeExpr instanceof JInterfaceInvokeExpr) {
-        IdentifierFactory factory = view.getIdentifierFactory();
-        noImplementedMethod.stream()
-            .map(
-                classType ->
-                    resolveConcreteDispatch(
-                        view,
-                        factory.getMethodSignature(
-                            classType, targetMethodSignature.getSubSignature())))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .forEach(targets::add);
-      }
-      return targets.stream();
+      boolean interfaceInvoke = invokeExpr instanceof JInterfaceInvokeExpr;
+      // the targets only depend on the signature, so they are shared by all calls of the method
+      return dispatchCache
+          .getTargets(
+              targetMethodSignature,
+              interfaceInvoke,
+              signature -> resolveVirtualCall(signature, targetMethod, interfaceInvoke))
+          .stream();
+    }
+  }
+
+  private List<MethodSignature> resolveVirtualCall(
+      MethodSignature targetMethodSignature, SootMethod targetMethod, boolean interfaceInvoke) {
+    ArrayList<ClassType> noImplementedMethod = new ArrayList<>();
+    List<MethodSignature> targets =
+        resolveAllCallTargets(targetMethodSignature, noImplementedMethod);
+    if (!targetMethod.isAbstract()) {
+      targets.add(targetMethod.getSignature());
+    }
+    if (interfaceInvoke) {
+      IdentifierFactory factory = view.getIdentifierFactory();
+      noImplementedMethod.stream()
+          .map(
+              classType ->
+                  dispatchCache.resolveConcreteDispatch(
+                      factory.getMethodSignature(
+                          classType, targetMethodSignature.getSubSignature())))
+          .filter(Optional::isPresent)
+          .map(Optional::get)
+          .forEach(targets::add);
     }
+    return targets;
   }
 
   private List<MethodSignature> resolveAllCallTargets(
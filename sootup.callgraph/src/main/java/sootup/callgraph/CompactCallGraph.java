@@ -0,0 +1,389 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A mutable {@link IndexedCallGraph} that stores the calls in int arrays instead of {@link Call}
+ * objects: per method the ids of its call sites and of the call sites calling it, per call site the
+ * ids of its target methods. The ids are assigned in the order the methods and call sites are
+ * added. Use {@link #freeze()} to obtain a compact immutable copy for read-mostly analyses.
+ *
+ * <p>Like the {@link GraphBasedCallGraph}, this call graph is not thread-safe.
+ */
+public class CompactCallGraph extends IndexedCallGraph implements MutableCallGraph {
+
+  private static final int[] EMPTY = new int[0];
+
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final Map<MethodSignature, Integer> methodIds = new HashMap<>();
+  @Nonnull private MethodSignature[] methods = new MethodSignature[16];
+  private int methodCount = 0;
+
+  /** the call sites of each method and their number */
+  @Nonnull private int[][] callSitesOfMethod = new int[16][];
+
+  @Nonnull private int[] callSiteCountOfMethod = new int[16];
+
+  /** the call sites calling each method and their number */
+  @Nonnull private int[][] incomingOfMethod = new int[16][];
+
+  @Nonnull private int[] incomingCountOfMethod = new int[16];
+
+  @Nonnull private InvokableStmt[] callSiteStmts = new InvokableStmt[16];
+  @Nonnull private int[] callSiteSources = new int[16];
+
+  /** the targets of each call site and their number */
+  @Nonnull private int[][] targetsOfCallSite = new int[16][];
+
+  @Nonnull private int[] targetCountOfCallSite = new int[16];
+
+  private int callSiteCount = 0;
+
+  /**
+   * the first call site of each statement; the further call sites of a statement that is contained
+   * in several methods are chained by {@link #nextCallSiteOfStmt}
+   */
+  @Nonnull private final Map<InvokableStmt, Integer> callSiteIds = new IdentityHashMap<>();
+
+  @Nonnull private int[] nextCallSiteOfStmt = new int[16];
+
+  /** the pairs of call site and target id, to add each call once */
+  @Nonnull private final LongHashSet calls = new LongHashSet();
+
+  public CompactCallGraph(@Nonnull List<MethodSignature> entryMethods) {
+    this.entryMethods = entryMethods;
+  }
+
+  /** Creates a copy of the given call graph; an {@link IndexedCallGraph} keeps its ids. */
+  public CompactCallGraph(@Nonnull CallGraph callGraph) {
+    this(new ArrayList<>(callGraph.getEntryMethods()));
+    if (callGraph instanceof IndexedCallGraph) {
+      IndexedCallGraph indexed = (IndexedCallGraph) callGraph;
+      for (int method = 0; method < indexed.getMethodCount(); method++) {
+        addMethod(indexed.getMethodSignature(method));
+      }
+      for (int callSite = 0; callSite < indexed.getCallSiteCount(); callSite++) {
+        int source = indexed.getCallSiteSource(callSite);
+        int copiedCallSite = callSiteOf(source, indexed.getCallSiteStmt(callSite));
+        for (int j = 0; j < indexed.getTargetCount(callSite); j++) {
+          addCall(copiedCallSite, indexed.getTarget(callSite, j));
+        }
+      }
+    } else {
+      Set<MethodSignature> methods = callGraph.getMethodSignatures();
+      methods.forEach(this::addMethod);
+      methods.forEach(method -> callGraph.callsFrom(method).forEach(this::addCall));
+    }
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    methodIdOrAdd(calledMethod);
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    int source = methodIdOrAdd(sourceMethod);
+    int target = methodIdOrAdd(targetMethod);
+    addCall(callSiteOf(source, invokableStmt), target);
+  }
+
+  @Override
+  public void addCall(@Nonnull Call call) {
+    addCall(
+        call.getSourceMethodSignature(), call.getTargetMethodSignature(), call.getInvokableStmt());
+  }
+
+  private void addCall(int callSite, int target) {
+    if (!calls.add(((long) callSite << 32) | target)) {
+      return;
+    }
+    targetsOfCallSite[callSite] =
+        append(targetsOfCallSite[callSite], targetCountOfCallSite[callSite]++, target);
+    incomingOfMethod[target] =
+        append(incomingOfMethod[target], incomingCountOfMethod[target]++, callSite);
+  }
+
+  private int methodIdOrAdd(@Nonnull MethodSignature method) {
+    Integer methodId = methodIds.get(method);
+    if (methodId != null) {
+      return methodId;
+    }
+    if (methodCount == methods.length) {
+      int capacity = methodCount * 2;
+      methods = Arrays.copyOf(methods, capacity);
+      callSitesOfMethod = Arrays.copyOf(callSitesOfMethod, capacity);
+      callSiteCountOfMethod = Arrays.copyOf(callSiteCountOfMethod, capacity);
+      incomingOfMethod = Arrays.copyOf(incomingOfMethod, capacity);
+      incomingCountOfMethod = Arrays.copyOf(incomingCountOfMethod, capacity);
+    }
+    methods[methodCount] = method;
+    callSitesOfMethod[methodCount] = EMPTY;
+    incomingOfMethod[methodCount] = EMPTY;
+    methodIds.put(method, methodCount);
+    return methodCount++;
+  }
+
+  /** Returns the id of the call site of the statement in the given method and adds it if needed. */
+  private int callSiteOf(int source, @Nonnull InvokableStmt invokableStmt) {
+    int callSite = findCallSite(source, invokableStmt);
+    if (callSite >= 0) {
+      return callSite;
+    }
+    if (callSiteCount == callSiteStmts.length) {
+      int capacity = callSiteCount * 2;
+      callSiteStmts = Arrays.copyOf(callSiteStmts, capacity);
+      callSiteSources = Arrays.copyOf(callSiteSources, capacity);
+      targetsOfCallSite = Arrays.copyOf(targetsOfCallSite, capacity);
+      targetCountOfCallSite = Arrays.copyOf(targetCountOfCallSite, capacity);
+      nextCallSiteOfStmt = Arrays.copyOf(nextCallSiteOfStmt, capacity);
+    }
+    callSite = callSiteCount++;
+    callSiteStmts[callSite] = invokableStmt;
+    callSiteSources[callSite] = source;
+    targetsOfCallSite[callSite] = EMPTY;
+    Integer first = callSiteIds.putIfAbsent(invokableStmt, callSite);
+    // the statement is contained in another method as well
+    nextCallSiteOfStmt[callSite] = first == null ? -1 : nextCallSiteOfStmt[first];
+    if (first != null) {
+      nextCallSiteOfStmt[first] = callSite;
+    }
+    callSitesOfMethod[source] =
+        append(callSitesOfMethod[source], callSiteCountOfMethod[source]++, callSite);
+    return callSite;
+  }
+
+  @Nonnull
+  private static int[] append(@Nonnull int[] array, int size, int value) {
+    if (size == array.length) {
+      array = Arrays.copyOf(array, Math.max(4, size * 2));
+    }
+    array[size] = value;
+    return array;
+  }
+
+  @Override
+  protected int findCallSite(int methodId, @Nonnull InvokableStmt invokableStmt) {
+    Integer callSite = callSiteIds.get(invokableStmt);
+    int current = callSite == null ? -1 : callSite;
+    while (current >= 0 && callSiteSources[current] != methodId) {
+      current = nextCallSiteOfStmt[current];
+    }
+    return current;
+  }
+
+  @Override
+  protected boolean containsTarget(int callSite, int target) {
+    return calls.contains(((long) callSite << 32) | target);
+  }
+
+  @Override
+  public int getMethodCount() {
+    return methodCount;
+  }
+
+  @Override
+  public int getMethodId(@Nonnull MethodSignature method) {
+    Integer methodId = methodIds.get(method);
+    return methodId == null ? -1 : methodId;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getMethodSignature(int methodId) {
+    checkIndex(methodId, methodCount);
+    return methods[methodId];
+  }
+
+  @Override
+  public int getCallSiteCount() {
+    return callSiteCount;
+  }
+
+  @Override
+  public int getCallSiteCountOf(int methodId) {
+    checkIndex(methodId, methodCount);
+    return callSiteCountOfMethod[methodId];
+  }
+
+  @Override
+  public int getCallSite(int methodId, int index) {
+    checkIndex(index, getCallSiteCountOf(methodId));
+    return callSitesOfMethod[methodId][index];
+  }
+
+  @Override
+  public int getCallSiteSource(int callSite) {
+    checkIndex(callSite, callSiteCount);
+    return callSiteSources[callSite];
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt getCallSiteStmt(int callSite) {
+    checkIndex(callSite, callSiteCount);
+    return callSiteStmts[callSite];
+  }
+
+  @Override
+  public int getTargetCount(int callSite) {
+    checkIndex(callSite, callSiteCount);
+    return targetCountOfCallSite[callSite];
+  }
+
+  @Override
+  public int getTarget(int callSite, int index) {
+    checkIndex(index, getTargetCount(callSite));
+    return targetsOfCallSite[callSite][index];
+  }
+
+  @Override
+  public int getIncomingCallSiteCount(int methodId) {
+    checkIndex(methodId, methodCount);
+    return incomingCountOfMethod[methodId];
+  }
+
+  @Override
+  public int getIncomingCallSite(int methodId, int index) {
+    checkIndex(index, getIncomingCallSiteCount(methodId));
+    return incomingOfMethod[methodId][index];
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(methodIds.keySet());
+  }
+
+  @Override
+  public int callCount() {
+    return calls.size();
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return new CompactCallGraph(this);
+  }
+
+  @Nonnull
+  @Override
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+
+  /** Returns an immutable copy of this call graph with the same method ids. */
+  @Nonnull
+  public FrozenCallGraph freeze() {
+    return new FrozenCallGraph(this);
+  }
+
+  /** An open addressing hash set of longs. */
+  private static final class LongHashSet {
+    private static final long FREE = -1L;
+
+    @Nonnull private long[] table = newTable(64);
+    private int size = 0;
+
+    @Nonnull
+    private static long[] newTable(int capacity) {
+      long[] table = new long[capacity];
+      Arrays.fill(table, FREE);
+      return table;
+    }
+
+    private static int indexOf(long value, int mask) {
+      long hash = value * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /** adds the (non-negative) value and returns whether it was not contained before */
+    boolean add(long value) {
+      if (2 * (size + 1) > table.length) {
+        long[] oldTable = table;
+        table = newTable(oldTable.length * 2);
+        for (long oldValue : oldTable) {
+          if (oldValue != FREE) {
+            insert(oldValue);
+          }
+        }
+      }
+      if (insert(value)) {
+        size++;
+        return true;
+      }
+      return false;
+    }
+
+    private boolean insert(long value) {
+      int mask = table.length - 1;
+      int index = indexOf(value, mask);
+      while (table[index] != FREE) {
+        if (table[index] == value) {
+          return false;
+        }
+        index = (index + 1) & mask;
+      }
+      table[index] = value;
+      return true;
+    }
+
+    boolean contains(long value) {
+      int mask = table.length - 1;
+      int index = indexOf(value, mask);
+      while (table[index] != FREE) {
+        if (table[index] == value) {
+          return true;
+        }
+        index = (index + 1) & mask;
+      }
+      return false;
+    }
+
+    int size() {
+      return size;
+    }
+  }
+}
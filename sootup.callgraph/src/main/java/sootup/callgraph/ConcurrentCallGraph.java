@@ -0,0 +1,138 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A thread-safe {@link GraphBasedCallGraph}, used by the call graph algorithms that process their
+ * work list in parallel. All accesses synchronize on the call graph; the queries return snapshots
+ * instead of views of the graph.
+ */
+public class ConcurrentCallGraph extends GraphBasedCallGraph {
+
+  public ConcurrentCallGraph(@Nonnull List<MethodSignature> entryMethods) {
+    super(entryMethods);
+  }
+
+  /** Creates a thread-safe copy of the given call graph. */
+  public ConcurrentCallGraph(@Nonnull CallGraph callGraph) {
+    super(new ArrayList<>(callGraph.getEntryMethods()));
+    Set<MethodSignature> methods = callGraph.getMethodSignatures();
+    methods.forEach(this::addMethod);
+    methods.forEach(method -> callGraph.callsFrom(method).forEach(this::addCall));
+  }
+
+  @Override
+  protected synchronized void addMethod(@Nonnull MethodSignature calledMethod, Vertex vertex) {
+    super.addMethod(calledMethod, vertex);
+  }
+
+  @Override
+  public synchronized void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    super.addCall(sourceMethod, targetMethod, invokableStmt);
+  }
+
+  @Override
+  public synchronized void addCall(@Nonnull Call call) {
+    super.addCall(call);
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<MethodSignature> getMethodSignatures() {
+    return new HashSet<>(super.getMethodSignatures());
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    return super.callTargetsFrom(sourceMethod);
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    return super.callSourcesTo(targetMethod);
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return new HashSet<>(super.callsFrom(sourceMethod));
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    return new HashSet<>(super.callsTo(targetMethod));
+  }
+
+  @Override
+  public synchronized boolean containsMethod(@Nonnull MethodSignature method) {
+    return super.containsMethod(method);
+  }
+
+  @Override
+  public synchronized boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    return super.containsCall(sourceMethod, targetMethod, invokableStmt);
+  }
+
+  @Override
+  public synchronized boolean containsCall(@Nonnull Call call) {
+    return super.containsCall(call);
+  }
+
+  @Override
+  public synchronized int callCount() {
+    return super.callCount();
+  }
+
+  @Override
+  public synchronized String exportAsDot() {
+    return super.exportAsDot();
+  }
+
+  @Nonnull
+  @Override
+  public synchronized MutableCallGraph copy() {
+    return new ConcurrentCallGraph(this);
+  }
+
+  @Override
+  public synchronized String toString() {
+    return super.toString();
+  }
+}
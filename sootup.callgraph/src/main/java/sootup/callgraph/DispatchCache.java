@@ -0,0 +1,183 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * Memoizes the virtual dispatch of a {@link View}. The results are keyed by the {@link
+ * MethodSignature} of the call, i.e. by the declared type and the sub-signature, so that call sites
+ * calling the same method share a single resolution.
+ *
+ * <p>The cache can be shared by several call graph algorithms on the same view. It assumes that the
+ * classes of the view do not change - call {@link #clear()} or {@link #invalidate(Collection)} if
+ * they do.
+ */
+public class DispatchCache {
+
+  @Nonnull private final View view;
+
+  @Nonnull
+  private final Map<MethodSignature, Optional<SootMethod>> concreteMethods =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSignature, List<MethodSignature>> virtualTargets =
+      new ConcurrentHashMap<>();
+
+  @Nonnull
+  private final Map<MethodSignature, List<MethodSignature>> interfaceTargets =
+      new ConcurrentHashMap<>();
+
+  @Nonnull private final LongAdder hits = new LongAdder();
+  @Nonnull private final LongAdder misses = new LongAdder();
+
+  public DispatchCache(@Nonnull View view) {
+    this.view = view;
+  }
+
+  @Nonnull
+  public View getView() {
+    return view;
+  }
+
+  /**
+   * The cached version of {@link AbstractCallGraphAlgorithm#findConcreteMethod(View,
+   * MethodSignature)}.
+   */
+  @Nonnull
+  public Optional<SootMethod> findConcreteMethod(@Nonnull MethodSignature signature) {
+    Optional<SootMethod> method = concreteMethods.get(signature);
+    if (method != null) {
+      hits.increment();
+      return method;
+    }
+    misses.increment();
+    method = AbstractCallGraphAlgorithm.findConcreteMethod(view, signature);
+    Optional<SootMethod> previous = concreteMethods.putIfAbsent(signature, method);
+    return previous == null ? method : previous;
+  }
+
+  /**
+   * The cached version of {@link AbstractCallGraphAlgorithm#resolveConcreteDispatch(View,
+   * MethodSignature)}.
+   */
+  @Nonnull
+  public Optional<MethodSignature> resolveConcreteDispatch(@Nonnull MethodSignature signature) {
+    Optional<SootMethod> method = findConcreteMethod(signature);
+    if (!method.isPresent() || method.get().isAbstract()) {
+      return Optional.empty();
+    }
+    return Optional.of(method.get().getSignature());
+  }
+
+  /**
+   * Returns the targets of a virtual or interface call of the given method. On the first request of
+   * a signature, the targets are computed by the <code>resolver</code> of the call graph algorithm
+   * and stored as an unmodifiable list.
+   *
+   * @param signature the method signature of the invoke expression
+   * @param interfaceInvoke whether the call is an interface invoke
+   * @param resolver computes the targets of the call
+   */
+  @Nonnull
+  public List<MethodSignature> getTargets(
+      @Nonnull MethodSignature signature,
+      boolean interfaceInvoke,
+      @Nonnull Function<MethodSignature, List<MethodSignature>> resolver) {
+    Map<MethodSignature, List<MethodSignature>> targets =
+        interfaceInvoke ? interfaceTargets : virtualTargets;
+    List<MethodSignature> result = targets.get(signature);
+    if (result != null) {
+      hits.increment();
+      return result;
+    }
+    misses.increment();
+    result = Collections.unmodifiableList(resolver.apply(signature));
+    List<MethodSignature> previous = targets.putIfAbsent(signature, result);
+    return previous == null ? result : previous;
+  }
+
+  /** Returns the number of requests that were answered by the cache. */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** Returns the number of requests that had to be resolved. */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** Returns the share of requests that were answered by the cache, or 0 without requests. */
+  public double getHitRate() {
+    long hitCount = getHitCount();
+    long requestCount = hitCount + getMissCount();
+    return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+  }
+
+  /** Removes all cached results and resets the statistics. */
+  public void clear() {
+    concreteMethods.clear();
+    virtualTargets.clear();
+    interfaceTargets.clear();
+    hits.reset();
+    misses.reset();
+  }
+
+  /**
+   * Removes the cached results of the calls of methods that are declared in one of the given
+   * classes. The results of a call depend on the supertypes and the subtypes of its declared class,
+   * so pass the modified classes together with their supertypes and subtypes.
+   */
+  public void invalidate(@Nonnull Collection<ClassType> classTypes) {
+    Predicate<MethodSignature> declaredInClassTypes =
+        signature -> classTypes.contains(signature.getDeclClassType());
+    concreteMethods.keySet().removeIf(declaredInClassTypes);
+    virtualTargets.keySet().removeIf(declaredInClassTypes);
+    interfaceTargets.keySet().removeIf(declaredInClassTypes);
+  }
+
+  @Override
+  public String toString() {
+    return "DispatchCache{hits="
+        + getHitCount()
+        + ", misses="
+        + getMissCount()
+        + ", hitRate="
+        + String.format("%.3f", getHitRate())
+        + "}";
+  }
+}
@@ -0,0 +1,252 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * An immutable {@link IndexedCallGraph} that stores its calls in compressed sparse rows: the call
+ * sites are grouped by their source method and the targets by their call site, so each list is a
+ * range of a single int array. The targets of a call site and the incoming call sites of a method
+ * are sorted by their ids.
+ *
+ * <p>The method ids are the ids of the call graph this graph was created from. The call sites are
+ * renumbered, so that the call sites of a method have consecutive ids. Since it can't be modified,
+ * this call graph can be shared between threads.
+ */
+public class FrozenCallGraph extends IndexedCallGraph {
+
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final Map<MethodSignature, Integer> methodIds;
+  @Nonnull private final MethodSignature[] methods;
+
+  /** the call sites of method i are the ids callSiteOffsets[i] to callSiteOffsets[i + 1] - 1 */
+  @Nonnull private final int[] callSiteOffsets;
+
+  @Nonnull private final int[] callSiteSources;
+  @Nonnull private final InvokableStmt[] callSiteStmts;
+
+  /** the targets of call site i are stored from targets[targetOffsets[i]] to the next offset */
+  @Nonnull private final int[] targetOffsets;
+
+  @Nonnull private final int[] targets;
+
+  /** the call sites calling method i, stored like the targets */
+  @Nonnull private final int[] incomingOffsets;
+
+  @Nonnull private final int[] incomingCallSites;
+
+  /** Creates an immutable copy of the given call graph. */
+  public FrozenCallGraph(@Nonnull CallGraph callGraph) {
+    this(
+        callGraph instanceof IndexedCallGraph
+            ? (IndexedCallGraph) callGraph
+            : new CompactCallGraph(callGraph));
+  }
+
+  private FrozenCallGraph(@Nonnull IndexedCallGraph callGraph) {
+    entryMethods = Collections.unmodifiableList(new ArrayList<>(callGraph.getEntryMethods()));
+
+    int methodCount = callGraph.getMethodCount();
+    methods = new MethodSignature[methodCount];
+    Map<MethodSignature, Integer> ids = new HashMap<>();
+    for (int method = 0; method < methodCount; method++) {
+      methods[method] = callGraph.getMethodSignature(method);
+      ids.put(methods[method], method);
+    }
+    methodIds = Collections.unmodifiableMap(ids);
+
+    int callSiteCount = callGraph.getCallSiteCount();
+    callSiteOffsets = new int[methodCount + 1];
+    callSiteSources = new int[callSiteCount];
+    callSiteStmts = new InvokableStmt[callSiteCount];
+    targetOffsets = new int[callSiteCount + 1];
+    int[] incomingCounts = new int[methodCount];
+    int targetCount = 0;
+    int callSite = 0;
+    for (int method = 0; method < methodCount; method++) {
+      callSiteOffsets[method] = callSite;
+      for (int i = 0; i < callGraph.getCallSiteCountOf(method); i++, callSite++) {
+        int oldCallSite = callGraph.getCallSite(method, i);
+        callSiteSources[callSite] = method;
+        callSiteStmts[callSite] = callGraph.getCallSiteStmt(oldCallSite);
+        targetOffsets[callSite] = targetCount;
+        targetCount += callGraph.getTargetCount(oldCallSite);
+      }
+    }
+    callSiteOffsets[methodCount] = callSite;
+    targetOffsets[callSiteCount] = targetCount;
+
+    targets = new int[targetCount];
+    for (int method = 0; method < methodCount; method++) {
+      for (int i = 0; i < callGraph.getCallSiteCountOf(method); i++) {
+        int oldCallSite = callGraph.getCallSite(method, i);
+        int from = targetOffsets[callSiteOffsets[method] + i];
+        for (int j = 0; j < callGraph.getTargetCount(oldCallSite); j++) {
+          int target = callGraph.getTarget(oldCallSite, j);
+          targets[from + j] = target;
+          incomingCounts[target]++;
+        }
+        Arrays.sort(targets, from, from + callGraph.getTargetCount(oldCallSite));
+      }
+    }
+
+    incomingOffsets = new int[methodCount + 1];
+    for (int method = 0; method < methodCount; method++) {
+      incomingOffsets[method + 1] = incomingOffsets[method] + incomingCounts[method];
+    }
+    // filled in the order of the call sites, hence sorted
+    incomingCallSites = new int[targetCount];
+    int[] next = Arrays.copyOf(incomingOffsets, methodCount);
+    for (callSite = 0; callSite < callSiteCount; callSite++) {
+      for (int j = targetOffsets[callSite]; j < targetOffsets[callSite + 1]; j++) {
+        incomingCallSites[next[targets[j]]++] = callSite;
+      }
+    }
+  }
+
+  @Override
+  public int getMethodCount() {
+    return methods.length;
+  }
+
+  @Override
+  public int getMethodId(@Nonnull MethodSignature method) {
+    Integer methodId = methodIds.get(method);
+    return methodId == null ? -1 : methodId;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getMethodSignature(int methodId) {
+    return methods[methodId];
+  }
+
+  @Override
+  public int getCallSiteCount() {
+    return callSiteStmts.length;
+  }
+
+  @Override
+  public int getCallSiteCountOf(int methodId) {
+    return callSiteOffsets[methodId + 1] - callSiteOffsets[methodId];
+  }
+
+  @Override
+  public int getCallSite(int methodId, int index) {
+    checkIndex(index, getCallSiteCountOf(methodId));
+    return callSiteOffsets[methodId] + index;
+  }
+
+  @Override
+  public int getCallSiteSource(int callSite) {
+    return callSiteSources[callSite];
+  }
+
+  @Nonnull
+  @Override
+  public InvokableStmt getCallSiteStmt(int callSite) {
+    return callSiteStmts[callSite];
+  }
+
+  @Override
+  public int getTargetCount(int callSite) {
+    return targetOffsets[callSite + 1] - targetOffsets[callSite];
+  }
+
+  @Override
+  public int getTarget(int callSite, int index) {
+    checkIndex(index, getTargetCount(callSite));
+    return targets[targetOffsets[callSite] + index];
+  }
+
+  @Override
+  public int getIncomingCallSiteCount(int methodId) {
+    return incomingOffsets[methodId + 1] - incomingOffsets[methodId];
+  }
+
+  @Override
+  public int getIncomingCallSite(int methodId, int index) {
+    checkIndex(index, getIncomingCallSiteCount(methodId));
+    return incomingCallSites[incomingOffsets[methodId] + index];
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  @Override
+  protected int findCallSite(int methodId, @Nonnull InvokableStmt invokableStmt) {
+    for (int callSite = callSiteOffsets[methodId];
+        callSite < callSiteOffsets[methodId + 1];
+        callSite++) {
+      if (callSiteStmts[callSite] == invokableStmt) {
+        return callSite;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  protected boolean containsTarget(int callSite, int target) {
+    int from = targetOffsets[callSite];
+    int to = targetOffsets[callSite + 1];
+    return Arrays.binarySearch(targets, from, to, target) >= 0;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return methodIds.keySet();
+  }
+
+  @Override
+  public int callCount() {
+    return targets.length;
+  }
+
+  /** Returns a modifiable {@link CompactCallGraph} with the same ids. */
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return new CompactCallGraph(this);
+  }
+
+  @Nonnull
+  @Override
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+}
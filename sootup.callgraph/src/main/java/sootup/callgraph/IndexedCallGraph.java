@@ -0,0 +1,289 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SootClassMemberSignature;
+
+/**
+ * A call graph that numbers its methods and call sites with dense ids. Every call site belongs to a
+ * single source method and holds the list of its targets, i.e. a call is a pair of a call site and
+ * a target method.
+ *
+ * <p>Besides the {@link CallGraph} queries, which create {@link Call} objects, the graph can be
+ * iterated without allocations via the ids:
+ *
+ * <pre>{@code
+ * int method = callGraph.getMethodId(signature);
+ * for (int i = 0; i < callGraph.getCallSiteCountOf(method); i++) {
+ *   int callSite = callGraph.getCallSite(method, i);
+ *   for (int j = 0; j < callGraph.getTargetCount(callSite); j++) {
+ *     MethodSignature target = callGraph.getMethodSignature(callGraph.getTarget(callSite, j));
+ *   }
+ * }
+ * }</pre>
+ */
+public abstract class IndexedCallGraph implements CallGraph {
+
+  /** Returns the number of methods, i.e. the ids of the methods are 0 to this count - 1. */
+  public abstract int getMethodCount();
+
+  /** Returns the id of the method or -1 if the method is not contained in the call graph. */
+  public abstract int getMethodId(@Nonnull MethodSignature method);
+
+  @Nonnull
+  public abstract MethodSignature getMethodSignature(int methodId);
+
+  /** Returns the number of call sites, i.e. the ids of the call sites are 0 to this count - 1. */
+  public abstract int getCallSiteCount();
+
+  /** Returns the number of call sites in the given method. */
+  public abstract int getCallSiteCountOf(int methodId);
+
+  /** Returns the id of the <code>index</code>th call site in the given method. */
+  public abstract int getCallSite(int methodId, int index);
+
+  /** Returns the id of the method that contains the call site. */
+  public abstract int getCallSiteSource(int callSite);
+
+  @Nonnull
+  public abstract InvokableStmt getCallSiteStmt(int callSite);
+
+  /** Returns the number of targets of the call site. */
+  public abstract int getTargetCount(int callSite);
+
+  /** Returns the id of the <code>index</code>th target method of the call site. */
+  public abstract int getTarget(int callSite, int index);
+
+  /** Returns the number of call sites that call the given method. */
+  public abstract int getIncomingCallSiteCount(int methodId);
+
+  /** Returns the id of the <code>index</code>th call site that calls the given method. */
+  public abstract int getIncomingCallSite(int methodId, int index);
+
+  /**
+   * Returns the id of the call site of the statement in the given method or -1 if the method has no
+   * call edges from this statement.
+   */
+  protected abstract int findCallSite(int methodId, @Nonnull InvokableStmt invokableStmt);
+
+  /**
+   * Returns the id of the method.
+   *
+   * @throws IllegalArgumentException if the method is not contained in the call graph
+   */
+  protected int methodIdOf(@Nonnull MethodSignature method) {
+    int methodId = getMethodId(method);
+    if (methodId < 0) {
+      throw new IllegalArgumentException("Vertex of Method signature " + method + " not found");
+    }
+    return methodId;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    int source = methodIdOf(sourceMethod);
+    Set<MethodSignature> targets = new HashSet<>();
+    for (int i = 0; i < getCallSiteCountOf(source); i++) {
+      int callSite = getCallSite(source, i);
+      for (int j = 0; j < getTargetCount(callSite); j++) {
+        targets.add(getMethodSignature(getTarget(callSite, j)));
+      }
+    }
+    return targets;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    int target = methodIdOf(targetMethod);
+    Set<MethodSignature> sources = new HashSet<>();
+    for (int i = 0; i < getIncomingCallSiteCount(target); i++) {
+      sources.add(getMethodSignature(getCallSiteSource(getIncomingCallSite(target, i))));
+    }
+    return sources;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    int source = methodIdOf(sourceMethod);
+    Set<Call> calls = new HashSet<>();
+    for (int i = 0; i < getCallSiteCountOf(source); i++) {
+      int callSite = getCallSite(source, i);
+      InvokableStmt invokableStmt = getCallSiteStmt(callSite);
+      for (int j = 0; j < getTargetCount(callSite); j++) {
+        calls.add(
+            new Call(sourceMethod, getMethodSignature(getTarget(callSite, j)), invokableStmt));
+      }
+    }
+    return Collections.unmodifiableSet(calls);
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    int target = methodIdOf(targetMethod);
+    Set<Call> calls = new HashSet<>();
+    for (int i = 0; i < getIncomingCallSiteCount(target); i++) {
+      int callSite = getIncomingCallSite(target, i);
+      calls.add(
+          new Call(
+              getMethodSignature(getCallSiteSource(callSite)),
+              targetMethod,
+              getCallSiteStmt(callSite)));
+    }
+    return Collections.unmodifiableSet(calls);
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return getMethodId(method) >= 0;
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    int source = getMethodId(sourceMethod);
+    int target = getMethodId(targetMethod);
+    if (source < 0 || target < 0) {
+      return false;
+    }
+    int callSite = findCallSite(source, invokableStmt);
+    if (callSite < 0) {
+      return false;
+    }
+    return containsTarget(callSite, target);
+  }
+
+  /** Returns whether the call site calls the given method. */
+  protected boolean containsTarget(int callSite, int target) {
+    for (int j = 0; j < getTargetCount(callSite); j++) {
+      if (getTarget(callSite, j) == target) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean containsCall(@Nonnull Call call) {
+    return containsCall(
+        call.getSourceMethodSignature(), call.getTargetMethodSignature(), call.getInvokableStmt());
+  }
+
+  /** Returns all calls of the call graph. */
+  @Nonnull
+  protected Stream<Call> calls() {
+    Stream.Builder<Call> calls = Stream.builder();
+    for (int callSite = 0; callSite < getCallSiteCount(); callSite++) {
+      MethodSignature source = getMethodSignature(getCallSiteSource(callSite));
+      InvokableStmt invokableStmt = getCallSiteStmt(callSite);
+      for (int j = 0; j < getTargetCount(callSite); j++) {
+        calls.add(new Call(source, getMethodSignature(getTarget(callSite, j)), invokableStmt));
+      }
+    }
+    return calls.build();
+  }
+
+  @Override
+  public String exportAsDot() {
+    StringBuilder dotFormatBuilder = new StringBuilder();
+    // sorted like the GraphBasedCallGraph: by the source method and then by the target method
+    calls()
+        .sorted(
+            Comparator.comparing(
+                    (Call call) ->
+                        call.getSourceMethodSignature().getDeclClassType().getFullyQualifiedName())
+                .thenComparing(call -> call.getSourceMethodSignature().getName())
+                .thenComparing(
+                    call -> call.getSourceMethodSignature().getParameterTypes().toString())
+                .thenComparing(
+                    call -> call.getTargetMethodSignature().getDeclClassType().getClassName())
+                .thenComparing(call -> call.getTargetMethodSignature().getName())
+                .thenComparing(
+                    call -> call.getTargetMethodSignature().getParameterTypes().toString()))
+        .forEach(
+            call ->
+                dotFormatBuilder
+                    .append("\t\"")
+                    .append(call.getSourceMethodSignature())
+                    .append("\" -> \"")
+                    .append(call.getTargetMethodSignature())
+                    .append("\";\n"));
+    return "strict digraph ObjectGraph {\n" + dotFormatBuilder + "}";
+  }
+
+  @Nonnull
+  @Override
+  public CallGraphDifference diff(@Nonnull CallGraph callGraph) {
+    return new CallGraphDifference(this, callGraph);
+  }
+
+  /** Lists the methods like the {@link GraphBasedCallGraph}, each with its calls. */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder =
+        new StringBuilder(getClass().getSimpleName() + "(" + callCount() + ")");
+    if (getMethodCount() == 0) {
+      return stringBuilder.append(" is empty").toString();
+    }
+    stringBuilder.append(":\n");
+    getMethodSignatures().stream()
+        .sorted(
+            Comparator.comparing((MethodSignature o) -> o.getDeclClassType().toString())
+                .thenComparing(SootClassMemberSignature::getName)
+                .thenComparing(o -> o.getParameterTypes().toString()))
+        .forEach(
+            method -> {
+              stringBuilder.append(method).append(":\n");
+              callTargetsOrSources(callsFrom(method), true)
+                  .forEach(target -> stringBuilder.append("\tto ").append(target).append("\n"));
+              callTargetsOrSources(callsTo(method), false)
+                  .forEach(source -> stringBuilder.append("\tfrom ").append(source).append("\n"));
+              stringBuilder.append("\n");
+            });
+    return stringBuilder.toString();
+  }
+
+  @Nonnull
+  private static Stream<MethodSignature> callTargetsOrSources(
+      @Nonnull Set<Call> calls, boolean targets) {
+    return calls.stream()
+        .map(call -> targets ? call.getTargetMethodSignature() : call.getSourceMethodSignature())
+        .sorted(
+            Comparator.comparing((MethodSignature o) -> o.getDeclClassType().toString())
+                .thenComparing(SootClassMemberSignature::getName)
+                .thenComparing(o -> o.getParameterTypes().toString()));
+  }
+}
@@ -0,0 +1,236 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A CHA call graph that resolves the calls of a method when they are queried for the first time,
+ * instead of constructing the whole call graph from the entry methods. The calls are resolved by
+ * the {@link ClassHierarchyAnalysisAlgorithm} like in the construction of the call graph and are
+ * memoized, so the graph contains the same calls as the constructed one.
+ *
+ * <p>{@link #callsFrom(MethodSignature)} and {@link #callTargetsFrom(MethodSignature)} only resolve
+ * the calls of the given method. They do not check whether it is reachable from the entry methods,
+ * i.e. they return the calls a method has if it is reachable. {@link
+ * #containsMethod(MethodSignature)} and {@link #containsCall(Call)} resolve the methods that are
+ * reachable from the entry methods until the method is found. All other queries, e.g. {@link
+ * #callsTo(MethodSignature)}, need the whole call graph and resolve all reachable methods once.
+ *
+ * <p>Only CHA is supported, since the calls of RTA and VTA depend on all reachable methods. The
+ * call graph can be queried by multiple threads.
+ */
+public class LazyCallGraph implements CallGraph {
+
+  @Nonnull private final ClassHierarchyAnalysisAlgorithm algorithm;
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final Map<MethodSignature, Set<Call>> resolvedCalls = new ConcurrentHashMap<>();
+
+  /** the methods found to be reachable so far, guarded by this */
+  @Nonnull private final Set<MethodSignature> reachableMethods = new HashSet<>();
+
+  /** the reachable methods whose targets were not added to the reachable methods yet */
+  @Nonnull private final Deque<MethodSignature> workList = new ArrayDeque<>();
+
+  @Nullable private volatile FrozenCallGraph completeCallGraph;
+
+  /**
+   * Creates the call graph of the given entry points and their static initializers. No calls are
+   * resolved yet.
+   *
+   * @param algorithm the algorithm that resolves the calls of a method
+   * @param entryPoints the entry methods of the call graph
+   */
+  public LazyCallGraph(
+      @Nonnull ClassHierarchyAnalysisAlgorithm algorithm,
+      @Nonnull List<MethodSignature> entryPoints) {
+    this.algorithm = algorithm;
+    List<MethodSignature> rootSignatures = new ArrayList<>(entryPoints);
+    rootSignatures.addAll(algorithm.getClinitFromEntryPoints(entryPoints));
+    this.entryMethods = Collections.unmodifiableList(rootSignatures);
+    for (MethodSignature entryMethod : rootSignatures) {
+      if (reachableMethods.add(entryMethod)) {
+        workList.add(entryMethod);
+      }
+    }
+  }
+
+  /** Returns the number of methods whose calls have been resolved. */
+  int getResolvedMethodCount() {
+    return resolvedCalls.size();
+  }
+
+  @Nonnull
+  private Set<Call> resolvedCallsFrom(@Nonnull MethodSignature method) {
+    return resolvedCalls.computeIfAbsent(method, algorithm::resolveCallsFrom);
+  }
+
+  /**
+   * Resolves reachable methods until the given method is found or all reachable methods have been
+   * resolved.
+   *
+   * @param method the searched method or null to resolve all reachable methods
+   * @return whether the method is reachable
+   */
+  private synchronized boolean resolveReachableMethods(@Nullable MethodSignature method) {
+    if (method != null && reachableMethods.contains(method)) {
+      return true;
+    }
+    while (!workList.isEmpty()) {
+      for (Call call : resolvedCallsFrom(workList.poll())) {
+        MethodSignature target = call.getTargetMethodSignature();
+        if (reachableMethods.add(target)) {
+          workList.add(target);
+          if (target.equals(method)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Returns the whole call graph, which is constructed on the first call. */
+  @Nonnull
+  private FrozenCallGraph completeCallGraph() {
+    FrozenCallGraph callGraph = completeCallGraph;
+    if (callGraph != null) {
+      return callGraph;
+    }
+    synchronized (this) {
+      if (completeCallGraph == null) {
+        resolveReachableMethods(null);
+        CompactCallGraph compact = new CompactCallGraph(entryMethods);
+        for (MethodSignature method : reachableMethods) {
+          if (!compact.containsMethod(method)) {
+            compact.addMethod(method);
+          }
+          resolvedCallsFrom(method).forEach(compact::addCall);
+        }
+        completeCallGraph = compact.freeze();
+      }
+      return completeCallGraph;
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return completeCallGraph().getMethodSignatures();
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    return resolvedCallsFrom(sourceMethod).stream()
+        .map(Call::getTargetMethodSignature)
+        .collect(Collectors.toSet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    return completeCallGraph().callSourcesTo(targetMethod);
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return resolvedCallsFrom(sourceMethod);
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    return completeCallGraph().callsTo(targetMethod);
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    FrozenCallGraph callGraph = completeCallGraph;
+    if (callGraph != null) {
+      return callGraph.containsMethod(method);
+    }
+    return resolveReachableMethods(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    return containsCall(new Call(sourceMethod, targetMethod, invokableStmt));
+  }
+
+  @Override
+  public boolean containsCall(@Nonnull Call call) {
+    return resolvedCallsFrom(call.getSourceMethodSignature()).contains(call)
+        && containsMethod(call.getSourceMethodSignature());
+  }
+
+  @Override
+  public int callCount() {
+    return completeCallGraph().callCount();
+  }
+
+  @Override
+  public String exportAsDot() {
+    return completeCallGraph().exportAsDot();
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return completeCallGraph().copy();
+  }
+
+  @Override
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+
+  @Nonnull
+  @Override
+  public CallGraphDifference diff(@Nonnull CallGraph callGraph) {
+    return new CallGraphDifference(this, callGraph);
+  }
+
+  @Override
+  public String toString() {
+    return completeCallGraph().toString();
+  }
+}
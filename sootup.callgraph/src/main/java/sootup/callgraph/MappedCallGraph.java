@@ -0,0 +1,388 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * A read-only call graph that is loaded from a file written by the {@link CallGraphWriter}. The
+ * file is memory-mapped and the arrays of the call graph are read from the mapping, i.e. loading
+ * does not depend on the size of the call graph. The signatures are decoded when they are first
+ * requested; the stmts of the call sites of a method are taken from its Body in the view when the
+ * first of them is requested.
+ *
+ * <p>{@link #getMethodId(MethodSignature)} and {@link #getMethodSignatures()} decode all
+ * signatures on their first call. The traversal via the ids only decodes the signatures that are
+ * requested. Like the {@link FrozenCallGraph}, this call graph can be shared between threads.
+ */
+public class MappedCallGraph extends IndexedCallGraph {
+
+  @Nonnull private final View view;
+
+  @Nonnull private final IntBuffer nameOffsets;
+  @Nonnull private final ByteBuffer nameBytes;
+  @Nonnull private final IntBuffer signatureOffsets;
+  @Nonnull private final IntBuffer signatureInts;
+  @Nonnull private final IntBuffer entryMethodIds;
+  @Nonnull private final IntBuffer callSiteOffsets;
+  @Nonnull private final IntBuffer callSiteSources;
+  @Nonnull private final IntBuffer callSiteStmtPositions;
+  @Nonnull private final IntBuffer targetOffsets;
+  @Nonnull private final IntBuffer targets;
+  @Nonnull private final IntBuffer incomingOffsets;
+  @Nonnull private final IntBuffer incomingCallSites;
+
+  private final int methodCount;
+
+  /** the decoded types by the id of their name */
+  @Nonnull private final AtomicReferenceArray<Type> types;
+
+  @Nonnull private final AtomicReferenceArray<MethodSignature> signatures;
+
+  /** the stmts of the Bodies by the id of the method */
+  @Nonnull private final AtomicReferenceArray<List<Stmt>> bodyStmts;
+
+  @Nullable private volatile Map<MethodSignature, Integer> methodIds;
+  @Nullable private volatile List<MethodSignature> entryMethods;
+
+  private MappedCallGraph(@Nonnull ByteBuffer data, @Nonnull View view) throws IOException {
+    this.view = view;
+    if (data.getInt() != CallGraphWriter.MAGIC) {
+      throw new IOException("Not a call graph file");
+    }
+    int version = data.getInt();
+    if (version != CallGraphWriter.VERSION) {
+      throw new IOException("Unsupported version of the call graph file: " + version);
+    }
+    int nameCount = data.getInt();
+    int nameByteCount = data.getInt();
+    int signatureCount = data.getInt();
+    int signatureIntCount = data.getInt();
+    methodCount = data.getInt();
+    int entryMethodCount = data.getInt();
+    int callSiteCount = data.getInt();
+    int targetCount = data.getInt();
+
+    nameOffsets = ints(data, nameCount + 1);
+    nameBytes = bytes(data, nameByteCount);
+    bytes(data, (4 - nameByteCount % 4) % 4);
+    signatureOffsets = ints(data, signatureCount + 1);
+    signatureInts = ints(data, signatureIntCount);
+    entryMethodIds = ints(data, entryMethodCount);
+    callSiteOffsets = ints(data, methodCount + 1);
+    callSiteSources = ints(data, callSiteCount);
+    callSiteStmtPositions = ints(data, callSiteCount);
+    targetOffsets = ints(data, callSiteCount + 1);
+    targets = ints(data, targetCount);
+    incomingOffsets = ints(data, methodCount + 1);
+    incomingCallSites = ints(data, targetCount);
+    if (data.hasRemaining()) {
+      throw new IOException("The call graph file is longer than its content");
+    }
+
+    types = new AtomicReferenceArray<>(nameCount);
+    signatures = new AtomicReferenceArray<>(signatureCount);
+    bodyStmts = new AtomicReferenceArray<>(methodCount);
+  }
+
+  /**
+   * Loads a call graph that was written by the {@link CallGraphWriter}.
+   *
+   * @param view a view of the same input and BodyInterceptors as the view the call graph was
+   *     written with. The stmts of the calls are taken from the Bodies of this view.
+   * @throws IOException if the file can't be read or is not a call graph file of this version
+   */
+  @Nonnull
+  public static MappedCallGraph load(@Nonnull Path file, @Nonnull View view) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new MappedCallGraph(data, view);
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("The call graph file " + file + " is truncated", e);
+    }
+  }
+
+  @Nonnull
+  private static ByteBuffer bytes(@Nonnull ByteBuffer data, int length) {
+    ByteBuffer section = data.slice();
+    section.limit(length);
+    data.position(data.position() + length);
+    return section;
+  }
+
+  @Nonnull
+  private static IntBuffer ints(@Nonnull ByteBuffer data, int length) {
+    return bytes(data, 4 * length).asIntBuffer();
+  }
+
+  @Nonnull
+  private String name(int nameId) {
+    ByteBuffer name = nameBytes.duplicate();
+    name.limit(nameOffsets.get(nameId + 1));
+    name.position(nameOffsets.get(nameId));
+    return StandardCharsets.UTF_8.decode(name).toString();
+  }
+
+  @Nonnull
+  private Type type(int nameId) {
+    Type type = types.get(nameId);
+    if (type == null) {
+      type = view.getIdentifierFactory().getType(name(nameId));
+      types.set(nameId, type);
+    }
+    return type;
+  }
+
+  @Nonnull
+  private MethodSignature signature(int signatureId) {
+    MethodSignature signature = signatures.get(signatureId);
+    if (signature == null) {
+      int from = signatureOffsets.get(signatureId);
+      int to = signatureOffsets.get(signatureId + 1);
+      List<Type> parameterTypes = new ArrayList<>(to - from - 3);
+      for (int i = from + 3; i < to; i++) {
+        parameterTypes.add(type(signatureInts.get(i)));
+      }
+      IdentifierFactory identifierFactory = view.getIdentifierFactory();
+      signature =
+          identifierFactory.getMethodSignature(
+              (ClassType) type(signatureInts.get(from)),
+              name(signatureInts.get(from + 1)),
+              type(signatureInts.get(from + 2)),
+              parameterTypes);
+      signatures.set(signatureId, signature);
+    }
+    return signature;
+  }
+
+  @Nonnull
+  private Map<MethodSignature, Integer> methodIds() {
+    Map<MethodSignature, Integer> ids = methodIds;
+    if (ids == null) {
+      ids = new HashMap<>(methodCount);
+      for (int method = 0; method < methodCount; method++) {
+        ids.put(signature(method), method);
+      }
+      ids = Collections.unmodifiableMap(ids);
+      methodIds = ids;
+    }
+    return ids;
+  }
+
+  @Nonnull
+  private List<Stmt> stmtsOf(int methodId) {
+    List<Stmt> stmts = bodyStmts.get(methodId);
+    if (stmts == null) {
+      MethodSignature method = signature(methodId);
+      SootMethod sootMethod =
+          view.getMethod(method)
+              .filter(SootMethod::hasBody)
+              .orElseThrow(
+                  () ->
+                      new IllegalStateException(
+                          "The method " + method + " has no Body in the view."));
+      stmts = sootMethod.getBody().getStmts();
+      // the first list wins, so the stmts stay the same even if the Body is resolved again
+      if (!bodyStmts.compareAndSet(methodId, null, stmts)) {
+        stmts = bodyStmts.get(methodId);
+      }
+    }
+    return stmts;
+  }
+
+  @Override
+  public int getMethodCount() {
+    return methodCount;
+  }
+
+  @Override
+  public int getMethodId(@Nonnull MethodSignature method) {
+    Integer methodId = methodIds().get(method);
+    return methodId == null ? -1 : methodId;
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getMethodSignature(int methodId) {
+    checkIndex(methodId, methodCount);
+    return signature(methodId);
+  }
+
+  @Override
+  public int getCallSiteCount() {
+    return callSiteSources.limit();
+  }
+
+  @Override
+  public int getCallSiteCountOf(int methodId) {
+    return callSiteOffsets.get(methodId + 1) - callSiteOffsets.get(methodId);
+  }
+
+  @Override
+  public int getCallSite(int methodId, int index) {
+    checkIndex(index, getCallSiteCountOf(methodId));
+    return callSiteOffsets.get(methodId) + index;
+  }
+
+  @Override
+  public int getCallSiteSource(int callSite) {
+    return callSiteSources.get(callSite);
+  }
+
+  /**
+   * Returns the stmt of the call site in the Body of the source method.
+   *
+   * @throws IllegalStateException if the Body in the view does not match the file
+   */
+  @Nonnull
+  @Override
+  public InvokableStmt getCallSiteStmt(int callSite) {
+    int source = callSiteSources.get(callSite);
+    List<Stmt> stmts = stmtsOf(source);
+    int position = callSiteStmtPositions.get(callSite);
+    Stmt stmt = position < stmts.size() ? stmts.get(position) : null;
+    if (!(stmt instanceof InvokableStmt)) {
+      throw new IllegalStateException(
+          "The Body of " + signature(source) + " does not match the call graph file.");
+    }
+    return (InvokableStmt) stmt;
+  }
+
+  @Override
+  public int getTargetCount(int callSite) {
+    return targetOffsets.get(callSite + 1) - targetOffsets.get(callSite);
+  }
+
+  @Override
+  public int getTarget(int callSite, int index) {
+    checkIndex(index, getTargetCount(callSite));
+    return targets.get(targetOffsets.get(callSite) + index);
+  }
+
+  @Override
+  public int getIncomingCallSiteCount(int methodId) {
+    return incomingOffsets.get(methodId + 1) - incomingOffsets.get(methodId);
+  }
+
+  @Override
+  public int getIncomingCallSite(int methodId, int index) {
+    checkIndex(index, getIncomingCallSiteCount(methodId));
+    return incomingCallSites.get(incomingOffsets.get(methodId) + index);
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  @Override
+  protected int findCallSite(int methodId, @Nonnull InvokableStmt invokableStmt) {
+    for (int callSite = callSiteOffsets.get(methodId);
+        callSite < callSiteOffsets.get(methodId + 1);
+        callSite++) {
+      if (getCallSiteStmt(callSite) == invokableStmt) {
+        return callSite;
+      }
+    }
+    return -1;
+  }
+
+  /** Searches the target in the sorted targets of the call site. */
+  @Override
+  protected boolean containsTarget(int callSite, int target) {
+    int low = targetOffsets.get(callSite);
+    int high = targetOffsets.get(callSite + 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int value = targets.get(middle);
+      if (value < target) {
+        low = middle + 1;
+      } else if (value > target) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return methodIds().keySet();
+  }
+
+  @Override
+  public int callCount() {
+    return targets.limit();
+  }
+
+  /** Returns a modifiable {@link CompactCallGraph} with the same ids. */
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    return new CompactCallGraph(this);
+  }
+
+  @Nonnull
+  @Override
+  public List<MethodSignature> getEntryMethods() {
+    List<MethodSignature> methods = entryMethods;
+    if (methods == null) {
+      methods = new ArrayList<>(entryMethodIds.limit());
+      for (int i = 0; i < entryMethodIds.limit(); i++) {
+        methods.add(signature(entryMethodIds.get(i)));
+      }
+      methods = Collections.unmodifiableList(methods);
+      entryMethods = methods;
+    }
+    return methods;
+  }
+}
@@ -51,6 +51,13 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   @Nonnull protected Set<ClassType> instantiatedClasses = Collections.emptySet();
   @Nonnull protected Map<ClassType, List<Call>> ignoredCalls = Collections.emptyMap();
 
+  /**
+   * guards {@link #instantiatedClasses} and {@link #ignoredCalls}: checking whether a class is
+   * instantiated and ignoring a call to it has to be atomic, otherwise a parallel construction
+   * could lose the call when the class is instantiated in between.
+   */
+  @Nonnull private final Object instantiationLock = new Object();
+
   /**
    * The constructor of the RTA algorithm.
    *
@@ -60,6 +67,16 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     super(view);
   }
 
+  /**
+   * The constructor of the RTA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param dispatchCache the cache of resolved calls that is shared with other algorithms
+   */
+  public RapidTypeAnalysisAlgorithm(@Nonnull View view, @Nonnull DispatchCache dispatchCache) {
+    super(view, dispatchCache);
+  }
+
   @Nonnull
   @Override
   public CallGraph initialize() {
@@ -82,6 +99,143 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     return cg;
   }
 
+  /**
+   * Updates the call graph like {@link AbstractCallGraphAlgorithm#updateClasses(CallGraph,
+   * Collection, Collection, Collection)}. Since a call of RTA is only valid as long as a class that
+   * it dispatches to is instantiated by a reachable method, the calls that were derived from
+   * removed calls or from changed instantiations are resolved again as well.
+   */
+  @Nonnull
+  @Override
+  public CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses) {
+    try {
+      return super.updateClasses(oldCallGraph, addedClasses, changedClasses, removedClasses);
+    } finally {
+      instantiatedClasses = Collections.emptySet();
+      ignoredCalls = Collections.emptyMap();
+    }
+  }
+
+  @Nonnull
+  @Override
+  protected MutableCallGraph reconstructCallGraph(
+      @Nonnull CallGraphUpdate update,
+      @Nonnull List<MethodSignature> entryPoints,
+      @Nonnull List<MethodSignature> clinits) {
+    instantiatedClasses = new HashSet<>();
+    ignoredCalls = new HashMap<>();
+    return super.reconstructCallGraph(update, entryPoints, clinits);
+  }
+
+  /**
+   * Deletes and derives again the calls of the old call graph that depend on removed calls: the
+   * methods that were reachable from the targets of removed calls become dirty, and their
+   * instantiations are treated as changed. The calls that may dispatch to a class whose
+   * instantiation changed become dirty as well.
+   */
+  @Nonnull
+  @Override
+  protected Set<MethodSignature> invalidatedByUpdate(
+      @Nonnull CallGraphUpdate update, @Nonnull CallGraph reconstructed) {
+    CallGraph oldCallGraph = update.getOldCallGraph();
+    Set<MethodSignature> invalidated =
+        reachableMethods(oldCallGraph, removedCallTargets(update, reconstructed));
+
+    Set<ClassType> previouslyInstantiated = new HashSet<>();
+    Set<ClassType> changedInstantiations = new HashSet<>();
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      if (update.getModifiedClasses().contains(method.getDeclClassType())) {
+        // the old body is gone, its constructor calls tell which classes it may have instantiated
+        oldCallGraph.callsFrom(method).stream()
+            .map(Call::getTargetMethodSignature)
+            .filter(target -> target.getName().equals("<init>"))
+            .forEach(target -> changedInstantiations.add(target.getDeclClassType()));
+      } else {
+        Set<ClassType> instantiated = instantiatedClassesOf(method);
+        previouslyInstantiated.addAll(instantiated);
+        if (invalidated.contains(method)) {
+          changedInstantiations.addAll(instantiated);
+        }
+      }
+    }
+    for (ClassType classType : instantiatedClasses) {
+      if (!previouslyInstantiated.contains(classType)) {
+        changedInstantiations.add(classType);
+      }
+    }
+    for (ClassType classType : previouslyInstantiated) {
+      if (!instantiatedClasses.contains(classType)) {
+        changedInstantiations.add(classType);
+      }
+    }
+    invalidated.addAll(update.methodsReferencing(update.supertypesOf(changedInstantiations)));
+    return invalidated;
+  }
+
+  /**
+   * Returns the targets of the calls of the old call graph that are missing in the reconstructed
+   * one. Only the calls of dirty and of unreachable methods can be missing.
+   */
+  @Nonnull
+  private static Set<MethodSignature> removedCallTargets(
+      @Nonnull CallGraphUpdate update, @Nonnull CallGraph reconstructed) {
+    CallGraph oldCallGraph = update.getOldCallGraph();
+    Set<MethodSignature> removedTargets = new HashSet<>();
+    for (MethodSignature method : oldCallGraph.getMethodSignatures()) {
+      if (update.isReusable(method) && reconstructed.containsMethod(method)) {
+        continue;
+      }
+      // the statements of changed methods differ, so the calls are counted per target
+      Map<MethodSignature, Integer> callCounts = new HashMap<>();
+      oldCallGraph
+          .callsFrom(method)
+          .forEach(call -> callCounts.merge(call.getTargetMethodSignature(), 1, Integer::sum));
+      if (reconstructed.containsMethod(method)) {
+        reconstructed
+            .callsFrom(method)
+            .forEach(call -> callCounts.merge(call.getTargetMethodSignature(), -1, Integer::sum));
+      }
+      callCounts.forEach(
+          (target, count) -> {
+            if (count > 0) {
+              removedTargets.add(target);
+            }
+          });
+    }
+    return removedTargets;
+  }
+
+  /** Returns the given methods and the methods reachable from them in the call graph. */
+  @Nonnull
+  private static Set<MethodSignature> reachableMethods(
+      @Nonnull CallGraph callGraph, @Nonnull Set<MethodSignature> methods) {
+    Set<MethodSignature> reachable = new HashSet<>(methods);
+    Deque<MethodSignature> workList = new ArrayDeque<>(methods);
+    while (!workList.isEmpty()) {
+      for (MethodSignature target : callGraph.callTargetsFrom(workList.pop())) {
+        if (reachable.add(target)) {
+          workList.push(target);
+        }
+      }
+    }
+    return reachable;
+  }
+
+  /** Returns the classes instantiated by the method if it is processed by the algorithm. */
+  @Nonnull
+  private Set<ClassType> instantiatedClassesOf(@Nonnull MethodSignature methodSignature) {
+    return view.getClass(methodSignature.getDeclClassType())
+        .filter(sootClass -> !sootClass.isLibraryClass())
+        .flatMap(sootClass -> sootClass.getMethod(methodSignature.getSubSignature()))
+        .filter(method -> !method.isAbstract() && !method.isNative())
+        .map(method -> instantiatedClassesIn((SootMethod) method))
+        .orElse(Collections.emptySet());
+  }
+
   /**
    * This method is called to collect all instantiation of classes in a given method body. This is
    * important since the RTA algorithm resolves virtual calls only to instantiated classes
@@ -93,19 +247,25 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return Collections.emptyList();
     }
 
-    Set<ClassType> instantiated =
-        method.getBody().getStmts().stream()
-            .filter(stmt -> stmt instanceof JAssignStmt)
-            .map(stmt -> ((JAssignStmt) stmt).getRightOp())
-            .filter(value -> value instanceof JNewExpr)
-            .map(value -> ((JNewExpr) value).getType())
-            .collect(Collectors.toSet());
-    List<ClassType> newInstantiatedClassTypes =
-        instantiated.stream()
-            .filter(classType -> !instantiatedClasses.contains(classType))
-            .collect(Collectors.toList());
-    instantiatedClasses.addAll(instantiated);
-    return newInstantiatedClassTypes;
+    Set<ClassType> instantiated = instantiatedClassesIn(method);
+    synchronized (instantiationLock) {
+      List<ClassType> newInstantiatedClassTypes =
+          instantiated.stream()
+              .filter(classType -> !instantiatedClasses.contains(classType))
+              .collect(Collectors.toList());
+      instantiatedClasses.addAll(instantiated);
+      return newInstantiatedClassTypes;
+    }
+  }
+
+  @Nonnull
+  private static Set<ClassType> instantiatedClassesIn(@Nonnull SootMethod method) {
+    return method.getBody().getStmts().stream()
+        .filter(stmt -> stmt instanceof JAssignStmt)
+        .map(stmt -> ((JAssignStmt) stmt).getRightOp())
+        .filter(value -> value instanceof JNewExpr)
+        .map(value -> ((JNewExpr) value).getType())
+        .collect(Collectors.toSet());
   }
 
   /**
@@ -132,7 +292,7 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     Stream<MethodSignature> result = Stream.of(resolveBaseMethodSignature);
 
     SootMethod concreteBaseMethod =
-        findConcreteMethod(view, resolveBaseMethodSignature).orElse(null);
+        dispatchCache.findConcreteMethod(resolveBaseMethodSignature).orElse(null);
 
     if (concreteBaseMethod == null
         || MethodModifier.isStatic(concreteBaseMethod.getModifiers())
@@ -140,13 +300,13 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
       return result;
     } else {
       // the class of the actual method call is instantiated
-      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())) {
+      if (isInstantiatedOrIgnoreCall(
+          sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt)) {
         return Stream.concat(
             Stream.of(concreteBaseMethod.getSignature()),
             resolveAllCallTargets(
                 sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt));
       } else {
-        saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
         return resolveAllCallTargets(
             sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
       }
@@ -176,10 +336,9 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
               MethodSignature method =
                   view.getIdentifierFactory()
                       .getMethodSignature(classType, resolveBaseMethodSignature.getSubSignature());
-              if (instantiatedClasses.contains(classType)) {
-                return resolveConcreteDispatch(view, method);
+              if (isInstantiatedOrIgnoreCall(source, method, invokableStmt)) {
+                return dispatchCache.resolveConcreteDispatch(method);
               } else {
-                saveIgnoredCall(source, method, invokableStmt);
                 return Optional.<MethodSignature>empty();
               }
             })
@@ -187,6 +346,23 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
         .map(Optional::get);
   }
 
+  /**
+   * Checks whether the declaring class of the target is instantiated and saves the call as ignored
+   * call otherwise.
+   *
+   * @return true if the declaring class of the target is instantiated
+   */
+  private boolean isInstantiatedOrIgnoreCall(
+      MethodSignature source, MethodSignature target, InvokableStmt invokableStmt) {
+    synchronized (instantiationLock) {
+      if (instantiatedClasses.contains(target.getDeclClassType())) {
+        return true;
+      }
+      saveIgnoredCall(source, target, invokableStmt);
+      return false;
+    }
+  }
+
   /**
    * This method saves an ignored call If this is the first ignored call of the class type in the
    * target method, an entry for the class type is created in the ignoredCalls Hashmap
@@ -248,12 +424,16 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    */
   protected void includeIgnoredCallsToClass(
       ClassType classType, MutableCallGraph cg, Deque<MethodSignature> workList) {
-    List<Call> newEdges = ignoredCalls.get(classType);
+    List<Call> newEdges;
+    synchronized (instantiationLock) {
+      // can be removed because the instantiated class will be considered in future resolves
+      newEdges = ignoredCalls.remove(classType);
+    }
     if (newEdges != null) {
       newEdges.forEach(
           call -> {
             MethodSignature concreteTarget =
-                resolveConcreteDispatch(view, call.getTargetMethodSignature()).orElse(null);
+                dispatchCache.resolveConcreteDispatch(call.getTargetMethodSignature()).orElse(null);
             if (concreteTarget == null) {
               return;
             }
@@ -264,8 +444,6 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
                 cg,
                 workList);
           });
-      // can be removed because the instantiated class will be considered in future resolves
-      ignoredCalls.remove(classType);
     }
   }
 
@@ -0,0 +1,127 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the strongly connected components of a graph whose successors are stored in compressed
+ * sparse rows, with an iterative version of Tarjan's algorithm.
+ *
+ * <p>The components are numbered in reverse topological order: the successors of a component have
+ * smaller numbers than the component itself.
+ */
+final class StronglyConnectedComponents {
+
+  private StronglyConnectedComponents() {}
+
+  /**
+   * Finds the strongly connected components.
+   *
+   * @param offsets the successors of node i are stored from successors[offsets[i]] to the next
+   *     offset, i.e. the array has one entry more than there are nodes
+   * @param successors the successors of all nodes
+   * @param components receives the component of each node
+   * @param firstComponents receives for each component the smallest component that was found in
+   *     the depth first search from the component, i.e. all components from this one to the
+   *     component itself are reachable from it. May be null, otherwise it needs one entry per node.
+   * @return the number of components
+   */
+  static int find(
+      @Nonnull int[] offsets,
+      @Nonnull int[] successors,
+      @Nonnull int[] components,
+      @Nullable int[] firstComponents) {
+    int nodeCount = offsets.length - 1;
+    int[] index = new int[nodeCount];
+    Arrays.fill(index, -1);
+    int[] lowLink = new int[nodeCount];
+    int[] componentsAtVisit = firstComponents == null ? null : new int[nodeCount];
+    boolean[] onStack = new boolean[nodeCount];
+    int[] stack = new int[nodeCount];
+    int stackSize = 0;
+    int[] callNodes = new int[nodeCount];
+    int[] callEdges = new int[nodeCount];
+    int nextIndex = 0;
+    int componentCount = 0;
+
+    for (int root = 0; root < nodeCount; root++) {
+      if (index[root] >= 0) {
+        continue;
+      }
+      int depth = 0;
+      index[root] = lowLink[root] = nextIndex++;
+      stack[stackSize++] = root;
+      onStack[root] = true;
+      if (componentsAtVisit != null) {
+        componentsAtVisit[root] = componentCount;
+      }
+      callNodes[depth] = root;
+      callEdges[depth] = offsets[root];
+      depth++;
+
+      while (depth > 0) {
+        int node = callNodes[depth - 1];
+        int edge = callEdges[depth - 1];
+        if (edge < offsets[node + 1]) {
+          callEdges[depth - 1]++;
+          int successor = successors[edge];
+          if (index[successor] < 0) {
+            index[successor] = lowLink[successor] = nextIndex++;
+            stack[stackSize++] = successor;
+            onStack[successor] = true;
+            if (componentsAtVisit != null) {
+              componentsAtVisit[successor] = componentCount;
+            }
+            callNodes[depth] = successor;
+            callEdges[depth] = offsets[successor];
+            depth++;
+          } else if (onStack[successor]) {
+            lowLink[node] = Math.min(lowLink[node], index[successor]);
+          }
+        } else {
+          depth--;
+          if (depth > 0) {
+            int caller = callNodes[depth - 1];
+            lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+          }
+          if (lowLink[node] == index[node]) {
+            int member;
+            do {
+              member = stack[--stackSize];
+              onStack[member] = false;
+              components[member] = componentCount;
+            } while (member != node);
+            if (componentsAtVisit != null) {
+              firstComponents[componentCount] = componentsAtVisit[node];
+            }
+            componentCount++;
+          }
+        }
+      }
+    }
+    return componentCount;
+  }
+}
@@ -0,0 +1,234 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.types.ClassType;
+
+/**
+ * A graph whose nodes hold sets of class types that flow along its edges, e.g. from the right side
+ * of an assignment to its left side. The types are numbered with dense ids; the id {@link
+ * #UNKNOWN_TYPE} stands for any type, e.g. for values that are returned by library methods.
+ *
+ * <p>{@link #propagate()} collapses the strongly connected components of the graph, since all
+ * nodes of a cycle hold the same types, and visits the components once in topological order. A
+ * component shares the bit set of its only predecessor until it receives types from a second one.
+ */
+final class TypeFlowGraph {
+
+  /** The id of the type that stands for any type. */
+  static final int UNKNOWN_TYPE = 0;
+
+  @Nonnull private final List<ClassType> types = new ArrayList<>();
+  @Nonnull private final Map<ClassType, Integer> typeIds = new HashMap<>();
+
+  private int nodeCount = 0;
+  @Nonnull private int[] edgeSources = new int[16];
+  @Nonnull private int[] edgeTargets = new int[16];
+  private int edgeCount = 0;
+  @Nonnull private int[] seedNodes = new int[16];
+  @Nonnull private int[] seedTypes = new int[16];
+  private int seedCount = 0;
+
+  /** The types of each node after the propagation; nodes of a component share their bit set. */
+  @Nullable private BitSet[] nodeTypes;
+
+  TypeFlowGraph() {
+    types.add(null);
+  }
+
+  /** Adds the given number of nodes and returns the id of the first one. */
+  int addNodes(int count) {
+    int first = nodeCount;
+    nodeCount += count;
+    return first;
+  }
+
+  int getNodeCount() {
+    return nodeCount;
+  }
+
+  int getEdgeCount() {
+    return edgeCount;
+  }
+
+  /** Adds an edge along which the types of the source node flow to the target node. */
+  void addEdge(int source, int target) {
+    if (source == target) {
+      return;
+    }
+    if (edgeCount == edgeSources.length) {
+      edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+      edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+    }
+    edgeSources[edgeCount] = source;
+    edgeTargets[edgeCount] = target;
+    edgeCount++;
+  }
+
+  /** Adds the type to the initial types of the node. */
+  void addType(int node, @Nonnull ClassType type) {
+    addTypeId(node, typeIdOf(type));
+  }
+
+  /** Adds {@link #UNKNOWN_TYPE} to the initial types of the node. */
+  void addUnknownType(int node) {
+    addTypeId(node, UNKNOWN_TYPE);
+  }
+
+  private void addTypeId(int node, int typeId) {
+    if (seedCount == seedNodes.length) {
+      seedNodes = Arrays.copyOf(seedNodes, seedCount * 2);
+      seedTypes = Arrays.copyOf(seedTypes, seedCount * 2);
+    }
+    seedNodes[seedCount] = node;
+    seedTypes[seedCount] = typeId;
+    seedCount++;
+  }
+
+  private int typeIdOf(@Nonnull ClassType type) {
+    return typeIds.computeIfAbsent(
+        type,
+        key -> {
+          types.add(key);
+          return types.size() - 1;
+        });
+  }
+
+  /** Returns the number of type ids including {@link #UNKNOWN_TYPE}. */
+  int getTypeCount() {
+    return types.size();
+  }
+
+  /** Returns the id of the type or -1 if it was not added to any node. */
+  int getTypeId(@Nonnull ClassType type) {
+    Integer typeId = typeIds.get(type);
+    return typeId == null ? -1 : typeId;
+  }
+
+  /** Returns the type of the id or null for {@link #UNKNOWN_TYPE}. */
+  @Nullable
+  ClassType getType(int typeId) {
+    return types.get(typeId);
+  }
+
+  /**
+   * Returns the ids of the types that flow to the node, which must not be modified, or null if no
+   * type flows to it.
+   *
+   * @throws IllegalStateException if the types have not been propagated yet
+   */
+  @Nullable
+  BitSet getTypes(int node) {
+    if (nodeTypes == null) {
+      throw new IllegalStateException("The types have not been propagated yet.");
+    }
+    return nodeTypes[node];
+  }
+
+  /** Propagates the initial types of the nodes along the edges. */
+  void propagate() {
+    // the successors of each node
+    int[] offsets = new int[nodeCount + 1];
+    for (int i = 0; i < edgeCount; i++) {
+      offsets[edgeSources[i] + 1]++;
+    }
+    for (int node = 0; node < nodeCount; node++) {
+      offsets[node + 1] += offsets[node];
+    }
+    int[] successors = new int[edgeCount];
+    int[] positions = Arrays.copyOf(offsets, nodeCount);
+    for (int i = 0; i < edgeCount; i++) {
+      successors[positions[edgeSources[i]]++] = edgeTargets[i];
+    }
+
+    int[] components = new int[nodeCount];
+    int componentCount = StronglyConnectedComponents.find(offsets, successors, components, null);
+
+    // the nodes ordered by their component
+    int[] componentOffsets = new int[componentCount + 1];
+    for (int node = 0; node < nodeCount; node++) {
+      componentOffsets[components[node] + 1]++;
+    }
+    for (int component = 0; component < componentCount; component++) {
+      componentOffsets[component + 1] += componentOffsets[component];
+    }
+    int[] componentNodes = new int[nodeCount];
+    int[] componentPositions = Arrays.copyOf(componentOffsets, componentCount);
+    for (int node = 0; node < nodeCount; node++) {
+      componentNodes[componentPositions[components[node]]++] = node;
+    }
+
+    BitSet[] componentTypes = new BitSet[componentCount];
+    boolean[] shared = new boolean[componentCount];
+    for (int i = 0; i < seedCount; i++) {
+      int component = components[seedNodes[i]];
+      if (componentTypes[component] == null) {
+        componentTypes[component] = new BitSet();
+      }
+      componentTypes[component].set(seedTypes[i]);
+    }
+
+    // the successors of a component have smaller numbers
+    for (int component = componentCount - 1; component >= 0; component--) {
+      BitSet typesOfComponent = componentTypes[component];
+      if (typesOfComponent == null) {
+        continue;
+      }
+      for (int i = componentOffsets[component]; i < componentOffsets[component + 1]; i++) {
+        int node = componentNodes[i];
+        for (int j = offsets[node]; j < offsets[node + 1]; j++) {
+          int successor = components[successors[j]];
+          BitSet typesOfSuccessor = componentTypes[successor];
+          if (successor == component || typesOfSuccessor == typesOfComponent) {
+            continue;
+          }
+          if (typesOfSuccessor == null) {
+            componentTypes[successor] = typesOfComponent;
+            shared[successor] = true;
+          } else {
+            if (shared[successor]) {
+              typesOfSuccessor = (BitSet) typesOfSuccessor.clone();
+              componentTypes[successor] = typesOfSuccessor;
+              shared[successor] = false;
+            }
+            typesOfSuccessor.or(typesOfComponent);
+          }
+        }
+      }
+    }
+
+    BitSet[] typesOfNodes = new BitSet[nodeCount];
+    for (int node = 0; node < nodeCount; node++) {
+      typesOfNodes[node] = componentTypes[components[node]];
+    }
+    nodeTypes = typesOfNodes;
+  }
+}
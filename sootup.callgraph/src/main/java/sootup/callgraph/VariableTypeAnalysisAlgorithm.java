@@ -0,0 +1,560 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.callgraph.CallGraph.Call;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.constant.Constant;
+import sootup.core.jimple.common.constant.NullConstant;
+import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JCastExpr;
+import sootup.core.jimple.common.expr.JNewArrayExpr;
+import sootup.core.jimple.common.expr.JNewExpr;
+import sootup.core.jimple.common.expr.JNewMultiArrayExpr;
+import sootup.core.jimple.common.expr.JPhiExpr;
+import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
+import sootup.core.jimple.common.ref.JArrayRef;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.ref.JFieldRef;
+import sootup.core.jimple.common.ref.JParameterRef;
+import sootup.core.jimple.common.ref.JThisRef;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
+import sootup.core.jimple.common.stmt.JReturnStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.MethodModifier;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.ReferenceType;
+import sootup.core.views.View;
+
+/**
+ * This class implements the Variable Type Analysis call graph algorithm. In this algorithm, every
+ * virtual call is resolved to the methods of the instantiated classes that may flow to the receiver
+ * of the call.
+ *
+ * <p>The algorithm constructs an RTA call graph first. Along its calls, it builds a {@link
+ * TypeFlowGraph} whose nodes are the locals, the parameters and return values of the methods and
+ * the fields, i.e. a field is shared by all objects of its class. The classes of the new
+ * expressions flow along assignments, casts, calls and returns; values of library methods, arrays,
+ * constants and caught exceptions may hold any instantiated class. The call graph is then
+ * constructed again with the propagated types of the receivers.
+ *
+ * <p>Compared to the RTA algorithm, this algorithm is more precise because it only considers the
+ * instantiated classes that are assigned to the receiver and RTA considers all of them. Its call
+ * graph is contained in the RTA call graph.
+ */
+public class VariableTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
+
+  /** The nodes of the parameters, the return value and the locals of a method. */
+  private static class MethodNodes {
+    /** the node of <code>this</code>, followed by the nodes of the parameters and of the return */
+    private final int firstNode;
+
+    private final int parameterCount;
+    @Nonnull private final Map<String, Integer> locals = new HashMap<>();
+
+    private MethodNodes(int firstNode, int parameterCount) {
+      this.firstNode = firstNode;
+      this.parameterCount = parameterCount;
+    }
+
+    private int thisNode() {
+      return firstNode;
+    }
+
+    private int parameterNode(int index) {
+      return firstNode + 1 + index;
+    }
+
+    private int returnNode() {
+      return firstNode + 1 + parameterCount;
+    }
+
+    /** Returns the node of the local or -1 if the local does not hold references. */
+    private int localNode(@Nonnull TypeFlowGraph graph, @Nonnull Local local) {
+      if (local.getType() instanceof PrimitiveType) {
+        return -1;
+      }
+      return locals.computeIfAbsent(local.getName(), name -> graph.addNodes(1));
+    }
+  }
+
+  @Nullable private TypeFlowGraph typeFlowGraph;
+  @Nonnull private Map<MethodSignature, MethodNodes> methodNodes = Collections.emptyMap();
+  @Nonnull private Map<FieldSignature, Integer> fieldNodes = Collections.emptyMap();
+
+  /** the instantiated classes of each declaring class of a virtual call, as type ids */
+  @Nonnull private final Map<ClassType, BitSet> instantiatedSubtypes = new ConcurrentHashMap<>();
+
+  /**
+   * The constructor of the VTA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   */
+  public VariableTypeAnalysisAlgorithm(@Nonnull View view) {
+    super(view);
+  }
+
+  /**
+   * The constructor of the VTA algorithm.
+   *
+   * @param view it contains the data of the classes and methods
+   * @param dispatchCache the cache of resolved calls that is shared with other algorithms
+   */
+  public VariableTypeAnalysisAlgorithm(@Nonnull View view, @Nonnull DispatchCache dispatchCache) {
+    super(view, dispatchCache);
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize() {
+    return initialize(Collections.singletonList(findMainMethod(view)));
+  }
+
+  @Nonnull
+  @Override
+  public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
+    CallGraph rtaCallGraph = constructRapidTypeAnalysisCallGraph(entryPoints);
+
+    try {
+      typeFlowGraph = buildTypeFlowGraph(rtaCallGraph, entryPoints);
+      typeFlowGraph.propagate();
+      return constructCompleteCallGraph(view, entryPoints);
+    } finally {
+      // delete the data structures
+      typeFlowGraph = null;
+      methodNodes = Collections.emptyMap();
+      fieldNodes = Collections.emptyMap();
+      instantiatedSubtypes.clear();
+    }
+  }
+
+  /** Constructs the RTA call graph whose calls are restricted to the propagated types. */
+  @Nonnull
+  CallGraph constructRapidTypeAnalysisCallGraph(@Nonnull List<MethodSignature> entryPoints) {
+    RapidTypeAnalysisAlgorithm rta = new RapidTypeAnalysisAlgorithm(view, dispatchCache);
+    rta.setParallelism(getParallelism());
+    return rta.initialize(entryPoints);
+  }
+
+  /**
+   * Constructs the call graph again with the entry points of the old call graph, since the types
+   * that flow to a receiver may depend on any method of the old call graph.
+   */
+  @Nonnull
+  @Override
+  public CallGraph updateClasses(
+      @Nonnull CallGraph oldCallGraph,
+      @Nonnull Collection<ClassType> addedClasses,
+      @Nonnull Collection<ClassType> changedClasses,
+      @Nonnull Collection<ClassType> removedClasses) {
+    if (addedClasses.isEmpty() && changedClasses.isEmpty() && removedClasses.isEmpty()) {
+      return oldCallGraph;
+    }
+    dispatchCache.clear();
+    return initialize(entryPointsOf(oldCallGraph));
+  }
+
+  /** Constructs the call graph again like {@link #updateClasses}. */
+  @Nonnull
+  @Override
+  public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull ClassType classType) {
+    return updateClasses(
+        oldCallGraph,
+        Collections.singleton(classType),
+        Collections.emptySet(),
+        Collections.emptySet());
+  }
+
+  /**
+   * Builds the type flow graph of the methods of the RTA call graph. The parameters of the entry
+   * points may hold any type.
+   */
+  @Nonnull
+  private TypeFlowGraph buildTypeFlowGraph(
+      @Nonnull CallGraph rtaCallGraph, @Nonnull List<MethodSignature> entryPoints) {
+    TypeFlowGraph graph = new TypeFlowGraph();
+    methodNodes = new HashMap<>();
+    fieldNodes = new HashMap<>();
+
+    List<SootMethod> methods = new ArrayList<>();
+    for (MethodSignature signature : rtaCallGraph.getMethodSignatures()) {
+      SootMethod method = findAnalyzedMethod(signature);
+      if (method != null) {
+        methods.add(method);
+        int parameterCount = signature.getParameterTypes().size();
+        methodNodes.put(
+            signature, new MethodNodes(graph.addNodes(parameterCount + 2), parameterCount));
+      }
+    }
+    for (MethodSignature entryPoint : entryPoints) {
+      addUnknownParameterTypes(graph, entryPoint);
+    }
+
+    Map<FieldSignature, FieldSignature> declaredFields = new HashMap<>();
+    for (SootMethod method : methods) {
+      MethodNodes nodes = methodNodes.get(method.getSignature());
+      // the targets of the calls per invoked method: the call graph may refer to the statements
+      // of another instance of the body, i.e. if it was released and resolved again since. RTA
+      // resolves the calls of the same method alike, the union only adds the targets of special
+      // invokes to virtual ones or vice versa.
+      Map<MethodSignature, Set<MethodSignature>> callTargets = new HashMap<>();
+      for (Call call : rtaCallGraph.callsFrom(method.getSignature())) {
+        InvokableStmt callStmt = call.getInvokableStmt();
+        if (callStmt.containsInvokeExpr()) {
+          callTargets
+              .computeIfAbsent(
+                  callStmt.getInvokeExpr().get().getMethodSignature(),
+                  invoked -> new LinkedHashSet<>())
+              .add(call.getTargetMethodSignature());
+        }
+      }
+
+      for (Stmt stmt : method.getBody().getStmts()) {
+        if (stmt instanceof JIdentityStmt) {
+          JIdentityStmt identityStmt = (JIdentityStmt) stmt;
+          int local = nodes.localNode(graph, identityStmt.getLeftOp());
+          if (local < 0) {
+            continue;
+          }
+          Value rightOp = identityStmt.getRightOp();
+          if (rightOp instanceof JThisRef) {
+            graph.addEdge(nodes.thisNode(), local);
+          } else if (rightOp instanceof JParameterRef) {
+            graph.addEdge(nodes.parameterNode(((JParameterRef) rightOp).getIndex()), local);
+          } else if (rightOp instanceof JCaughtExceptionRef) {
+            graph.addUnknownType(local);
+          }
+        } else if (stmt instanceof JAssignStmt) {
+          JAssignStmt assignStmt = (JAssignStmt) stmt;
+          int target = -1;
+          Value leftOp = assignStmt.getLeftOp();
+          if (leftOp instanceof Local) {
+            target = nodes.localNode(graph, (Local) leftOp);
+          } else if (leftOp instanceof JFieldRef) {
+            target = fieldNode(graph, (JFieldRef) leftOp, declaredFields);
+          }
+          // the elements of arrays are not tracked, they are read as any type
+          if (assignStmt.containsInvokeExpr()) {
+            addCallEdges(graph, nodes, assignStmt, target, callTargets);
+          } else if (target >= 0) {
+            addAssignmentEdges(graph, nodes, assignStmt.getRightOp(), target, declaredFields);
+          }
+        } else if (stmt instanceof JReturnStmt) {
+          addValueEdge(graph, nodes, ((JReturnStmt) stmt).getOp(), nodes.returnNode());
+        } else if (stmt.isInvokableStmt() && stmt.asInvokableStmt().containsInvokeExpr()) {
+          addCallEdges(graph, nodes, stmt.asInvokableStmt(), -1, callTargets);
+        }
+      }
+    }
+    return graph;
+  }
+
+  /** Returns the method if its body is part of the type flow graph, i.e. not a library method. */
+  @Nullable
+  private SootMethod findAnalyzedMethod(@Nonnull MethodSignature signature) {
+    SootClass sootClass = view.getClass(signature.getDeclClassType()).orElse(null);
+    if (sootClass == null || sootClass.isLibraryClass()) {
+      return null;
+    }
+    SootMethod method = sootClass.getMethod(signature.getSubSignature()).orElse(null);
+    if (method == null || !method.hasBody()) {
+      return null;
+    }
+    return method;
+  }
+
+  private void addUnknownParameterTypes(
+      @Nonnull TypeFlowGraph graph, @Nonnull MethodSignature method) {
+    MethodNodes nodes = methodNodes.get(method);
+    if (nodes == null) {
+      return;
+    }
+    graph.addUnknownType(nodes.thisNode());
+    for (int i = 0; i < nodes.parameterCount; i++) {
+      graph.addUnknownType(nodes.parameterNode(i));
+    }
+  }
+
+  /** Adds the edges of an assignment without a call to the target node. */
+  private void addAssignmentEdges(
+      @Nonnull TypeFlowGraph graph,
+      @Nonnull MethodNodes nodes,
+      @Nonnull Value rightOp,
+      int target,
+      @Nonnull Map<FieldSignature, FieldSignature> declaredFields) {
+    if (rightOp instanceof JCastExpr) {
+      rightOp = ((JCastExpr) rightOp).getOp();
+    }
+    if (rightOp instanceof JNewExpr) {
+      graph.addType(target, ((JNewExpr) rightOp).getType());
+    } else if (rightOp instanceof JFieldRef) {
+      int field = fieldNode(graph, (JFieldRef) rightOp, declaredFields);
+      if (field >= 0) {
+        graph.addEdge(field, target);
+      } else {
+        graph.addUnknownType(target);
+      }
+    } else if (rightOp instanceof JArrayRef
+        || rightOp instanceof JNewArrayExpr
+        || rightOp instanceof JNewMultiArrayExpr) {
+      graph.addUnknownType(target);
+    } else if (rightOp instanceof JPhiExpr) {
+      for (Local arg : ((JPhiExpr) rightOp).getArgs()) {
+        addValueEdge(graph, nodes, arg, target);
+      }
+    } else {
+      addValueEdge(graph, nodes, rightOp, target);
+    }
+  }
+
+  /**
+   * Adds the edge from a local to the target node. Constants, e.g. strings, may hold any type, like
+   * the values of library methods.
+   */
+  private static void addValueEdge(
+      @Nonnull TypeFlowGraph graph, @Nonnull MethodNodes nodes, @Nonnull Value value, int target) {
+    if (value instanceof Local) {
+      int local = nodes.localNode(graph, (Local) value);
+      if (local >= 0) {
+        graph.addEdge(local, target);
+      }
+    } else if (value instanceof Constant
+        && !(value instanceof NullConstant)
+        && value.getType() instanceof ReferenceType) {
+      graph.addUnknownType(target);
+    }
+  }
+
+  /**
+   * Adds the edges from the arguments to the parameters of the RTA targets of a call and from the
+   * return values of the targets to the result. The results of library methods may hold any type.
+   *
+   * @param result the node that receives the result of the call or -1
+   * @param callTargets the targets of the calls of the method in the RTA call graph, by the invoked
+   *     method
+   */
+  private void addCallEdges(
+      @Nonnull TypeFlowGraph graph,
+      @Nonnull MethodNodes nodes,
+      @Nonnull InvokableStmt invokableStmt,
+      int result,
+      @Nonnull Map<MethodSignature, Set<MethodSignature>> callTargets) {
+    AbstractInvokeExpr invokeExpr = invokableStmt.getInvokeExpr().get();
+    Set<MethodSignature> targets = callTargets.get(invokeExpr.getMethodSignature());
+    if (targets == null) {
+      return;
+    }
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    for (MethodSignature target : targets) {
+      // implicit calls of static initializers do not pass values
+      if (identifierFactory.isStaticInitializerSubSignature(target.getSubSignature())) {
+        continue;
+      }
+      MethodNodes targetNodes = methodNodes.get(target);
+      if (targetNodes == null
+          || !target.getSubSignature().equals(invokeExpr.getMethodSignature().getSubSignature())) {
+        if (result >= 0) {
+          graph.addUnknownType(result);
+        }
+        if (targetNodes != null) {
+          addUnknownParameterTypes(graph, target);
+        }
+        continue;
+      }
+      if (invokeExpr instanceof AbstractInstanceInvokeExpr) {
+        int base = nodes.localNode(graph, ((AbstractInstanceInvokeExpr) invokeExpr).getBase());
+        if (base >= 0) {
+          graph.addEdge(base, targetNodes.thisNode());
+        }
+      }
+      List<? extends Value> args = invokeExpr.getArgs();
+      for (int i = 0; i < args.size() && i < targetNodes.parameterCount; i++) {
+        addValueEdge(graph, nodes, args.get(i), targetNodes.parameterNode(i));
+      }
+      if (result >= 0) {
+        graph.addEdge(targetNodes.returnNode(), result);
+      }
+    }
+  }
+
+  /**
+   * Returns the node of the field or -1 if the field is declared by a library class or not found.
+   * A field is referenced with the class of the reference, so it is looked up in the superclasses.
+   */
+  private int fieldNode(
+      @Nonnull TypeFlowGraph graph,
+      @Nonnull JFieldRef fieldRef,
+      @Nonnull Map<FieldSignature, FieldSignature> declaredFields) {
+    FieldSignature signature = fieldRef.getFieldSignature();
+    if (signature.getType() instanceof PrimitiveType) {
+      return -1;
+    }
+    FieldSignature declaredField =
+        declaredFields.computeIfAbsent(signature, this::findDeclaredField);
+    if (declaredField == null) {
+      return -1;
+    }
+    return fieldNodes.computeIfAbsent(declaredField, field -> graph.addNodes(1));
+  }
+
+  @Nullable
+  private FieldSignature findDeclaredField(@Nonnull FieldSignature signature) {
+    ClassType classType = signature.getDeclClassType();
+    Iterator<ClassType> superClasses = view.getTypeHierarchy().superClassesOf(classType).iterator();
+    while (true) {
+      SootClass sootClass = view.getClass(classType).orElse(null);
+      if (sootClass == null || sootClass.isLibraryClass()) {
+        return null;
+      }
+      if (sootClass.getField(signature.getSubSignature()).isPresent()) {
+        return view.getIdentifierFactory()
+            .getFieldSignature(classType, signature.getSubSignature());
+      }
+      if (!superClasses.hasNext()) {
+        return null;
+      }
+      classType = superClasses.next();
+    }
+  }
+
+  /**
+   * In the VTA algorithm, every virtual call is resolved by using the types that flow to the
+   * receiver of the call. Every one of them that is a subclass of the class is considered as target
+   * if it contains an implementation of the methods called in the invoke expression.
+   *
+   * @param sourceMethod the method object that contains the given invoke expression in the body.
+   * @param invokableStmt the statement containing the call which is resolved.
+   * @return a stream containing all reachable method signatures after applying the VTA call graph
+   *     algorithm
+   */
+  @Override
+  @Nonnull
+  protected Stream<MethodSignature> resolveCall(
+      SootMethod sourceMethod, InvokableStmt invokableStmt) {
+    Optional<AbstractInvokeExpr> optInvokeExpr = invokableStmt.getInvokeExpr();
+    if (!optInvokeExpr.isPresent()) {
+      return Stream.empty();
+    }
+    AbstractInvokeExpr invokeExpr = optInvokeExpr.get();
+    MethodSignature targetMethodSignature = invokeExpr.getMethodSignature();
+    SootMethod targetMethod = dispatchCache.findConcreteMethod(targetMethodSignature).orElse(null);
+
+    if (targetMethod == null
+        || MethodModifier.isStatic(targetMethod.getModifiers())
+        || (invokeExpr instanceof JSpecialInvokeExpr)
+        || !(invokeExpr instanceof AbstractInstanceInvokeExpr)) {
+      return Stream.of(targetMethodSignature);
+    }
+
+    BitSet receiverTypes =
+        receiverTypesOf(
+            sourceMethod.getSignature(),
+            ((AbstractInstanceInvokeExpr) invokeExpr).getBase(),
+            targetMethodSignature.getDeclClassType());
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    TypeFlowGraph graph = typeFlowGraph;
+    return receiverTypes.stream()
+        .mapToObj(
+            typeId ->
+                dispatchCache.resolveConcreteDispatch(
+                    identifierFactory.getMethodSignature(
+                        graph.getType(typeId), targetMethodSignature.getSubSignature())))
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .distinct();
+  }
+
+  /**
+   * Returns the ids of the instantiated classes that flow to the receiver and are the declaring
+   * class of the called method or one of its subtypes.
+   */
+  @Nonnull
+  private BitSet receiverTypesOf(
+      @Nonnull MethodSignature sourceMethod, @Nonnull Local base, @Nonnull ClassType declClass) {
+    TypeFlowGraph graph = typeFlowGraph;
+    if (graph == null) {
+      throw new IllegalStateException("The type flow graph is only available in initialize.");
+    }
+    BitSet candidates = instantiatedSubtypes.computeIfAbsent(declClass, this::instantiatedSubtypes);
+    MethodNodes nodes = methodNodes.get(sourceMethod);
+    Integer node = nodes == null ? null : nodes.locals.get(base.getName());
+    if (node == null) {
+      return candidates;
+    }
+    BitSet types = graph.getTypes(node);
+    if (types == null) {
+      return new BitSet();
+    }
+    if (types.get(TypeFlowGraph.UNKNOWN_TYPE)) {
+      return candidates;
+    }
+    BitSet receiverTypes = (BitSet) types.clone();
+    receiverTypes.and(candidates);
+    return receiverTypes;
+  }
+
+  /** Returns the ids of the instantiated classes that are the given class or its subtypes. */
+  @Nonnull
+  private BitSet instantiatedSubtypes(@Nonnull ClassType classType) {
+    TypeFlowGraph graph = typeFlowGraph;
+    BitSet subtypes = new BitSet();
+    Stream.concat(Stream.of(classType), view.getTypeHierarchy().subtypesOf(classType))
+        .mapToInt(graph::getTypeId)
+        .filter(typeId -> typeId >= 0)
+        .forEach(subtypes::set);
+    return subtypes;
+  }
+
+  @Override
+  protected void postProcessingMethod(
+      View view,
+      MethodSignature sourceMethod,
+      @Nonnull Deque<MethodSignature> workList,
+      @Nonnull MutableCallGraph cg) {
+    // do nothing
+  }
+
+  @Override
+  protected void preProcessingMethod(
+      View view,
+      MethodSignature sourceMethod,
+      @Nonnull Deque<MethodSignature> workList,
+      @Nonnull MutableCallGraph cg) {
+    // do nothing
+  }
+}
@@ -0,0 +1,144 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+/** Compares the answers of the {@link CallGraphReachability} with walks of the call graph. */
+@Tag("Java8")
+public class CallGraphReachabilityTest {
+
+  private static CallGraph callGraph;
+  private static List<MethodSignature> methods;
+
+  @BeforeAll
+  public static void setUp() {
+    JavaView view =
+        new JavaView(
+            new ArchiveBasedAnalysisInputLocation(
+                Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+                SourceType.Application));
+    List<MethodSignature> entryPoints =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    callGraph = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    methods =
+        callGraph.getMethodSignatures().stream()
+            .sorted(Comparator.comparing(MethodSignature::toString))
+            .collect(Collectors.toList());
+  }
+
+  private static Set<MethodSignature> walk(Collection<MethodSignature> methods, boolean forward) {
+    Set<MethodSignature> visited = new HashSet<>(methods);
+    Deque<MethodSignature> workList = new ArrayDeque<>(methods);
+    while (!workList.isEmpty()) {
+      MethodSignature method = workList.pop();
+      for (MethodSignature next :
+          forward ? callGraph.callTargetsFrom(method) : callGraph.callSourcesTo(method)) {
+        if (visited.add(next)) {
+          workList.push(next);
+        }
+      }
+    }
+    return visited;
+  }
+
+  /** Collects the callers hop by hop. */
+  private static Set<MethodSignature> callersWithin(List<MethodSignature> methods, int hops) {
+    Set<MethodSignature> callers = new HashSet<>();
+    Set<MethodSignature> frontier = new HashSet<>(methods);
+    for (int hop = 0; hop < hops; hop++) {
+      Set<MethodSignature> next = new HashSet<>();
+      frontier.forEach(method -> next.addAll(callGraph.callSourcesTo(method)));
+      callers.addAll(next);
+      frontier = next;
+    }
+    return callers;
+  }
+
+  @Test
+  public void testIsReachable() {
+    CallGraphReachability reachability = new CallGraphReachability(callGraph);
+    assertTrue(reachability.getComponentCount() <= methods.size());
+    assertTrue(reachability.getIntervalCount() >= reachability.getComponentCount());
+
+    int reachablePairs = 0;
+    for (int i = 0; i < methods.size(); i += 7) {
+      MethodSignature source = methods.get(i);
+      Set<MethodSignature> reachable = walk(Collections.singleton(source), true);
+      for (MethodSignature target : methods) {
+        assertEquals(
+            reachable.contains(target),
+            reachability.isReachable(source, target),
+            source + " -> " + target);
+      }
+      reachablePairs += reachable.size() - 1;
+    }
+    assertTrue(reachablePairs > 0);
+
+    MethodSignature unknown =
+        JavaIdentifierFactory.getInstance()
+            .parseMethodSignature("<Unknown: void unknown()>");
+    assertFalse(reachability.isReachable(methods.get(0), unknown));
+    assertFalse(reachability.isReachable(unknown, methods.get(0)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> reachability.reachableMethods(Collections.singleton(unknown)));
+  }
+
+  @Test
+  public void testReachableMethods() {
+    CallGraphReachability reachability =
+        new CallGraphReachability(new CompactCallGraph(callGraph).freeze());
+    List<MethodSignature> entries = new ArrayList<>();
+    for (int i = 0; i < methods.size(); i += 50) {
+      entries.add(methods.get(i));
+      assertEquals(walk(entries, true), reachability.reachableMethods(entries));
+    }
+    assertEquals(Collections.emptySet(), reachability.reachableMethods(Collections.emptyList()));
+  }
+
+  @Test
+  public void testCallersWithin() {
+    CallGraphReachability reachability = new CallGraphReachability(callGraph);
+    for (int i = 0; i < methods.size(); i += 25) {
+      List<MethodSignature> targets = methods.subList(i, Math.min(methods.size(), i + 3));
+      for (int hops = 0; hops <= 3; hops++) {
+        assertEquals(callersWithin(targets, hops), reachability.callersWithin(targets, hops));
+      }
+      // the callers within all hops are the methods that reach the targets
+      Set<MethodSignature> callers = reachability.callersWithin(targets, methods.size());
+      Set<MethodSignature> reaching = walk(targets, false);
+      for (MethodSignature target : targets) {
+        if (!callers.contains(target)) {
+          reaching.remove(target);
+        }
+      }
+      assertEquals(reaching, callers);
+    }
+  }
+}
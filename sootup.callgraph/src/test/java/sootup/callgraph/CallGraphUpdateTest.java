@@ -0,0 +1,180 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.MutableJavaView;
+
+/**
+ * Adds, changes and removes classes of a mutable view and compares the updated call graph with the
+ * call graph constructed from scratch.
+ */
+@Tag("Java8")
+public class CallGraphUpdateTest {
+
+  /** Creates a view of all classes of the jar, which does not resolve removed classes again. */
+  private static MutableJavaView createView() {
+    AnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(
+            Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+            SourceType.Application);
+    MutableJavaView view = new MutableJavaView(inputLocation);
+    assertTrue(view.getClasses().count() > 0);
+    view.removeInputLocation(inputLocation);
+    return view;
+  }
+
+  private static List<JavaSootClass> sortedClasses(MutableJavaView view) {
+    return view.getClasses()
+        .sorted(Comparator.comparing(sootClass -> sootClass.getType().toString()))
+        .collect(Collectors.toList());
+  }
+
+  /** Classes with an application superclass, i.e. classes that take part in the dispatch. */
+  private static List<JavaSootClass> subclasses(MutableJavaView view) {
+    return sortedClasses(view).stream()
+        .filter(
+            sootClass ->
+                sootClass
+                    .getSuperclass()
+                    .flatMap(view::getClass)
+                    .filter(SootClass::isApplicationClass)
+                    .isPresent())
+        .collect(Collectors.toList());
+  }
+
+  private static List<MethodSignature> entryPoints(MutableJavaView view, int step) {
+    List<JavaSootClass> classes = sortedClasses(view);
+    List<MethodSignature> entryPoints = new ArrayList<>();
+    for (int i = 0; i < classes.size(); i += step) {
+      classes.get(i).getMethods().stream()
+          .filter(SootMethod::isConcrete)
+          .map(SootMethod::getSignature)
+          .sorted(Comparator.comparing(MethodSignature::toString))
+          .forEach(entryPoints::add);
+    }
+    return entryPoints;
+  }
+
+  private static Set<CallGraph.Call> calls(CallGraph callGraph) {
+    Set<CallGraph.Call> calls = new HashSet<>();
+    callGraph.getMethodSignatures().forEach(method -> calls.addAll(callGraph.callsFrom(method)));
+    return calls;
+  }
+
+  private static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    CallGraphDifference difference = new CallGraphDifference(expected, actual);
+    assertEquals(Collections.emptyList(), difference.uniqueBaseGraphMethods());
+    assertEquals(Collections.emptyList(), difference.uniqueOtherGraphMethods());
+    assertEquals(Collections.emptyList(), difference.uniqueBaseGraphCalls());
+    assertEquals(Collections.emptyList(), difference.uniqueOtherGraphCalls());
+    assertEquals(calls(expected), calls(actual));
+    assertEquals(
+        new HashSet<>(expected.getEntryMethods()), new HashSet<>(actual.getEntryMethods()));
+  }
+
+  /**
+   * Removes one class before the construction and adds it again afterwards, removes another class
+   * and a method of a third class, and updates the call graph.
+   */
+  private static void assertUpdateEqualsConstruction(
+      Function<MutableJavaView, AbstractCallGraphAlgorithm> algorithmFactory, int step) {
+    MutableJavaView view = createView();
+    List<JavaSootClass> subclasses = subclasses(view);
+    JavaSootClass addedClass = subclasses.get(0);
+    JavaSootClass removedClass = subclasses.get(subclasses.size() / 2);
+    view.removeClass(addedClass);
+    List<MethodSignature> entryPoints = entryPoints(view, step);
+
+    AbstractCallGraphAlgorithm algorithm = algorithmFactory.apply(view);
+    CallGraph oldCallGraph = algorithm.initialize(entryPoints);
+    Set<CallGraph.Call> oldCalls = calls(oldCallGraph);
+
+    // the first method with calls of another class is removed
+    JavaSootMethod removedMethod =
+        sortedClasses(view).stream()
+            .filter(sootClass -> sootClass != removedClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(method -> !method.getName().equals("<init>"))
+            .filter(method -> oldCallGraph.containsMethod(method.getSignature()))
+            .filter(method -> !oldCallGraph.callsFrom(method.getSignature()).isEmpty())
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+    ClassType changedClass = removedMethod.getDeclaringClassType();
+
+    view.addClass(addedClass);
+    view.removeClass(removedClass);
+    view.removeMethod(removedMethod);
+
+    CallGraph updated =
+        algorithm.updateClasses(
+            oldCallGraph,
+            Collections.singleton(addedClass.getType()),
+            Collections.singleton(changedClass),
+            Collections.singleton(removedClass.getType()));
+    CallGraph constructed = algorithmFactory.apply(view).initialize(entryPoints);
+
+    assertSameCallGraph(constructed, updated);
+    assertNotEquals(calls(oldCallGraph), calls(updated));
+    // the old call graph is not modified
+    assertEquals(oldCalls, calls(oldCallGraph));
+  }
+
+  @Test
+  public void testClassHierarchyAnalysis() {
+    assertUpdateEqualsConstruction(ClassHierarchyAnalysisAlgorithm::new, 1);
+    assertUpdateEqualsConstruction(ClassHierarchyAnalysisAlgorithm::new, 7);
+  }
+
+  @Test
+  public void testRapidTypeAnalysis() {
+    assertUpdateEqualsConstruction(RapidTypeAnalysisAlgorithm::new, 1);
+    assertUpdateEqualsConstruction(RapidTypeAnalysisAlgorithm::new, 7);
+  }
+
+  @Test
+  public void testVariableTypeAnalysis() {
+    assertUpdateEqualsConstruction(VariableTypeAnalysisAlgorithm::new, 7);
+  }
+
+  @Test
+  public void testParallelUpdate() {
+    assertUpdateEqualsConstruction(
+        view -> {
+          AbstractCallGraphAlgorithm algorithm = new RapidTypeAnalysisAlgorithm(view);
+          algorithm.setParallelism(2);
+          return algorithm;
+        },
+        3);
+  }
+
+  @Test
+  public void testUpdateWithoutModifications() {
+    MutableJavaView view = createView();
+    AbstractCallGraphAlgorithm algorithm = new ClassHierarchyAnalysisAlgorithm(view);
+    CallGraph callGraph = algorithm.initialize(entryPoints(view, 5));
+    assertSame(
+        callGraph,
+        algorithm.updateClasses(
+            callGraph, Collections.emptySet(), Collections.emptySet(), Collections.emptySet()));
+  }
+}
@@ -0,0 +1,132 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Compares the {@link CompactCallGraph} and the {@link FrozenCallGraph} with a CHA call graph. */
+@Tag("Java8")
+public class CompactCallGraphTest {
+
+  private static CallGraph expected;
+
+  @BeforeAll
+  public static void setUp() {
+    JavaView view =
+        new JavaView(
+            new ArchiveBasedAnalysisInputLocation(
+                Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+                SourceType.Application));
+    List<MethodSignature> entryPoints =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    expected = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+  }
+
+  private static void assertSameCallGraph(CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.getEntryMethods(), actual.getEntryMethods());
+    assertEquals(expected.callCount(), actual.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsFrom(method), actual.callsFrom(method));
+      assertEquals(expected.callsTo(method), actual.callsTo(method));
+      assertEquals(expected.callTargetsFrom(method), actual.callTargetsFrom(method));
+      assertEquals(expected.callSourcesTo(method), actual.callSourcesTo(method));
+      expected.callsFrom(method).forEach(call -> assertTrue(actual.containsCall(call)));
+    }
+    // calls whose targets have equal class names may be listed in a different order
+    assertEquals(dotLines(expected), dotLines(actual));
+    assertEquals(withoutClassName(expected.toString()), withoutClassName(actual.toString()));
+  }
+
+  private static List<String> dotLines(CallGraph callGraph) {
+    return Arrays.stream(callGraph.exportAsDot().split("\n")).sorted().collect(Collectors.toList());
+  }
+
+  private static String withoutClassName(String callGraph) {
+    return callGraph.substring(callGraph.indexOf('('));
+  }
+
+  /** Counts the calls by iterating over the ids. */
+  private static int countCalls(IndexedCallGraph callGraph) {
+    int calls = 0;
+    for (int method = 0; method < callGraph.getMethodCount(); method++) {
+      for (int i = 0; i < callGraph.getCallSiteCountOf(method); i++) {
+        int callSite = callGraph.getCallSite(method, i);
+        assertEquals(method, callGraph.getCallSiteSource(callSite));
+        for (int j = 0; j < callGraph.getTargetCount(callSite); j++) {
+          assertTrue(callGraph.getTarget(callSite, j) < callGraph.getMethodCount());
+          calls++;
+        }
+      }
+    }
+    return calls;
+  }
+
+  @Test
+  public void testCompactCallGraph() {
+    CompactCallGraph compact = new CompactCallGraph(expected);
+    assertSameCallGraph(compact);
+    assertEquals(expected.callCount(), countCalls(compact));
+    assertSameCallGraph(compact.copy());
+  }
+
+  @Test
+  public void testFrozenCallGraph() {
+    CompactCallGraph compact = new CompactCallGraph(expected);
+    FrozenCallGraph frozen = compact.freeze();
+    assertSameCallGraph(frozen);
+    assertEquals(expected.callCount(), countCalls(frozen));
+
+    // the methods keep their ids
+    for (int method = 0; method < compact.getMethodCount(); method++) {
+      assertEquals(compact.getMethodSignature(method), frozen.getMethodSignature(method));
+    }
+    assertSameCallGraph(new FrozenCallGraph(expected));
+
+    MutableCallGraph copy = frozen.copy();
+    assertTrue(copy instanceof CompactCallGraph);
+    assertSameCallGraph(copy);
+  }
+
+  @Test
+  public void testAddCall() {
+    CompactCallGraph compact = new CompactCallGraph(expected.getEntryMethods());
+    Set<CallGraph.Call> calls = new HashSet<>();
+    expected.getMethodSignatures().forEach(method -> calls.addAll(expected.callsFrom(method)));
+    calls.forEach(compact::addCall);
+    // adding a call twice does not change the call graph
+    calls.forEach(compact::addCall);
+    assertEquals(calls.size(), compact.callCount());
+
+    CallGraph.Call call = calls.iterator().next();
+    MethodSignature source = call.getSourceMethodSignature();
+    assertTrue(compact.containsCall(call));
+    assertFalse(
+        compact.containsCall(call.getTargetMethodSignature(), source, call.getInvokableStmt()));
+
+    CompactCallGraph empty = new CompactCallGraph(expected.getEntryMethods());
+    assertEquals(-1, empty.getMethodId(source));
+    assertFalse(empty.containsCall(call));
+    assertThrows(IllegalArgumentException.class, () -> empty.callsFrom(source));
+    assertThrows(IndexOutOfBoundsException.class, () -> empty.getMethodSignature(0));
+  }
+}
@@ -0,0 +1,100 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.IdentifierFactory;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class DispatchCacheTest {
+
+  private JavaView view;
+  private DispatchCache dispatchCache;
+
+  @BeforeEach
+  public void setUp() {
+    view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "src/test/resources/callgraph/ConcreteDispatch/binary"));
+    dispatchCache = new DispatchCache(view);
+  }
+
+  private MethodSignature getMethodSignature(String className, String methodName) {
+    IdentifierFactory factory = view.getIdentifierFactory();
+    return factory.getMethodSignature(
+        factory.getClassType(className), methodName, "void", Collections.emptyList());
+  }
+
+  @Test
+  public void testResolveConcreteDispatch() {
+    MethodSignature method2OfA = getMethodSignature("A", "method2");
+    MethodSignature interfaceMethodOfD = getMethodSignature("D", "interfaceMethod");
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(
+          AbstractCallGraphAlgorithm.resolveConcreteDispatch(view, method2OfA),
+          dispatchCache.resolveConcreteDispatch(method2OfA));
+      assertEquals(
+          getMethodSignature("I", "interfaceMethod"),
+          dispatchCache.resolveConcreteDispatch(interfaceMethodOfD).get());
+    }
+    assertEquals(
+        getMethodSignature("B", "method2"),
+        dispatchCache.resolveConcreteDispatch(method2OfA).get());
+    assertEquals(2, dispatchCache.getMissCount());
+    assertEquals(5, dispatchCache.getHitCount());
+
+    dispatchCache.clear();
+    assertEquals(0, dispatchCache.getHitCount());
+    assertEquals(0, dispatchCache.getHitRate());
+    dispatchCache.resolveConcreteDispatch(method2OfA);
+    assertEquals(1, dispatchCache.getMissCount());
+  }
+
+  @Test
+  public void testTargetsAreResolvedOnce() {
+    MethodSignature method = getMethodSignature("A", "method");
+    AtomicInteger resolutions = new AtomicInteger();
+    for (int i = 0; i < 4; i++) {
+      List<MethodSignature> targets =
+          dispatchCache.getTargets(
+              method,
+              false,
+              signature -> {
+                resolutions.incrementAndGet();
+                return Collections.singletonList(signature);
+              });
+      assertEquals(Collections.singletonList(method), targets);
+    }
+    assertEquals(1, resolutions.get());
+    assertEquals(0.75, dispatchCache.getHitRate());
+
+    // interface invokes are cached separately
+    dispatchCache.getTargets(method, true, Collections::singletonList);
+    assertEquals(2, dispatchCache.getMissCount());
+  }
+
+  @Test
+  public void testSharedCache() {
+    CallGraphAlgorithm cha = new ClassHierarchyAnalysisAlgorithm(view, dispatchCache);
+    assertSame(dispatchCache, ((AbstractCallGraphAlgorithm) cha).getDispatchCache());
+    assertSame(
+        dispatchCache, new RapidTypeAnalysisAlgorithm(view, dispatchCache).getDispatchCache());
+    JavaView otherView =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "src/test/resources/callgraph/ConcreteDispatch/binary"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ClassHierarchyAnalysisAlgorithm(otherView, dispatchCache));
+  }
+}
@@ -0,0 +1,109 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Compares the {@link LazyCallGraph} with the CHA call graph constructed from scratch. */
+@Tag("Java8")
+public class LazyCallGraphTest {
+
+  private static JavaView view;
+  private static List<MethodSignature> methods;
+  private static List<MethodSignature> entryPoints;
+  private static CallGraph expected;
+
+  @BeforeAll
+  public static void setUp() {
+    view =
+        new JavaView(
+            new ArchiveBasedAnalysisInputLocation(
+                Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+                SourceType.Application));
+    methods =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .sorted(Comparator.comparing(MethodSignature::toString))
+            .collect(Collectors.toList());
+    entryPoints = methods.subList(0, 30);
+    expected = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+  }
+
+  private static Set<CallGraph.Call> calls(CallGraph callGraph) {
+    Set<CallGraph.Call> calls = new HashSet<>();
+    callGraph.getMethodSignatures().forEach(method -> calls.addAll(callGraph.callsFrom(method)));
+    return calls;
+  }
+
+  @Test
+  public void testPointQueries() {
+    LazyCallGraph lazy =
+        new LazyCallGraph(new ClassHierarchyAnalysisAlgorithm(view), entryPoints);
+    assertEquals(expected.getEntryMethods(), lazy.getEntryMethods());
+    assertEquals(0, lazy.getResolvedMethodCount());
+
+    MethodSignature method =
+        expected.getMethodSignatures().stream()
+            .filter(signature -> !expected.callsFrom(signature).isEmpty())
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+    assertEquals(expected.callsFrom(method), lazy.callsFrom(method));
+    assertEquals(expected.callTargetsFrom(method), lazy.callTargetsFrom(method));
+    assertEquals(1, lazy.getResolvedMethodCount());
+
+    // the calls of methods that are not reachable are resolved as well
+    MethodSignature unreachable =
+        methods.stream()
+            .filter(signature -> !expected.containsMethod(signature))
+            .filter(signature -> !lazy.callsFrom(signature).isEmpty())
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+    CallGraph.Call call = lazy.callsFrom(unreachable).iterator().next();
+    assertFalse(lazy.containsCall(call));
+    assertFalse(lazy.containsMethod(unreachable));
+  }
+
+  @Test
+  public void testReachableMethods() {
+    LazyCallGraph lazy =
+        new LazyCallGraph(new ClassHierarchyAnalysisAlgorithm(view), entryPoints);
+    for (MethodSignature method : methods) {
+      assertEquals(expected.containsMethod(method), lazy.containsMethod(method), method.toString());
+      if (expected.containsMethod(method)) {
+        assertEquals(expected.callsFrom(method), lazy.callsFrom(method));
+        expected.callsFrom(method).forEach(call -> assertTrue(lazy.containsCall(call)));
+      }
+    }
+  }
+
+  @Test
+  public void testCompleteCallGraph() {
+    LazyCallGraph lazy =
+        new LazyCallGraph(new ClassHierarchyAnalysisAlgorithm(view), entryPoints);
+    assertEquals(expected.getMethodSignatures(), lazy.getMethodSignatures());
+    assertEquals(expected.callCount(), lazy.callCount());
+    assertEquals(calls(expected), calls(lazy));
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsTo(method), lazy.callsTo(method));
+      assertEquals(expected.callSourcesTo(method), lazy.callSourcesTo(method));
+    }
+    assertEquals(calls(expected), calls(lazy.copy()));
+  }
+}
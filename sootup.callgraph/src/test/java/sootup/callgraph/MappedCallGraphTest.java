@@ -0,0 +1,250 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.IgnoreLocalNameComparator;
+import sootup.core.jimple.basic.JimpleComparator;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Writes CHA call graphs with the {@link CallGraphWriter} and loads them again. */
+@Tag("Java8")
+public class MappedCallGraphTest {
+
+  private static JavaView view;
+  private static CallGraph expected;
+
+  private Path directory;
+
+  private static JavaView createView() {
+    return createView("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+  }
+
+  private static JavaView createView(String jar) {
+    return new JavaView(
+        new ArchiveBasedAnalysisInputLocation(Paths.get(jar), SourceType.Application));
+  }
+
+  /** Returns the first equivalent call sites of the method, in the order of its Body. */
+  private static List<InvokableStmt> equivalentCallSites(JavaView view, MethodSignature method) {
+    JimpleComparator comparator = new IgnoreLocalNameComparator();
+    List<Stmt> stmts = view.getMethod(method).get().getBody().getStmts();
+    for (Stmt stmt : stmts) {
+      if (stmt.isInvokableStmt() && stmt.asInvokableStmt().containsInvokeExpr()) {
+        List<InvokableStmt> equivalent =
+            stmts.stream()
+                .filter(other -> stmt.equivTo(other, comparator))
+                .map(Stmt::asInvokableStmt)
+                .collect(Collectors.toList());
+        if (equivalent.size() > 1) {
+          return equivalent;
+        }
+      }
+    }
+    throw new IllegalArgumentException(method + " has no equivalent call sites");
+  }
+
+  @BeforeAll
+  public static void setUp() {
+    view = createView();
+    List<MethodSignature> entryPoints =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    expected = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+  }
+
+  @BeforeEach
+  public void createDirectory() throws IOException {
+    directory = Files.createTempDirectory("sootup-callgraph");
+  }
+
+  @AfterEach
+  public void deleteDirectory() throws IOException {
+    MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  /**
+   * Returns the calls as strings, which can be compared between views: the names of the locals of
+   * the stmts differ, so a stmt is described by the method it invokes.
+   */
+  private static Set<String> calls(CallGraph callGraph) {
+    Set<String> calls = new HashSet<>();
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      callGraph
+          .callsFrom(method)
+          .forEach(
+              call ->
+                  calls.add(
+                      call.getSourceMethodSignature()
+                          + " -> "
+                          + call.getTargetMethodSignature()
+                          + " at "
+                          + call.getInvokableStmt()
+                              .getInvokeExpr()
+                              .map(invokeExpr -> invokeExpr.getMethodSignature().toString())
+                              .orElse(call.getInvokableStmt().getClass().getSimpleName())));
+    }
+    return calls;
+  }
+
+  @Test
+  public void testWriteAndLoad() throws IOException {
+    Path file = directory.resolve("callgraph.bin");
+    CallGraphWriter.write(expected, view, file);
+    MappedCallGraph loaded = MappedCallGraph.load(file, view);
+
+    assertEquals(expected.getMethodSignatures(), loaded.getMethodSignatures());
+    assertEquals(expected.getEntryMethods(), loaded.getEntryMethods());
+    assertEquals(expected.callCount(), loaded.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      // the stmts are taken from the same Bodies
+      assertEquals(expected.callsFrom(method), loaded.callsFrom(method));
+      assertEquals(expected.callsTo(method), loaded.callsTo(method));
+      expected.callsFrom(method).forEach(call -> assertTrue(loaded.containsCall(call)));
+    }
+    assertEquals(calls(expected), calls(loaded.copy()));
+  }
+
+  @Test
+  public void testLoadInAnotherView() throws IOException {
+    Path file = directory.resolve("callgraph.bin");
+    // the ids of the compact call graph are kept
+    CompactCallGraph compact = new CompactCallGraph(expected);
+    try (OutputStream outputStream = Files.newOutputStream(file)) {
+      CallGraphWriter.write(compact, view, outputStream);
+    }
+
+    MappedCallGraph loaded = MappedCallGraph.load(file, createView());
+    assertEquals(expected.callCount(), loaded.callCount());
+    for (int method = 0; method < compact.getMethodCount(); method++) {
+      assertEquals(compact.getMethodSignature(method), loaded.getMethodSignature(method));
+      assertEquals(compact.getCallSiteCountOf(method), loaded.getCallSiteCountOf(method));
+    }
+    assertEquals(calls(expected), calls(loaded));
+  }
+
+  @Test
+  public void testWriteWithBodiesResolvedAgain() throws IOException {
+    Path file = directory.resolve("callgraph.bin");
+    // the Bodies of the other view are new instances, like Bodies that were released and resolved
+    JavaView otherView = createView();
+    CallGraphWriter.write(expected, otherView, file);
+
+    MappedCallGraph loaded = MappedCallGraph.load(file, otherView);
+    assertEquals(expected.callCount(), loaded.callCount());
+    assertEquals(calls(expected), calls(loaded));
+  }
+
+  @Test
+  public void testWriteWithAmbiguousCallSites() throws IOException {
+    Path file = directory.resolve("callgraph.bin");
+    MethodSignature source =
+        view.getIdentifierFactory()
+            .parseMethodSignature("<cn.jpush.a.a: java.lang.String toString()>");
+    // the jar has no line numbers, so the equivalent call sites are at the same position
+    List<InvokableStmt> callSites = equivalentCallSites(view, source);
+    MethodSignature invoked = callSites.get(0).getInvokeExpr().get().getMethodSignature();
+    MethodSignature other =
+        view.getIdentifierFactory()
+            .parseMethodSignature("<java.lang.Object: java.lang.String toString()>");
+
+    // interchangeable call sites are assigned in the order of the Body
+    MutableCallGraph sameTargets = new GraphBasedCallGraph(Collections.singletonList(source));
+    sameTargets.addMethod(source);
+    sameTargets.addMethod(invoked);
+    callSites.forEach(callSite -> sameTargets.addCall(source, invoked, callSite));
+    CallGraphWriter.write(sameTargets, createView(), file);
+    assertEquals(calls(sameTargets), calls(MappedCallGraph.load(file, view)));
+
+    MutableCallGraph otherTargets = new GraphBasedCallGraph(Collections.singletonList(source));
+    otherTargets.addMethod(source);
+    otherTargets.addMethod(invoked);
+    otherTargets.addMethod(other);
+    otherTargets.addCall(source, invoked, callSites.get(0));
+    otherTargets.addCall(source, other, callSites.get(1));
+    // the stmts of the same Bodies are found by identity
+    CallGraphWriter.write(otherTargets, view, file);
+    assertEquals(2, MappedCallGraph.load(file, view).callCount());
+    // the stmts of other Bodies can not be told apart
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CallGraphWriter.write(otherTargets, createView(), file));
+  }
+
+  @Test
+  public void testWriteWithCallSitesAtOtherPositions() throws IOException {
+    Path file = directory.resolve("callgraph.bin");
+    JavaView miniApp = createView("../shared-test-resources/java-miniapps/MiniApp.jar");
+    MethodSignature source =
+        miniApp
+            .getIdentifierFactory()
+            .parseMethodSignature("<MiniApp: void main(java.lang.String[])>");
+    List<InvokableStmt> callSites = equivalentCallSites(miniApp, source);
+    MethodSignature invoked = callSites.get(0).getInvokeExpr().get().getMethodSignature();
+    MethodSignature other =
+        miniApp.getIdentifierFactory()
+            .parseMethodSignature("<java.lang.Object: java.lang.String toString()>");
+    MutableCallGraph callGraph = new GraphBasedCallGraph(Collections.singletonList(source));
+    callGraph.addMethod(source);
+    callGraph.addMethod(invoked);
+    callGraph.addMethod(other);
+    callGraph.addCall(source, other, callSites.get(1));
+    callGraph.addCall(source, invoked, callSites.get(0));
+
+    // the equivalent call sites are told apart by their lines
+    JavaView otherView = createView("../shared-test-resources/java-miniapps/MiniApp.jar");
+    CallGraphWriter.write(callGraph, otherView, file);
+    MappedCallGraph loaded = MappedCallGraph.load(file, otherView);
+    assertEquals(2, loaded.callCount());
+    for (CallGraph.Call call : loaded.callsFrom(source)) {
+      InvokableStmt expectedCallSite =
+          callSites.get(call.getTargetMethodSignature().equals(invoked) ? 0 : 1);
+      assertEquals(
+          expectedCallSite.getPositionInfo().getStmtPosition(),
+          call.getInvokableStmt().getPositionInfo().getStmtPosition());
+    }
+  }
+
+  @Test
+  public void testInvalidFiles() throws IOException {
+    Path file = directory.resolve("callgraph.bin");
+    CallGraphWriter.write(expected, view, file);
+    byte[] bytes = Files.readAllBytes(file);
+
+    Path truncated = directory.resolve("truncated.bin");
+    Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+    assertThrows(IOException.class, () -> MappedCallGraph.load(truncated, view));
+
+    Path other = directory.resolve("other.bin");
+    Files.write(other, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IOException.class, () -> MappedCallGraph.load(other, view));
+  }
+}
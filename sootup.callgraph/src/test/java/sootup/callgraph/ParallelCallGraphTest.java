@@ -0,0 +1,96 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Compares the call graphs of the parallel construction with the sequential ones. */
+@Tag("Java8")
+public class ParallelCallGraphTest {
+
+  private static JavaView view;
+  private static List<MethodSignature> entryPoints;
+
+  @BeforeAll
+  public static void setUp() {
+    view =
+        new JavaView(
+            new ArchiveBasedAnalysisInputLocation(
+                Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+                SourceType.Application));
+    entryPoints =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+  }
+
+  private static void assertSameCallGraph(
+      Function<JavaView, AbstractCallGraphAlgorithm> algorithmFactory) {
+    AbstractCallGraphAlgorithm sequential = algorithmFactory.apply(view);
+    CallGraph expected = sequential.initialize(entryPoints);
+    assertTrue(expected instanceof GraphBasedCallGraph);
+
+    for (int parallelism : new int[] {2, 4}) {
+      AbstractCallGraphAlgorithm parallel = algorithmFactory.apply(view);
+      parallel.setParallelism(parallelism);
+      CallGraph actual = parallel.initialize(entryPoints);
+      assertTrue(actual instanceof ConcurrentCallGraph);
+
+      assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+      assertEquals(expected.callCount(), actual.callCount());
+      assertEquals(calls(expected), calls(actual));
+      assertEquals(expected.getEntryMethods(), actual.getEntryMethods());
+    }
+  }
+
+  private static Set<CallGraph.Call> calls(CallGraph callGraph) {
+    Set<CallGraph.Call> calls = new HashSet<>();
+    callGraph.getMethodSignatures().forEach(method -> calls.addAll(callGraph.callsFrom(method)));
+    return calls;
+  }
+
+  @Test
+  public void testClassHierarchyAnalysis() {
+    assertSameCallGraph(ClassHierarchyAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void testRapidTypeAnalysis() {
+    assertSameCallGraph(RapidTypeAnalysisAlgorithm::new);
+  }
+
+  @Test
+  public void testInvalidParallelism() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ClassHierarchyAnalysisAlgorithm(view).setParallelism(0));
+  }
+
+  @Test
+  public void testConcurrentCallGraphCopy() {
+    AbstractCallGraphAlgorithm algorithm = new ClassHierarchyAnalysisAlgorithm(view);
+    algorithm.setParallelism(2);
+    CallGraph callGraph = algorithm.initialize(entryPoints);
+    MutableCallGraph copy = callGraph.copy();
+    assertTrue(copy instanceof ConcurrentCallGraph);
+    assertEquals(callGraph.getMethodSignatures(), copy.getMethodSignatures());
+    assertEquals(calls(callGraph), calls(copy));
+  }
+}
@@ -0,0 +1,148 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.BodyRetention;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.conversion.BodyConversionOptions;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+/** Compares the VTA call graph with the RTA call graph and tests the propagation of the types. */
+@Tag("Java8")
+public class VariableTypeAnalysisAlgorithmTest {
+
+  private static JavaView view;
+  private static List<MethodSignature> entryPoints;
+
+  @BeforeAll
+  public static void setUp() {
+    view =
+        new JavaView(
+            new ArchiveBasedAnalysisInputLocation(
+                Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+                SourceType.Application));
+    // the public methods of the application classes
+    entryPoints =
+        view.getClasses()
+            .filter(SootClass::isApplicationClass)
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(SootMethod::isConcrete)
+            .filter(SootMethod::isPublic)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+  }
+
+  private static Set<CallGraph.Call> calls(CallGraph callGraph) {
+    Set<CallGraph.Call> calls = new HashSet<>();
+    callGraph.getMethodSignatures().forEach(method -> calls.addAll(callGraph.callsFrom(method)));
+    return calls;
+  }
+
+  @Test
+  public void testSubsetOfRapidTypeAnalysis() {
+    CallGraph rta = new RapidTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph vta = new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints);
+
+    assertEquals(new HashSet<>(rta.getEntryMethods()), new HashSet<>(vta.getEntryMethods()));
+    assertTrue(rta.getMethodSignatures().containsAll(vta.getMethodSignatures()));
+    Set<CallGraph.Call> rtaCalls = calls(rta);
+    Set<CallGraph.Call> vtaCalls = calls(vta);
+    assertTrue(rtaCalls.containsAll(vtaCalls));
+    // the receivers of some calls only hold a part of the instantiated classes
+    assertTrue(vtaCalls.size() < rtaCalls.size());
+  }
+
+  @Test
+  public void testParallelConstruction() {
+    CallGraph sequential = new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    VariableTypeAnalysisAlgorithm algorithm = new VariableTypeAnalysisAlgorithm(view);
+    algorithm.setParallelism(2);
+    CallGraph parallel = algorithm.initialize(entryPoints);
+
+    assertEquals(sequential.getMethodSignatures(), parallel.getMethodSignatures());
+    assertEquals(calls(sequential), calls(parallel));
+  }
+
+  @Test
+  public void testReleasedBodies() {
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(
+            Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+            SourceType.Application);
+    inputLocation.setBodyConversionOptions(
+        BodyConversionOptions.DEFAULT.withBodyRetention(BodyRetention.RELEASABLE));
+    JavaView releasingView = new JavaView(inputLocation);
+    VariableTypeAnalysisAlgorithm algorithm =
+        new VariableTypeAnalysisAlgorithm(releasingView) {
+          @Nonnull
+          @Override
+          CallGraph constructRapidTypeAnalysisCallGraph(
+              @Nonnull List<MethodSignature> entryPoints) {
+            CallGraph rta = super.constructRapidTypeAnalysisCallGraph(entryPoints);
+            // the type flow graph is built from other instances of the bodies
+            releasingView
+                .getClasses()
+                .flatMap(sootClass -> sootClass.getMethods().stream())
+                .forEach(SootMethod::releaseBody);
+            return rta;
+          }
+        };
+
+    CallGraph expected = new VariableTypeAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph released = algorithm.initialize(entryPoints);
+    assertEquals(expected.getMethodSignatures(), released.getMethodSignatures());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callTargetsFrom(method), released.callTargetsFrom(method));
+    }
+  }
+
+  @Test
+  public void testPropagation() {
+    JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+    ClassType a = factory.getClassType("A");
+    ClassType b = factory.getClassType("B");
+
+    // 0 -> 1 <-> 2 -> 3, 4 -> 3 and 5 without edges
+    TypeFlowGraph graph = new TypeFlowGraph();
+    assertEquals(0, graph.addNodes(6));
+    graph.addEdge(0, 1);
+    graph.addEdge(1, 2);
+    graph.addEdge(2, 1);
+    graph.addEdge(2, 3);
+    graph.addEdge(4, 3);
+    graph.addType(0, a);
+    graph.addType(2, b);
+    graph.addUnknownType(4);
+    assertThrows(IllegalStateException.class, () -> graph.getTypes(0));
+    graph.propagate();
+
+    assertEquals(3, graph.getTypeCount());
+    assertNull(graph.getType(TypeFlowGraph.UNKNOWN_TYPE));
+    assertEquals(a, graph.getType(1));
+    assertEquals(b, graph.getType(2));
+
+    assertEquals(BitSet.valueOf(new long[] {0b010}), graph.getTypes(0));
+    assertEquals(BitSet.valueOf(new long[] {0b110}), graph.getTypes(1));
+    // the nodes of a cycle share their types
+    assertSame(graph.getTypes(1), graph.getTypes(2));
+    assertEquals(BitSet.valueOf(new long[] {0b111}), graph.getTypes(3));
+    assertEquals(BitSet.valueOf(new long[] {0b001}), graph.getTypes(4));
+    assertNull(graph.getTypes(5));
+  }
+}
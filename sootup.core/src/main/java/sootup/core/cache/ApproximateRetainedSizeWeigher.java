@@ -0,0 +1,54 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.OptionalLong;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+
+/** see {@link ClassWeigher#approximateRetainedSize()} */
+final class ApproximateRetainedSizeWeigher implements ClassWeigher {
+  static final ClassWeigher INSTANCE = new ApproximateRetainedSizeWeigher();
+
+  /** the approximate size of the SootClass object graph without any method or field */
+  static final long BASE_WEIGHT = 1024;
+  /** the approximate number of retained bytes per byte of the class file */
+  static final long BYTES_PER_CLASS_FILE_BYTE = 10;
+  /**
+   * the approximate number of retained bytes per method or field - for classes whose class file
+   * size can not be determined
+   */
+  static final long BYTES_PER_MEMBER = 3 * 1024;
+
+  private ApproximateRetainedSizeWeigher() {}
+
+  @Override
+  public long weigh(@Nonnull SootClass sootClass) {
+    OptionalLong sourceSize = sootClass.getClassSource().getSourceSize();
+    if (sourceSize.isPresent()) {
+      return BASE_WEIGHT + BYTES_PER_CLASS_FILE_BYTE * sourceSize.getAsLong();
+    }
+    return BASE_WEIGHT
+        + BYTES_PER_MEMBER * (sootClass.getMethods().size() + sootClass.getFields().size());
+  }
+}
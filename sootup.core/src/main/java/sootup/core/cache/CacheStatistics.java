@@ -0,0 +1,85 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+
+/** An immutable snapshot of the hit, miss and eviction counters of a {@link BoundedClassCache}. */
+public final class CacheStatistics {
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+  private final long evictionWeight;
+
+  public CacheStatistics(long hitCount, long missCount, long evictionCount, long evictionWeight) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.evictionWeight = evictionWeight;
+  }
+
+  /** Returns the number of lookups that returned a cached class. */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /** Returns the number of lookups that did not find a cached class. */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /** Returns the number of classes that were evicted or not admitted to the cache. */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /** Returns the sum of the weights of all evicted classes. */
+  public long getEvictionWeight() {
+    return evictionWeight;
+  }
+
+  /** Returns the number of lookups. */
+  public long getRequestCount() {
+    return hitCount + missCount;
+  }
+
+  /** Returns the ratio of lookups that were hits, or 1.0 if there was no lookup yet. */
+  public double getHitRate() {
+    long requestCount = getRequestCount();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  @Nonnull
+  @Override
+  public String toString() {
+    return "CacheStatistics{hits="
+        + hitCount
+        + ", misses="
+        + missCount
+        + ", evictions="
+        + evictionCount
+        + ", evictionWeight="
+        + evictionWeight
+        + "}";
+  }
+}
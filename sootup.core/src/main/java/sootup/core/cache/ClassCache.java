@@ -27,16 +27,43 @@ import javax.annotation.Nonnull;
 import sootup.core.model.SootClass;
 import sootup.core.types.ClassType;
 
-/** Interface for different caching strategies of resolved classes. */
+/**
+ * Interface for different caching strategies of resolved classes.
+ *
+ * <p>A cache is shared by all threads that resolve classes through the same view, hence every
+ * implementation has to be safe for concurrent use. Lookups should not block each other, so that
+ * a cache hit does not need to serialize on a shared monitor. {@link #putClass(ClassType,
+ * SootClass)} keeps an already cached class, i.e. the first class that is stored for a {@link
+ * ClassType} wins.
+ */
 public interface ClassCache {
 
+  /** Returns the cached class of the given type or <code>null</code> if it is not cached. */
   SootClass getClass(ClassType classType);
 
+  /**
+   * Returns the currently cached classes. The returned collection must be safe to iterate while
+   * other threads add classes to the cache.
+   */
   @Nonnull
   Collection<SootClass> getClasses();
 
+  /** Stores the given class if there is no class cached for the given type yet. */
   void putClass(ClassType classType, SootClass sootClass);
 
+  /**
+   * Stores the given class if there is no class cached for the given type yet.
+   *
+   * @return the class that is cached for the given type, i.e. either the already cached class or
+   *     the given one
+   */
+  @Nonnull
+  default SootClass putClassIfAbsent(ClassType classType, SootClass sootClass) {
+    putClass(classType, sootClass);
+    SootClass cachedClass = getClass(classType);
+    return cachedClass != null ? cachedClass : sootClass;
+  }
+
   boolean hasClass(ClassType classType);
 
   int size();
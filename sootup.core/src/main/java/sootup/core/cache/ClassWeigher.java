@@ -0,0 +1,55 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+
+/**
+ * Calculates the weight of a class for a weight-bounded cache. The weight is calculated once when
+ * the class is stored in the cache.
+ */
+@FunctionalInterface
+public interface ClassWeigher {
+
+  /** Returns the weight of the given class, which has to be at least 0. */
+  long weigh(@Nonnull SootClass sootClass);
+
+  /** Weighs every class with 1, i.e. the cache is bounded by the number of classes. */
+  @Nonnull
+  static ClassWeigher singleton() {
+    return sootClass -> 1;
+  }
+
+  /**
+   * Approximates the heap memory in bytes that a class retains once its methods and bodies are
+   * resolved. The approximation is derived from the size of the class file: the bytecode tree and
+   * the Jimple representation that is built from it are roughly an order of magnitude larger than
+   * the class file itself, whether it is read from a directory or from an archive. Classes whose
+   * class file size is unknown are weighed by their number of methods and fields instead.
+   */
+  @Nonnull
+  static ClassWeigher approximateRetainedSize() {
+    return ApproximateRetainedSizeWeigher.INSTANCE;
+  }
+}
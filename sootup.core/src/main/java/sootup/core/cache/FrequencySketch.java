@@ -0,0 +1,128 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * A probabilistic estimate of how often an element was recently accessed (a Count-Min sketch with
+ * 4-bit counters). Each element is mapped to four counters, and its frequency is the minimum of
+ * them. All counters are halved periodically, so that the estimate reflects the recent history
+ * instead of all time popularity. Not thread-safe.
+ */
+final class FrequencySketch {
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MIN_TABLE_SIZE = 64;
+
+  /** 16 counters of 4 bits per long */
+  private long[] table = new long[0];
+
+  private int tableMask;
+  private int sampleSize;
+  private int additions;
+
+  /**
+   * Grows the sketch so that it can estimate the frequency of <code>expectedElements</code>
+   * elements reasonably. Growing resets all counters.
+   */
+  void ensureCapacity(int expectedElements) {
+    int size = ceilingPowerOfTwo(Math.max(expectedElements, MIN_TABLE_SIZE));
+    if (table.length >= size) {
+      return;
+    }
+    table = new long[size];
+    tableMask = size - 1;
+    sampleSize = 10 * size;
+    additions = 0;
+  }
+
+  /** Returns the number of elements that can be estimated without a loss of precision. */
+  int capacity() {
+    return table.length;
+  }
+
+  /** Returns the estimated number of recent accesses of the element, at most 15. */
+  int frequency(Object element) {
+    int hash = spread(element.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Records an access of the element. */
+  void increment(Object element) {
+    int hash = spread(element.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++additions == sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** Halves all counters, i.e. ages the history. */
+  private void reset() {
+    int oddCounters = 0;
+    for (int i = 0; i < table.length; i++) {
+      oddCounters += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions = (additions - (oddCounters >>> 2)) >>> 1;
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  /** Improves the distribution of poor hash codes. */
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+
+  private static int ceilingPowerOfTwo(int x) {
+    return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+  }
+}
@@ -30,6 +30,9 @@ import sootup.core.types.ClassType;
 /**
  * Cache that implements a least recently used strategy. If the amount of stored classes exceeds a
  * specified amount, the lest recently used class will be overwritten.
+ *
+ * <p>As every access reorders the underlying {@link LinkedHashMap}, all operations synchronize on
+ * the cache instance.
  */
 public class LRUCache implements ClassCache {
   private final LinkedHashMap<ClassType, SootClass> cache;
@@ -52,21 +55,28 @@ public class LRUCache implements ClassCache {
   @Nonnull
   @Override
   public synchronized Collection<SootClass> getClasses() {
-    return cache.values();
+    return new ArrayList<>(cache.values());
   }
 
   @Override
-  public void putClass(ClassType classType, SootClass sootClass) {
+  public synchronized void putClass(ClassType classType, SootClass sootClass) {
     cache.putIfAbsent(classType, sootClass);
   }
 
+  @Nonnull
+  @Override
+  public synchronized SootClass putClassIfAbsent(ClassType classType, SootClass sootClass) {
+    SootClass cachedClass = cache.putIfAbsent(classType, sootClass);
+    return cachedClass != null ? cachedClass : sootClass;
+  }
+
   @Override
-  public boolean hasClass(ClassType classType) {
+  public synchronized boolean hasClass(ClassType classType) {
     return cache.containsKey(classType);
   }
 
   @Override
-  public int size() {
+  public synchronized int size() {
     return cache.size();
   }
 }
@@ -34,9 +34,6 @@ public class MutableFullCache extends FullCache implements MutableClassCache {
 
   @Override
   public SootClass removeClass(@Nonnull ClassType classType) {
-    if (this.hasClass(classType)) {
-      return cache.remove(classType);
-    }
-    return null;
+    return cache.remove(classType);
   }
 }
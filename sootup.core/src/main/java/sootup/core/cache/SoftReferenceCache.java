@@ -0,0 +1,142 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Cache that keeps its classes as {@link SoftReference}s, i.e. it is bounded by the available heap
+ * memory: the garbage collector reclaims cached classes before the JVM runs out of memory.
+ */
+public class SoftReferenceCache implements BoundedClassCache {
+
+  @Nonnull private final Map<ClassType, SoftValue> cache = new ConcurrentHashMap<>();
+  @Nonnull private final ReferenceQueue<SootClass> collectedValues = new ReferenceQueue<>();
+
+  @Nonnull private final LongAdder hitCount = new LongAdder();
+  @Nonnull private final LongAdder missCount = new LongAdder();
+  @Nonnull private final LongAdder evictionCount = new LongAdder();
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    SoftValue softValue = cache.get(classType);
+    SootClass sootClass = softValue == null ? null : softValue.get();
+    if (sootClass == null) {
+      missCount.increment();
+    } else {
+      hitCount.increment();
+    }
+    return sootClass;
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    drainCollectedValues();
+    List<SootClass> classes = new ArrayList<>(cache.size());
+    for (SoftValue softValue : cache.values()) {
+      SootClass sootClass = softValue.get();
+      if (sootClass != null) {
+        classes.add(sootClass);
+      }
+    }
+    return classes;
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    putClassIfAbsent(classType, sootClass);
+  }
+
+  @Nonnull
+  @Override
+  public SootClass putClassIfAbsent(ClassType classType, SootClass sootClass) {
+    drainCollectedValues();
+    SoftValue newValue = new SoftValue(classType, sootClass, collectedValues);
+    while (true) {
+      SoftValue existing = cache.putIfAbsent(classType, newValue);
+      if (existing == null) {
+        return sootClass;
+      }
+      SootClass cachedClass = existing.get();
+      if (cachedClass != null) {
+        return cachedClass;
+      }
+      // the cached class was reclaimed, but the reference is not drained yet
+      if (cache.replace(classType, existing, newValue)) {
+        return sootClass;
+      }
+    }
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    SoftValue softValue = cache.get(classType);
+    return softValue != null && softValue.get() != null;
+  }
+
+  @Override
+  public int size() {
+    drainCollectedValues();
+    return cache.size();
+  }
+
+  @Nonnull
+  @Override
+  public CacheStatistics getStatistics() {
+    drainCollectedValues();
+    return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), 0);
+  }
+
+  /** Removes the references whose classes were reclaimed by the garbage collector. */
+  private void drainCollectedValues() {
+    SoftValue collected;
+    while ((collected = (SoftValue) collectedValues.poll()) != null) {
+      if (cache.remove(collected.key, collected)) {
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private static final class SoftValue extends SoftReference<SootClass> {
+    @Nonnull final ClassType key;
+
+    SoftValue(
+        @Nonnull ClassType key,
+        @Nonnull SootClass value,
+        @Nonnull ReferenceQueue<SootClass> queue) {
+      super(value, queue);
+      this.key = key;
+    }
+  }
+}
@@ -0,0 +1,428 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Cache that is bounded by the total weight of its classes and that decides with a W-TinyLFU
+ * policy which classes to keep.
+ *
+ * <p>New classes enter a small LRU window. A class that is pushed out of the window only replaces
+ * a class of the main space if it was accessed more frequently in the recent past, the access
+ * frequency being estimated by a {@link FrequencySketch}. The main space is a segmented LRU:
+ * classes that are accessed again are promoted from the probation to the protected segment. Thus a
+ * single scan over many classes, e.g. by {@link sootup.core.views.View#getClasses()}, can not flush
+ * the classes that are used over and over again.
+ *
+ * <p>Optionally, evicted classes are kept as {@link SoftReference}s and are revived on their next
+ * lookup if the garbage collector did not reclaim them yet.
+ *
+ * <p>Lookups do not block: the recency and frequency of an access are only recorded if no other
+ * thread currently updates the policy, i.e. under contention some accesses are not recorded.
+ */
+public class TinyLfuCache implements BoundedClassCache {
+  /** share of the maximum weight that is used for the admission window */
+  private static final double WINDOW_RATIO = 0.01;
+  /** share of the main space that is used for the protected segment */
+  private static final double PROTECTED_RATIO = 0.8;
+
+  @Nonnull private final Map<ClassType, Node> data = new ConcurrentHashMap<>();
+  @Nonnull private final ClassWeigher weigher;
+  private final long maximumWeight;
+  private final long maximumWindowWeight;
+  private final long maximumProtectedWeight;
+
+  /** guards the policy, i.e. the queues, the weights and the sketch */
+  @Nonnull private final ReentrantLock evictionLock = new ReentrantLock();
+
+  @Nonnull private final FrequencySketch sketch = new FrequencySketch();
+  @Nonnull private final AccessOrderQueue window = new AccessOrderQueue();
+  @Nonnull private final AccessOrderQueue probation = new AccessOrderQueue();
+  @Nonnull private final AccessOrderQueue protectedSegment = new AccessOrderQueue();
+  private long windowWeight;
+  private long probationWeight;
+  private long protectedWeight;
+
+  @Nullable private final Map<ClassType, SoftValue> softValues;
+  @Nullable private final ReferenceQueue<SootClass> collectedValues;
+
+  @Nonnull private final LongAdder hitCount = new LongAdder();
+  @Nonnull private final LongAdder missCount = new LongAdder();
+  @Nonnull private final LongAdder evictionCount = new LongAdder();
+  @Nonnull private final LongAdder evictionWeight = new LongAdder();
+
+  /**
+   * Creates a cache that keeps classes up to the given total weight.
+   *
+   * @param maximumWeight the maximum total weight of the strongly cached classes
+   * @param weigher calculates the weight of a class
+   * @param softReferenceFallback whether evicted classes are kept as soft references
+   */
+  public TinyLfuCache(
+      long maximumWeight, @Nonnull ClassWeigher weigher, boolean softReferenceFallback) {
+    if (maximumWeight < 1) {
+      throw new IllegalArgumentException("The maximum weight has to be at least 1.");
+    }
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+    this.maximumWindowWeight = Math.max(1, (long) (maximumWeight * WINDOW_RATIO));
+    this.maximumProtectedWeight =
+        (long) ((maximumWeight - maximumWindowWeight) * PROTECTED_RATIO);
+    if (softReferenceFallback) {
+      this.softValues = new ConcurrentHashMap<>();
+      this.collectedValues = new ReferenceQueue<>();
+    } else {
+      this.softValues = null;
+      this.collectedValues = null;
+    }
+  }
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    Node node = data.get(classType);
+    if (node != null) {
+      hitCount.increment();
+      if (evictionLock.tryLock()) {
+        try {
+          onAccess(node);
+        } finally {
+          evictionLock.unlock();
+        }
+      }
+      return node.value;
+    }
+
+    if (softValues != null) {
+      SoftValue softValue = softValues.remove(classType);
+      SootClass revived = softValue == null ? null : softValue.get();
+      if (revived != null) {
+        hitCount.increment();
+        // another thread could have cached an instance of the type in the meantime
+        return putClassIfAbsent(classType, revived);
+      }
+    }
+
+    missCount.increment();
+    return null;
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    List<SootClass> classes = new ArrayList<>(data.size());
+    for (Node node : data.values()) {
+      classes.add(node.value);
+    }
+    return classes;
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    putClassIfAbsent(classType, sootClass);
+  }
+
+  @Nonnull
+  @Override
+  public SootClass putClassIfAbsent(ClassType classType, SootClass sootClass) {
+    Node existing = data.get(classType);
+    if (existing != null) {
+      return existing.value;
+    }
+    long weight = weigher.weigh(sootClass);
+    if (weight < 0) {
+      throw new IllegalStateException("The weight of " + classType + " is negative.");
+    }
+
+    evictionLock.lock();
+    try {
+      existing = data.get(classType);
+      if (existing != null) {
+        return existing.value;
+      }
+      Node node = new Node(classType, sootClass, weight);
+      data.put(classType, node);
+      if (sketch.capacity() < data.size()) {
+        sketch.ensureCapacity(2 * data.size());
+      }
+      sketch.increment(classType);
+      window.addLast(node);
+      node.segment = Segment.WINDOW;
+      windowWeight += weight;
+      evictFromWindow();
+      drainCollectedValues();
+      return sootClass;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    return data.containsKey(classType);
+  }
+
+  @Override
+  public int size() {
+    return data.size();
+  }
+
+  /** Returns the total weight of the strongly cached classes. */
+  public long getWeightedSize() {
+    evictionLock.lock();
+    try {
+      return windowWeight + probationWeight + protectedWeight;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  @Nonnull
+  @Override
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(
+        hitCount.sum(), missCount.sum(), evictionCount.sum(), evictionWeight.sum());
+  }
+
+  /** Updates the recency of the accessed node. Requires the eviction lock. */
+  private void onAccess(@Nonnull Node node) {
+    sketch.increment(node.key);
+    if (node.segment == null) {
+      // the node was evicted concurrently
+      return;
+    }
+    switch (node.segment) {
+      case WINDOW:
+        window.moveToLast(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        probationWeight -= node.weight;
+        protectedSegment.addLast(node);
+        node.segment = Segment.PROTECTED;
+        protectedWeight += node.weight;
+        demoteFromProtected();
+        break;
+      case PROTECTED:
+        protectedSegment.moveToLast(node);
+        break;
+    }
+  }
+
+  /** Moves the least recently used protected nodes back to probation if the segment is full. */
+  private void demoteFromProtected() {
+    while (protectedWeight > maximumProtectedWeight) {
+      Node node = protectedSegment.pollFirst();
+      if (node == null) {
+        return;
+      }
+      protectedWeight -= node.weight;
+      probation.addLast(node);
+      node.segment = Segment.PROBATION;
+      probationWeight += node.weight;
+    }
+  }
+
+  /** Moves the overflow of the window to the main space, if the admission policy allows it. */
+  private void evictFromWindow() {
+    while (windowWeight > maximumWindowWeight) {
+      Node candidate = window.pollFirst();
+      if (candidate == null) {
+        return;
+      }
+      windowWeight -= candidate.weight;
+      candidate.segment = null;
+      admit(candidate);
+    }
+  }
+
+  /**
+   * Admits the candidate to the probation segment. If the main space is full, the candidate
+   * competes with the least recently used nodes of the main space, and the less frequently used
+   * one is evicted.
+   */
+  private void admit(@Nonnull Node candidate) {
+    long maximumMainWeight = maximumWeight - maximumWindowWeight;
+    if (candidate.weight > maximumMainWeight) {
+      evict(candidate);
+      return;
+    }
+    int candidateFrequency = sketch.frequency(candidate.key);
+    while (probationWeight + protectedWeight + candidate.weight > maximumMainWeight) {
+      Node victim = probation.peekFirst();
+      if (victim == null) {
+        victim = protectedSegment.peekFirst();
+      }
+      if (victim == null) {
+        break;
+      }
+      if (candidateFrequency > sketch.frequency(victim.key)) {
+        unlink(victim);
+        evict(victim);
+      } else {
+        evict(candidate);
+        return;
+      }
+    }
+    probation.addLast(candidate);
+    candidate.segment = Segment.PROBATION;
+    probationWeight += candidate.weight;
+  }
+
+  private void unlink(@Nonnull Node node) {
+    if (node.segment == Segment.PROBATION) {
+      probation.remove(node);
+      probationWeight -= node.weight;
+    } else if (node.segment == Segment.PROTECTED) {
+      protectedSegment.remove(node);
+      protectedWeight -= node.weight;
+    } else if (node.segment == Segment.WINDOW) {
+      window.remove(node);
+      windowWeight -= node.weight;
+    }
+    node.segment = null;
+  }
+
+  /** Removes the unlinked node from the cache. */
+  private void evict(@Nonnull Node node) {
+    data.remove(node.key, node);
+    evictionCount.increment();
+    evictionWeight.add(node.weight);
+    if (softValues != null) {
+      softValues.put(node.key, new SoftValue(node.key, node.value, collectedValues));
+    }
+  }
+
+  /** Removes the soft references whose classes were reclaimed by the garbage collector. */
+  private void drainCollectedValues() {
+    if (collectedValues == null) {
+      return;
+    }
+    SoftValue collected;
+    while ((collected = (SoftValue) collectedValues.poll()) != null) {
+      softValues.remove(collected.key, collected);
+    }
+  }
+
+  private enum Segment {
+    WINDOW,
+    PROBATION,
+    PROTECTED
+  }
+
+  private static final class Node {
+    @Nonnull final ClassType key;
+    @Nonnull final SootClass value;
+    final long weight;
+    @Nullable Segment segment;
+    @Nullable Node previous;
+    @Nullable Node next;
+
+    Node(@Nonnull ClassType key, @Nonnull SootClass value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  private static final class SoftValue extends SoftReference<SootClass> {
+    @Nonnull final ClassType key;
+
+    SoftValue(
+        @Nonnull ClassType key,
+        @Nonnull SootClass value,
+        @Nullable ReferenceQueue<SootClass> queue) {
+      super(value, queue);
+      this.key = key;
+    }
+  }
+
+  /** A doubly linked list of nodes, ordered from the least to the most recently used one. */
+  private static final class AccessOrderQueue {
+    @Nullable private Node first;
+    @Nullable private Node last;
+
+    @Nullable
+    Node peekFirst() {
+      return first;
+    }
+
+    @Nullable
+    Node pollFirst() {
+      Node node = first;
+      if (node != null) {
+        remove(node);
+      }
+      return node;
+    }
+
+    void addLast(@Nonnull Node node) {
+      node.previous = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+    }
+
+    void moveToLast(@Nonnull Node node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void remove(@Nonnull Node node) {
+      if (node.previous == null) {
+        first = node.next;
+      } else {
+        node.previous.next = node.next;
+      }
+      if (node.next == null) {
+        last = node.previous;
+      } else {
+        node.next.previous = node.previous;
+      }
+      node.previous = null;
+      node.next = null;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package sootup.core.cache.provider;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import sootup.core.cache.ClassCache;
+import sootup.core.cache.ClassWeigher;
+import sootup.core.cache.TinyLfuCache;
+
+/** Provides a new {@link TinyLfuCache} object. */
+public class TinyLfuCacheProvider implements ClassCacheProvider {
+  private final long maximumWeight;
+  @Nonnull private final ClassWeigher weigher;
+  private final boolean softReferenceFallback;
+
+  /**
+   * Create a new TinyLfuCacheProvider that returns a {@link TinyLfuCache} which keeps classes up to
+   * approximately the given amount of heap memory, see {@link
+   * ClassWeigher#approximateRetainedSize()}. Evicted classes are kept as soft references.
+   *
+   * @param maximumBytes the approximate heap memory in bytes that the cached classes may retain
+   */
+  public TinyLfuCacheProvider(long maximumBytes) {
+    this(maximumBytes, ClassWeigher.approximateRetainedSize(), true);
+  }
+
+  /**
+   * Create a new TinyLfuCacheProvider that returns a {@link TinyLfuCache} with the specified
+   * configuration.
+   *
+   * @param maximumWeight the maximum total weight of the cached classes
+   * @param weigher calculates the weight of a class, use {@link ClassWeigher#singleton()} to bound
+   *     the cache by the number of classes
+   * @param softReferenceFallback whether evicted classes are kept as soft references
+   */
+  public TinyLfuCacheProvider(
+      long maximumWeight, @Nonnull ClassWeigher weigher, boolean softReferenceFallback) {
+    if (maximumWeight < 1) {
+      throw new IllegalArgumentException("The maximum weight has to be at least 1");
+    }
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+    this.softReferenceFallback = softReferenceFallback;
+  }
+
+  @Override
+  public ClassCache createCache() {
+    return new TinyLfuCache(maximumWeight, weigher, softReferenceFallback);
+  }
+}
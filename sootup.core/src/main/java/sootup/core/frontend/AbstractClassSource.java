@@ -21,7 +21,10 @@ package sootup.core.frontend;
  * #L%
  */
 import com.google.common.base.Objects;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.OptionalLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.inputlocation.AnalysisInputLocation;
@@ -72,6 +75,23 @@ public abstract class AbstractClassSource {
     return sourcePath;
   }
 
+  /**
+   * @return the size of the source file in bytes if it is known without reading the file - the
+   *     source path does not have to denote a file in the default file system, e.g. for an entry of
+   *     an archive
+   */
+  @Nonnull
+  public OptionalLong getSourceSize() {
+    if (sourcePath != null) {
+      try {
+        return OptionalLong.of(Files.size(sourcePath));
+      } catch (IOException | UnsupportedOperationException e) {
+        // e.g. the source path only identifies an entry of an archive
+      }
+    }
+    return OptionalLong.empty();
+  }
+
   /**
    * Even if a the signature changes, the classource remains the same, e.g., if it is associated to
    * an automatic module s
@@ -0,0 +1,44 @@
+package sootup.core.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import sootup.core.model.SootMethod;
+
+/**
+ * Determines how a {@link SootMethod} keeps the Body it resolved from its {@link BodySource}.
+ * Bodies that are not kept are resolved again by the {@link BodySource} on the next request.
+ *
+ * @see BodySource#getBodyRetention()
+ * @see SootMethod#releaseBody()
+ */
+public enum BodyRetention {
+  /** The Body is kept as long as its method - {@link SootMethod#releaseBody()} has no effect. */
+  STRONG,
+  /** The Body is kept until it is released via {@link SootMethod#releaseBody()}. */
+  RELEASABLE,
+  /**
+   * The Body is softly referenced i.e. the garbage collector may drop it under memory pressure. It
+   * can be released explicitly as well.
+   */
+  SOFT
+}
@@ -43,6 +43,15 @@ public interface BodySource {
   Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers)
       throws ResolveException, IOException;
 
+  /**
+   * Determines how the Body is kept by its method once it is resolved. Sources that allow to
+   * release their Bodies must be able to resolve a Body more than once.
+   */
+  @Nonnull
+  default BodyRetention getBodyRetention() {
+    return BodyRetention.STRONG;
+  }
+
   /** @return returns the default value of the Annotation for this method */
   Object resolveAnnotationsDefaultValue();
 
@@ -0,0 +1,101 @@
+package sootup.core.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.ClassModifier;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * The part of a class that determines its position in the type hierarchy: its superclass, its
+ * directly implemented or extended interfaces and whether it is an interface itself. Frontends can
+ * read the header of a class without resolving its fields and methods (see {@link
+ * sootup.core.inputlocation.AnalysisInputLocation#streamClassHeaders(sootup.core.views.View)}).
+ */
+public final class ClassHeader {
+
+  @Nonnull private final ClassType type;
+  @Nullable private final ClassType superclass;
+  @Nonnull private final Collection<? extends ClassType> interfaces;
+  private final boolean isInterface;
+
+  public ClassHeader(
+      @Nonnull ClassType type,
+      @Nullable ClassType superclass,
+      @Nonnull Collection<? extends ClassType> interfaces,
+      boolean isInterface) {
+    this.type = type;
+    this.superclass = superclass;
+    this.interfaces = interfaces;
+    this.isInterface = isInterface;
+  }
+
+  @Nonnull
+  public static ClassHeader of(@Nonnull SootClass sootClass) {
+    return new ClassHeader(
+        sootClass.getType(),
+        sootClass.getSuperclass().orElse(null),
+        sootClass.getInterfaces(),
+        sootClass.isInterface());
+  }
+
+  @Nonnull
+  public static ClassHeader of(@Nonnull SootClassSource classSource) {
+    return new ClassHeader(
+        classSource.getClassType(),
+        classSource.resolveSuperclass().orElse(null),
+        classSource.resolveInterfaces(),
+        ClassModifier.isInterface(classSource.resolveModifiers()));
+  }
+
+  @Nonnull
+  public ClassType getType() {
+    return type;
+  }
+
+  @Nonnull
+  public Optional<ClassType> getSuperclass() {
+    return Optional.ofNullable(superclass);
+  }
+
+  @Nonnull
+  public Collection<? extends ClassType> getInterfaces() {
+    return interfaces;
+  }
+
+  public boolean isInterface() {
+    return isInterface;
+  }
+
+  @Override
+  public String toString() {
+    return (isInterface ? "interface " : "class ")
+        + type
+        + (superclass == null ? "" : " extends " + superclass)
+        + (interfaces.isEmpty() ? "" : " implements " + interfaces);
+  }
+}
@@ -0,0 +1,107 @@
+package sootup.core.graph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Indexes the Stmts of a {@link StmtGraph} that define and that use each Local, so that the
+ * definitions and uses of a Local can be found without iterating all Stmts. Like {@link
+ * Local#equals(Object)}, the index distinguishes Locals by their name.
+ *
+ * <p>A {@link MutableBlockStmtGraph} keeps its index up to date once it has been requested via
+ * {@link StmtGraph#getDefUseIndex()}, i.e. all BodyInterceptors that run afterwards share it
+ * instead of collecting the definitions and uses again.
+ */
+public final class DefUseIndex {
+
+  @Nonnull private final Map<Local, Set<Stmt>> defs = new HashMap<>();
+  @Nonnull private final Map<Local, Set<Stmt>> uses = new HashMap<>();
+
+  public DefUseIndex(@Nonnull StmtGraph<?> graph) {
+    for (Stmt stmt : graph.getNodes()) {
+      add(stmt);
+    }
+  }
+
+  /** Adds a Stmt that has been inserted into the graph. */
+  void add(@Nonnull Stmt stmt) {
+    Optional<LValue> def = stmt.getDef();
+    if (def.isPresent() && def.get() instanceof Local) {
+      defs.computeIfAbsent((Local) def.get(), local -> new LinkedHashSet<>()).add(stmt);
+    }
+    for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+      Value use = iterator.next();
+      if (use instanceof Local) {
+        uses.computeIfAbsent((Local) use, local -> new LinkedHashSet<>()).add(stmt);
+      }
+    }
+  }
+
+  /** Removes a Stmt that has been removed from the graph. */
+  void remove(@Nonnull Stmt stmt) {
+    Optional<LValue> def = stmt.getDef();
+    if (def.isPresent() && def.get() instanceof Local) {
+      removeFrom(defs, (Local) def.get(), stmt);
+    }
+    for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+      Value use = iterator.next();
+      if (use instanceof Local) {
+        removeFrom(uses, (Local) use, stmt);
+      }
+    }
+  }
+
+  private static void removeFrom(
+      @Nonnull Map<Local, Set<Stmt>> index, @Nonnull Local local, @Nonnull Stmt stmt) {
+    Set<Stmt> stmts = index.get(local);
+    if (stmts != null) {
+      stmts.remove(stmt);
+    }
+  }
+
+  /**
+   * @return the Stmts that assign the Local - a view that must not be iterated while the graph is
+   *     modified
+   */
+  @Nonnull
+  public Set<Stmt> getDefsOf(@Nonnull Local local) {
+    Set<Stmt> stmts = defs.get(local);
+    return stmts == null ? Collections.emptySet() : Collections.unmodifiableSet(stmts);
+  }
+
+  /**
+   * @return the Stmts that use the Local, each Stmt once - a view that must not be iterated while
+   *     the graph is modified
+   */
+  @Nonnull
+  public Set<Stmt> getUsesOf(@Nonnull Local local) {
+    Set<Stmt> stmts = uses.get(local);
+    return stmts == null ? Collections.emptySet() : Collections.unmodifiableSet(stmts);
+  }
+}
@@ -66,6 +66,18 @@ public class ForwardingStmtGraph<V extends BasicBlock<V>> extends StmtGraph<V> {
     return backingGraph.getBlocks();
   }
 
+  @Nonnull
+  @Override
+  public StmtGraphNumbering getNumbering() {
+    return backingGraph.getNumbering();
+  }
+
+  @Nonnull
+  @Override
+  public DefUseIndex getDefUseIndex() {
+    return backingGraph.getDefUseIndex();
+  }
+
   @Nonnull
   @Override
   public List<? extends BasicBlock<?>> getBlocksSorted() {
@@ -55,6 +55,12 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Nonnull private final Set<MutableBasicBlock> blocks = new HashSet<>();
 
+  /** cached until the graph is modified */
+  @Nullable private StmtGraphNumbering numbering = null;
+
+  /** created on demand and maintained from then on */
+  @Nullable private DefUseIndex defUseIndex = null;
+
   public MutableBlockStmtGraph() {}
 
   public MutableBlockStmtGraph(boolean isStatic, MethodSignature sig, LocalGenerator localgen) {
@@ -130,6 +136,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       @Nonnull List<List<Stmt>> blocks,
       @Nonnull Map<BranchingStmt, List<Stmt>> successorMap,
       @Nonnull List<Trap> traps) {
+    numbering = null;
 
     if (blocks.isEmpty()) {
       return;
@@ -435,6 +442,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   @Override
   public void addExceptionalEdge(
       @Nonnull Stmt stmt, @Nonnull ClassType exceptionType, @Nonnull Stmt traphandlerStmt) {
+    numbering = null;
 
     Pair<Integer, MutableBasicBlock> blockPair = stmtToBlock.get(stmt);
     if (blockPair == null) {
@@ -457,6 +465,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void removeExceptionalEdge(@Nonnull Stmt node, @Nonnull ClassType exceptionType) {
+    numbering = null;
     Pair<Integer, MutableBasicBlock> blockPair = stmtToBlock.get(node);
     if (blockPair == null) {
       throw new IllegalArgumentException(
@@ -469,6 +478,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void clearExceptionalEdges(@Nonnull Stmt node) {
+    numbering = null;
     Pair<Integer, MutableBasicBlock> blockPair = stmtToBlock.get(node);
     if (blockPair == null) {
       throw new IllegalArgumentException(
@@ -490,12 +500,58 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     return ReversePostOrderBlockTraversal.getBlocksSorted(this);
   }
 
+  @Nonnull
+  @Override
+  public StmtGraphNumbering getNumbering() {
+    if (numbering == null) {
+      numbering = new StmtGraphNumbering(this);
+    }
+    return numbering;
+  }
+
+  /**
+   * Creates the index on the first call and maintains it whenever a Stmt is added, replaced or
+   * removed afterwards.
+   */
+  @Nonnull
+  @Override
+  public DefUseIndex getDefUseIndex() {
+    if (defUseIndex == null) {
+      defUseIndex = new DefUseIndex(this);
+    }
+    return defUseIndex;
+  }
+
+  /** Drops the numbering and stops maintaining the DefUseIndex. */
+  @Override
+  public void discardIndexes() {
+    numbering = null;
+    defUseIndex = null;
+  }
+
+  /** Updates the position of the Stmt and indexes it if it is new in this graph. */
+  private Pair<Integer, MutableBasicBlock> putStmtToBlock(
+      @Nonnull Stmt stmt, @Nonnull Pair<Integer, MutableBasicBlock> blockPair) {
+    Pair<Integer, MutableBasicBlock> previous = stmtToBlock.put(stmt, blockPair);
+    if (previous == null && defUseIndex != null) {
+      defUseIndex.add(stmt);
+    }
+    return previous;
+  }
+
+  private void removeStmtToBlock(@Nonnull Stmt stmt) {
+    if (stmtToBlock.remove(stmt) != null && defUseIndex != null) {
+      defUseIndex.remove(stmt);
+    }
+  }
+
   /**
    * The list of Stmts must contain only fallsthrough Stmts; A flow manipulating Stmt
    * (BranchingStmt, return, throw) is only allowed at the Tail. (like the conditions of a Block)
    */
   @Override
   public void addBlock(@Nonnull List<Stmt> stmts, @Nonnull Map<ClassType, Stmt> trapMap) {
+    numbering = null;
     if (stmts.isEmpty()) {
       return;
     }
@@ -537,7 +593,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
             // last stmt is head of another block
 
             // cleanup started add action
-            stmtToBlock.put(stmt, overwrittenBlockPair);
+            putStmtToBlock(stmt, overwrittenBlockPair);
             block.removeStmt(overwrittenBlockPair.getLeft());
 
             // try to merge
@@ -563,6 +619,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void removeBlock(BasicBlock<?> block) {
+    numbering = null;
     Pair<Integer, MutableBasicBlock> blockOfPair = stmtToBlock.get(block.getHead());
     if (blockOfPair.getRight() != block) {
       throw new IllegalArgumentException(
@@ -571,7 +628,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     MutableBasicBlock blockOf = blockOfPair.getRight();
 
     List<Stmt> stmts = block.getStmts();
-    stmts.forEach(stmtToBlock::remove);
+    stmts.forEach(this::removeStmtToBlock);
 
     // unlink block from graph
     blockOf.clearPredecessorBlocks();
@@ -583,6 +640,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void addNode(@Nonnull Stmt stmt, @Nonnull Map<ClassType, Stmt> exceptions) {
+    numbering = null;
     Pair<Integer, MutableBasicBlock> blockPair = stmtToBlock.get(stmt);
     if (blockPair == null) {
       // Stmt does not exist in the graph -> create
@@ -745,7 +803,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     List<Stmt> stmts = firstBlock.getStmts();
     for (int i = startIdx, stmtsSize = stmts.size(); i < stmtsSize; i++) {
       Stmt stmt = stmts.get(i);
-      stmtToBlock.put(stmt, new MutablePair<>(i, firstBlock));
+      putStmtToBlock(stmt, new MutablePair<>(i, firstBlock));
       // TODO: reuse previous assigned Pairs/ shift offset
     }
   }
@@ -843,10 +901,11 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       @Nonnull MutableBasicBlock block, @Nonnull Stmt stmt) {
     int stmtIdx = block.getStmtCount();
     block.addStmt(stmt);
-    return stmtToBlock.put(stmt, new MutablePair<>(stmtIdx, block));
+    return putStmtToBlock(stmt, new MutablePair<>(stmtIdx, block));
   }
 
   public void removeNode(@Nonnull Stmt stmt) {
+    numbering = null;
     // TODO: [ms] whats intuitive? removing the flows to the block too? or is deleting a stmt
     // keeping the flows to it
     // is the answer different if its the tail? consistency vs intuitivity..
@@ -865,6 +924,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
    * @throws IllegalArgumentException if keepFlow is true but the stmt has multiple successors
    */
   public void removeNode(@Nonnull Stmt stmt, boolean keepFlow) {
+    numbering = null;
     Pair<Integer, MutableBasicBlock> blockOfRemovedStmtPair = stmtToBlock.get(stmt);
     if (blockOfRemovedStmtPair == null) {
       throw new IllegalArgumentException("stmt '" + stmt + "' is not contained in this StmtGraph!");
@@ -927,7 +987,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       List<Stmt> stmts = blockOfRemovedStmt.getStmts();
       for (int i = blockOfRemovedStmtPair.getLeft(), stmtsSize = stmts.size(); i < stmtsSize; i++) {
         Stmt s = stmts.get(i);
-        stmtToBlock.put(s, new MutablePair<>(i, blockOfRemovedStmt));
+        putStmtToBlock(s, new MutablePair<>(i, blockOfRemovedStmt));
       }
 
     } else {
@@ -955,7 +1015,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
           List<Stmt> stmts = blockOfRemovedStmt.getStmts();
           for (int i = startIdx, stmtsSize = stmts.size(); i < stmtsSize; i++) {
             Stmt s = stmts.get(i);
-            stmtToBlock.put(s, new MutablePair<>(i, blockOfRemovedStmt));
+            putStmtToBlock(s, new MutablePair<>(i, blockOfRemovedStmt));
           }
         } else {
           int splitIdx = blockOfRemovedStmtPair.getLeft();
@@ -966,16 +1026,17 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
           blocks.add(secondBlock);
           int idx = 0;
           for (Stmt s : secondBlock.getStmts()) {
-            stmtToBlock.put(s, new MutablePair<>(idx++, secondBlock));
+            putStmtToBlock(s, new MutablePair<>(idx++, secondBlock));
           }
         }
       }
     }
-    stmtToBlock.remove(stmt);
+    removeStmtToBlock(stmt);
   }
 
   @Override
   public void replaceNode(@Nonnull Stmt oldStmt, @Nonnull Stmt newStmt) {
+    numbering = null;
     if (oldStmt == newStmt) {
       return;
     }
@@ -994,23 +1055,23 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (!oldStmt.branches() && !newStmt.branches()) {
       // nothing branches -> just replace actual Stmt inside oldStmts block
       blockOfOldStmt.replaceStmt(blockOfOldStmtPair.getLeft(), newStmt);
-      stmtToBlock.put(newStmt, blockOfOldStmtPair);
+      putStmtToBlock(newStmt, blockOfOldStmtPair);
 
     } else if (!oldStmt.branches() && newStmt.branches()) {
       // split block
       MutableBasicBlock newBlock = splitAndExcludeStmtFromBlock(oldStmt, blockOfOldStmt);
       blockOfOldStmt.replaceStmt(oldStmt, newStmt);
       // update index
-      stmtToBlock.put(newStmt, blockOfOldStmtPair);
+      putStmtToBlock(newStmt, blockOfOldStmtPair);
       int idx = 0;
       for (Stmt stmt : newBlock.getStmts()) {
-        stmtToBlock.put(stmt, new MutablePair<>(idx++, newBlock));
+        putStmtToBlock(stmt, new MutablePair<>(idx++, newBlock));
       }
 
     } else if (oldStmt.branches() && !newStmt.branches()) {
       blockOfOldStmt.replaceStmt(oldStmt, newStmt);
       blockOfOldStmtPair.setValue(blockOfOldStmt);
-      stmtToBlock.put(newStmt, blockOfOldStmtPair);
+      putStmtToBlock(newStmt, blockOfOldStmtPair);
       if (oldStmt.getExpectedSuccessorCount() > newStmt.getExpectedSuccessorCount()) {
         // throw new IllegalArgumentException("We can't keep the flows if we replace a Stmt ("+
         // oldStmt.getExpectedSuccessorCount() +") by another Stmt which expects a different amount
@@ -1029,7 +1090,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     } else /* ==> if(oldStmt.branches() && newStmt.branches()) */ {
 
       blockOfOldStmt.replaceStmt(oldStmt, newStmt);
-      stmtToBlock.put(newStmt, blockOfOldStmtPair);
+      putStmtToBlock(newStmt, blockOfOldStmtPair);
       if (oldStmt.getExpectedSuccessorCount() != newStmt.getExpectedSuccessorCount()) {
         // TODO: or should we just assume to use successorIdx:0
         throw new IllegalArgumentException(
@@ -1041,7 +1102,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       }
     }
 
-    stmtToBlock.remove(oldStmt);
+    removeStmtToBlock(oldStmt);
   }
 
   public void validateBlocks() {
@@ -1073,6 +1134,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       @Nonnull Stmt beforeStmt,
       @Nonnull List<FallsThroughStmt> stmts,
       @Nonnull Map<ClassType, Stmt> exceptionMap) {
+    numbering = null;
     if (stmts.isEmpty()) {
       return;
     }
@@ -1111,13 +1173,13 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
         // blocks are merged: update index of the merged stmts
         int idx = block.getStmtCount() - successorBlock.getStmtCount();
         for (Stmt stmt : successorBlock.getStmts()) {
-          stmtToBlock.put(stmt, new MutablePair<>(idx++, block));
+          putStmtToBlock(stmt, new MutablePair<>(idx++, block));
         }
       } else {
         // update index: for stmts of the split block
         int idx = 0;
         for (Stmt stmt : successorBlock.getStmts()) {
-          stmtToBlock.put(stmt, new MutablePair<>(idx++, successorBlock));
+          putStmtToBlock(stmt, new MutablePair<>(idx++, successorBlock));
         }
         blocks.add(successorBlock);
       }
@@ -1131,6 +1193,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   /** Replaces all SuccessorEdge(s) of from to oldTo by mewTo */
   @Override
   public boolean replaceSucessorEdge(@Nonnull Stmt from, @Nonnull Stmt oldTo, @Nonnull Stmt newTo) {
+    numbering = null;
     final Pair<Integer, MutableBasicBlock> mutableBasicBlockPair = stmtToBlock.get(from);
     if (mutableBasicBlockPair == null) {
       throw new IllegalArgumentException("stmt '" + from + "' does not exist in this StmtGraph!");
@@ -1173,6 +1236,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   }
 
   protected void putEdge_internal(@Nonnull Stmt stmtA, int succesorIdx, @Nonnull Stmt stmtB) {
+    numbering = null;
 
     Pair<Integer, MutableBasicBlock> blockAPair = stmtToBlock.get(stmtA);
     Pair<Integer, MutableBasicBlock> blockBPair = stmtToBlock.get(stmtB);
@@ -1218,7 +1282,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
           blocks.add(newBlock);
           int idx = 0;
           for (Stmt stmt : newBlock.getStmts()) {
-            stmtToBlock.put(stmt, new MutablePair<>(idx++, newBlock));
+            putStmtToBlock(stmt, new MutablePair<>(idx++, newBlock));
           }
 
           if (blockA == blockB) {
@@ -1278,6 +1342,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public List<Integer> removeEdge(@Nonnull Stmt from, @Nonnull Stmt to) {
+    numbering = null;
     Pair<Integer, MutableBasicBlock> blockOfFromPair = stmtToBlock.get(from);
     if (blockOfFromPair == null) {
       // Stmt is not existing anymore in this graph - so neither a connection.
@@ -1333,7 +1398,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
         blocks.add(newBlock);
         int idx = 0;
         for (Stmt s : newBlock.getStmts()) {
-          stmtToBlock.put(s, new MutablePair<>(idx++, newBlock));
+          putStmtToBlock(s, new MutablePair<>(idx++, newBlock));
         }
         return Collections.singletonList(0);
       } else {
@@ -1350,6 +1415,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void setEdges(@Nonnull BranchingStmt fromStmt, @Nonnull List<Stmt> targets) {
+    numbering = null;
     if (fromStmt.getExpectedSuccessorCount() != targets.size()) {
       throw new IllegalArgumentException(
           "Size of Targets is not the amount of from's expected successors.");
@@ -1398,6 +1464,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   }
 
   public void setStartingStmt(@Nonnull Stmt startingStmt) {
+    numbering = null;
     if (stmtToBlock.get(startingStmt) == null) {
       Pair<Integer, MutableBasicBlock> block = stmtToBlock.get(startingStmt);
       if (block == null) {
@@ -40,6 +40,12 @@ public abstract class MutableStmtGraph extends StmtGraph<MutableBasicBlock> {
 
   public abstract void setStartingStmt(@Nonnull Stmt firstStmt);
 
+  /**
+   * Drops the indexes that this graph caches or maintains, e.g. once a Body is built from it. They
+   * are created again on demand.
+   */
+  public void discardIndexes() {}
+
   /** inserts a "stmt" into the StmtGraph */
   public void addNode(@Nonnull Stmt stmt) {
     addNode(stmt, Collections.emptyMap());
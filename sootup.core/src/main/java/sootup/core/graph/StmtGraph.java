@@ -91,6 +91,24 @@ public abstract class StmtGraph<V extends BasicBlock<V>> implements Iterable<Stm
 
   public abstract BasicBlock<?> getBlockOf(@Nonnull Stmt stmt);
 
+  /**
+   * Numbers the blocks and Stmts of this graph densely, see {@link StmtGraphNumbering}. The
+   * numbering is valid until this graph is modified.
+   */
+  @Nonnull
+  public StmtGraphNumbering getNumbering() {
+    return new StmtGraphNumbering(this);
+  }
+
+  /**
+   * Indexes the definitions and uses of the Locals of this graph, see {@link DefUseIndex}. The
+   * index is valid until this graph is modified - unless the graph maintains it.
+   */
+  @Nonnull
+  public DefUseIndex getDefUseIndex() {
+    return new DefUseIndex(this);
+  }
+
   public abstract boolean containsNode(@Nonnull Stmt node);
 
   /**
@@ -182,16 +200,20 @@ public abstract class StmtGraph<V extends BasicBlock<V>> implements Iterable<Stm
   /** validates whether the each Stmt has the correct amount of outgoing flows. */
   public void validateStmtConnectionsInGraph() {
     try {
-
+      // the traps are only built for the first Stmt without predecessors
+      Set<Stmt> handlerStmts = null;
       for (Stmt stmt : getNodes()) {
         final List<Stmt> successors = successors(stmt);
         final int successorCount = successors.size();
 
-        if (predecessors(stmt).isEmpty()) {
-          if (!(stmt == getStartingStmt()
-              || buildTraps().stream()
-                  .map(Trap::getHandlerStmt)
-                  .anyMatch(handler -> handler == stmt))) {
+        if (predecessors(stmt).isEmpty() && stmt != getStartingStmt()) {
+          if (handlerStmts == null) {
+            handlerStmts = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Trap trap : buildTraps()) {
+              handlerStmts.add(trap.getHandlerStmt());
+            }
+          }
+          if (!handlerStmts.contains(stmt)) {
             throw new IllegalStateException(
                 "Stmt '"
                     + stmt
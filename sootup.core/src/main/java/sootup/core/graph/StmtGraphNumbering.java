@@ -0,0 +1,162 @@
+package sootup.core.graph;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Assigns dense numbers from 0 to the blocks and to the Stmts of a {@link StmtGraph}, so that
+ * analyses can keep their per Stmt or per block data in arrays and bit-sets instead of hash maps.
+ * The blocks are numbered in reverse post-order of the normal and exceptional flow from the block
+ * of the starting Stmt; blocks that are not reachable from it follow in no particular order. The
+ * Stmts are numbered block by block in the order of the blocks.
+ *
+ * <p>A numbering is a snapshot of the graph: it is valid until the graph is modified. Use {@link
+ * StmtGraph#getNumbering()} to get a valid one.
+ */
+public final class StmtGraphNumbering {
+
+  @Nonnull private final List<BasicBlock<?>> blocks;
+  @Nonnull private final Map<BasicBlock<?>, Integer> blockNumbers;
+  @Nonnull private final Stmt[] stmts;
+  @Nonnull private final Map<Stmt, Integer> stmtNumbers;
+  /** the block number of each Stmt number */
+  @Nonnull private final int[] blockOfStmt;
+
+  public StmtGraphNumbering(@Nonnull StmtGraph<?> graph) {
+    Collection<? extends BasicBlock<?>> graphBlocks = graph.getBlocks();
+    blocks = reversePostOrder(graph, graphBlocks);
+    blockNumbers = new IdentityHashMap<>(blocks.size());
+    int stmtCount = 0;
+    for (BasicBlock<?> block : blocks) {
+      blockNumbers.put(block, blockNumbers.size());
+      stmtCount += block.getStmtCount();
+    }
+
+    stmts = new Stmt[stmtCount];
+    stmtNumbers = new IdentityHashMap<>(stmtCount);
+    blockOfStmt = new int[stmtCount];
+    int number = 0;
+    for (int b = 0; b < blocks.size(); b++) {
+      for (Stmt stmt : blocks.get(b).getStmts()) {
+        stmts[number] = stmt;
+        stmtNumbers.put(stmt, number);
+        blockOfStmt[number] = b;
+        number++;
+      }
+    }
+  }
+
+  @Nonnull
+  private static List<BasicBlock<?>> reversePostOrder(
+      @Nonnull StmtGraph<?> graph, @Nonnull Collection<? extends BasicBlock<?>> graphBlocks) {
+    List<BasicBlock<?>> postOrder = new ArrayList<>(graphBlocks.size());
+    Set<BasicBlock<?>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    Deque<BasicBlock<?>> stack = new ArrayDeque<>();
+    Deque<Iterator<BasicBlock<?>>> successorIterators = new ArrayDeque<>();
+
+    if (graph.getStartingStmt() != null) {
+      BasicBlock<?> startingBlock = graph.getStartingStmtBlock();
+      visited.add(startingBlock);
+      stack.push(startingBlock);
+      successorIterators.push(successorsOf(startingBlock));
+      while (!stack.isEmpty()) {
+        Iterator<BasicBlock<?>> iterator = successorIterators.peek();
+        if (iterator.hasNext()) {
+          BasicBlock<?> succ = iterator.next();
+          if (visited.add(succ)) {
+            stack.push(succ);
+            successorIterators.push(successorsOf(succ));
+          }
+        } else {
+          successorIterators.pop();
+          postOrder.add(stack.pop());
+        }
+      }
+    }
+    Collections.reverse(postOrder);
+
+    for (BasicBlock<?> block : graphBlocks) {
+      if (visited.add(block)) {
+        postOrder.add(block);
+      }
+    }
+    return postOrder;
+  }
+
+  @Nonnull
+  private static Iterator<BasicBlock<?>> successorsOf(@Nonnull BasicBlock<?> block) {
+    List<BasicBlock<?>> successors = new ArrayList<>(block.getSuccessors());
+    successors.addAll(block.getExceptionalSuccessors().values());
+    return successors.iterator();
+  }
+
+  public int getStmtCount() {
+    return stmts.length;
+  }
+
+  public int getBlockCount() {
+    return blocks.size();
+  }
+
+  /** @return the number of the Stmt or -1 if it is not contained in the numbered graph */
+  public int getNumber(@Nonnull Stmt stmt) {
+    Integer number = stmtNumbers.get(stmt);
+    return number == null ? -1 : number;
+  }
+
+  /** @return the number of the block or -1 if it is not contained in the numbered graph */
+  public int getBlockNumber(@Nonnull BasicBlock<?> block) {
+    Integer number = blockNumbers.get(block);
+    return number == null ? -1 : number;
+  }
+
+  /** @return the number of the block that contains the Stmt with the given number */
+  public int getBlockNumberOf(int stmtNumber) {
+    return blockOfStmt[stmtNumber];
+  }
+
+  @Nonnull
+  public Stmt getStmt(int number) {
+    return stmts[number];
+  }
+
+  @Nonnull
+  public BasicBlock<?> getBlock(int number) {
+    return blocks.get(number);
+  }
+
+  /** @return the Stmts in the order of their numbers */
+  @Nonnull
+  public List<Stmt> getStmts() {
+    return Collections.unmodifiableList(Arrays.asList(stmts));
+  }
+
+  /** @return the blocks in the order of their numbers */
+  @Nonnull
+  public List<BasicBlock<?>> getBlocks() {
+    return Collections.unmodifiableList(blocks);
+  }
+}
@@ -24,7 +24,10 @@ package sootup.core.inputlocation;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.model.SootClass;
 import sootup.core.model.SourceType;
@@ -63,6 +66,31 @@ public interface AnalysisInputLocation {
   @Nonnull
   Collection<? extends SootClassSource> getClassSources(@Nonnull View view);
 
+  /**
+   * Like {@link #getClassSources(View)}, but the class sources can be created lazily while the
+   * stream is consumed, so that they do not have to be held in memory at the same time. The stream
+   * has to be closed after its use.
+   *
+   * @return The source entries.
+   */
+  @Nonnull
+  default Stream<? extends SootClassSource> streamClassSources(@Nonnull View view) {
+    return getClassSources(view).stream();
+  }
+
+  /**
+   * Returns the headers of the classes of {@link #streamClassSources(View)}. Frontends that can
+   * read the superclass and the interfaces of a class without resolving the whole class source
+   * should override this, as the type hierarchy of a view is built from the headers. The stream has
+   * to be closed after its use.
+   *
+   * @return The headers of the classes.
+   */
+  @Nonnull
+  default Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+    return streamClassSources(view).map(ClassHeader::of);
+  }
+
   /**
    * If the AnalysisInputLocation is initialized with the SourceType then this method should return
    * that specific SourceType. This is the default implementation and it returns null when no source
@@ -75,4 +103,18 @@ public interface AnalysisInputLocation {
 
   @Nonnull
   List<BodyInterceptor> getBodyInterceptors();
+
+  /**
+   * Returns the names of all packages that contain classes of this input location, if they can be
+   * determined without scanning the input location - e.g. from the directory of an archive. A view
+   * only asks an input location for a class if its package is contained (see {@link
+   * ClassPathIndex}).
+   *
+   * @return the package names or an empty Optional if this input location has to be asked for
+   *     classes of every package
+   */
+  @Nonnull
+  default Optional<Set<String>> getPackageNames() {
+    return Optional.empty();
+  }
 }
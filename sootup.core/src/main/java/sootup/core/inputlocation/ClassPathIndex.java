@@ -0,0 +1,122 @@
+package sootup.core.inputlocation;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.types.ClassType;
+
+/**
+ * Maps packages to the input locations that contain classes of them, so a class lookup only asks
+ * the input locations that can contain the class instead of every input location of the class
+ * path. Input locations that can not name their packages (see {@link
+ * AnalysisInputLocation#getPackageNames()}) are candidates for every class.
+ *
+ * <p>The candidates of a class keep the order of the class path: like the JVM, the first input
+ * location that contains a class wins if the class is contained in several input locations (see
+ * split packages).
+ *
+ * <p>The index is a snapshot of the packages at the time of its creation and is immutable, i.e. it
+ * can be shared between threads.
+ */
+public final class ClassPathIndex {
+
+  @Nonnull private final Map<String, List<AnalysisInputLocation>> candidatesByPackage;
+
+  /** the candidates of packages that are not contained in any indexed input location */
+  @Nonnull private final List<AnalysisInputLocation> unindexedLocations;
+
+  public ClassPathIndex(@Nonnull List<? extends AnalysisInputLocation> inputLocations) {
+    Map<String, List<Integer>> locationsByPackage = new HashMap<>();
+    List<Integer> unindexed = new ArrayList<>();
+    for (int i = 0; i < inputLocations.size(); i++) {
+      Optional<Set<String>> packageNames = inputLocations.get(i).getPackageNames();
+      if (packageNames.isPresent()) {
+        for (String packageName : packageNames.get()) {
+          locationsByPackage.computeIfAbsent(packageName, name -> new ArrayList<>(1)).add(i);
+        }
+      } else {
+        unindexed.add(i);
+      }
+    }
+
+    unindexedLocations = Collections.unmodifiableList(select(inputLocations, unindexed));
+    candidatesByPackage = new HashMap<>(locationsByPackage.size() * 4 / 3 + 1);
+    for (Map.Entry<String, List<Integer>> entry : locationsByPackage.entrySet()) {
+      List<Integer> candidates = merge(entry.getValue(), unindexed);
+      candidatesByPackage.put(
+          entry.getKey(), Collections.unmodifiableList(select(inputLocations, candidates)));
+    }
+  }
+
+  /**
+   * Returns the input locations that can contain the given class, in the order of the class path.
+   */
+  @Nonnull
+  public List<AnalysisInputLocation> getCandidates(@Nonnull ClassType type) {
+    List<AnalysisInputLocation> candidates =
+        candidatesByPackage.get(type.getPackageName().getName());
+    return candidates == null ? unindexedLocations : candidates;
+  }
+
+  /** Returns the number of packages that are contained in the indexed input locations. */
+  public int getPackageCount() {
+    return candidatesByPackage.size();
+  }
+
+  @Nonnull
+  private static List<AnalysisInputLocation> select(
+      @Nonnull List<? extends AnalysisInputLocation> inputLocations,
+      @Nonnull List<Integer> indices) {
+    List<AnalysisInputLocation> selected = new ArrayList<>(indices.size());
+    for (int index : indices) {
+      selected.add(inputLocations.get(index));
+    }
+    return selected;
+  }
+
+  /** merges two ascending lists of indices into one ascending list */
+  @Nonnull
+  private static List<Integer> merge(@Nonnull List<Integer> first, @Nonnull List<Integer> second) {
+    if (second.isEmpty()) {
+      return first;
+    }
+    List<Integer> merged = new ArrayList<>(first.size() + second.size());
+    int i = 0;
+    int j = 0;
+    while (i < first.size() || j < second.size()) {
+      if (j == second.size() || (i < first.size() && first.get(i) < second.get(j))) {
+        merged.add(first.get(i++));
+      } else {
+        merged.add(second.get(j++));
+      }
+    }
+    return merged;
+  }
+}
@@ -0,0 +1,78 @@
+package sootup.core.jimple.basic;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+
+/**
+ * Assigns dense numbers from 0 to the Locals of a Body in the iteration order of its Locals, so
+ * that analyses can keep their per Local data in arrays and bit-sets instead of hash maps. Like
+ * {@link Local#equals(Object)}, the numbering distinguishes Locals by their name.
+ *
+ * <p>A numbering is a snapshot of the Locals: it is valid until the Locals of the Body are changed.
+ */
+public final class LocalNumbering {
+
+  @Nonnull private final Local[] locals;
+  @Nonnull private final Map<Local, Integer> numbers;
+
+  /** @param locals the Locals to number - a Local contained more than once gets one number */
+  public LocalNumbering(@Nonnull Collection<Local> locals) {
+    Local[] numbered = new Local[locals.size()];
+    this.numbers = new HashMap<>(locals.size() * 2);
+    int number = 0;
+    for (Local local : locals) {
+      if (numbers.putIfAbsent(local, number) == null) {
+        numbered[number++] = local;
+      }
+    }
+    this.locals = number < numbered.length ? Arrays.copyOf(numbered, number) : numbered;
+  }
+
+  public int getLocalCount() {
+    return locals.length;
+  }
+
+  /** @return the number of the Local or -1 if it is not contained in the numbering */
+  public int getNumber(@Nonnull Local local) {
+    Integer number = numbers.get(local);
+    return number == null ? -1 : number;
+  }
+
+  /** @return the number of the value if it is a numbered Local, else -1 */
+  public int getNumberOf(@Nonnull Value value) {
+    return value instanceof Local ? getNumber((Local) value) : -1;
+  }
+
+  @Nonnull
+  public Local getLocal(int number) {
+    return locals[number];
+  }
+
+  /** @return the Locals in the order of their numbers */
+  @Nonnull
+  public List<Local> getLocals() {
+    return Collections.unmodifiableList(Arrays.asList(locals));
+  }
+}
@@ -22,13 +22,13 @@ package sootup.core.model;
  * #L%
  */
 
-import com.google.common.collect.Lists;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.*;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.graph.DefUseIndex;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
@@ -58,6 +58,9 @@ public class Body implements HasPosition {
   /** The MethodSignature associated with this Body. */
   @Nonnull private final MethodSignature methodSignature;
 
+  /** created on demand, as the Locals of a Body do not change */
+  @Nullable private LocalNumbering localNumbering = null;
+
   /**
    * Creates an body which is not associated to any method.
    *
@@ -109,6 +112,17 @@ public class Body implements HasPosition {
     return locals;
   }
 
+  /** Returns a dense numbering of the locals declared in this Body. */
+  @Nonnull
+  public LocalNumbering getLocalNumbering() {
+    LocalNumbering numbering = localNumbering;
+    if (numbering == null) {
+      numbering = new LocalNumbering(locals);
+      localNumbering = numbering;
+    }
+    return numbering;
+  }
+
   /**
    * Returns an unmodifiable view of the traps found in this Body. @Deprecated the exceptional flow
    * information is already integrated into the StmtGraphs BasicBlocks.getExceptionalFlows() -
@@ -347,6 +361,15 @@ public class Body implements HasPosition {
       return locals;
     }
 
+    /**
+     * Numbers the current Locals densely. As the set of Locals can be changed directly, the
+     * numbering is created anew on each call and is valid until the Locals are changed.
+     */
+    @Nonnull
+    public LocalNumbering getLocalNumbering() {
+      return new LocalNumbering(locals);
+    }
+
     @Nonnull
     public BodyBuilder setLocals(@Nonnull Set<Local> locals) {
       this.locals = locals;
@@ -365,7 +388,11 @@ public class Body implements HasPosition {
             "The given existing Local '" + existingLocal + "' is not in the body!");
       }
 
-      for (Stmt currStmt : Lists.newArrayList(getStmtGraph().getNodes())) {
+      // only the Stmts that define or use a Local with the same name can refer to the existing one
+      DefUseIndex defUseIndex = getStmtGraph().getDefUseIndex();
+      Set<Stmt> candidates = new LinkedHashSet<>(defUseIndex.getDefsOf(existingLocal));
+      candidates.addAll(defUseIndex.getUsesOf(existingLocal));
+      for (Stmt currStmt : candidates) {
         final Stmt stmt = currStmt;
         if (currStmt.getUses().anyMatch(v -> v == existingLocal)) {
           currStmt = currStmt.withNewUse(existingLocal, newLocal);
@@ -442,6 +469,8 @@ public class Body implements HasPosition {
         //        System.out.println("StmtGraph of " + methodSig + " is invalid." + e.getCause());
       }
 
+      // the Body wraps the graph, so it would retain the indexes of the BodyInterceptors
+      graph.discardIndexes();
       return new Body(methodSig, locals, graph, position);
     }
 
@@ -22,20 +22,20 @@ package sootup.core.model;
  * #L%
  */
 
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.BodyRetention;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.ResolveException;
@@ -169,12 +169,66 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
     return parameterTypes;
   }
 
-  @Nonnull private final Supplier<Body> _lazyBody = Suppliers.memoize(this::lazyBodyInitializer);
+  /** The resolved body if it is strongly referenced, see {@link BodySource#getBodyRetention()}. */
+  @Nullable private volatile Body body;
 
-  /** Retrieves the active body for this method. */
+  /** The resolved body if it is softly referenced. */
+  @Nullable private volatile SoftReference<Body> softBody;
+
+  /**
+   * Retrieves the active body for this method. The body is resolved again if it was released
+   * before.
+   */
   @Nonnull
   public Body getBody() {
-    return this._lazyBody.get();
+    Body resolvedBody = getResolvedBody();
+    if (resolvedBody != null) {
+      return resolvedBody;
+    }
+    synchronized (this) {
+      resolvedBody = getResolvedBody();
+      if (resolvedBody == null) {
+        resolvedBody = lazyBodyInitializer();
+        if (bodySource.getBodyRetention() == BodyRetention.SOFT) {
+          softBody = new SoftReference<>(resolvedBody);
+        } else {
+          body = resolvedBody;
+        }
+      }
+      return resolvedBody;
+    }
+  }
+
+  @Nullable
+  private Body getResolvedBody() {
+    Body resolvedBody = body;
+    if (resolvedBody != null) {
+      return resolvedBody;
+    }
+    SoftReference<Body> reference = softBody;
+    return reference == null ? null : reference.get();
+  }
+
+  /** Returns true if the body of this method is resolved and was not released since. */
+  public boolean isBodyResolved() {
+    return getResolvedBody() != null;
+  }
+
+  /**
+   * Releases the body of this method if its {@link BodySource} allows it, so that it can be
+   * garbage collected. The body is resolved again by the next call of {@link #getBody()}.
+   *
+   * @return false if the body is retained strongly and was therefore not released
+   */
+  public boolean releaseBody() {
+    if (bodySource.getBodyRetention() == BodyRetention.STRONG) {
+      return false;
+    }
+    synchronized (this) {
+      body = null;
+      softBody = null;
+    }
+    return true;
   }
 
   /** Returns true if this method has a body. */
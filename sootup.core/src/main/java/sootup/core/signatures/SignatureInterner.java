@@ -0,0 +1,117 @@
+package sootup.core.signatures;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+
+/**
+ * Interns method and field signatures and their sub-signatures: equal signatures that are interned
+ * are the same instance, so comparing interned signatures boils down to a reference check.
+ * Additionally, every interned signature gets an id that is unique among the interned signatures
+ * of its kind, see e.g. {@link SootClassMemberSignature#getId()}.
+ *
+ * <p>Interned signatures are strongly referenced: an id is never reassigned to another signature
+ * and an equal signature that is interned again gets the same id, so the ids of an analysis stay
+ * valid as long as the JVM runs. The interner retains every signature it interned. {@link
+ * IdentifierFactory}s should return interned signatures.
+ */
+public final class SignatureInterner {
+
+  @Nonnull private static final SignatureInterner INSTANCE = new SignatureInterner();
+
+  @Nonnull
+  private final Interner<MethodSubSignature> methodSubSignatures = Interners.newStrongInterner();
+
+  @Nonnull private final Interner<MethodSignature> methodSignatures = Interners.newStrongInterner();
+
+  @Nonnull
+  private final Interner<FieldSubSignature> fieldSubSignatures = Interners.newStrongInterner();
+
+  @Nonnull private final Interner<FieldSignature> fieldSignatures = Interners.newStrongInterner();
+
+  @Nonnull private final AtomicInteger nextMethodSubSignatureId = new AtomicInteger();
+  @Nonnull private final AtomicInteger nextMethodSignatureId = new AtomicInteger();
+  @Nonnull private final AtomicInteger nextFieldSubSignatureId = new AtomicInteger();
+  @Nonnull private final AtomicInteger nextFieldSignatureId = new AtomicInteger();
+
+  private SignatureInterner() {}
+
+  @Nonnull
+  public static SignatureInterner getInstance() {
+    return INSTANCE;
+  }
+
+  @Nonnull
+  public MethodSubSignature intern(@Nonnull MethodSubSignature subSignature) {
+    if (subSignature.isInterned()) {
+      return subSignature;
+    }
+    MethodSubSignature interned = methodSubSignatures.intern(subSignature);
+    interned.assignId(nextMethodSubSignatureId);
+    return interned;
+  }
+
+  /** Interns the given signature as well as its sub-signature. */
+  @Nonnull
+  public MethodSignature intern(@Nonnull MethodSignature signature) {
+    if (signature.isInterned()) {
+      return signature;
+    }
+    MethodSubSignature subSignature = intern(signature.getSubSignature());
+    if (subSignature != signature.getSubSignature()) {
+      signature = new MethodSignature(signature.getDeclClassType(), subSignature);
+    }
+    MethodSignature interned = methodSignatures.intern(signature);
+    interned.assignId(nextMethodSignatureId);
+    return interned;
+  }
+
+  @Nonnull
+  public FieldSubSignature intern(@Nonnull FieldSubSignature subSignature) {
+    if (subSignature.isInterned()) {
+      return subSignature;
+    }
+    FieldSubSignature interned = fieldSubSignatures.intern(subSignature);
+    interned.assignId(nextFieldSubSignatureId);
+    return interned;
+  }
+
+  /** Interns the given signature as well as its sub-signature. */
+  @Nonnull
+  public FieldSignature intern(@Nonnull FieldSignature signature) {
+    if (signature.isInterned()) {
+      return signature;
+    }
+    FieldSubSignature subSignature = intern(signature.getSubSignature());
+    if (subSignature != signature.getSubSignature()) {
+      signature = new FieldSignature(signature.getDeclClassType(), subSignature);
+    }
+    FieldSignature interned = fieldSignatures.intern(signature);
+    interned.assignId(nextFieldSignatureId);
+    return interned;
+  }
+}
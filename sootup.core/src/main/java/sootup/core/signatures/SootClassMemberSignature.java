@@ -23,6 +23,7 @@ package sootup.core.signatures;
  */
 
 import com.google.common.base.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nonnull;
 import sootup.core.model.SootClassMember;
 import sootup.core.types.ClassType;
@@ -37,6 +38,9 @@ import sootup.core.types.Type;
 public abstract class SootClassMemberSignature<V extends SootClassMemberSubSignature>
     implements Signature, Comparable<SootClassMemberSignature<V>> {
 
+  /** The id of a signature that is not interned, see {@link #getId()}. */
+  public static final int NOT_INTERNED = -1;
+
   /** The signature of the declaring class. */
   @Nonnull private final ClassType declClassSignature;
 
@@ -44,12 +48,40 @@ public abstract class SootClassMemberSignature<V extends SootClassMemberSubSigna
 
   private final int hashCode;
 
+  /** see {@link #getId()} */
+  private volatile int id = NOT_INTERNED;
+
   public SootClassMemberSignature(@Nonnull ClassType klass, @Nonnull V subSignature) {
     this.declClassSignature = klass;
     this.subSignature = subSignature;
     this.hashCode = Objects.hashCode(declClassSignature, subSignature);
   }
 
+  /**
+   * Returns the id of this signature if it is interned by the {@link SignatureInterner} - it is
+   * unique among the interned signatures of the same kind and small, so it can serve as an index.
+   *
+   * @return the id or {@link #NOT_INTERNED}
+   */
+  public int getId() {
+    return id;
+  }
+
+  /** Returns true if this is the instance of this signature in the {@link SignatureInterner}. */
+  public boolean isInterned() {
+    return id != NOT_INTERNED;
+  }
+
+  void assignId(@Nonnull AtomicInteger nextId) {
+    if (id == NOT_INTERNED) {
+      synchronized (this) {
+        if (id == NOT_INTERNED) {
+          id = nextId.getAndIncrement();
+        }
+      }
+    }
+  }
+
   @Nonnull
   public V getSubSignature() {
     return subSignature;
@@ -81,6 +113,10 @@ public abstract class SootClassMemberSignature<V extends SootClassMemberSubSigna
     }
 
     SootClassMemberSignature<V> that = (SootClassMemberSignature<V>) o;
+    if (hashCode != that.hashCode || (isInterned() && that.isInterned())) {
+      // interned signatures are only equal to themselves
+      return false;
+    }
     return Objects.equal(declClassSignature, that.declClassSignature)
         && Objects.equal(subSignature, that.subSignature);
   }
@@ -24,6 +24,7 @@ package sootup.core.signatures;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Suppliers;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -42,11 +43,41 @@ public abstract class SootClassMemberSubSignature {
 
   @Nonnull private final String name;
   @Nonnull private final Type type;
+  private final int hashCode;
+
+  /** see {@link #getId()} */
+  private volatile int id = SootClassMemberSignature.NOT_INTERNED;
 
   /** Creates a new instance of the {@link SootClassMemberSubSignature} class. */
   protected SootClassMemberSubSignature(@Nonnull String name, @Nonnull Type type) {
     this.name = name;
     this.type = type;
+    this.hashCode = Objects.hashCode(name, type);
+  }
+
+  /**
+   * Returns the id of this sub-signature if it is interned by the {@link SignatureInterner}.
+   *
+   * @return the id or {@link SootClassMemberSignature#NOT_INTERNED}
+   * @see SootClassMemberSignature#getId()
+   */
+  public int getId() {
+    return id;
+  }
+
+  /** Returns true if this is the instance of this sub-signature in the SignatureInterner. */
+  public boolean isInterned() {
+    return id != SootClassMemberSignature.NOT_INTERNED;
+  }
+
+  void assignId(@Nonnull AtomicInteger nextId) {
+    if (id == SootClassMemberSignature.NOT_INTERNED) {
+      synchronized (this) {
+        if (id == SootClassMemberSignature.NOT_INTERNED) {
+          id = nextId.getAndIncrement();
+        }
+      }
+    }
   }
 
   /**
@@ -79,13 +110,17 @@ public abstract class SootClassMemberSubSignature {
     }
 
     SootClassMemberSubSignature that = (SootClassMemberSubSignature) o;
+    if (isInterned() && that.isInterned()) {
+      // interned sub-signatures are only equal to themselves
+      return false;
+    }
 
     return Objects.equal(getName(), that.getName()) && Objects.equal(getType(), that.getType());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(getName(), getType());
+    return hashCode;
   }
 
   protected int compareTo(@Nonnull SootClassMemberSubSignature o) {
@@ -22,6 +22,7 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
@@ -37,4 +38,16 @@ public interface BodyInterceptor {
    * @param view
    */
   void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view);
+
+  /**
+   * Identifies this interceptor including its configuration for caches that store intercepted
+   * Bodies across runs: two interceptors may only return the same key if they transform every Body
+   * in the same way, and the key must not change between runs.
+   *
+   * @return the key or empty if the Bodies created by this interceptor must not be cached
+   */
+  @Nonnull
+  default Optional<String> getCacheKey() {
+    return Optional.empty();
+  }
 }
@@ -0,0 +1,344 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+
+/**
+ * Collects metrics of the stages a Body passes when it is created by a frontend, i.e. the
+ * conversion and each {@link BodyInterceptor}. Per stage it sums the elapsed nanoseconds, the bytes
+ * allocated by the converting thread and the number of Stmts and Locals before and after the stage,
+ * and it keeps a histogram of the invocations and nanoseconds per method size. Method sizes are
+ * bucketed by powers of two, i.e. bucket i contains the methods with 2^(i-1) to 2^i - 1 Stmts.
+ *
+ * <p>An instance is thread-safe and is usually attached to one input location, so that the totals
+ * show which stage dominates the Body creation of the classes from that location.
+ */
+public class BodyPipelineMetrics {
+
+  /** the stage that converts the source of a method into the initial Body */
+  public static final String CONVERSION = "conversion";
+
+  public static final int BUCKET_COUNT = 16;
+
+  @Nonnull private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+  @Nonnull private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+  @Nonnull private final AtomicInteger stageCount = new AtomicInteger();
+
+  /**
+   * Runs a stage of the pipeline on the Body under construction and records it.
+   *
+   * @param stageName the name of the stage, e.g. {@link #nameOf(BodyInterceptor)}
+   * @param builder the Body under construction - its Stmts and Locals are counted before and after
+   *     the stage
+   * @param stage the stage itself
+   */
+  public void measure(
+      @Nonnull String stageName, @Nonnull Body.BodyBuilder builder, @Nonnull Runnable stage) {
+    int stmtsBefore = builder.getStmtGraph().getNodes().size();
+    int localsBefore = builder.getLocals().size();
+    long allocatedBefore = currentThreadAllocatedBytes();
+    long start = System.nanoTime();
+
+    stage.run();
+
+    long nanos = System.nanoTime() - start;
+    long allocated = allocatedBefore < 0 ? 0 : currentThreadAllocatedBytes() - allocatedBefore;
+    int stmtsAfter = builder.getStmtGraph().getNodes().size();
+    int localsAfter = builder.getLocals().size();
+
+    stages
+        .computeIfAbsent(stageName, name -> new Stage(name, stageCount.getAndIncrement()))
+        .add(
+            nanos,
+            allocated,
+            stmtsBefore,
+            stmtsAfter,
+            localsBefore,
+            localsAfter,
+            bucketOf(Math.max(stmtsBefore, stmtsAfter)));
+  }
+
+  /** @return the metrics of the stages in the order in which they were first measured */
+  @Nonnull
+  public List<StageMetrics> getStages() {
+    List<Stage> sorted = new ArrayList<>(stages.values());
+    sorted.sort(Comparator.comparingInt(stage -> stage.order));
+    List<StageMetrics> result = new ArrayList<>(sorted.size());
+    for (Stage stage : sorted) {
+      result.add(stage.snapshot());
+    }
+    return result;
+  }
+
+  @Nonnull
+  public Optional<StageMetrics> getStage(@Nonnull String stageName) {
+    Stage stage = stages.get(stageName);
+    return stage == null ? Optional.empty() : Optional.of(stage.snapshot());
+  }
+
+  /** Discards all recorded metrics. */
+  public void reset() {
+    stages.clear();
+    stageCount.set(0);
+  }
+
+  /** @return the stage name under which the given interceptor is recorded */
+  @Nonnull
+  public static String nameOf(@Nonnull BodyInterceptor bodyInterceptor) {
+    if (bodyInterceptor instanceof RunTimeBodyInterceptor) {
+      return nameOf(((RunTimeBodyInterceptor) bodyInterceptor).getBodyInterceptor());
+    }
+    return bodyInterceptor.getClass().getSimpleName();
+  }
+
+  /** @return the histogram bucket of a method with the given number of Stmts */
+  public static int bucketOf(int stmtCount) {
+    return Math.min(BUCKET_COUNT - 1, 32 - Integer.numberOfLeadingZeros(stmtCount));
+  }
+
+  /** @return the smallest number of Stmts of a method in the given histogram bucket */
+  public static int lowerBoundOf(int bucket) {
+    return bucket == 0 ? 0 : 1 << (bucket - 1);
+  }
+
+  /**
+   * @return true if the allocated bytes are measured, which depends on the support of the JVM for
+   *     the allocation counters of threads
+   */
+  public static boolean isAllocationMeasured() {
+    return currentThreadAllocatedBytes() >= 0;
+  }
+
+  /** @return the bytes allocated by the current thread so far or -1 if this is not supported */
+  static long currentThreadAllocatedBytes() {
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+      if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+        String.format(
+            "%-32s %10s %14s %16s %12s %12s %10s %10s%n",
+            "stage",
+            "calls",
+            "ns",
+            "allocated bytes",
+            "stmts before",
+            "stmts after",
+            "locals bef",
+            "locals aft"));
+    for (StageMetrics stage : getStages()) {
+      sb.append(
+          String.format(
+              "%-32s %10d %14d %16d %12d %12d %10d %10d%n",
+              stage.getName(),
+              stage.getInvocations(),
+              stage.getNanos(),
+              stage.getAllocatedBytes(),
+              stage.getStmtsBefore(),
+              stage.getStmtsAfter(),
+              stage.getLocalsBefore(),
+              stage.getLocalsAfter()));
+    }
+    return sb.toString();
+  }
+
+  /** The counters of a stage that are concurrently updated. */
+  private static class Stage {
+    @Nonnull private final String name;
+    private final int order;
+    @Nonnull private final LongAdder invocations = new LongAdder();
+    @Nonnull private final LongAdder nanos = new LongAdder();
+    @Nonnull private final LongAdder allocatedBytes = new LongAdder();
+    @Nonnull private final LongAdder stmtsBefore = new LongAdder();
+    @Nonnull private final LongAdder stmtsAfter = new LongAdder();
+    @Nonnull private final LongAdder localsBefore = new LongAdder();
+    @Nonnull private final LongAdder localsAfter = new LongAdder();
+    @Nonnull private final AtomicLongArray bucketInvocations = new AtomicLongArray(BUCKET_COUNT);
+    @Nonnull private final AtomicLongArray bucketNanos = new AtomicLongArray(BUCKET_COUNT);
+
+    Stage(@Nonnull String name, int order) {
+      this.name = name;
+      this.order = order;
+    }
+
+    void add(
+        long nanos,
+        long allocatedBytes,
+        int stmtsBefore,
+        int stmtsAfter,
+        int localsBefore,
+        int localsAfter,
+        int bucket) {
+      this.invocations.increment();
+      this.nanos.add(nanos);
+      this.allocatedBytes.add(allocatedBytes);
+      this.stmtsBefore.add(stmtsBefore);
+      this.stmtsAfter.add(stmtsAfter);
+      this.localsBefore.add(localsBefore);
+      this.localsAfter.add(localsAfter);
+      bucketInvocations.incrementAndGet(bucket);
+      bucketNanos.addAndGet(bucket, nanos);
+    }
+
+    @Nonnull
+    StageMetrics snapshot() {
+      long[] invocationHistogram = new long[BUCKET_COUNT];
+      long[] nanoHistogram = new long[BUCKET_COUNT];
+      for (int i = 0; i < BUCKET_COUNT; i++) {
+        invocationHistogram[i] = bucketInvocations.get(i);
+        nanoHistogram[i] = bucketNanos.get(i);
+      }
+      return new StageMetrics(
+          name,
+          invocations.sum(),
+          nanos.sum(),
+          allocatedBytes.sum(),
+          stmtsBefore.sum(),
+          stmtsAfter.sum(),
+          localsBefore.sum(),
+          localsAfter.sum(),
+          invocationHistogram,
+          nanoHistogram);
+    }
+  }
+
+  /** The totals of a stage at the time they were requested. */
+  public static final class StageMetrics {
+    @Nonnull private final String name;
+    private final long invocations;
+    private final long nanos;
+    private final long allocatedBytes;
+    private final long stmtsBefore;
+    private final long stmtsAfter;
+    private final long localsBefore;
+    private final long localsAfter;
+    @Nonnull private final long[] invocationHistogram;
+    @Nonnull private final long[] nanoHistogram;
+
+    StageMetrics(
+        @Nonnull String name,
+        long invocations,
+        long nanos,
+        long allocatedBytes,
+        long stmtsBefore,
+        long stmtsAfter,
+        long localsBefore,
+        long localsAfter,
+        @Nonnull long[] invocationHistogram,
+        @Nonnull long[] nanoHistogram) {
+      this.name = name;
+      this.invocations = invocations;
+      this.nanos = nanos;
+      this.allocatedBytes = allocatedBytes;
+      this.stmtsBefore = stmtsBefore;
+      this.stmtsAfter = stmtsAfter;
+      this.localsBefore = localsBefore;
+      this.localsAfter = localsAfter;
+      this.invocationHistogram = invocationHistogram;
+      this.nanoHistogram = nanoHistogram;
+    }
+
+    @Nonnull
+    public String getName() {
+      return name;
+    }
+
+    /** @return the number of Bodies that passed the stage */
+    public long getInvocations() {
+      return invocations;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    /** @return the allocated bytes or 0 if they are not measured by this JVM */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    public long getStmtsBefore() {
+      return stmtsBefore;
+    }
+
+    public long getStmtsAfter() {
+      return stmtsAfter;
+    }
+
+    public long getLocalsBefore() {
+      return localsBefore;
+    }
+
+    public long getLocalsAfter() {
+      return localsAfter;
+    }
+
+    /** @return the number of invocations per method size bucket, see {@link #bucketOf(int)} */
+    @Nonnull
+    public long[] getInvocationHistogram() {
+      return invocationHistogram.clone();
+    }
+
+    /** @return the nanoseconds per method size bucket, see {@link #bucketOf(int)} */
+    @Nonnull
+    public long[] getNanoHistogram() {
+      return nanoHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+      return name
+          + ": "
+          + invocations
+          + " calls, "
+          + nanos
+          + " ns, "
+          + allocatedBytes
+          + " bytes, calls per size "
+          + Arrays.toString(invocationHistogram);
+    }
+  }
+}
@@ -22,20 +22,33 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
 
+/**
+ * Measures the time and the memory a {@link BodyInterceptor} takes. The time is measured with
+ * {@link System#nanoTime()} and the memory is the number of bytes allocated by the intercepting
+ * thread, so concurrent Body resolutions and garbage collections do not distort the result. See
+ * {@link BodyPipelineMetrics} for the metrics of all stages of the Body creation.
+ */
 public class RunTimeBodyInterceptor implements BodyInterceptor {
 
   private BodyInterceptorMetric biMetric = new BodyInterceptorMetric(0L, 0L);
 
   private final BodyInterceptor bodyInterceptor;
 
+  private final LongAdder nanos = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+
   public RunTimeBodyInterceptor(BodyInterceptor bodyInterceptor) {
     this.bodyInterceptor = bodyInterceptor;
   }
 
+  /** @return the summed runtime in milliseconds and the allocated memory in MB */
   public BodyInterceptorMetric getBiMetric() {
     return biMetric;
   }
@@ -46,19 +59,25 @@ public class RunTimeBodyInterceptor implements BodyInterceptor {
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
-    long startTime = System.currentTimeMillis(); // Start time
     final int MB = 1024 * 1024;
-    Runtime runtime = Runtime.getRuntime();
-    long usedMemoryBefore = runtime.totalMemory() - runtime.freeMemory();
+    long allocatedBefore = BodyPipelineMetrics.currentThreadAllocatedBytes();
+    long startTime = System.nanoTime();
 
     bodyInterceptor.interceptBody(builder, view);
 
-    long endTime = System.currentTimeMillis(); // End time
-    long duration = endTime - startTime;
-    long usedMemoryAfter = runtime.totalMemory() - runtime.freeMemory();
-    long memoryUsed = (usedMemoryAfter - usedMemoryBefore) / MB;
+    nanos.add(System.nanoTime() - startTime);
+    if (allocatedBefore >= 0) {
+      allocatedBytes.add(BodyPipelineMetrics.currentThreadAllocatedBytes() - allocatedBefore);
+    }
 
-    biMetric.setRuntime(biMetric.getRuntime() + duration);
-    biMetric.setMemoryUsage(biMetric.getMemoryUsage() + memoryUsed);
+    biMetric.setRuntime(TimeUnit.NANOSECONDS.toMillis(nanos.sum()));
+    biMetric.setMemoryUsage(allocatedBytes.sum() / MB);
+  }
+
+  /** the measurement does not change the Body, so the key is the one of the measured interceptor */
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return bodyInterceptor.getCacheKey();
   }
 }
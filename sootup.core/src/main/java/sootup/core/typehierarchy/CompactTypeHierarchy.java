@@ -0,0 +1,532 @@
+package sootup.core.typehierarchy;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Suppliers;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * A frozen {@link TypeHierarchy} that encodes the hierarchy of a {@link View} in primitive arrays.
+ * It answers the same queries as the {@link ViewTypeHierarchy} but can not be modified after it
+ * has been built.
+ *
+ * <p>Each type gets a dense id which is its pre-order number in the forest of the superclass
+ * relation. Hence the subclasses of a class are exactly the ids between the id of the class and
+ * the end of its subtree, which makes {@link #subclassesOf(ClassType)} a slice of the type array
+ * and the subclass check of {@link #isSubtype(Type, Type)} a comparison of two ints. The direct
+ * subtypes and the directly implemented or extended interfaces are stored as adjacency arrays in
+ * the compressed sparse row format. As interfaces form a DAG, the subtypes of an interface and the
+ * implemented interfaces of a type are computed on their first query and cached.
+ */
+public class CompactTypeHierarchy implements TypeHierarchy {
+
+  private final Supplier<Encoding> lazyEncoding;
+  private final ClassType objectClassType;
+
+  public CompactTypeHierarchy(@Nonnull View view) {
+    lazyEncoding = Suppliers.memoize(() -> scanView(view));
+    objectClassType = view.getIdentifierFactory().getClassType("java.lang.Object");
+  }
+
+  /** Returns the number of types in this hierarchy. */
+  public int size() {
+    return lazyEncoding.get().types.length;
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(interfaceType);
+    if (!encoding.interfaces.get(id)) {
+      throw new IllegalArgumentException("'" + interfaceType + "' is not an interface.");
+    }
+    return encoding.toTypes(encoding.subtypesOfInterface(id));
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subclassesOf(@Nonnull ClassType classType) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(classType);
+    if (encoding.interfaces.get(id)) {
+      throw new IllegalArgumentException("'" + classType + "' is not a class.");
+    }
+    return Arrays.stream(encoding.types, id + 1, encoding.subtreeEnd[id]);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subtypesOf(@Nonnull ClassType type) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(type);
+    if (encoding.interfaces.get(id)) {
+      return encoding.toTypes(encoding.subtypesOfInterface(id));
+    }
+    return Arrays.stream(encoding.types, id + 1, encoding.subtreeEnd[id]);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> directSubtypesOf(@Nonnull ClassType type) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(type);
+    return encoding.slice(encoding.subtypeOffsets, encoding.subtypes, id);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementedInterfacesOf(@Nonnull ClassType type) {
+    Encoding encoding = lazyEncoding.get();
+    return encoding.toTypes(encoding.implementedInterfacesOf(encoding.idOf(type)));
+  }
+
+  @Override
+  public Stream<ClassType> directlyImplementedInterfacesOf(@Nonnull ClassType classType) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(classType);
+    if (encoding.interfaces.get(id)) {
+      throw new IllegalArgumentException(classType + " is not a class.");
+    }
+    return encoding.slice(encoding.superInterfaceOffsets, encoding.superInterfaces, id);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> directlyExtendedInterfacesOf(@Nonnull ClassType interfaceType) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(interfaceType);
+    if (!encoding.interfaces.get(id)) {
+      throw new IllegalArgumentException(interfaceType + " is not an interface.");
+    }
+    return encoding.slice(encoding.superInterfaceOffsets, encoding.superInterfaces, id);
+  }
+
+  @Nonnull
+  @Override
+  public Optional<ClassType> superClassOf(@Nonnull ClassType classType) {
+    Encoding encoding = lazyEncoding.get();
+    int id = encoding.idOf(classType);
+    if (objectClassType.equals(classType)) {
+      return Optional.empty();
+    }
+    int superClass = encoding.superClass[id];
+    if (superClass >= 0) {
+      return Optional.of(encoding.types[superClass]);
+    }
+    if (encoding.interfaces.get(id)) {
+      return Optional.of(objectClassType);
+    }
+    return Optional.empty();
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> superClassesOf(@Nonnull ClassType classType) {
+    Encoding encoding = lazyEncoding.get();
+    Integer id = encoding.typeToId.get(classType);
+    if (id == null) {
+      // logs the missing type
+      return TypeHierarchy.super.superClassesOf(classType);
+    }
+    List<ClassType> superClasses = new ArrayList<>();
+    int current = id;
+    // the bound guards against cyclic superclass relations of malformed input
+    for (int i = 0; i < encoding.types.length; i++) {
+      if (objectClassType.equals(encoding.types[current])) {
+        break;
+      }
+      int superClass = encoding.superClass[current];
+      if (superClass < 0) {
+        if (encoding.interfaces.get(current)) {
+          superClasses.add(objectClassType);
+        }
+        break;
+      }
+      superClasses.add(encoding.types[superClass]);
+      current = superClass;
+    }
+    return superClasses.stream();
+  }
+
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (supertype instanceof ClassType && potentialSubtype instanceof ClassType) {
+      Encoding encoding = lazyEncoding.get();
+      Integer superId = encoding.typeToId.get(supertype);
+      Integer subId = encoding.typeToId.get(potentialSubtype);
+      if (superId != null && subId != null) {
+        if (objectClassType.equals(supertype)) {
+          return !objectClassType.equals(potentialSubtype);
+        }
+        return encoding.isSubtype(superId, subId);
+      }
+    }
+    // arrays, the null type and types that are not contained in the hierarchy
+    return TypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+  }
+
+  @Override
+  public boolean isInterface(@Nonnull ClassType type) {
+    Encoding encoding = lazyEncoding.get();
+    return encoding.interfaces.get(encoding.idOf(type));
+  }
+
+  @Override
+  public boolean contains(ClassType type) {
+    return lazyEncoding.get().typeToId.containsKey(type);
+  }
+
+  /**
+   * Scans the classes of the view and numbers the types in the pre-order of the superclass forest.
+   * Like in the {@link ViewTypeHierarchy}, types that are referenced as superclass or interface but
+   * are not contained in the view become part of the hierarchy as well.
+   */
+  @Nonnull
+  private static Encoding scanView(@Nonnull View view) {
+    Scan scan = new Scan();
+    view.getClassHeaders().forEach(scan::add);
+
+    int size = scan.types.size();
+    int[] scanSuperClass = new int[size];
+    for (int i = 0; i < size; i++) {
+      ClassType superClass = scan.superClasses.get(i);
+      Integer superClassId = superClass == null ? null : scan.ids.get(superClass);
+      scanSuperClass[i] =
+          superClassId == null || scan.interfaces.get(superClassId) ? -1 : superClassId;
+    }
+
+    // children of the superclass forest in compressed sparse row format
+    int[] childOffsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      if (scanSuperClass[i] >= 0) {
+        childOffsets[scanSuperClass[i] + 1]++;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      childOffsets[i + 1] += childOffsets[i];
+    }
+    int[] children = new int[childOffsets[size]];
+    int[] fill = Arrays.copyOf(childOffsets, size);
+    for (int i = 0; i < size; i++) {
+      if (scanSuperClass[i] >= 0) {
+        children[fill[scanSuperClass[i]]++] = i;
+      }
+    }
+
+    // iterative depth-first pre-order numbering; roots are visited first, so that nodes on a cyclic
+    // superclass relation of malformed input are only numbered by the final sweep
+    int[] order = new int[size];
+    int[] subtreeEnd = new int[size];
+    int[] stack = new int[size];
+    int[] next = new int[size];
+    BitSet numbered = new BitSet(size);
+    int count = 0;
+    for (int pass = 0; pass < 2; pass++) {
+      for (int root = 0; root < size; root++) {
+        if (numbered.get(root) || (pass == 0 && scanSuperClass[root] >= 0)) {
+          continue;
+        }
+        int depth = 0;
+        stack[0] = root;
+        next[root] = childOffsets[root];
+        numbered.set(root);
+        order[root] = count++;
+        while (depth >= 0) {
+          int node = stack[depth];
+          if (next[node] < childOffsets[node + 1]) {
+            int child = children[next[node]++];
+            if (!numbered.get(child)) {
+              numbered.set(child);
+              order[child] = count++;
+              next[child] = childOffsets[child];
+              stack[++depth] = child;
+            }
+          } else {
+            subtreeEnd[order[node]] = count;
+            depth--;
+          }
+        }
+      }
+    }
+
+    ClassType[] types = new ClassType[size];
+    Map<ClassType, Integer> typeToId = new HashMap<>(size * 4 / 3 + 1);
+    BitSet interfaces = new BitSet(size);
+    int[] superClass = new int[size];
+    for (int i = 0; i < size; i++) {
+      int id = order[i];
+      types[id] = scan.types.get(i);
+      typeToId.put(types[id], id);
+      interfaces.set(id, scan.interfaces.get(i));
+      superClass[id] = scanSuperClass[i] < 0 ? -1 : order[scanSuperClass[i]];
+    }
+
+    int[] superInterfaceOffsets = new int[size + 1];
+    int[] subtypeOffsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      int id = order[i];
+      superInterfaceOffsets[id + 1] = scan.superInterfaces.get(i).size();
+      for (ClassType superInterface : scan.superInterfaces.get(i)) {
+        subtypeOffsets[typeToId.get(superInterface) + 1]++;
+      }
+      if (superClass[id] >= 0) {
+        subtypeOffsets[superClass[id] + 1]++;
+      }
+    }
+    for (int id = 0; id < size; id++) {
+      superInterfaceOffsets[id + 1] += superInterfaceOffsets[id];
+      subtypeOffsets[id + 1] += subtypeOffsets[id];
+    }
+    int[] superInterfaces = new int[superInterfaceOffsets[size]];
+    int[] subtypes = new int[subtypeOffsets[size]];
+    int[] subtypeFill = Arrays.copyOf(subtypeOffsets, size);
+    for (int i = 0; i < size; i++) {
+      int id = order[i];
+      int position = superInterfaceOffsets[id];
+      for (ClassType superInterface : scan.superInterfaces.get(i)) {
+        int superInterfaceId = typeToId.get(superInterface);
+        superInterfaces[position++] = superInterfaceId;
+        subtypes[subtypeFill[superInterfaceId]++] = id;
+      }
+      if (superClass[id] >= 0) {
+        subtypes[subtypeFill[superClass[id]]++] = id;
+      }
+    }
+
+    return new Encoding(
+        types,
+        typeToId,
+        interfaces,
+        superClass,
+        subtreeEnd,
+        superInterfaceOffsets,
+        superInterfaces,
+        subtypeOffsets,
+        subtypes);
+  }
+
+  /** Collects the types of the view in the order they are encountered. */
+  private static final class Scan {
+    @Nonnull final Map<ClassType, Integer> ids = new HashMap<>();
+    @Nonnull final List<ClassType> types = new ArrayList<>();
+    @Nonnull final BitSet interfaces = new BitSet();
+    @Nonnull final BitSet scanned = new BitSet();
+    @Nonnull final List<ClassType> superClasses = new ArrayList<>();
+    @Nonnull final List<List<ClassType>> superInterfaces = new ArrayList<>();
+
+    void add(@Nonnull ClassHeader header) {
+      int id = idOf(header.getType());
+      scanned.set(id);
+      interfaces.set(id, header.isInterface());
+      for (ClassType superInterface : header.getInterfaces()) {
+        int superInterfaceId = idOf(superInterface);
+        if (!scanned.get(superInterfaceId)) {
+          interfaces.set(superInterfaceId);
+        }
+        superInterfaces.get(id).add(superInterface);
+      }
+      if (!header.isInterface()) {
+        header
+            .getSuperclass()
+            .ifPresent(
+                superClass -> {
+                  idOf(superClass);
+                  superClasses.set(id, superClass);
+                });
+      }
+    }
+
+    int idOf(@Nonnull ClassType type) {
+      Integer id = ids.get(type);
+      if (id == null) {
+        id = types.size();
+        ids.put(type, id);
+        types.add(type);
+        superClasses.add(null);
+        superInterfaces.add(new ArrayList<>());
+      }
+      return id;
+    }
+  }
+
+  /** The array encoding of the hierarchy. The arrays are indexed by the dense type ids. */
+  private static final class Encoding {
+    @Nonnull final ClassType[] types;
+    @Nonnull final Map<ClassType, Integer> typeToId;
+    @Nonnull final BitSet interfaces;
+
+    /** the id of the direct superclass of a class or -1 */
+    @Nonnull final int[] superClass;
+
+    /** the exclusive end of the id range of the subclasses of a class */
+    @Nonnull final int[] subtreeEnd;
+
+    /** the directly implemented interfaces of a class or extended interfaces of an interface */
+    @Nonnull final int[] superInterfaceOffsets;
+
+    @Nonnull final int[] superInterfaces;
+
+    /** the direct subclasses of a class or the direct implementers of an interface */
+    @Nonnull final int[] subtypeOffsets;
+
+    @Nonnull final int[] subtypes;
+
+    /** the sorted ids of the subtypes of an interface */
+    @Nonnull final AtomicReferenceArray<int[]> interfaceSubtypes;
+
+    @Nonnull final AtomicReferenceArray<BitSet> interfaceSubtypeSets;
+
+    /** the sorted ids of the implemented interfaces of a type */
+    @Nonnull final AtomicReferenceArray<int[]> implementedInterfaces;
+
+    Encoding(
+        @Nonnull ClassType[] types,
+        @Nonnull Map<ClassType, Integer> typeToId,
+        @Nonnull BitSet interfaces,
+        @Nonnull int[] superClass,
+        @Nonnull int[] subtreeEnd,
+        @Nonnull int[] superInterfaceOffsets,
+        @Nonnull int[] superInterfaces,
+        @Nonnull int[] subtypeOffsets,
+        @Nonnull int[] subtypes) {
+      this.types = types;
+      this.typeToId = typeToId;
+      this.interfaces = interfaces;
+      this.superClass = superClass;
+      this.subtreeEnd = subtreeEnd;
+      this.superInterfaceOffsets = superInterfaceOffsets;
+      this.superInterfaces = superInterfaces;
+      this.subtypeOffsets = subtypeOffsets;
+      this.subtypes = subtypes;
+      this.interfaceSubtypes = new AtomicReferenceArray<>(types.length);
+      this.interfaceSubtypeSets = new AtomicReferenceArray<>(types.length);
+      this.implementedInterfaces = new AtomicReferenceArray<>(types.length);
+    }
+
+    int idOf(@Nonnull ClassType type) {
+      Integer id = typeToId.get(type);
+      if (id == null) {
+        throw new IllegalArgumentException("Could not find '" + type + "' in hierarchy.");
+      }
+      return id;
+    }
+
+    @Nonnull
+    Stream<ClassType> toTypes(@Nonnull int[] ids) {
+      return Arrays.stream(ids).mapToObj(id -> types[id]);
+    }
+
+    @Nonnull
+    Stream<ClassType> slice(@Nonnull int[] offsets, @Nonnull int[] targets, int id) {
+      return IntStream.range(offsets[id], offsets[id + 1]).mapToObj(i -> types[targets[i]]);
+    }
+
+    boolean isSubtype(int supertype, int potentialSubtype) {
+      if (interfaces.get(supertype)) {
+        return subtypeSetOfInterface(supertype).get(potentialSubtype);
+      }
+      return supertype < potentialSubtype && potentialSubtype < subtreeEnd[supertype];
+    }
+
+    @Nonnull
+    int[] subtypesOfInterface(int interfaceId) {
+      int[] ids = interfaceSubtypes.get(interfaceId);
+      if (ids == null) {
+        ids = subtypeSetOfInterface(interfaceId).stream().toArray();
+        interfaceSubtypes.compareAndSet(interfaceId, null, ids);
+      }
+      return ids;
+    }
+
+    @Nonnull
+    BitSet subtypeSetOfInterface(int interfaceId) {
+      BitSet set = interfaceSubtypeSets.get(interfaceId);
+      if (set != null) {
+        return set;
+      }
+      set = new BitSet(types.length);
+      Deque<Integer> worklist = new ArrayDeque<>();
+      worklist.add(interfaceId);
+      while (!worklist.isEmpty()) {
+        int current = worklist.poll();
+        for (int i = subtypeOffsets[current]; i < subtypeOffsets[current + 1]; i++) {
+          int subtype = subtypes[i];
+          if (set.get(subtype)) {
+            continue;
+          }
+          if (interfaces.get(subtype)) {
+            set.set(subtype);
+            worklist.add(subtype);
+          } else {
+            // a class and all its subclasses
+            set.set(subtype, subtreeEnd[subtype]);
+          }
+        }
+      }
+      set.clear(interfaceId);
+      return interfaceSubtypeSets.compareAndSet(interfaceId, null, set)
+          ? set
+          : interfaceSubtypeSets.get(interfaceId);
+    }
+
+    @Nonnull
+    int[] implementedInterfacesOf(int id) {
+      int[] ids = implementedInterfaces.get(id);
+      if (ids != null) {
+        return ids;
+      }
+      BitSet set = new BitSet();
+      Deque<Integer> worklist = new ArrayDeque<>();
+      int current = id;
+      // the bound guards against cyclic superclass relations of malformed input
+      for (int i = 0; current >= 0 && i < types.length; i++) {
+        worklist.add(current);
+        current = superClass[current];
+      }
+      while (!worklist.isEmpty()) {
+        current = worklist.poll();
+        for (int i = superInterfaceOffsets[current]; i < superInterfaceOffsets[current + 1]; i++) {
+          int superInterface = superInterfaces[i];
+          if (!set.get(superInterface)) {
+            set.set(superInterface);
+            worklist.add(superInterface);
+          }
+        }
+      }
+      set.clear(id);
+      ids = set.stream().toArray();
+      implementedInterfaces.compareAndSet(id, null, ids);
+      return ids;
+    }
+  }
+}
@@ -20,6 +20,7 @@ package sootup.core.typehierarchy;
  * <http://www.gnu.org/licenses/lgpl-2.1.html>.
  * #L%
  */
+import javax.annotation.Nonnull;
 import sootup.core.model.SootClass;
 
 /** For internal use only. */
@@ -32,4 +33,13 @@ public interface MutableTypeHierarchy extends TypeHierarchy {
    * <p>For internal use only.
    */
   void addType(SootClass sootClass);
+
+  /**
+   * Returns a copy of this hierarchy that contains the type as well, this hierarchy is not
+   * modified.
+   *
+   * <p>For internal use only.
+   */
+  @Nonnull
+  MutableTypeHierarchy copyWithType(@Nonnull SootClass sootClass);
 }
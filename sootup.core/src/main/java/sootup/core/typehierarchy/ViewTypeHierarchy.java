@@ -29,6 +29,7 @@ import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 import org.jgrapht.Graph;
 import org.jgrapht.graph.SimpleDirectedGraph;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.model.SootClass;
 import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.Edge;
 import sootup.core.typehierarchy.ViewTypeHierarchy.ScanResult.EdgeType;
@@ -54,6 +55,11 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     objectClassType = view.getIdentifierFactory().getClassType("java.lang.Object");
   }
 
+  private ViewTypeHierarchy(@Nonnull ScanResult scanResult, @Nonnull ClassType objectClassType) {
+    lazyScanResult = Suppliers.ofInstance(scanResult);
+    this.objectClassType = objectClassType;
+  }
+
   @Nonnull
   @Override
   public Stream<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
@@ -327,17 +333,20 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     Map<ClassType, Vertex> typeToVertex = new HashMap<>();
     Graph<Vertex, Edge> graph = new SimpleDirectedGraph<>(null, null, false);
 
-    view.getClasses().forEach(sootClass -> addSootClassToGraph(sootClass, typeToVertex, graph));
+    // only the headers are read, the classes are not resolved
+    try (Stream<ClassHeader> headers = view.getClassHeaders()) {
+      headers.forEach(header -> addHeaderToGraph(header, typeToVertex, graph));
+    }
     return new ScanResult(typeToVertex, graph);
   }
 
-  private static void addSootClassToGraph(
-      SootClass sootClass, Map<ClassType, Vertex> typeToVertex, Graph<Vertex, Edge> graph) {
-    if (sootClass.isInterface()) {
+  private static void addHeaderToGraph(
+      ClassHeader header, Map<ClassType, Vertex> typeToVertex, Graph<Vertex, Edge> graph) {
+    if (header.isInterface()) {
       Vertex vertex =
           typeToVertex.computeIfAbsent(
-              sootClass.getType(), type -> createAndAddInterfaceVertex(graph, type));
-      for (ClassType extendedInterface : sootClass.getInterfaces()) {
+              header.getType(), type -> createAndAddInterfaceVertex(graph, type));
+      for (ClassType extendedInterface : header.getInterfaces()) {
         Vertex extendedInterfaceVertex =
             typeToVertex.computeIfAbsent(
                 extendedInterface, type -> createAndAddInterfaceVertex(graph, type));
@@ -346,15 +355,15 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
     } else {
       Vertex vertex =
           typeToVertex.computeIfAbsent(
-              sootClass.getType(), type -> createAndAddClassVertex(graph, type));
-      for (ClassType implementedInterface : sootClass.getInterfaces()) {
+              header.getType(), type -> createAndAddClassVertex(graph, type));
+      for (ClassType implementedInterface : header.getInterfaces()) {
         Vertex implementedInterfaceVertex =
             typeToVertex.computeIfAbsent(
                 implementedInterface, type -> createAndAddInterfaceVertex(graph, type));
         graph.addEdge(
             vertex, implementedInterfaceVertex, new Edge(EdgeType.ClassDirectlyImplements));
       }
-      sootClass
+      header
           .getSuperclass()
           .ifPresent(
               superClass -> {
@@ -383,7 +392,15 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
   @Override
   public void addType(@Nonnull SootClass sootClass) {
     ScanResult scanResult = lazyScanResult.get();
-    addSootClassToGraph(sootClass, scanResult.typeToVertex, scanResult.graph);
+    addHeaderToGraph(ClassHeader.of(sootClass), scanResult.typeToVertex, scanResult.graph);
+  }
+
+  @Nonnull
+  @Override
+  public ViewTypeHierarchy copyWithType(@Nonnull SootClass sootClass) {
+    ScanResult scanResult = lazyScanResult.get().copy();
+    addHeaderToGraph(ClassHeader.of(sootClass), scanResult.typeToVertex, scanResult.graph);
+    return new ViewTypeHierarchy(scanResult, objectClassType);
   }
 
   /** Holds a vertex for each {@link ClassType} encountered during the scan. */
@@ -437,6 +454,25 @@ public class ViewTypeHierarchy implements MutableTypeHierarchy {
       this.typeToVertex = typeToVertex;
       this.graph = graph;
     }
+
+    /** Copies the vertices and edges, the depths of the vertices are computed again. */
+    @Nonnull
+    private ScanResult copy() {
+      Map<ClassType, Vertex> copiedTypeToVertex = new HashMap<>();
+      Graph<Vertex, Edge> copiedGraph = new SimpleDirectedGraph<>(null, null, false);
+      for (Vertex vertex : graph.vertexSet()) {
+        Vertex copiedVertex = new Vertex(vertex.javaClassType, vertex.type);
+        copiedGraph.addVertex(copiedVertex);
+        copiedTypeToVertex.put(vertex.javaClassType, copiedVertex);
+      }
+      for (Edge edge : graph.edgeSet()) {
+        copiedGraph.addEdge(
+            copiedTypeToVertex.get(graph.getEdgeSource(edge).javaClassType),
+            copiedTypeToVertex.get(graph.getEdgeTarget(edge).javaClassType),
+            new Edge(edge.type));
+      }
+      return new ScanResult(copiedTypeToVertex, copiedGraph);
+    }
   }
 
   private class SuperClassVertexIterator implements Iterator<Vertex> {
@@ -30,6 +30,7 @@ import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.MutableTypeHierarchy;
 import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.typehierarchy.ViewTypeHierarchy;
 
@@ -39,17 +40,71 @@ import sootup.core.typehierarchy.ViewTypeHierarchy;
  * @author Linghui Luo
  */
 public abstract class AbstractView implements View {
-  @Nullable private TypeHierarchy typeHierarchy;
+  @Nullable private volatile TypeHierarchy typeHierarchy;
+
+  /**
+   * true if the current type hierarchy was returned by {@link #getTypeHierarchy()}, so it has to be
+   * copied before a class is inserted (copy on write)
+   */
+  private volatile boolean typeHierarchyHandedOut;
 
   public AbstractView() {}
 
   @Override
   @Nonnull
   public TypeHierarchy getTypeHierarchy() {
-    if (this.typeHierarchy == null) {
-      typeHierarchy = new ViewTypeHierarchy(this);
+    TypeHierarchy hierarchy = this.typeHierarchy;
+    if (hierarchy == null || !typeHierarchyHandedOut) {
+      synchronized (this) {
+        hierarchy = this.typeHierarchy;
+        if (hierarchy == null) {
+          hierarchy = createTypeHierarchy();
+          this.typeHierarchy = hierarchy;
+        }
+        typeHierarchyHandedOut = true;
+      }
+    }
+    return hierarchy;
+  }
+
+  /**
+   * Creates the type hierarchy of this view on the first call of {@link #getTypeHierarchy()}.
+   * Views that are not modified after their creation can use a frozen hierarchy like the {@link
+   * sootup.core.typehierarchy.CompactTypeHierarchy}.
+   */
+  @Nonnull
+  protected TypeHierarchy createTypeHierarchy() {
+    return new ViewTypeHierarchy(this);
+  }
+
+  /**
+   * Discards the type hierarchy, it is created again on the next call of {@link
+   * #getTypeHierarchy()}. Has to be called whenever classes of the view are added, removed or
+   * replaced. A type hierarchy that was obtained before still describes the classes at that time.
+   */
+  protected void invalidateTypeHierarchy() {
+    typeHierarchy = null;
+  }
+
+  /**
+   * Inserts the class into the type hierarchy if the hierarchy was already created and is a {@link
+   * MutableTypeHierarchy}, so that the view does not have to be scanned again. Otherwise the
+   * hierarchy is discarded like in {@link #invalidateTypeHierarchy()}. Can be called instead of
+   * {@link #invalidateTypeHierarchy()} whenever a class is added to the view; a type hierarchy that
+   * was obtained before is not modified either: if the hierarchy was returned by {@link
+   * #getTypeHierarchy()} since the last insertion, the class is inserted into a copy.
+   */
+  protected synchronized void addToTypeHierarchy(@Nonnull SootClass sootClass) {
+    TypeHierarchy hierarchy = this.typeHierarchy;
+    if (!(hierarchy instanceof MutableTypeHierarchy)) {
+      this.typeHierarchy = null;
+    } else if (typeHierarchyHandedOut) {
+      // reset the flag before the copy is published, so no reader returns it without setting it
+      typeHierarchyHandedOut = false;
+      this.typeHierarchy = ((MutableTypeHierarchy) hierarchy).copyWithType(sootClass);
+    } else {
+      ((MutableTypeHierarchy) hierarchy).addType(sootClass);
     }
-    return typeHierarchy;
   }
 
   /**
@@ -0,0 +1,40 @@
+package sootup.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Determines whether the classes that are visited by a traversal of a {@link View} are stored in
+ * the cache of the view.
+ *
+ * @see View#traverseClasses(int, TraversalCacheMode, java.util.function.Consumer)
+ */
+public enum TraversalCacheMode {
+  /** Visited classes are stored in the cache like classes that are requested by other methods. */
+  CACHE,
+  /**
+   * Visited classes are not stored in the cache, i.e. a class (including its resolved bodies) is
+   * released as soon as the visitor of its batch does not reference it anymore. Classes that are
+   * already cached are visited as cached.
+   */
+  TOUCH_ONCE
+}
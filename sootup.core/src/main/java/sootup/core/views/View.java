@@ -22,10 +22,18 @@ package sootup.core.views;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.model.Body;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
@@ -61,6 +69,17 @@ public interface View {
   @Nonnull
   TypeHierarchy getTypeHierarchy();
 
+  /**
+   * Returns the headers of all classes in the view, i.e. the information the {@link TypeHierarchy}
+   * is built from. This default implementation resolves the classes of {@link #getClasses()}; views
+   * that can read the headers from their input locations without resolving the classes override
+   * it.
+   */
+  @Nonnull
+  default Stream<ClassHeader> getClassHeaders() {
+    return getClasses().map(ClassHeader::of);
+  }
+
   /** Returns the {@link IdentifierFactory} for this view. */
   @Nonnull
   IdentifierFactory getIdentifierFactory();
@@ -71,4 +90,65 @@ public interface View {
         .orElseThrow(
             () -> new IllegalArgumentException("Could not find " + classType + " in View."));
   }
+
+  /**
+   * Visits all classes of the view in batches of at most <code>batchSize</code> classes. In
+   * contrast to {@link #getClasses()}, the classes of a batch are only built once the previous
+   * batch was visited, so with {@link TraversalCacheMode#TOUCH_ONCE} the memory that a
+   * whole-program pass needs depends on the batch size and not on the size of the program.
+   *
+   * <p>This default implementation visits the classes of {@link #getClasses()} and ignores the
+   * cache mode; views that can bypass their cache override it.
+   *
+   * @param batchSize the maximum number of classes per batch
+   * @param cacheMode whether the visited classes are stored in the cache of the view
+   * @param batchVisitor is called once per batch; the list is only valid during the call
+   */
+  default void traverseClasses(
+      int batchSize,
+      @Nonnull TraversalCacheMode cacheMode,
+      @Nonnull Consumer<? super List<? extends SootClass>> batchVisitor) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size has to be positive: " + batchSize);
+    }
+    List<SootClass> batch = new ArrayList<>(batchSize);
+    Iterator<? extends SootClass> classes = getClasses().iterator();
+    while (classes.hasNext()) {
+      batch.add(classes.next());
+      if (batch.size() == batchSize) {
+        batchVisitor.accept(Collections.unmodifiableList(batch));
+        batch = new ArrayList<>(batchSize);
+      }
+    }
+    if (!batch.isEmpty()) {
+      batchVisitor.accept(Collections.unmodifiableList(batch));
+    }
+  }
+
+  /**
+   * Visits the body of every concrete method of the view, batch by batch of classes (see {@link
+   * #traverseClasses(int, TraversalCacheMode, Consumer)}).
+   *
+   * @param batchSize the maximum number of classes whose bodies are visited before the classes are
+   *     released
+   * @param cacheMode whether the visited classes are stored in the cache of the view
+   * @param bodyVisitor is called once per concrete method with its body
+   */
+  default void traverseBodies(
+      int batchSize,
+      @Nonnull TraversalCacheMode cacheMode,
+      @Nonnull BiConsumer<? super SootMethod, ? super Body> bodyVisitor) {
+    traverseClasses(
+        batchSize,
+        cacheMode,
+        batch -> {
+          for (SootClass sootClass : batch) {
+            for (SootMethod method : sootClass.getMethods()) {
+              if (method.hasBody()) {
+                bodyVisitor.accept(method, method.getBody());
+              }
+            }
+          }
+        });
+  }
 }
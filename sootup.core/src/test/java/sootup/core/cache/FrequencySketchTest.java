@@ -0,0 +1,51 @@
+package sootup.core.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("Java8")
+public class FrequencySketchTest {
+
+  @Test
+  void testFrequencyIsEstimated() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(512);
+    assertEquals(0, sketch.frequency("a"));
+
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("a");
+    }
+    sketch.increment("b");
+
+    assertEquals(5, sketch.frequency("a"));
+    assertEquals(1, sketch.frequency("b"));
+    assertEquals(0, sketch.frequency("c"));
+  }
+
+  @Test
+  void testFrequencyIsCapped() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(512);
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("a");
+    }
+    assertEquals(15, sketch.frequency("a"));
+  }
+
+  @Test
+  void testHistoryIsAged() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(64);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment("a");
+    }
+    // enough distinct elements to trigger the periodic reset of the counters
+    for (int i = 0; i < 10 * sketch.capacity(); i++) {
+      sketch.increment(i);
+    }
+    assertTrue(sketch.frequency("a") < 10);
+  }
+}
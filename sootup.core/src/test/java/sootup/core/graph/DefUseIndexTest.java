@@ -0,0 +1,102 @@
+package sootup.core.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.TestUtil;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JAddExpr;
+import sootup.core.jimple.common.expr.JLeExpr;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.types.PrimitiveType;
+
+@Tag("Java8")
+public class DefUseIndexTest {
+  StmtPositionInfo noPosInfo = StmtPositionInfo.getNoStmtPositionInfo();
+  Local l1 = new Local("l1", PrimitiveType.IntType.getInstance());
+  Local l2 = new Local("l2", PrimitiveType.IntType.getInstance());
+
+  JAssignStmt assign = new JAssignStmt(l1, IntConstant.getInstance(1), noPosInfo);
+  BranchingStmt ifStmt = new JIfStmt(new JLeExpr(l1, IntConstant.getInstance(100)), noPosInfo);
+  JAssignStmt increment =
+      new JAssignStmt(l1, new JAddExpr(l1, IntConstant.getInstance(1)), noPosInfo);
+  JReturnStmt returnStmt = new JReturnStmt(l1, noPosInfo);
+
+  private MutableBlockStmtGraph createStmtGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(assign);
+    graph.putEdge(assign, ifStmt);
+    graph.putEdge(ifStmt, JIfStmt.FALSE_BRANCH_IDX, increment);
+    graph.putEdge(ifStmt, JIfStmt.TRUE_BRANCH_IDX, returnStmt);
+    graph.putEdge(increment, returnStmt);
+    return graph;
+  }
+
+  @Test
+  public void testIndex() {
+    MutableBlockStmtGraph graph = createStmtGraph();
+    DefUseIndex index = new DefUseIndex(graph);
+
+    assertEquals(new HashSet<>(Arrays.asList(assign, increment)), index.getDefsOf(l1));
+    assertEquals(new HashSet<>(Arrays.asList(ifStmt, increment, returnStmt)), index.getUsesOf(l1));
+    assertEquals(Collections.emptySet(), index.getDefsOf(l2));
+    assertEquals(Collections.emptySet(), index.getUsesOf(l2));
+    // Locals are distinguished by their name
+    Local sameName = new Local("l1", PrimitiveType.IntType.getInstance());
+    assertEquals(index.getDefsOf(l1), index.getDefsOf(sameName));
+  }
+
+  @Test
+  public void testMaintenance() {
+    MutableBlockStmtGraph graph = createStmtGraph();
+    DefUseIndex index = graph.getDefUseIndex();
+    assertSame(index, graph.getDefUseIndex());
+    assertSame(index, graph.unmodifiableStmtGraph().getDefUseIndex());
+
+    JAssignStmt copy = new JAssignStmt(l2, l1, noPosInfo);
+    graph.insertBefore(returnStmt, copy);
+    assertEquals(new HashSet<>(Arrays.asList(assign, increment)), index.getDefsOf(l1));
+    assertEquals(Collections.singleton(copy), index.getDefsOf(l2));
+    assertTrue(index.getUsesOf(l1).contains(copy));
+
+    JReturnStmt returnL2 = new JReturnStmt(l2, noPosInfo);
+    graph.replaceNode(returnStmt, returnL2);
+    assertFalse(index.getUsesOf(l1).contains(returnStmt));
+    assertEquals(Collections.singleton(returnL2), index.getUsesOf(l2));
+
+    graph.removeNode(increment);
+    assertEquals(Collections.singleton(assign), index.getDefsOf(l1));
+    assertEquals(new HashSet<>(Arrays.asList(ifStmt, copy)), index.getUsesOf(l1));
+
+    // the maintained index equals an index of the modified graph
+    DefUseIndex rebuilt = new DefUseIndex(graph);
+    for (Local local : Arrays.asList(l1, l2)) {
+      assertEquals(rebuilt.getDefsOf(local), index.getDefsOf(local));
+      assertEquals(rebuilt.getUsesOf(local), index.getUsesOf(local));
+    }
+  }
+
+  @Test
+  public void testDiscardedWhenBodyIsBuilt() {
+    MutableBlockStmtGraph graph = createStmtGraph();
+    DefUseIndex index = graph.getDefUseIndex();
+    StmtGraphNumbering numbering = graph.getNumbering();
+
+    Body body =
+        Body.builder(graph)
+            .setMethodSignature(TestUtil.createDummyMethodSignature())
+            .setLocals(new HashSet<>(Arrays.asList(l1, l2)))
+            .build();
+    // the Body does not retain the indexes of the builder graph
+    assertNotSame(index, body.getStmtGraph().getDefUseIndex());
+    assertNotSame(numbering, body.getStmtGraph().getNumbering());
+    assertEquals(index.getDefsOf(l1), body.getStmtGraph().getDefUseIndex().getDefsOf(l1));
+  }
+}
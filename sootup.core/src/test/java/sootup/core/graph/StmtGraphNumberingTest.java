@@ -0,0 +1,84 @@
+package sootup.core.graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JLeExpr;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.types.PrimitiveType;
+
+@Tag("Java8")
+public class StmtGraphNumberingTest {
+  StmtPositionInfo noPosInfo = StmtPositionInfo.getNoStmtPositionInfo();
+  Local l1 = new Local("l1", PrimitiveType.IntType.getInstance());
+
+  JAssignStmt assign = new JAssignStmt(l1, IntConstant.getInstance(1), noPosInfo);
+  BranchingStmt ifStmt = new JIfStmt(new JLeExpr(l1, IntConstant.getInstance(100)), noPosInfo);
+  JAssignStmt increment = new JAssignStmt(l1, IntConstant.getInstance(2), noPosInfo);
+  JReturnStmt returnStmt = new JReturnStmt(l1, noPosInfo);
+  JReturnStmt unreachable = new JReturnStmt(IntConstant.getInstance(0), noPosInfo);
+
+  private MutableBlockStmtGraph createStmtGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(assign);
+    graph.putEdge(assign, ifStmt);
+    graph.putEdge(ifStmt, JIfStmt.FALSE_BRANCH_IDX, increment);
+    graph.putEdge(ifStmt, JIfStmt.TRUE_BRANCH_IDX, returnStmt);
+    graph.putEdge(increment, returnStmt);
+    graph.addNode(unreachable);
+    return graph;
+  }
+
+  @Test
+  public void testNumbering() {
+    MutableBlockStmtGraph graph = createStmtGraph();
+    StmtGraphNumbering numbering = graph.getNumbering();
+
+    assertEquals(5, numbering.getStmtCount());
+    assertEquals(4, numbering.getBlockCount());
+    // blocks in reverse post-order, the unreachable block at last
+    assertEquals(
+        Arrays.asList(
+            graph.getBlockOf(assign),
+            graph.getBlockOf(increment),
+            graph.getBlockOf(returnStmt),
+            graph.getBlockOf(unreachable)),
+        numbering.getBlocks());
+    assertEquals(
+        Arrays.asList(assign, ifStmt, increment, returnStmt, unreachable), numbering.getStmts());
+
+    for (int number = 0; number < numbering.getStmtCount(); number++) {
+      Stmt stmt = numbering.getStmt(number);
+      assertEquals(number, numbering.getNumber(stmt));
+      BasicBlock<?> block = numbering.getBlock(numbering.getBlockNumberOf(number));
+      assertSame(graph.getBlockOf(stmt), block);
+      assertEquals(numbering.getBlockNumberOf(number), numbering.getBlockNumber(block));
+    }
+    assertEquals(-1, numbering.getNumber(new JReturnStmt(l1, noPosInfo)));
+  }
+
+  @Test
+  public void testInvalidation() {
+    MutableBlockStmtGraph graph = createStmtGraph();
+    StmtGraphNumbering numbering = graph.getNumbering();
+    // the numbering is kept as long as the graph is not modified
+    assertSame(numbering, graph.getNumbering());
+    assertSame(numbering, graph.unmodifiableStmtGraph().getNumbering());
+
+    JAssignStmt replacement = new JAssignStmt(l1, IntConstant.getInstance(3), noPosInfo);
+    graph.replaceNode(increment, replacement);
+    StmtGraphNumbering replacedNumbering = graph.getNumbering();
+    assertNotSame(numbering, replacedNumbering);
+    assertEquals(-1, replacedNumbering.getNumber(increment));
+    assertEquals(numbering.getNumber(increment), replacedNumbering.getNumber(replacement));
+
+    graph.removeNode(unreachable);
+    assertEquals(4, graph.getNumbering().getStmtCount());
+    assertEquals(3, graph.getNumbering().getBlockCount());
+  }
+}
@@ -0,0 +1,32 @@
+package sootup.core.jimple.basic;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.types.PrimitiveType;
+
+@Tag("Java8")
+public class LocalNumberingTest {
+
+  @Test
+  public void testNumbering() {
+    Local l0 = new Local("l0", PrimitiveType.IntType.getInstance());
+    Local l1 = new Local("l1", PrimitiveType.IntType.getInstance());
+    Local l2 = new Local("l2", PrimitiveType.IntType.getInstance());
+    // a Local with the same name is the same Local
+    Local otherL1 = new Local("l1", PrimitiveType.LongType.getInstance());
+
+    LocalNumbering numbering = new LocalNumbering(Arrays.asList(l0, l1, otherL1, l2));
+    assertEquals(3, numbering.getLocalCount());
+    assertEquals(Arrays.asList(l0, l1, l2), numbering.getLocals());
+    assertEquals(1, numbering.getNumber(otherL1));
+    assertEquals(2, numbering.getNumberOf(l2));
+    assertSame(l2, numbering.getLocal(2));
+
+    assertEquals(-1, numbering.getNumber(new Local("l3", PrimitiveType.IntType.getInstance())));
+    assertEquals(-1, numbering.getNumberOf(IntConstant.getInstance(1)));
+  }
+}
@@ -27,6 +27,7 @@ import sootup.core.graph.BasicBlock;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.LocalNumbering;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
 import sootup.core.jimple.common.ref.JArrayRef;
@@ -69,7 +70,27 @@ public class Aggregator implements BodyInterceptor {
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     MutableStmtGraph graph = builder.getStmtGraph();
     List<Stmt> stmts = builder.getStmts();
-    Map<Value, Collection<Stmt>> usesMap = Body.collectUses(stmts);
+
+    // count the uses and definitions of each local instead of searching them for each candidate
+    LocalNumbering localNumbering = builder.getLocalNumbering();
+    int localCount = localNumbering.getLocalCount();
+    int[] useCounts = new int[localCount];
+    int[] defCounts = new int[localCount];
+    Stmt[] firstDefs = new Stmt[localCount];
+    for (Stmt stmt : stmts) {
+      for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+        int localNumber = localNumbering.getNumberOf(iterator.next());
+        if (localNumber >= 0) {
+          useCounts[localNumber]++;
+        }
+      }
+      if (stmt instanceof AbstractDefinitionStmt) {
+        int localNumber = localNumbering.getNumberOf(((AbstractDefinitionStmt) stmt).getLeftOp());
+        if (localNumber >= 0 && defCounts[localNumber]++ == 0) {
+          firstDefs[localNumber] = stmt;
+        }
+      }
+    }
 
     for (Stmt stmt : stmts) {
       if (!(stmt instanceof JAssignStmt)) {
@@ -86,19 +107,19 @@ public class Aggregator implements BodyInterceptor {
       }
       for (Iterator<Value> iterator = assignStmt.getUses().iterator(); iterator.hasNext(); ) {
         Value val = iterator.next();
-        if (!(val instanceof Local)) {
+        // locals that are not declared in the body are not aggregated
+        int valNumber = localNumbering.getNumberOf(val);
+        if (valNumber < 0) {
           continue;
         }
-        final Collection<Stmt> usesOfVal = usesMap.get(val);
-        if (usesOfVal.size() > 1) {
+        if (useCounts[valNumber] > 1) {
           // there are other uses, so it can't be aggregated
           continue;
         }
-        List<AbstractDefinitionStmt> defs = ((Local) val).getDefs(stmts);
-        if (defs.size() != 1) {
+        if (defCounts[valNumber] != 1) {
           continue;
         }
-        Stmt relevantDef = defs.get(0);
+        Stmt relevantDef = firstDefs[valNumber];
         if (!graph.containsNode(relevantDef) || !graph.containsNode(stmt)) {
           continue;
         }
@@ -240,4 +261,10 @@ public class Aggregator implements BodyInterceptor {
       }
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName() + ";" + dontAggregateFieldLocals);
+  }
 }
@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 import com.google.common.collect.Lists;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
@@ -125,4 +126,10 @@ public class CastAndReturnInliner implements BodyInterceptor {
       }
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
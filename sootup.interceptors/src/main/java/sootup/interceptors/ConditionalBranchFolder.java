@@ -200,4 +200,10 @@ public class ConditionalBranchFolder implements BodyInterceptor {
     }
     return amount == 0;
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
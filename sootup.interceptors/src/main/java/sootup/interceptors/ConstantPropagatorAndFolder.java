@@ -25,6 +25,7 @@ import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
@@ -135,4 +136,10 @@ public class ConstantPropagatorAndFolder implements BodyInterceptor {
       constantStmtBiConsumer.accept(evaluatedValue, stmt);
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -24,6 +24,7 @@ package sootup.interceptors;
 import com.google.common.collect.Lists;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -94,7 +95,7 @@ public class CopyPropagator implements BodyInterceptor {
         else if (rhs instanceof Local && !rhs.equivTo(use)) {
           Local m = (Local) rhs;
           if (use != m) {
-            Integer defCount = m.getDefs(stmtGraph.getStmts()).size();
+            int defCount = stmtGraph.getDefUseIndex().getDefsOf(m).size();
             if (defCount == 0) {
               throw new IllegalStateException("Local `" + m + "' is used without a definition!");
             } else if (defCount == 1) {
@@ -183,4 +184,10 @@ public class CopyPropagator implements BodyInterceptor {
     }
     return isPropagateable;
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -22,9 +22,9 @@ package sootup.interceptors;
  */
 
 import java.util.*;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import sootup.analysis.intraprocedural.reachingdefs.ReachingDefs;
+import sootup.core.graph.DefUseIndex;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.LValue;
@@ -176,7 +176,7 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
 
     // Add all the statements which are used to compute values for the essential statements,
     // recursively
-    Map<LValue, Collection<Stmt>> allDefs = Body.collectDefs(stmtGraph.getNodes());
+    DefUseIndex defUseIndex = stmtGraph.getDefUseIndex();
 
     Set<Stmt> essentialStmts = new HashSet<>(stmts.size());
     while (!deque.isEmpty()) {
@@ -186,12 +186,10 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
           Value value = iterator.next();
           if (value instanceof Local) {
             Local local = (Local) value;
-            Collection<Stmt> defs = allDefs.get(local);
             List<Stmt> reachableDefs = reachingDefs.get(stmt);
-            defs = defs.stream().filter(reachableDefs::contains).collect(Collectors.toList());
-            if (defs != null) {
-              deque.addAll(defs);
-            }
+            defUseIndex.getDefsOf(local).stream()
+                .filter(reachableDefs::contains)
+                .forEach(deque::add);
           }
         }
       }
@@ -249,4 +247,10 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
       builder.removeDefLocalsOf(assignStmt);
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName() + ";" + eliminateOnlyStackLocals);
+  }
 }
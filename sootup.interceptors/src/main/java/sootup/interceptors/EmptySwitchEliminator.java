@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 import java.util.ArrayList;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.Jimple;
@@ -56,4 +57,10 @@ public class EmptySwitchEliminator implements BodyInterceptor {
       }
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,4 +67,10 @@ public abstract class JimpleSemanticsChecker implements BodyInterceptor {
       throw new IllegalStateException("There are semantic errors in the Jimple - see warn log.");
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
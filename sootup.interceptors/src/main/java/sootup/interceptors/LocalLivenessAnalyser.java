@@ -24,135 +24,328 @@ package sootup.interceptors;
 
 import java.util.*;
 import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
 import sootup.core.graph.StmtGraph;
+import sootup.core.graph.StmtGraphNumbering;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.LocalNumbering;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.Stmt;
 
-/** @author Zun Wang */
+/**
+ * Computes the live Locals of each Stmt. The fixpoint is computed on the blocks of the StmtGraph
+ * with bit-sets (<code>long[]</code>) that are indexed by the {@link LocalNumbering}, visiting the
+ * blocks in post-order (the reverse of the {@link StmtGraphNumbering}) so that successors are
+ * mostly processed before their predecessors. The sets of the single Stmts are derived lazily per
+ * block, when the first Stmt of a block is queried.
+ *
+ * <p>An exceptional successor of a block is a successor of each of its Stmts.
+ *
+ * @author Zun Wang
+ */
 public class LocalLivenessAnalyser {
 
+  @Nonnull private final StmtGraph<?> graph;
+
+  @Nonnull private final StmtGraphNumbering numbering;
+
+  /** the bit index of each Local */
+  @Nonnull private final LocalNumbering localNumbering;
+
+  /** the number of longs of a bit-set */
+  private final int words;
+
+  /** live-in of the head of each block */
+  @Nonnull private final long[][] blockLiveIn;
+
+  /** union of the live-in of the successors of each block */
+  @Nonnull private final long[][] successorLiveIn;
+
+  /** union of the live-in of the exceptional successors of each block */
+  @Nonnull private final long[][] exceptionalLiveIn;
+
   // Each stmt(node) has out-edges and in-edges
   // A local is live-in at a node if it is live on any its in-edges
-  private final Map<Stmt, Set<Local>> liveIn = new HashMap<>();
+  @Nonnull private final Map<Stmt, Set<Local>> liveIn = new HashMap<>();
   // A local is live-out at a node if it is live on any of its out-edges.
   // e.g: a = b + c; live-in={b,c}  live-out={a,b,c}
-  private final Map<Stmt, Set<Local>> liveOut = new HashMap<>();
+  @Nonnull private final Map<Stmt, Set<Local>> liveOut = new HashMap<>();
 
+  /** Numbers the Locals that the Stmts of the graph define or use. */
   public LocalLivenessAnalyser(@Nonnull StmtGraph<?> graph) {
-    // initial liveIn and liveOut
-    List<Stmt> startingStmts = new ArrayList<>();
-    for (Stmt stmt : graph.getNodes()) {
-      liveIn.put(stmt, Collections.emptySet());
-      liveOut.put(stmt, Collections.emptySet());
-      if (graph.successors(stmt).isEmpty() && graph.exceptionalSuccessors(stmt).isEmpty()) {
-        startingStmts.add(stmt);
+    this(graph, new LocalNumbering(localsOf(graph)));
+  }
+
+  /**
+   * @param localNumbering has to number all Locals that the Stmts of the graph define or use, e.g.
+   *     the numbering of the Locals of the Body
+   */
+  public LocalLivenessAnalyser(
+      @Nonnull StmtGraph<?> graph, @Nonnull LocalNumbering localNumbering) {
+    this.graph = graph;
+    this.numbering = graph.getNumbering();
+    this.localNumbering = localNumbering;
+    words = (localNumbering.getLocalCount() + 63) >>> 6;
+
+    int blockCount = numbering.getBlockCount();
+    blockLiveIn = new long[blockCount][words];
+    successorLiveIn = new long[blockCount][words];
+    exceptionalLiveIn = new long[blockCount][words];
+
+    // summarize the Stmts of each block: a Local is live-in if it is used before it is defined in
+    // the block (gen) or if it is live-out and not defined in the block (kill). As the exceptional
+    // successors are successors of each Stmt, only the def of the head removes their live Locals.
+    long[][] gen = new long[blockCount][words];
+    long[][] kill = new long[blockCount][words];
+    int[] headDefs = new int[blockCount];
+    for (int b = 0; b < blockCount; b++) {
+      List<Stmt> stmts = numbering.getBlock(b).getStmts();
+      for (int i = stmts.size() - 1; i >= 0; i--) {
+        Stmt stmt = stmts.get(i);
+        Local def = definedLocal(stmt);
+        if (def != null) {
+          int number = numberOf(def);
+          clear(gen[b], number);
+          set(kill[b], number);
+        }
+        for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+          Value use = iterator.next();
+          if (use instanceof Local) {
+            set(gen[b], numberOf((Local) use));
+          }
+        }
       }
+      Local headDef = stmts.isEmpty() ? null : definedLocal(stmts.get(0));
+      headDefs[b] = headDef == null ? -1 : numberOf(headDef);
+    }
+
+    int[][] successors = new int[blockCount][];
+    int[][] exceptionalSuccessors = new int[blockCount][];
+    for (int b = 0; b < blockCount; b++) {
+      BasicBlock<?> block = numbering.getBlock(b);
+      successors[b] = numbersOf(block.getSuccessors());
+      exceptionalSuccessors[b] = numbersOf(block.getExceptionalSuccessors().values());
     }
 
     boolean fixed = false;
     while (!fixed) {
       fixed = true;
-      Deque<Stmt> queue = new ArrayDeque<>(startingStmts);
-      HashSet<Stmt> visitedStmts = new HashSet<>();
-      while (!queue.isEmpty()) {
-        Stmt stmt = queue.removeFirst();
-        visitedStmts.add(stmt);
-
-        Set<Local> out = new HashSet<>(liveOut.get(stmt));
-        for (Stmt succ : graph.successors(stmt)) {
-          out = merge(out, liveIn.get(succ));
-        }
-        for (Stmt esucc : graph.exceptionalSuccessors(stmt).values()) {
-          out = merge(out, liveIn.get(esucc));
+      for (int b = blockCount - 1; b >= 0; b--) {
+        long[] out = successorLiveIn[b];
+        long[] exceptionalOut = exceptionalLiveIn[b];
+        Arrays.fill(out, 0L);
+        Arrays.fill(exceptionalOut, 0L);
+        for (int succ : successors[b]) {
+          or(out, blockLiveIn[succ]);
         }
-        if (isNotEqual(out, liveOut.get(stmt))) {
-          fixed = false;
-          liveOut.put(stmt, new HashSet<>(out));
+        for (int succ : exceptionalSuccessors[b]) {
+          or(exceptionalOut, blockLiveIn[succ]);
         }
 
-        Set<Local> in = new HashSet<>();
-        for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
-          Value use = iterator.next();
-          if (use instanceof Local) {
-            in.add((Local) use);
+        long[] in = blockLiveIn[b];
+        long[] blockGen = gen[b];
+        long[] blockKill = kill[b];
+        int headDef = headDefs[b];
+        for (int w = 0; w < words; w++) {
+          long exceptional = exceptionalOut[w];
+          if (headDef >>> 6 == w) {
+            exceptional &= ~(1L << headDef);
           }
-        }
-        final Optional<LValue> def = stmt.getDef();
-        if (def.isPresent()) {
-          final Value value = def.get();
-          if (value instanceof Local) {
-            out.remove(value);
+          long newIn = blockGen[w] | (out[w] & ~blockKill[w]) | exceptional;
+          if (newIn != in[w]) {
+            // the sets only grow, so an unchanged word stays unchanged
+            in[w] = newIn;
+            fixed = false;
           }
         }
-        in = merge(in, out);
-        if (isNotEqual(in, liveIn.get(stmt))) {
-          fixed = false;
-          liveIn.put(stmt, in);
-        }
-        for (Stmt pred : graph.predecessors(stmt)) {
-          if (!visitedStmts.contains(pred)) {
-            queue.addLast(pred);
-          }
+      }
+    }
+  }
+
+  /** Collects the Locals that the Stmts of the graph define or use. */
+  @Nonnull
+  private static Set<Local> localsOf(@Nonnull StmtGraph<?> graph) {
+    Set<Local> locals = new LinkedHashSet<>();
+    for (Stmt stmt : graph.getNodes()) {
+      for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+        Value use = iterator.next();
+        if (use instanceof Local) {
+          locals.add((Local) use);
         }
-        for (Stmt epred : graph.exceptionalPredecessors(stmt)) {
-          if (!visitedStmts.contains(epred)) {
-            queue.addLast(epred);
-          }
+      }
+      Local def = definedLocal(stmt);
+      if (def != null) {
+        locals.add(def);
+      }
+    }
+    return locals;
+  }
+
+  @Nonnull
+  private int[] numbersOf(@Nonnull Collection<? extends BasicBlock<?>> blocks) {
+    int[] numbers = new int[blocks.size()];
+    int i = 0;
+    for (BasicBlock<?> block : blocks) {
+      numbers[i++] = numbering.getBlockNumber(block);
+    }
+    return numbers;
+  }
+
+  private int numberOf(@Nonnull Local local) {
+    int number = localNumbering.getNumber(local);
+    if (number < 0) {
+      throw new IllegalArgumentException("The Local " + local + " is not numbered.");
+    }
+    return number;
+  }
+
+  private static Local definedLocal(@Nonnull Stmt stmt) {
+    final Optional<LValue> def = stmt.getDef();
+    if (def.isPresent()) {
+      final Value value = def.get();
+      if (value instanceof Local) {
+        return (Local) value;
+      }
+    }
+    return null;
+  }
+
+  private static void set(@Nonnull long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
+  }
+
+  private static void clear(@Nonnull long[] bits, int index) {
+    bits[index >>> 6] &= ~(1L << index);
+  }
+
+  private static void or(@Nonnull long[] target, @Nonnull long[] bits) {
+    for (int w = 0; w < target.length; w++) {
+      target[w] |= bits[w];
+    }
+  }
+
+  /** Derives the live Locals of the Stmts of a block from the live Locals of its successors. */
+  private void computeStmtsOf(@Nonnull BasicBlock<?> block) {
+    int b = numbering.getBlockNumber(block);
+    long[] exceptionalOut = exceptionalLiveIn[b];
+    long[] live = successorLiveIn[b].clone();
+    or(live, exceptionalOut);
+
+    List<Stmt> stmts = block.getStmts();
+    for (int i = stmts.size() - 1; i >= 0; i--) {
+      Stmt stmt = stmts.get(i);
+      liveOut.put(stmt, new LiveLocals(live));
+
+      long[] in = live.clone();
+      Local def = definedLocal(stmt);
+      if (def != null) {
+        clear(in, numberOf(def));
+      }
+      for (Iterator<Value> iterator = stmt.getUses().iterator(); iterator.hasNext(); ) {
+        Value use = iterator.next();
+        if (use instanceof Local) {
+          set(in, numberOf((Local) use));
         }
       }
+      liveIn.put(stmt, new LiveLocals(in));
+
+      live = in.clone();
+      or(live, exceptionalOut);
+    }
+  }
+
+  @Nonnull
+  private Set<Local> getLiveLocals(@Nonnull Map<Stmt, Set<Local>> liveLocals, @Nonnull Stmt stmt) {
+    Set<Local> result = liveLocals.get(stmt);
+    if (result == null) {
+      if (!graph.containsNode(stmt)) {
+        throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
+      }
+      computeStmtsOf(graph.getBlockOf(stmt));
+      result = liveLocals.get(stmt);
     }
+    return result;
   }
 
   /** Get all live locals before the given stmt. */
   @Nonnull
   public Set<Local> getLiveLocalsBeforeStmt(@Nonnull Stmt stmt) {
-    if (!liveIn.containsKey(stmt)) {
-      throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
-    }
-    return liveIn.get(stmt);
+    return getLiveLocals(liveIn, stmt);
   }
 
   /** Get all live locals after the given stmt. */
   @Nonnull
   public Set<Local> getLiveLocalsAfterStmt(@Nonnull Stmt stmt) {
-    if (!liveOut.containsKey(stmt)) {
-      throw new RuntimeException("Stmt: " + stmt + " is not in StmtGraph!");
-    }
-    return liveOut.get(stmt);
+    return getLiveLocals(liveOut, stmt);
   }
 
-  /**
-   * Merge two local sets into one set.
-   *
-   * @return a merged local set
-   */
-  @Nonnull
-  private Set<Local> merge(@Nonnull Set<Local> set1, @Nonnull Set<Local> set2) {
-    if (set1.isEmpty()) {
-      return set2;
-    } else {
-      set1.addAll(set2);
-      return set1;
+  /** An unmodifiable view of a bit-set of live Locals. */
+  private class LiveLocals extends AbstractSet<Local> {
+    @Nonnull private final long[] bits;
+    private final int size;
+
+    LiveLocals(@Nonnull long[] bits) {
+      this.bits = bits;
+      int count = 0;
+      for (long word : bits) {
+        count += Long.bitCount(word);
+      }
+      this.size = count;
     }
-  }
 
-  /**
-   * Check whether two sets contains same locals.
-   *
-   * @return if same return true, else return false;
-   */
-  private boolean isNotEqual(@Nonnull Set<Local> set1, @Nonnull Set<Local> set2) {
-    if (set1.size() != set2.size()) {
-      return true;
-    } else {
-      for (Local local : set1) {
-        if (!set2.contains(local)) {
-          return true;
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Local)) {
+        return false;
+      }
+      int number = localNumbering.getNumber((Local) o);
+      return number >= 0 && (bits[number >>> 6] & (1L << number)) != 0;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Local> iterator() {
+      return new Iterator<Local>() {
+        private int next = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Local next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          Local local = localNumbering.getLocal(next);
+          next = nextSetBit(next + 1);
+          return local;
+        }
+      };
+    }
+
+    private int nextSetBit(int from) {
+      int w = from >>> 6;
+      if (w >= bits.length) {
+        return -1;
+      }
+      long word = bits[w] & (-1L << from);
+      while (true) {
+        if (word != 0) {
+          return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        if (++w == bits.length) {
+          return -1;
         }
+        word = bits[w];
       }
     }
-    return false;
   }
 }
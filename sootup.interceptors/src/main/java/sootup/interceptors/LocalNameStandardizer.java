@@ -97,4 +97,10 @@ public class LocalNameStandardizer implements BodyInterceptor {
       return result;
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -216,7 +216,7 @@ public class LocalPacker implements BodyInterceptor {
     // Maps local to its interfering locals
     Map<Local, Set<Local>> localToLocals = new HashMap<>();
     StmtGraph<?> graph = builder.getStmtGraph();
-    LocalLivenessAnalyser analyser = new LocalLivenessAnalyser(graph);
+    LocalLivenessAnalyser analyser = new LocalLivenessAnalyser(graph, builder.getLocalNumbering());
 
     // TODO: check if sorted Stmts are necessary
     for (Stmt stmt : builder.getStmts()) {
@@ -294,4 +294,10 @@ public class LocalPacker implements BodyInterceptor {
       }
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -23,10 +23,10 @@ package sootup.interceptors;
  */
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.IntFunction;
 import javax.annotation.Nonnull;
 import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.StmtGraphNumbering;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
@@ -68,56 +68,79 @@ public class LocalSplitter implements BodyInterceptor {
   /**
    * Contains disjoint sets of nodes which are implemented as trees. Every set is represented by a
    * tree in the forest. Each set is identified by the root node of its tree, also known as its
-   * representative.
+   * representative. The nodes are the numbers from 0 to the capacity of the forest.
    *
    * <p><a href="https://en.wikipedia.org/wiki/Disjoint-set_data_structure">Disjoint-set data
    * structure</a>
    */
-  static class DisjointSetForest<T> {
-    /** Every node points to its parent in its tree. Roots of trees point to themselves. */
-    @Nonnull private final Map<T, T> parent = new HashMap<>();
+  static class DisjointSetForest {
+    /**
+     * Every node points to its parent in its tree. Roots of trees point to themselves and nodes
+     * that are not contained point to -1.
+     */
+    @Nonnull private final int[] parent;
+
+    /** Stores the size of a tree at the index of its root. */
+    @Nonnull private final int[] sizes;
+
+    /** The nodes that are contained, to reset the forest. */
+    @Nonnull private final int[] nodes;
+
+    private int nodeCount = 0;
+    private int setCount = 0;
 
-    /** Stores the size of a tree under the key. Only updated for roots of trees. */
-    @Nonnull private final Map<T, Integer> sizes = new HashMap<>();
+    DisjointSetForest(int capacity) {
+      parent = new int[capacity];
+      sizes = new int[capacity];
+      nodes = new int[capacity];
+      Arrays.fill(parent, -1);
+    }
+
+    /** Removes all nodes, so that the forest can be reused. */
+    void clear() {
+      for (int i = 0; i < nodeCount; i++) {
+        parent[nodes[i]] = -1;
+      }
+      nodeCount = 0;
+      setCount = 0;
+    }
 
     /**
      * Creates a new set that only contains the {@code node}. Does nothing when the forest already
      * contains the {@code node}.
      */
-    void add(@Nonnull T node) {
-      if (parent.containsKey(node)) {
+    void add(int node) {
+      if (parent[node] != -1) {
         return;
       }
 
-      parent.put(node, node);
-      sizes.put(node, 1);
+      parent[node] = node;
+      sizes[node] = 1;
+      nodes[nodeCount++] = node;
+      setCount++;
     }
 
     /** Finds the representative of the set that contains the {@code node}. */
-    @Nonnull
-    T find(T node) {
-      T parentNode = parent.get(node);
-      if (parentNode == null) {
+    int find(int node) {
+      int parentNode = parent[node];
+      if (parentNode == -1) {
         throw new IllegalArgumentException("The DisjointSetForest does not contain the node.");
       }
 
-      T itNode = node;
+      int itNode = node;
       while (parentNode != itNode) {
         // Path Halving to get amortized constant operations
-        T grandparent = parent.get(parentNode);
-        parent.put(itNode, grandparent);
+        int grandparent = parent[parentNode];
+        parent[itNode] = grandparent;
 
         itNode = grandparent;
-        parentNode = parent.get(grandparent);
+        parentNode = parent[grandparent];
       }
       return itNode;
     }
 
-    /**
-     * Combines the sets of {@code first} and {@code second}. Returns the representative of the
-     * combined set.
-     */
-    void union(@Nonnull T first, @Nonnull T second) {
+    /** Combines the sets of {@code first} and {@code second}. */
+    void union(int first, int second) {
       first = find(first);
       second = find(second);
 
@@ -125,11 +148,8 @@ public class LocalSplitter implements BodyInterceptor {
         return;
       }
 
-      final Integer firstSize = sizes.get(first);
-      final Integer secondSize = sizes.get(second);
-
-      T smaller, larger;
-      if (firstSize > secondSize) {
+      int smaller, larger;
+      if (sizes[first] > sizes[second]) {
         larger = first;
         smaller = second;
       } else {
@@ -138,55 +158,23 @@ public class LocalSplitter implements BodyInterceptor {
       }
 
       // adding the smaller subtree to the larger tree keeps the tree flatter
-      parent.put(smaller, larger);
-      sizes.put(larger, firstSize + secondSize);
-      sizes.remove(smaller);
+      parent[smaller] = larger;
+      sizes[larger] += sizes[smaller];
+      setCount--;
     }
 
     int getSetCount() {
-      // `sizes` only contains values for the root of the trees,
-      // so its size matches the total number of sets
-      return sizes.size();
+      return setCount;
     }
   }
 
-  static class PartialStmt {
-    @Nonnull final Stmt backingStmt;
-
-    /**
-     * Whether the partial statement refers to only the definitions of the inner statement or only
-     * to the uses.
-     */
-    final boolean isDef;
-
-    PartialStmt(@Nonnull Stmt backingStmt, boolean isDef) {
-      this.backingStmt = backingStmt;
-      this.isDef = isDef;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-
-      PartialStmt that = (PartialStmt) o;
-
-      if (isDef != that.isDef) {
-        return false;
-      }
-      return backingStmt.equals(that.backingStmt);
-    }
-
-    @Override
-    public int hashCode() {
-      int result = backingStmt.hashCode();
-      result = 31 * result + (isDef ? 1 : 0);
-      return result;
-    }
+  /**
+   * Returns the node of the definitions or of the uses of the Stmt with the given number. A
+   * statement might contain both a definition and use of a local, and they need to be processed
+   * separately.
+   */
+  private static int partialStmt(int stmtNumber, boolean isDef) {
+    return 2 * stmtNumber + (isDef ? 1 : 0);
   }
 
   @Override
@@ -199,54 +187,80 @@ public class LocalSplitter implements BodyInterceptor {
     // Contains indices to the above list to reduce bookkeeping when modifying stmts.
     Map<Local, List<Integer>> assignmentsByLocal = groupAssignmentsByLocal(stmts);
 
+    // The walks and the splitting of every local work on the numbered stmts of the unmodified
+    // graph: splitting a local does not change the uses and definitions of the other locals, so
+    // the modified stmts are only replaced in the graph after all locals have been split.
+    StmtGraphNumbering numbering = graph.getNumbering();
+    int stmtCount = numbering.getStmtCount();
+    int[] numberOfIndex = new int[stmts.size()];
+    for (int i = 0; i < numberOfIndex.length; i++) {
+      numberOfIndex[i] = numbering.getNumber(stmts.get(i));
+    }
+    int[][] successors = new int[stmtCount][];
+    Local[][] usedLocals = new Local[stmtCount][];
+    Local[] definedLocals = new Local[stmtCount];
+    for (int number = 0; number < stmtCount; number++) {
+      Stmt stmt = numbering.getStmt(number);
+      successors[number] =
+          graph.getAllSuccessors(stmt).stream().mapToInt(numbering::getNumber).toArray();
+      usedLocals[number] = stmt.getUses().filter(Local.class::isInstance).toArray(Local[]::new);
+      Optional<LValue> defOpt = stmt.getDef();
+      if (defOpt.isPresent() && defOpt.get() instanceof Local) {
+        definedLocals[number] = (Local) defOpt.get();
+      }
+    }
+    List<Stmt> originalStmts = new ArrayList<>(stmts);
+
+    // reused for every local
+    DisjointSetForest disjointSet = new DisjointSetForest(2 * stmtCount);
+    // the walk with the number n has visited the stmts marked with n
+    int[] visited = new int[stmtCount];
+    int walk = 0;
+    IntStack stack = new IntStack();
+
     Set<Local> newLocals = new HashSet<>();
 
     final Set<Local> locals = builder.getLocals();
     for (Local local : locals) {
-      // Use a disjoint set while walking the statement graph to union all uses of the local that
-      // can be reached from each definition. This will automatically union definitions that have
-      // overlapping uses and therefore can't be split.
-      // It uses a `PartialStmt` instead of `Stmt` because a statement might contain both a
-      // definition and use of a local, and they need to be processed separately.
-      DisjointSetForest<PartialStmt> disjointSet = new DisjointSetForest<>();
-
-      List<AbstractDefinitionStmt> assignments =
-          assignmentsByLocal.getOrDefault(local, Collections.emptyList()).stream()
-              .map(i -> (AbstractDefinitionStmt) stmts.get(i))
-              .collect(Collectors.toList());
-
+      List<Integer> assignments = assignmentsByLocal.getOrDefault(local, Collections.emptyList());
       if (assignments.size() <= 1) {
         // There is only a single assignment to the local, so no splitting is necessary
         newLocals.add(local);
         continue;
       }
 
+      // Use a disjoint set while walking the statement graph to union all uses of the local that
+      // can be reached from each definition. This will automatically union definitions that have
+      // overlapping uses and therefore can't be split.
+      disjointSet.clear();
+
       // Walk the statement graph starting from every definition and union all uses until a
       // different definition is encountered.
-      for (AbstractDefinitionStmt assignment : assignments) {
-        PartialStmt defStmt = new PartialStmt(assignment, true);
+      for (int index : assignments) {
+        int assignmentNumber = numberOfIndex[index];
+        int defStmt = partialStmt(assignmentNumber, true);
         disjointSet.add(defStmt);
 
-        Deque<Stmt> stack = new ArrayDeque<>(graph.getAllSuccessors(assignment));
-        Set<Stmt> visited = new HashSet<>();
+        walk++;
+        stack.pushAll(successors[assignmentNumber]);
 
         while (!stack.isEmpty()) {
-          Stmt stmt = stack.pop();
-          if (!visited.add(stmt)) {
+          int stmtNumber = stack.pop();
+          if (visited[stmtNumber] == walk) {
             continue;
           }
+          visited[stmtNumber] = walk;
 
-          if (stmt.getUses().anyMatch(l -> l == local)) {
-            PartialStmt useStmt = new PartialStmt(stmt, false);
+          if (uses(usedLocals[stmtNumber], local)) {
+            int useStmt = partialStmt(stmtNumber, false);
             disjointSet.add(useStmt);
             disjointSet.union(defStmt, useStmt);
           }
 
           // a new assignment to the local -> end walk here
           // otherwise continue by adding all successors to the stack
-          Optional<LValue> defOpt = stmt.getDef();
-          if (!defOpt.isPresent() || defOpt.get() != local) {
-            stack.addAll(graph.getAllSuccessors(stmt));
+          if (definedLocals[stmtNumber] != local) {
+            stack.pushAll(successors[stmtNumber]);
           }
         }
       }
@@ -258,10 +272,10 @@ public class LocalSplitter implements BodyInterceptor {
       }
 
       // Split locals, according to the disjoint sets found above.
-      Map<PartialStmt, Local> representativeToNewLocal = new HashMap<>();
+      Map<Integer, Local> representativeToNewLocal = new HashMap<>();
       final int[] nextId = {0}; // Java quirk; just an `int` doesn't work
 
-      Function<PartialStmt, Local> getNewLocal =
+      IntFunction<Local> getNewLocal =
           partialStmt ->
               representativeToNewLocal.computeIfAbsent(
                   disjointSet.find(partialStmt),
@@ -274,16 +288,17 @@ public class LocalSplitter implements BodyInterceptor {
                   });
 
       for (int i = 0; i < stmts.size(); i++) {
-        Stmt stmt = stmts.get(i);
-
-        Optional<LValue> stmtDef = stmt.getDef();
-        boolean localIsDef = stmtDef.isPresent() && stmtDef.get() == local;
-        boolean localIsUse = stmt.getUses().anyMatch(l -> l == local);
+        int stmtNumber = numberOfIndex[i];
+        boolean localIsDef = definedLocals[stmtNumber] == local;
+        boolean localIsUse = uses(usedLocals[stmtNumber], local);
+        if (!localIsDef && !localIsUse) {
+          continue;
+        }
 
-        Stmt oldStmt = stmt;
+        Stmt stmt = stmts.get(i);
 
         if (localIsDef) {
-          Local newDefLocal = getNewLocal.apply(new PartialStmt(oldStmt, true));
+          Local newDefLocal = getNewLocal.apply(partialStmt(stmtNumber, true));
           if (local != newDefLocal) {
             newLocals.add(newDefLocal);
             stmt = ((AbstractDefinitionStmt) stmt).withNewDef(newDefLocal);
@@ -291,25 +306,56 @@ public class LocalSplitter implements BodyInterceptor {
         }
 
         if (localIsUse) {
-          Local newUseLocal = getNewLocal.apply(new PartialStmt(oldStmt, false));
+          Local newUseLocal = getNewLocal.apply(partialStmt(stmtNumber, false));
           if (local != newUseLocal) {
             newLocals.add(newUseLocal);
             stmt = stmt.withNewUse(local, newUseLocal);
           }
         }
 
-        if (oldStmt == stmt) {
-          continue;
-        }
-
-        graph.replaceNode(oldStmt, stmt);
         stmts.set(i, stmt);
       }
     }
 
+    for (int i = 0; i < stmts.size(); i++) {
+      if (stmts.get(i) != originalStmts.get(i)) {
+        graph.replaceNode(originalStmts.get(i), stmts.get(i));
+      }
+    }
     builder.setLocals(newLocals);
   }
 
+  private static boolean uses(@Nonnull Local[] usedLocals, @Nonnull Local local) {
+    for (Local usedLocal : usedLocals) {
+      if (usedLocal == local) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** A growable stack of stmt numbers. */
+  private static class IntStack {
+    private int[] elements = new int[16];
+    private int size = 0;
+
+    void pushAll(@Nonnull int[] numbers) {
+      if (size + numbers.length > elements.length) {
+        elements = Arrays.copyOf(elements, Math.max(2 * elements.length, size + numbers.length));
+      }
+      System.arraycopy(numbers, 0, elements, size, numbers.length);
+      size += numbers.length;
+    }
+
+    int pop() {
+      return elements[--size];
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+  }
+
   @Nonnull
   Map<Local, List<Integer>> groupAssignmentsByLocal(List<Stmt> statements) {
     Map<Local, List<Integer>> groupings = new HashMap<>();
@@ -331,4 +377,10 @@ public class LocalSplitter implements BodyInterceptor {
 
     return groupings;
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
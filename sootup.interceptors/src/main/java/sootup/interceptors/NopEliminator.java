@@ -59,4 +59,10 @@ public class NopEliminator implements BodyInterceptor {
       graph.removeNode(stmt);
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
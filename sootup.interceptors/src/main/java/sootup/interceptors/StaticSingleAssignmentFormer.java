@@ -29,8 +29,10 @@ import sootup.core.graph.BasicBlock;
 import sootup.core.graph.DominanceFinder;
 import sootup.core.graph.DominanceTree;
 import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.StmtGraphNumbering;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.LocalNumbering;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.JPhiExpr;
@@ -60,32 +62,35 @@ public class StaticSingleAssignmentFormer implements BodyInterceptor {
 
     MutableStmtGraph stmtGraph = builder.getStmtGraph();
 
-    // Keys: all blocks in BlockGraph. Values: a set of locals which defined in the corresponding
-    // block
-    Map<BasicBlock<?>, Set<Local>> blockToDefs = new HashMap<>();
+    // the numbers are taken before phiStmts are added to the graph
+    StmtGraphNumbering numbering = stmtGraph.getNumbering();
+    LocalNumbering localNumbering = builder.getLocalNumbering();
 
-    // Keys: all locals in BodyBuilder. Values: a set of blocks which contains stmts with
-    // corresponding local's def.
-    Map<Local, Set<BasicBlock<?>>> localToBlocks = new HashMap<>();
+    // Indices: numbers of all blocks in BlockGraph. Values: the numbers of the locals which are
+    // defined in the corresponding block
+    BitSet[] blockToDefs = new BitSet[numbering.getBlockCount()];
+
+    // Indices: numbers of all locals in BodyBuilder. Values: the numbers of the blocks which
+    // contain stmts with corresponding local's def.
+    BitSet[] localToBlocks = new BitSet[localNumbering.getLocalCount()];
+    for (int localNumber = 0; localNumber < localToBlocks.length; localNumber++) {
+      localToBlocks[localNumber] = new BitSet(blockToDefs.length);
+    }
 
     // determine blockToDefs and localToBlocks by iterating all blocks.
-    for (BasicBlock<?> block : stmtGraph.getBlocks()) {
-      Set<Local> defs = new HashSet<>();
-      for (Stmt stmt : block.getStmts()) {
+    for (int blockNumber = 0; blockNumber < blockToDefs.length; blockNumber++) {
+      BitSet defs = new BitSet(localToBlocks.length);
+      for (Stmt stmt : numbering.getBlock(blockNumber).getStmts()) {
         Optional<LValue> defOpt = stmt.getDef();
-        if (defOpt.isPresent() && defOpt.get() instanceof Local) {
-          Local local = (Local) defOpt.get();
-          defs.add(local);
-          if (localToBlocks.containsKey(local)) {
-            localToBlocks.get(local).add(block);
-          } else {
-            Set<BasicBlock<?>> bs = new HashSet<>();
-            bs.add(block);
-            localToBlocks.put(local, bs);
+        if (defOpt.isPresent()) {
+          int localNumber = localNumbering.getNumberOf(defOpt.get());
+          if (localNumber >= 0) {
+            defs.set(localNumber);
+            localToBlocks[localNumber].set(blockNumber);
           }
         }
       }
-      blockToDefs.put(block, defs);
+      blockToDefs[blockNumber] = defs;
     }
 
     DominanceFinder dominanceFinder = new DominanceFinder(stmtGraph);
@@ -94,10 +99,11 @@ public class StaticSingleAssignmentFormer implements BodyInterceptor {
     // key: Block which contains phiStmts. Values : a set of phiStmts which contained by
     // corresponding Block
     Map<BasicBlock<?>, Set<FallsThroughStmt>> blockToPhiStmts =
-        decideBlockToPhiStmts(builder, dominanceFinder, blockToDefs, localToBlocks);
+        decideBlockToPhiStmts(
+            numbering, localNumbering, dominanceFinder, blockToDefs, localToBlocks);
 
     // delete meaningless phiStmts and add other phiStmts into stmtGraph
-    addPhiStmts(blockToPhiStmts, stmtGraph, blockToDefs);
+    addPhiStmts(blockToPhiStmts, stmtGraph, numbering, localNumbering, blockToDefs);
 
     DominanceTree tree = new DominanceTree(dominanceFinder);
 
@@ -201,54 +207,52 @@ public class StaticSingleAssignmentFormer implements BodyInterceptor {
    * This method is used to decide which block should add phiStmts. Note: some phiStmts maybe
    * contain just one argument, it should be not added into StmtGraph
    *
+   * @param numbering the numbering of the blocks of the graph
+   * @param localNumbering the numbering of the locals of the body
    * @param dominanceFinder an object of DomimanceFinder, it should be created by the given
    *     blockGraph
-   * @param blockToDefs maps each block to the set of defs' local in itself
-   * @param localToBlocks maps each def local to the set of blocks where it is defined.
+   * @param blockToDefs maps each block number to the numbers of the defs' locals in itself
+   * @param localToBlocks maps each local number to the numbers of the blocks where it is defined.
    * @return a map, key: block, value: a set of phiStmts that are added in front of the
    *     corresponding block
    */
   private Map<BasicBlock<?>, Set<FallsThroughStmt>> decideBlockToPhiStmts(
-      Body.BodyBuilder builder,
+      StmtGraphNumbering numbering,
+      LocalNumbering localNumbering,
       DominanceFinder dominanceFinder,
-      Map<BasicBlock<?>, Set<Local>> blockToDefs,
-      Map<Local, Set<BasicBlock<?>>> localToBlocks) {
+      BitSet[] blockToDefs,
+      BitSet[] localToBlocks) {
     Map<BasicBlock<?>, Set<FallsThroughStmt>> blockToPhiStmts = new HashMap<>();
-    Map<BasicBlock<?>, Set<Local>> blockToPhiLocals = new HashMap<>();
-    Map<Local, Set<BasicBlock<?>>> localToPhiBlocks = new HashMap<>();
+    BitSet[] blockToPhiLocals = new BitSet[blockToDefs.length];
 
-    for (Local local : builder.getLocals()) {
-      localToPhiBlocks.put(local, new HashSet<>());
-      Deque<BasicBlock<?>> blocks = new ArrayDeque<>(localToBlocks.get(local));
+    for (int localNumber = 0; localNumber < localToBlocks.length; localNumber++) {
+      Local local = localNumbering.getLocal(localNumber);
+      BitSet phiBlocks = new BitSet(blockToDefs.length);
+      Deque<Integer> blocks = new ArrayDeque<>();
+      localToBlocks[localNumber].stream().forEach(blocks::add);
       while (!blocks.isEmpty()) {
-        BasicBlock<?> block = blocks.removeFirst();
+        BasicBlock<?> block = numbering.getBlock(blocks.removeFirst());
         Set<BasicBlock<?>> dfs = dominanceFinder.getDominanceFrontiers(block);
         // Only dominance frontiers of a block can add a phiStmt
         for (BasicBlock<?> df : dfs) {
-          final Set<BasicBlock<?>> basicBlocks = localToPhiBlocks.get(local);
-          if (!basicBlocks.contains(df)) {
-            basicBlocks.add(df);
+          int dfNumber = numbering.getBlockNumber(df);
+          if (!phiBlocks.get(dfNumber)) {
+            phiBlocks.set(dfNumber);
 
             // create an empty phiStmt
             JAssignStmt phiStmt = createEmptyPhiStmt(local);
 
             // store phiStmt into map
-            if (blockToPhiStmts.containsKey(df)) {
-              blockToPhiStmts.get(df).add(phiStmt);
-              blockToPhiLocals.get(df).add(local);
-            } else {
-              Set<FallsThroughStmt> phiStmts = new LinkedHashSet<>();
-              phiStmts.add(phiStmt);
-              blockToPhiStmts.put(df, phiStmts);
-              Set<Local> phiLocals = new HashSet<>();
-              phiLocals.add(local);
-              blockToPhiLocals.put(df, phiLocals);
+            blockToPhiStmts.computeIfAbsent(df, key -> new LinkedHashSet<>()).add(phiStmt);
+            if (blockToPhiLocals[dfNumber] == null) {
+              blockToPhiLocals[dfNumber] = new BitSet(localToBlocks.length);
             }
+            blockToPhiLocals[dfNumber].set(localNumber);
 
             // if the dominance frontier contains no such local, its dominance frontier should add a
             // phiStmt, so add it into queue
-            if (!blockToDefs.get(df).contains(local)) {
-              blocks.add(df);
+            if (!blockToDefs[dfNumber].get(localNumber)) {
+              blocks.add(dfNumber);
             }
           }
         }
@@ -256,8 +260,10 @@ public class StaticSingleAssignmentFormer implements BodyInterceptor {
     }
 
     // if a block has a phiStmt, the local of the phiStmt should be added into blockToDefs
-    for (BasicBlock<?> block : blockToPhiLocals.keySet()) {
-      blockToDefs.get(block).addAll(blockToPhiLocals.get(block));
+    for (int blockNumber = 0; blockNumber < blockToDefs.length; blockNumber++) {
+      if (blockToPhiLocals[blockNumber] != null) {
+        blockToDefs[blockNumber].or(blockToPhiLocals[blockNumber]);
+      }
     }
     return blockToPhiStmts;
   }
@@ -269,26 +275,31 @@ public class StaticSingleAssignmentFormer implements BodyInterceptor {
    * @param blockToPhiStmts a map, key: block, value: a set of phiStmts that are added in front of
    *     the corresponding block
    * @param blockGraph blockGraph where the phiStmt should be added
-   * @param blockToDefs maps each block to the set of defs' local in itself
+   * @param numbering the numbering of the blocks of blockGraph before any phiStmt is added
+   * @param localNumbering the numbering of the locals of the body
+   * @param blockToDefs maps each block number to the numbers of the defs' locals in itself
    */
   private void addPhiStmts(
       Map<BasicBlock<?>, Set<FallsThroughStmt>> blockToPhiStmts,
       MutableStmtGraph blockGraph,
-      Map<BasicBlock<?>, Set<Local>> blockToDefs) {
+      StmtGraphNumbering numbering,
+      LocalNumbering localNumbering,
+      BitSet[] blockToDefs) {
 
     // key: phiStmt  value: size of phiStmt's arguments
     Map<Stmt, Integer> phiToNum = new HashMap<>();
 
     // determine the arguments' size of each phiStmt
-    for (BasicBlock<?> block : blockGraph.getBlocks()) {
+    for (int blockNumber = 0; blockNumber < blockToDefs.length; blockNumber++) {
+      BasicBlock<?> block = numbering.getBlock(blockNumber);
       List<BasicBlock<?>> succs = new ArrayList<>(block.getSuccessors());
       succs.addAll(block.getExceptionalSuccessors().values());
 
       for (BasicBlock<?> succ : succs) {
         if (blockToPhiStmts.containsKey(succ)) {
           for (Stmt phi : blockToPhiStmts.get(succ)) {
-            Local local = (Local) phi.getDef().get();
-            if (blockToDefs.get(block).contains(local)) {
+            int localNumber = localNumbering.getNumberOf(phi.getDef().get());
+            if (blockToDefs[blockNumber].get(localNumber)) {
               if (phiToNum.containsKey(phi)) {
                 int num = phiToNum.get(phi);
                 phiToNum.replace(phi, num + 1);
@@ -376,4 +387,10 @@ public class StaticSingleAssignmentFormer implements BodyInterceptor {
     }
     return newPhiStmt;
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -167,4 +167,10 @@ public class TrapTightener implements BodyInterceptor {
     }
     return false;
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
@@ -21,6 +21,7 @@ package sootup.interceptors;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
@@ -41,4 +42,10 @@ public class TypeAssigner implements BodyInterceptor {
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     new TypeResolver((JavaView) view).resolve(builder);
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
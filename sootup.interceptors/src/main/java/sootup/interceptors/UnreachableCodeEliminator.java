@@ -75,4 +75,10 @@ public class UnreachableCodeEliminator implements BodyInterceptor {
       builder.removeDefLocalsOf(stmt);
     }
   }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName());
+  }
 }
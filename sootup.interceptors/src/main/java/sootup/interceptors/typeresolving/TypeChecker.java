@@ -27,6 +27,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.graph.DefUseIndex;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.basic.LValue;
 import sootup.core.jimple.basic.Local;
@@ -108,22 +109,18 @@ public abstract class TypeChecker extends AbstractStmtVisitor {
         // allocation site.
         if (Type.isObjectLikeType(type_base)
             || (Type.isObject(type_base) && type_rhs instanceof PrimitiveType)) {
-          Map<LValue, Collection<Stmt>> defs = Body.collectDefs(graph.getNodes());
-          Collection<Stmt> defStmts = defs.get(base);
           boolean findDef = false;
-          if (defStmts != null) {
-            for (Stmt defStmt : defStmts) {
-              if (defStmt instanceof JAssignStmt) {
-                Value arrExpr = ((JAssignStmt) defStmt).getRightOp();
-                if (arrExpr instanceof JNewArrayExpr) {
-                  arrayType = (ArrayType) arrExpr.getType();
-                  findDef = true;
-                  break;
-                } else if (arrExpr instanceof JNewMultiArrayExpr) {
-                  arrayType = ((JNewMultiArrayExpr) arrExpr).getBaseType();
-                  findDef = true;
-                  break;
-                }
+          for (Stmt defStmt : graph.getDefUseIndex().getDefsOf(base)) {
+            if (defStmt instanceof JAssignStmt) {
+              Value arrExpr = ((JAssignStmt) defStmt).getRightOp();
+              if (arrExpr instanceof JNewArrayExpr) {
+                arrayType = (ArrayType) arrExpr.getType();
+                findDef = true;
+                break;
+              } else if (arrExpr instanceof JNewMultiArrayExpr) {
+                arrayType = ((JNewMultiArrayExpr) arrExpr).getBaseType();
+                findDef = true;
+                break;
               }
             }
           }
@@ -171,7 +168,7 @@ public abstract class TypeChecker extends AbstractStmtVisitor {
         arrayType = (ArrayType) type_base;
       } else {
         if (type_base instanceof NullType || Type.isObjectLikeType(type_base)) {
-          Map<LValue, Collection<Stmt>> defs = Body.collectDefs(graph.getNodes());
+          DefUseIndex defUseIndex = graph.getDefUseIndex();
           Deque<StmtLocalPair> worklist = new ArrayDeque<>();
           Set<StmtLocalPair> visited = new HashSet<>();
           worklist.add(new StmtLocalPair(stmt, base));
@@ -181,7 +178,7 @@ public abstract class TypeChecker extends AbstractStmtVisitor {
             if (!visited.add(pair)) {
               continue;
             }
-            Collection<Stmt> stmts = defs.get(pair.getLocal());
+            Collection<Stmt> stmts = defUseIndex.getDefsOf(pair.getLocal());
             for (Stmt s : stmts) {
               if (s instanceof JAssignStmt) {
                 Value value = ((JAssignStmt) s).getRightOp();
@@ -32,6 +32,7 @@ import sootup.core.IdentifierFactory;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.LocalNumbering;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.AbstractBinopExpr;
 import sootup.core.jimple.common.expr.JCastExpr;
@@ -53,7 +54,10 @@ import sootup.java.core.views.JavaView;
 /** @author Zun Wang Algorithm: see 'Efficient Local Type Inference' at OOPSLA 08 */
 public class TypeResolver {
   private final ArrayList<AbstractDefinitionStmt> assignments = new ArrayList<>();
-  private final Map<Local, BitSet> depends = new HashMap<>();
+  /** the ids of the assignments that depend on a Local, indexed by the number of the Local */
+  private BitSet[] depends;
+
+  private LocalNumbering localNumbering;
   private final JavaView view;
 
   private final Type objectType;
@@ -118,6 +122,8 @@ public class TypeResolver {
 
   /** find all definition assignments, add all locals at right-hand-side into the map depends */
   private void init(Body.BodyBuilder builder) {
+    localNumbering = builder.getLocalNumbering();
+    depends = new BitSet[localNumbering.getLocalCount()];
     for (Stmt stmt : builder.getStmtGraph()) {
       if (!(stmt instanceof AbstractDefinitionStmt)) {
         continue;
@@ -161,7 +167,16 @@ public class TypeResolver {
   }
 
   private void addDependency(@Nonnull Local local, int id) {
-    BitSet bitSet = depends.computeIfAbsent(local, k -> new BitSet());
+    int localNumber = localNumbering.getNumber(local);
+    if (localNumber < 0) {
+      // a Local that is not declared in the Body is not typed and its dependencies are not needed
+      return;
+    }
+    BitSet bitSet = depends[localNumber];
+    if (bitSet == null) {
+      bitSet = new BitSet();
+      depends[localNumber] = bitSet;
+    }
     bitSet.set(id);
   }
 
@@ -263,7 +278,8 @@ public class TypeResolver {
       boolean isFirstType = true;
       for (Type type : leastCommonAncestors) {
         if (!type.equals(oldType)) {
-          BitSet dependStmtList = this.depends.get(local);
+          int localNumber = localNumbering.getNumber(local);
+          BitSet dependStmtList = localNumber < 0 ? null : this.depends[localNumber];
           // Up to now there's no ambiguity of types
           if (isFirstType) {
             isFirstType = false;
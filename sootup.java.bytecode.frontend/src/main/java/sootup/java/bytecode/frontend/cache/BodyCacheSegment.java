@@ -0,0 +1,397 @@
+package sootup.java.bytecode.frontend.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * The part of a {@link PersistentBodyCache} that belongs to one input (e.g. a jar file) and one
+ * BodyInterceptor chain. Bodies are keyed by the hash of the bytes of their class file and their
+ * method subsignature.
+ *
+ * <p>Persisted Bodies are read from a memory-mapped file and decoded on request; Bodies that are
+ * added during a run are kept in memory until {@link #flush()} writes a new file and atomically
+ * replaces the old one. A class whose Bodies are all persisted is "complete": the frontend can skip
+ * reading its bytecode instructions.
+ *
+ * <p>File layout: magic, codec version, the complete classes, an index of (class hash,
+ * subsignature, offset, length, checksum) entries and finally the encoded Bodies.
+ */
+public final class BodyCacheSegment {
+
+  private static final @Nonnull Logger logger = LoggerFactory.getLogger(BodyCacheSegment.class);
+
+  private static final int MAGIC = 0x53554243;
+  private static final int HASH_BYTES = 16;
+
+  @Nonnull private final Path file;
+  @Nonnull private volatile Snapshot persisted;
+  @Nonnull private final Map<Key, byte[]> added = new ConcurrentHashMap<>();
+  @Nonnull private final Map<HashCode, Integer> expectedBodyCount = new ConcurrentHashMap<>();
+  @Nonnull private final LongAdder hits = new LongAdder();
+  @Nonnull private final LongAdder misses = new LongAdder();
+
+  BodyCacheSegment(@Nonnull Path file) {
+    this.file = file;
+    this.persisted = Snapshot.load(file);
+  }
+
+  /** hashes the contents of a class file to identify its Bodies in the cache. */
+  @Nonnull
+  public static HashCode hashClass(@Nonnull byte[] classBytes) {
+    return Hashing.murmur3_128().hashBytes(classBytes);
+  }
+
+  @Nonnull
+  public CachedClass getCachedClass(@Nonnull HashCode classHash) {
+    return new CachedClass(classHash, persisted.completeClasses.contains(classHash));
+  }
+
+  @Nonnull
+  public Path getFile() {
+    return file;
+  }
+
+  /** @return the number of Bodies that were served from this segment. */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return the number of requested Bodies that were not in this segment. */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return the number of Bodies in this segment, including the ones not flushed yet. */
+  public int size() {
+    int size = persisted.entries.size();
+    for (Key key : added.keySet()) {
+      if (!persisted.entries.containsKey(key)) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * writes the Bodies that were added since the last flush to disk. The file is replaced
+   * atomically, so concurrent readers (i.e. other processes) never see a partially written file.
+   */
+  public synchronized void flush() throws IOException {
+    if (added.isEmpty()) {
+      return;
+    }
+    Snapshot snapshot = persisted;
+    Map<Key, byte[]> toWrite = new HashMap<>(added);
+
+    // all entries sorted by class, so a class is read from a compact range
+    SortedMap<Key, ByteBuffer> entries = new TreeMap<>();
+    snapshot.entries.forEach((key, location) -> entries.put(key, snapshot.slice(location)));
+    toWrite.forEach((key, bytes) -> entries.put(key, ByteBuffer.wrap(bytes)));
+
+    Map<HashCode, Integer> bodyCount = new HashMap<>();
+    for (Key key : entries.keySet()) {
+      bodyCount.merge(key.classHash, 1, Integer::sum);
+    }
+    Set<HashCode> completeClasses = new HashSet<>(snapshot.completeClasses);
+    expectedBodyCount.forEach(
+        (classHash, expected) -> {
+          if (bodyCount.getOrDefault(classHash, 0) >= expected) {
+            completeClasses.add(classHash);
+          }
+        });
+
+    Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream os = Files.newOutputStream(tmpFile);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 1 << 16))) {
+        out.writeInt(MAGIC);
+        out.writeInt(BodyCodec.VERSION);
+        out.writeInt(completeClasses.size());
+        for (HashCode classHash : completeClasses) {
+          out.write(classHash.asBytes());
+        }
+        out.writeInt(entries.size());
+        int offset = 0;
+        for (Map.Entry<Key, ByteBuffer> entry : entries.entrySet()) {
+          out.write(entry.getKey().classHash.asBytes());
+          byte[] subSignature = entry.getKey().subSignature.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(subSignature.length);
+          out.write(subSignature);
+          ByteBuffer body = entry.getValue();
+          out.writeInt(offset);
+          out.writeInt(body.remaining());
+          out.writeInt(checksum(body));
+          offset += body.remaining();
+        }
+        for (ByteBuffer body : entries.values()) {
+          byte[] bytes = new byte[body.remaining()];
+          body.get(bytes);
+          out.write(bytes);
+        }
+      }
+      try {
+        Files.move(
+            tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+
+    persisted = Snapshot.load(file);
+    // Bodies added while flushing stay for the next flush
+    toWrite.forEach(added::remove);
+  }
+
+  @Nullable
+  private Body getBody(@Nonnull Key key, @Nonnull MethodSignature methodSignature) {
+    ByteBuffer encodedBody;
+    byte[] addedBody = added.get(key);
+    if (addedBody != null) {
+      encodedBody = ByteBuffer.wrap(addedBody);
+    } else {
+      Snapshot snapshot = persisted;
+      Location location = snapshot.entries.get(key);
+      if (location == null) {
+        misses.increment();
+        return null;
+      }
+      encodedBody = snapshot.slice(location);
+      if (checksum(encodedBody) != location.checksum) {
+        logger.warn("Cached Body of " + methodSignature + " in " + file + " is damaged.");
+        misses.increment();
+        return null;
+      }
+    }
+
+    try {
+      Body body = BodyCodec.decode(encodedBody, methodSignature);
+      hits.increment();
+      return body;
+    } catch (RuntimeException e) {
+      // e.g. BufferUnderflowException or ClassCastException for a damaged file: rebuild the Body
+      logger.warn("Could not decode cached Body of " + methodSignature + " from " + file, e);
+      misses.increment();
+      return null;
+    }
+  }
+
+  private static int checksum(@Nonnull ByteBuffer buffer) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate());
+    return (int) crc.getValue();
+  }
+
+  private void putBody(@Nonnull Key key, @Nonnull Body body) {
+    try {
+      added.put(key, BodyCodec.encode(body));
+    } catch (IllegalArgumentException e) {
+      logger.debug("Body of {} is not cached: {}", body.getMethodSignature(), e.getMessage());
+    }
+  }
+
+  /** The view of a segment on the Bodies of a single class file. */
+  public final class CachedClass {
+    @Nonnull private final HashCode classHash;
+    private final boolean complete;
+
+    private CachedClass(@Nonnull HashCode classHash, boolean complete) {
+      this.classHash = classHash;
+      this.complete = complete;
+    }
+
+    /**
+     * @return true if every Body of this class file is cached i.e. its bytecode instructions don't
+     *     need to be read.
+     */
+    public boolean isComplete() {
+      return complete;
+    }
+
+    /**
+     * registers how many Bodies the class file contains, so the class can be marked as complete
+     * once all of them are cached.
+     */
+    public void setBodyCount(int bodyCount) {
+      expectedBodyCount.put(classHash, bodyCount);
+    }
+
+    @Nonnull
+    public Optional<Body> getBody(@Nonnull MethodSignature methodSignature) {
+      return Optional.ofNullable(
+          BodyCacheSegment.this.getBody(
+              new Key(classHash, methodSignature.getSubSignature().toString()), methodSignature));
+    }
+
+    public void putBody(@Nonnull Body body) {
+      MethodSignature methodSignature = body.getMethodSignature();
+      BodyCacheSegment.this.putBody(
+          new Key(classHash, methodSignature.getSubSignature().toString()), body);
+    }
+  }
+
+  private static final class Key implements Comparable<Key> {
+    @Nonnull private final HashCode classHash;
+    @Nonnull private final String subSignature;
+
+    private Key(@Nonnull HashCode classHash, @Nonnull String subSignature) {
+      this.classHash = classHash;
+      this.subSignature = subSignature;
+    }
+
+    @Override
+    public int compareTo(@Nonnull Key o) {
+      int cmp = classHash.toString().compareTo(o.classHash.toString());
+      return cmp != 0 ? cmp : subSignature.compareTo(o.subSignature);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return classHash.equals(key.classHash) && subSignature.equals(key.subSignature);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * classHash.hashCode() + subSignature.hashCode();
+    }
+  }
+
+  /** the immutable, memory-mapped state of the segment file. */
+  private static final class Snapshot {
+    private static final Snapshot EMPTY =
+        new Snapshot(null, 0, Collections.emptySet(), Collections.emptyMap());
+
+    @Nullable private final MappedByteBuffer data;
+    private final int dataStart;
+    @Nonnull private final Set<HashCode> completeClasses;
+    @Nonnull private final Map<Key, Location> entries;
+
+    private Snapshot(
+        @Nullable MappedByteBuffer data,
+        int dataStart,
+        @Nonnull Set<HashCode> completeClasses,
+        @Nonnull Map<Key, Location> entries) {
+      this.data = data;
+      this.dataStart = dataStart;
+      this.completeClasses = completeClasses;
+      this.entries = entries;
+    }
+
+    @Nonnull
+    static Snapshot load(@Nonnull Path file) {
+      if (!Files.isRegularFile(file)) {
+        return EMPTY;
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        // the mapping stays valid after the channel is closed
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (data.getInt() != MAGIC || data.getInt() != BodyCodec.VERSION) {
+          logger.warn("Ignoring incompatible body cache file " + file);
+          return EMPTY;
+        }
+        int classCount = data.getInt();
+        Set<HashCode> completeClasses = new HashSet<>(classCount);
+        for (int i = 0; i < classCount; i++) {
+          completeClasses.add(readHash(data));
+        }
+        int entryCount = data.getInt();
+        Map<Key, Location> entries = new HashMap<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+          HashCode classHash = readHash(data);
+          byte[] subSignature = new byte[data.getInt()];
+          data.get(subSignature);
+          entries.put(
+              new Key(classHash, new String(subSignature, StandardCharsets.UTF_8)),
+              new Location(data.getInt(), data.getInt(), data.getInt()));
+        }
+        return new Snapshot(data, data.position(), completeClasses, entries);
+      } catch (IOException | BufferUnderflowException e) {
+        logger.warn("Ignoring unreadable body cache file " + file, e);
+        return EMPTY;
+      }
+    }
+
+    private static HashCode readHash(ByteBuffer data) {
+      byte[] hash = new byte[HASH_BYTES];
+      data.get(hash);
+      return HashCode.fromBytes(hash);
+    }
+
+    /** @return a buffer of its own (i.e. safe to use concurrently) that contains a single Body */
+    @Nonnull
+    ByteBuffer slice(@Nonnull Location location) {
+      ByteBuffer buffer = Objects.requireNonNull(data).duplicate();
+      int offset = dataStart + location.offset;
+      buffer.position(offset);
+      buffer.limit(offset + location.length);
+      return buffer;
+    }
+  }
+
+  /** where an encoded Body is stored in the segment file. */
+  private static final class Location {
+    private final int offset;
+    private final int length;
+    private final int checksum;
+
+    private Location(int offset, int length, int checksum) {
+      this.offset = offset;
+      this.length = length;
+      this.checksum = checksum;
+    }
+  }
+}
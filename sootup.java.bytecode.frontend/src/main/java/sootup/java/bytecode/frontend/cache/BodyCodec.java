@@ -0,0 +1,987 @@
+package sootup.java.bytecode.frontend.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableBasicBlock;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.*;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.jimple.basic.JavaLocal;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+/**
+ * Binary encoding of a {@link Body} as the bytecode frontend produces it i.e. after all {@link
+ * sootup.core.transform.BodyInterceptor}s were applied. Integers are written as varints, strings
+ * and types are pooled per Body and the StmtGraph is stored block-wise so decoding does not need
+ * to rebuild the graph from traps.
+ *
+ * <p>Only the part of Jimple the bytecode frontend creates is supported: {@link #encode(Body)}
+ * throws an {@link IllegalArgumentException} for everything else (e.g. phi expressions) - such a
+ * Body is just not persisted.
+ */
+final class BodyCodec {
+
+  /** needs to be increased whenever the encoding changes as it is part of the cache fingerprint */
+  static final int VERSION = 1;
+
+  private static final JavaIdentifierFactory identifierFactory =
+      JavaIdentifierFactory.getInstance();
+
+  // Stmts
+  private static final int NOP = 0;
+  private static final int IDENTITY = 1;
+  private static final int ASSIGN = 2;
+  private static final int INVOKE = 3;
+  private static final int IF = 4;
+  private static final int GOTO = 5;
+  private static final int TABLE_SWITCH = 6;
+  private static final int LOOKUP_SWITCH = 7;
+  private static final int RETURN = 8;
+  private static final int RETURN_VOID = 9;
+  private static final int THROW = 10;
+  private static final int ENTER_MONITOR = 11;
+  private static final int EXIT_MONITOR = 12;
+  private static final int RET = 13;
+  private static final int BREAKPOINT = 14;
+
+  // Values
+  private static final int LOCAL = 0;
+  private static final int INT_CONSTANT = 1;
+  private static final int LONG_CONSTANT = 2;
+  private static final int FLOAT_CONSTANT = 3;
+  private static final int DOUBLE_CONSTANT = 4;
+  private static final int NULL_CONSTANT = 5;
+  private static final int STRING_CONSTANT = 6;
+  private static final int CLASS_CONSTANT = 7;
+  private static final int METHOD_HANDLE = 8;
+  private static final int METHOD_TYPE = 9;
+  private static final int ENUM_CONSTANT = 10;
+  private static final int BOOLEAN_CONSTANT = 11;
+  private static final int THIS_REF = 12;
+  private static final int PARAMETER_REF = 13;
+  private static final int CAUGHT_EXCEPTION_REF = 14;
+  private static final int ARRAY_REF = 15;
+  private static final int INSTANCE_FIELD_REF = 16;
+  private static final int STATIC_FIELD_REF = 17;
+  private static final int NEW = 18;
+  private static final int NEW_ARRAY = 19;
+  private static final int NEW_MULTI_ARRAY = 20;
+  private static final int CAST = 21;
+  private static final int INSTANCE_OF = 22;
+  private static final int LENGTH = 23;
+  private static final int NEG = 24;
+  private static final int STATIC_INVOKE = 25;
+  private static final int SPECIAL_INVOKE = 26;
+  private static final int VIRTUAL_INVOKE = 27;
+  private static final int INTERFACE_INVOKE = 28;
+  private static final int DYNAMIC_INVOKE = 29;
+  private static final int BINOP = 32;
+
+  private static final List<Class<? extends AbstractBinopExpr>> binops =
+      Arrays.asList(
+          JAddExpr.class,
+          JAndExpr.class,
+          JCmpExpr.class,
+          JCmpgExpr.class,
+          JCmplExpr.class,
+          JDivExpr.class,
+          JEqExpr.class,
+          JGeExpr.class,
+          JGtExpr.class,
+          JLeExpr.class,
+          JLtExpr.class,
+          JMulExpr.class,
+          JNeExpr.class,
+          JOrExpr.class,
+          JRemExpr.class,
+          JShlExpr.class,
+          JShrExpr.class,
+          JSubExpr.class,
+          JUshrExpr.class,
+          JXorExpr.class);
+
+  // Types
+  private static final int PRIMITIVE_TYPE = 0;
+  private static final int CLASS_TYPE = 1;
+  private static final int ARRAY_TYPE = 2;
+  private static final int NULL_TYPE = 3;
+  private static final int VOID_TYPE = 4;
+  private static final int UNKNOWN_TYPE = 5;
+
+  // Positions
+  private static final int NO_POSITION = 0;
+  private static final int LINE_POSITION = 1;
+  private static final int FULL_POSITION = 2;
+
+  private BodyCodec() {}
+
+  /**
+   * @return the encoded Body - the MethodSignature is not part of it, as it is already known when
+   *     the Body is requested.
+   * @throws IllegalArgumentException if the Body contains something that can not be encoded.
+   */
+  @Nonnull
+  static byte[] encode(@Nonnull Body body) {
+    return new Encoder().encodeBody(body);
+  }
+
+  @Nonnull
+  static Body decode(@Nonnull ByteBuffer buffer, @Nonnull MethodSignature methodSignature) {
+    return new Decoder(buffer).decodeBody(methodSignature);
+  }
+
+  private static final class Encoder {
+    private byte[] buffer = new byte[1024];
+    private int size = 0;
+    private final Map<String, Integer> stringPool = new HashMap<>();
+    private final Map<Type, Integer> typePool = new HashMap<>();
+    private final Map<Local, Integer> localIds = new HashMap<>();
+
+    byte[] encodeBody(Body body) {
+      writePosition(body.getPosition());
+
+      writeVarint(body.getLocalCount());
+      for (Local local : body.getLocals()) {
+        localIds.put(local, localIds.size());
+        if (local.getClass() == JavaLocal.class) {
+          if (((JavaLocal) local).getAnnotations().iterator().hasNext()) {
+            throw new IllegalArgumentException("annotated Locals are not supported.");
+          }
+          writeByte(1);
+        } else if (local.getClass() == Local.class) {
+          writeByte(0);
+        } else {
+          throw new IllegalArgumentException("unsupported Local " + local.getClass());
+        }
+        writeString(local.getName());
+        writeType(local.getType());
+      }
+
+      StmtGraph<?> graph = body.getStmtGraph();
+      List<BasicBlock<?>> blocks = new ArrayList<>(graph.getBlocks());
+      Map<BasicBlock<?>, Integer> blockIds = new IdentityHashMap<>();
+      for (BasicBlock<?> block : blocks) {
+        blockIds.put(block, blockIds.size());
+      }
+
+      writeVarint(blocks.size());
+      for (BasicBlock<?> block : blocks) {
+        List<Stmt> stmts = block.getStmts();
+        writeVarint(stmts.size());
+        for (Stmt stmt : stmts) {
+          writeStmt(stmt);
+        }
+      }
+      for (BasicBlock<?> block : blocks) {
+        List<? extends BasicBlock<?>> successors = block.getSuccessors();
+        writeVarint(successors.size());
+        for (BasicBlock<?> successor : successors) {
+          writeVarint(blockIds.get(successor));
+        }
+        Map<? extends ClassType, ? extends BasicBlock<?>> exceptionalSuccessors =
+            block.getExceptionalSuccessors();
+        writeVarint(exceptionalSuccessors.size());
+        for (Map.Entry<? extends ClassType, ? extends BasicBlock<?>> entry :
+            exceptionalSuccessors.entrySet()) {
+          writeType(entry.getKey());
+          writeVarint(blockIds.get(entry.getValue()));
+        }
+      }
+
+      Stmt startingStmt = graph.getStartingStmt();
+      if (startingStmt == null || blocks.isEmpty()) {
+        writeVarint(0);
+      } else {
+        BasicBlock<?> startingBlock = graph.getBlockOf(startingStmt);
+        writeVarint(blockIds.get(startingBlock) + 1);
+        writeVarint(startingBlock.getStmts().indexOf(startingStmt));
+      }
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private void writeStmt(Stmt stmt) {
+      if (stmt instanceof JAssignStmt) {
+        writeByte(ASSIGN);
+        writePositionInfo(stmt);
+        writeValue(((JAssignStmt) stmt).getLeftOp());
+        writeValue(((JAssignStmt) stmt).getRightOp());
+      } else if (stmt instanceof JIdentityStmt) {
+        writeByte(IDENTITY);
+        writePositionInfo(stmt);
+        writeValue(((JIdentityStmt) stmt).getLeftOp());
+        writeValue(((JIdentityStmt) stmt).getRightOp());
+      } else if (stmt instanceof JInvokeStmt) {
+        writeByte(INVOKE);
+        writePositionInfo(stmt);
+        writeValue(((JInvokeStmt) stmt).getInvokeExpr().get());
+      } else if (stmt instanceof JIfStmt) {
+        writeByte(IF);
+        writePositionInfo(stmt);
+        writeValue(((JIfStmt) stmt).getCondition());
+      } else if (stmt instanceof JGotoStmt) {
+        writeByte(GOTO);
+        writePositionInfo(stmt);
+      } else if (stmt instanceof JSwitchStmt) {
+        JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+        List<IntConstant> values = switchStmt.getValues();
+        if (switchStmt.isTableSwitch()) {
+          writeByte(TABLE_SWITCH);
+          writePositionInfo(stmt);
+          writeValue(switchStmt.getKey());
+          writeSignedVarint(values.get(0).getValue());
+          writeSignedVarint(values.get(values.size() - 1).getValue());
+        } else {
+          writeByte(LOOKUP_SWITCH);
+          writePositionInfo(stmt);
+          writeValue(switchStmt.getKey());
+          writeVarint(values.size());
+          for (IntConstant value : values) {
+            writeSignedVarint(value.getValue());
+          }
+        }
+      } else if (stmt instanceof JReturnStmt) {
+        writeByte(RETURN);
+        writePositionInfo(stmt);
+        writeValue(((JReturnStmt) stmt).getOp());
+      } else if (stmt instanceof JReturnVoidStmt) {
+        writeByte(RETURN_VOID);
+        writePositionInfo(stmt);
+      } else if (stmt instanceof JThrowStmt) {
+        writeByte(THROW);
+        writePositionInfo(stmt);
+        writeValue(((JThrowStmt) stmt).getOp());
+      } else if (stmt instanceof JEnterMonitorStmt) {
+        writeByte(ENTER_MONITOR);
+        writePositionInfo(stmt);
+        writeValue(((JEnterMonitorStmt) stmt).getOp());
+      } else if (stmt instanceof JExitMonitorStmt) {
+        writeByte(EXIT_MONITOR);
+        writePositionInfo(stmt);
+        writeValue(((JExitMonitorStmt) stmt).getOp());
+      } else if (stmt instanceof JNopStmt) {
+        writeByte(NOP);
+        writePositionInfo(stmt);
+      } else if (stmt instanceof JRetStmt) {
+        writeByte(RET);
+        writePositionInfo(stmt);
+        writeValue(((JRetStmt) stmt).getStmtAddress());
+      } else if (stmt instanceof JBreakpointStmt) {
+        writeByte(BREAKPOINT);
+        writePositionInfo(stmt);
+      } else {
+        throw new IllegalArgumentException("unsupported Stmt " + stmt.getClass());
+      }
+    }
+
+    private void writeValue(Value value) {
+      if (value instanceof Local) {
+        Integer id = localIds.get(value);
+        if (id == null) {
+          throw new IllegalArgumentException("Local '" + value + "' is not part of the Body.");
+        }
+        writeByte(LOCAL);
+        writeVarint(id);
+      } else if (value instanceof Constant) {
+        writeConstant((Constant) value);
+      } else if (value instanceof AbstractBinopExpr) {
+        int idx = binops.indexOf(value.getClass());
+        if (idx < 0) {
+          throw new IllegalArgumentException("unsupported Expr " + value.getClass());
+        }
+        writeByte(BINOP + idx);
+        writeValue(((AbstractBinopExpr) value).getOp1());
+        writeValue(((AbstractBinopExpr) value).getOp2());
+      } else if (value instanceof AbstractInvokeExpr) {
+        writeInvokeExpr((AbstractInvokeExpr) value);
+      } else if (value instanceof JCastExpr) {
+        writeByte(CAST);
+        writeValue(((JCastExpr) value).getOp());
+        writeType(((JCastExpr) value).getType());
+      } else if (value instanceof JInstanceOfExpr) {
+        writeByte(INSTANCE_OF);
+        writeValue(((JInstanceOfExpr) value).getOp());
+        writeType(((JInstanceOfExpr) value).getCheckType());
+      } else if (value instanceof JNewExpr) {
+        writeByte(NEW);
+        writeType(((JNewExpr) value).getType());
+      } else if (value instanceof JNewArrayExpr) {
+        writeByte(NEW_ARRAY);
+        writeType(((JNewArrayExpr) value).getBaseType());
+        writeValue(((JNewArrayExpr) value).getSize());
+      } else if (value instanceof JNewMultiArrayExpr) {
+        writeByte(NEW_MULTI_ARRAY);
+        writeType(((JNewMultiArrayExpr) value).getBaseType());
+        writeValues(((JNewMultiArrayExpr) value).getSizes());
+      } else if (value instanceof JLengthExpr) {
+        writeByte(LENGTH);
+        writeValue(((JLengthExpr) value).getOp());
+      } else if (value instanceof JNegExpr) {
+        writeByte(NEG);
+        writeValue(((JNegExpr) value).getOp());
+      } else if (value instanceof JArrayRef) {
+        writeByte(ARRAY_REF);
+        writeValue(((JArrayRef) value).getBase());
+        writeValue(((JArrayRef) value).getIndex());
+      } else if (value instanceof JInstanceFieldRef) {
+        writeByte(INSTANCE_FIELD_REF);
+        writeValue(((JInstanceFieldRef) value).getBase());
+        writeFieldSignature(((JInstanceFieldRef) value).getFieldSignature());
+      } else if (value instanceof JStaticFieldRef) {
+        writeByte(STATIC_FIELD_REF);
+        writeFieldSignature(((JStaticFieldRef) value).getFieldSignature());
+      } else if (value instanceof JThisRef) {
+        writeByte(THIS_REF);
+        writeType(value.getType());
+      } else if (value instanceof JParameterRef) {
+        writeByte(PARAMETER_REF);
+        writeType(value.getType());
+        writeVarint(((JParameterRef) value).getIndex());
+      } else if (value instanceof JCaughtExceptionRef) {
+        writeByte(CAUGHT_EXCEPTION_REF);
+        writeType(value.getType());
+      } else {
+        throw new IllegalArgumentException("unsupported Value " + value.getClass());
+      }
+    }
+
+    private void writeValues(List<? extends Value> values) {
+      writeVarint(values.size());
+      for (Value value : values) {
+        writeValue(value);
+      }
+    }
+
+    private void writeInvokeExpr(AbstractInvokeExpr invokeExpr) {
+      if (invokeExpr instanceof JStaticInvokeExpr) {
+        writeByte(STATIC_INVOKE);
+      } else if (invokeExpr instanceof JDynamicInvokeExpr) {
+        JDynamicInvokeExpr dynamicInvokeExpr = (JDynamicInvokeExpr) invokeExpr;
+        writeByte(DYNAMIC_INVOKE);
+        writeMethodSignature(dynamicInvokeExpr.getBootstrapMethodSignature());
+        writeValues(dynamicInvokeExpr.getBootstrapArgs());
+        writeVarint(dynamicInvokeExpr.getHandleTag());
+      } else {
+        if (invokeExpr instanceof JSpecialInvokeExpr) {
+          writeByte(SPECIAL_INVOKE);
+        } else if (invokeExpr instanceof JVirtualInvokeExpr) {
+          writeByte(VIRTUAL_INVOKE);
+        } else if (invokeExpr instanceof JInterfaceInvokeExpr) {
+          writeByte(INTERFACE_INVOKE);
+        } else {
+          throw new IllegalArgumentException("unsupported Expr " + invokeExpr.getClass());
+        }
+        writeValue(((AbstractInstanceInvokeExpr) invokeExpr).getBase());
+      }
+      writeMethodSignature(invokeExpr.getMethodSignature());
+      writeValues(invokeExpr.getArgs());
+    }
+
+    private void writeConstant(Constant constant) {
+      if (constant instanceof IntConstant) {
+        writeByte(INT_CONSTANT);
+        writeSignedVarint(((IntConstant) constant).getValue());
+      } else if (constant instanceof LongConstant) {
+        writeByte(LONG_CONSTANT);
+        writeLong(((LongConstant) constant).getValue());
+      } else if (constant instanceof FloatConstant) {
+        writeByte(FLOAT_CONSTANT);
+        writeInt(Float.floatToRawIntBits(((FloatConstant) constant).getValue()));
+      } else if (constant instanceof DoubleConstant) {
+        writeByte(DOUBLE_CONSTANT);
+        writeLong(Double.doubleToRawLongBits(((DoubleConstant) constant).getValue()));
+      } else if (constant instanceof NullConstant) {
+        writeByte(NULL_CONSTANT);
+      } else if (constant instanceof StringConstant) {
+        writeByte(STRING_CONSTANT);
+        writeString(((StringConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof ClassConstant) {
+        writeByte(CLASS_CONSTANT);
+        writeString(((ClassConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof EnumConstant) {
+        writeByte(ENUM_CONSTANT);
+        writeString(((EnumConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof BooleanConstant) {
+        writeByte(BOOLEAN_CONSTANT);
+        writeByte(constant == BooleanConstant.getTrue() ? 1 : 0);
+      } else if (constant instanceof MethodHandle) {
+        MethodHandle handle = (MethodHandle) constant;
+        writeByte(METHOD_HANDLE);
+        writeVarint(handle.getKind().getValue());
+        if (handle.isMethodRef()) {
+          writeMethodSignature((MethodSignature) handle.getReferenceSignature());
+        } else {
+          writeFieldSignature((FieldSignature) handle.getReferenceSignature());
+        }
+        writeType(handle.getType());
+      } else if (constant instanceof MethodType) {
+        MethodType methodType = (MethodType) constant;
+        writeByte(METHOD_TYPE);
+        writeType(methodType.getReturnType());
+        writeTypes(methodType.getParameterTypes());
+        writeType(methodType.getType());
+      } else {
+        throw new IllegalArgumentException("unsupported Constant " + constant.getClass());
+      }
+    }
+
+    private void writeMethodSignature(MethodSignature signature) {
+      writeType(signature.getDeclClassType());
+      writeString(signature.getName());
+      writeType(signature.getType());
+      writeTypes(signature.getParameterTypes());
+    }
+
+    private void writeFieldSignature(FieldSignature signature) {
+      writeType(signature.getDeclClassType());
+      writeString(signature.getName());
+      writeType(signature.getType());
+    }
+
+    private void writeTypes(List<Type> types) {
+      writeVarint(types.size());
+      for (Type type : types) {
+        writeType(type);
+      }
+    }
+
+    private void writeType(Type type) {
+      Integer id = typePool.get(type);
+      if (id != null) {
+        writeVarint(id + 1);
+        return;
+      }
+      writeVarint(0);
+      if (type instanceof PrimitiveType) {
+        String name = ((PrimitiveType) type).getName();
+        if (identifierFactory.getPrimitiveType(name).orElse(null) != type) {
+          throw new IllegalArgumentException("unsupported Type " + type.getClass());
+        }
+        writeByte(PRIMITIVE_TYPE);
+        writeString(name);
+      } else if (type instanceof ClassType) {
+        if (type.getClass() != JavaClassType.class) {
+          throw new IllegalArgumentException("unsupported Type " + type.getClass());
+        }
+        writeByte(CLASS_TYPE);
+        writeString(((ClassType) type).getFullyQualifiedName());
+      } else if (type instanceof ArrayType) {
+        writeByte(ARRAY_TYPE);
+        writeType(((ArrayType) type).getBaseType());
+        writeVarint(((ArrayType) type).getDimension());
+      } else if (type instanceof NullType) {
+        writeByte(NULL_TYPE);
+      } else if (type instanceof VoidType) {
+        writeByte(VOID_TYPE);
+      } else if (type instanceof UnknownType) {
+        writeByte(UNKNOWN_TYPE);
+      } else {
+        throw new IllegalArgumentException("unsupported Type " + type.getClass());
+      }
+      // added after the (possibly recursive) definition so the decoder assigns the same ids
+      typePool.put(type, typePool.size());
+    }
+
+    private void writePositionInfo(Stmt stmt) {
+      StmtPositionInfo positionInfo = stmt.getPositionInfo();
+      if (positionInfo == StmtPositionInfo.getNoStmtPositionInfo()) {
+        writeByte(0);
+      } else if (positionInfo.getClass() == SimpleStmtPositionInfo.class) {
+        writeByte(1);
+        writePosition(positionInfo.getStmtPosition());
+      } else {
+        throw new IllegalArgumentException("unsupported StmtPositionInfo " + positionInfo);
+      }
+    }
+
+    private void writePosition(Position position) {
+      if (position == NoPositionInformation.getInstance()) {
+        writeByte(NO_POSITION);
+      } else if (position.getClass() == LinePosition.class) {
+        writeByte(LINE_POSITION);
+        writeSignedVarint(position.getFirstLine());
+      } else {
+        writeByte(FULL_POSITION);
+        writeSignedVarint(position.getFirstLine());
+        writeSignedVarint(position.getFirstCol());
+        writeSignedVarint(position.getLastLine());
+        writeSignedVarint(position.getLastCol());
+      }
+    }
+
+    private void writeString(String str) {
+      Integer id = stringPool.get(str);
+      if (id != null) {
+        writeVarint(id + 1);
+        return;
+      }
+      stringPool.put(str, stringPool.size());
+      writeVarint(0);
+      byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+      writeVarint(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, size, bytes.length);
+      size += bytes.length;
+    }
+
+    private void writeSignedVarint(int value) {
+      // zigzag encoding keeps small negative values small
+      writeVarint((value << 1) ^ (value >> 31));
+    }
+
+    private void writeVarint(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0) {
+        buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        buffer[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+      if (size + additional > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+      }
+    }
+  }
+
+  private static final class Decoder {
+    private final ByteBuffer buffer;
+    private final List<String> stringPool = new ArrayList<>();
+    private final List<Type> typePool = new ArrayList<>();
+    private final List<Local> locals = new ArrayList<>();
+
+    Decoder(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    Body decodeBody(MethodSignature methodSignature) {
+      Position position = readPosition();
+
+      int localCount = readVarint();
+      for (int i = 0; i < localCount; i++) {
+        boolean isJavaLocal = buffer.get() == 1;
+        String name = readString();
+        Type type = readType();
+        locals.add(
+            isJavaLocal
+                ? JavaJimple.newLocal(name, type, Collections.emptyList())
+                : Jimple.newLocal(name, type));
+      }
+
+      int blockCount = readVarint();
+      List<List<Stmt>> blocks = new ArrayList<>(blockCount);
+      for (int i = 0; i < blockCount; i++) {
+        int stmtCount = readVarint();
+        List<Stmt> stmts = new ArrayList<>(stmtCount);
+        for (int j = 0; j < stmtCount; j++) {
+          stmts.add(readStmt());
+        }
+        blocks.add(stmts);
+      }
+
+      // same procedure as copying a StmtGraph: add the blocks first, link them afterwards
+      MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+      int[][] successors = new int[blockCount][];
+      for (int i = 0; i < blockCount; i++) {
+        int successorCount = readVarint();
+        successors[i] = new int[successorCount];
+        for (int j = 0; j < successorCount; j++) {
+          successors[i][j] = readVarint();
+        }
+        int exceptionalSuccessorCount = readVarint();
+        Map<ClassType, Stmt> exceptionalSuccessors = new HashMap<>(exceptionalSuccessorCount);
+        for (int j = 0; j < exceptionalSuccessorCount; j++) {
+          ClassType exceptionType = (ClassType) readType();
+          exceptionalSuccessors.put(exceptionType, blocks.get(readVarint()).get(0));
+        }
+        graph.addBlock(blocks.get(i), exceptionalSuccessors);
+      }
+      for (int i = 0; i < blockCount; i++) {
+        List<Stmt> block = blocks.get(i);
+        MutableBasicBlock from = (MutableBasicBlock) graph.getBlockOf(block.get(block.size() - 1));
+        for (int j = 0; j < successors[i].length; j++) {
+          Stmt head = blocks.get(successors[i][j]).get(0);
+          from.linkSuccessor(j, (MutableBasicBlock) graph.getBlockOf(head));
+        }
+      }
+
+      int startingBlock = readVarint();
+      if (startingBlock > 0) {
+        graph.setStartingStmt(blocks.get(startingBlock - 1).get(readVarint()));
+      }
+
+      return Body.builder(graph)
+          .setMethodSignature(methodSignature)
+          .setLocals(new LinkedHashSet<>(locals))
+          .setPosition(position)
+          .build();
+    }
+
+    private Stmt readStmt() {
+      int kind = buffer.get();
+      StmtPositionInfo positionInfo = readPositionInfo();
+      switch (kind) {
+        case ASSIGN:
+          return Jimple.newAssignStmt((LValue) readValue(), readValue(), positionInfo);
+        case IDENTITY:
+          return Jimple.newIdentityStmt(
+              (Local) readValue(), (IdentityRef) readValue(), positionInfo);
+        case INVOKE:
+          return Jimple.newInvokeStmt((AbstractInvokeExpr) readValue(), positionInfo);
+        case IF:
+          return Jimple.newIfStmt((AbstractConditionExpr) readValue(), positionInfo);
+        case GOTO:
+          return Jimple.newGotoStmt(positionInfo);
+        case TABLE_SWITCH:
+          return Jimple.newTableSwitchStmt(
+              (Immediate) readValue(), readSignedVarint(), readSignedVarint(), positionInfo);
+        case LOOKUP_SWITCH:
+          {
+            Immediate key = (Immediate) readValue();
+            int valueCount = readVarint();
+            List<IntConstant> values = new ArrayList<>(valueCount);
+            for (int i = 0; i < valueCount; i++) {
+              values.add(IntConstant.getInstance(readSignedVarint()));
+            }
+            return Jimple.newLookupSwitchStmt(key, values, positionInfo);
+          }
+        case RETURN:
+          return Jimple.newReturnStmt((Immediate) readValue(), positionInfo);
+        case RETURN_VOID:
+          return Jimple.newReturnVoidStmt(positionInfo);
+        case THROW:
+          return Jimple.newThrowStmt((Immediate) readValue(), positionInfo);
+        case ENTER_MONITOR:
+          return Jimple.newEnterMonitorStmt((Immediate) readValue(), positionInfo);
+        case EXIT_MONITOR:
+          return Jimple.newExitMonitorStmt((Immediate) readValue(), positionInfo);
+        case NOP:
+          return Jimple.newNopStmt(positionInfo);
+        case RET:
+          return Jimple.newRetStmt((Immediate) readValue(), positionInfo);
+        case BREAKPOINT:
+          return Jimple.newBreakpointStmt(positionInfo);
+        default:
+          throw new IllegalStateException("unknown Stmt kind " + kind);
+      }
+    }
+
+    private Value readValue() {
+      int kind = buffer.get();
+      switch (kind) {
+        case LOCAL:
+          return locals.get(readVarint());
+        case INT_CONSTANT:
+          return IntConstant.getInstance(readSignedVarint());
+        case LONG_CONSTANT:
+          return LongConstant.getInstance(buffer.getLong());
+        case FLOAT_CONSTANT:
+          return FloatConstant.getInstance(Float.intBitsToFloat(buffer.getInt()));
+        case DOUBLE_CONSTANT:
+          return DoubleConstant.getInstance(Double.longBitsToDouble(buffer.getLong()));
+        case NULL_CONSTANT:
+          return NullConstant.getInstance();
+        case STRING_CONSTANT:
+          return new StringConstant(readString(), readType());
+        case CLASS_CONSTANT:
+          return new ClassConstant(readString(), readType());
+        case ENUM_CONSTANT:
+          return new EnumConstant(readString(), (ClassType) readType());
+        case BOOLEAN_CONSTANT:
+          return BooleanConstant.getInstance(buffer.get() == 1);
+        case METHOD_HANDLE:
+          {
+            MethodHandle.Kind handleKind = MethodHandle.Kind.getKind(readVarint());
+            if (MethodHandle.isMethodRef(handleKind.getValue())) {
+              return new MethodHandle(readMethodSignature(), handleKind, readType());
+            }
+            return new MethodHandle(readFieldSignature(), handleKind, readType());
+          }
+        case METHOD_TYPE:
+          {
+            Type returnType = readType();
+            List<Type> parameterTypes = readTypes();
+            return new MethodType(
+                identifierFactory.getMethodSubSignature(
+                    "__METHODTYPE__", returnType, parameterTypes),
+                (ClassType) readType());
+          }
+        case CAST:
+          return Jimple.newCastExpr((Immediate) readValue(), readType());
+        case INSTANCE_OF:
+          return Jimple.newInstanceOfExpr((Immediate) readValue(), readType());
+        case NEW:
+          return Jimple.newNewExpr((ClassType) readType());
+        case NEW_ARRAY:
+          return JavaJimple.getInstance().newNewArrayExpr(readType(), (Immediate) readValue());
+        case NEW_MULTI_ARRAY:
+          return Jimple.newNewMultiArrayExpr((ArrayType) readType(), readImmediates());
+        case LENGTH:
+          return Jimple.newLengthExpr((Immediate) readValue());
+        case NEG:
+          return Jimple.newNegExpr((Immediate) readValue());
+        case ARRAY_REF:
+          return JavaJimple.getInstance()
+              .newArrayRef((Local) readValue(), (Immediate) readValue());
+        case INSTANCE_FIELD_REF:
+          return Jimple.newInstanceFieldRef((Local) readValue(), readFieldSignature());
+        case STATIC_FIELD_REF:
+          return Jimple.newStaticFieldRef(readFieldSignature());
+        case THIS_REF:
+          return Jimple.newThisRef((ClassType) readType());
+        case PARAMETER_REF:
+          return Jimple.newParameterRef(readType(), readVarint());
+        case CAUGHT_EXCEPTION_REF:
+          return new JCaughtExceptionRef(readType());
+        case STATIC_INVOKE:
+          return Jimple.newStaticInvokeExpr(readMethodSignature(), readImmediates());
+        case SPECIAL_INVOKE:
+          return Jimple.newSpecialInvokeExpr(
+              (Local) readValue(), readMethodSignature(), readImmediates());
+        case VIRTUAL_INVOKE:
+          return Jimple.newVirtualInvokeExpr(
+              (Local) readValue(), readMethodSignature(), readImmediates());
+        case INTERFACE_INVOKE:
+          return Jimple.newInterfaceInvokeExpr(
+              (Local) readValue(), readMethodSignature(), readImmediates());
+        case DYNAMIC_INVOKE:
+          {
+            MethodSignature bootstrapMethodSignature = readMethodSignature();
+            List<Immediate> bootstrapArgs = readImmediates();
+            int tag = readVarint();
+            return new JDynamicInvokeExpr(
+                bootstrapMethodSignature,
+                bootstrapArgs,
+                readMethodSignature(),
+                tag,
+                readImmediates());
+          }
+        default:
+          return readBinopExpr(kind);
+      }
+    }
+
+    private AbstractBinopExpr readBinopExpr(int kind) {
+      if (kind < BINOP || kind >= BINOP + binops.size()) {
+        throw new IllegalStateException("unknown Value kind " + kind);
+      }
+      Immediate op1 = (Immediate) readValue();
+      Immediate op2 = (Immediate) readValue();
+      Class<? extends AbstractBinopExpr> binop = binops.get(kind - BINOP);
+      if (binop == JAddExpr.class) {
+        return Jimple.newAddExpr(op1, op2);
+      } else if (binop == JAndExpr.class) {
+        return Jimple.newAndExpr(op1, op2);
+      } else if (binop == JCmpExpr.class) {
+        return Jimple.newCmpExpr(op1, op2);
+      } else if (binop == JCmpgExpr.class) {
+        return Jimple.newCmpgExpr(op1, op2);
+      } else if (binop == JCmplExpr.class) {
+        return Jimple.newCmplExpr(op1, op2);
+      } else if (binop == JDivExpr.class) {
+        return Jimple.newDivExpr(op1, op2);
+      } else if (binop == JEqExpr.class) {
+        return Jimple.newEqExpr(op1, op2);
+      } else if (binop == JGeExpr.class) {
+        return Jimple.newGeExpr(op1, op2);
+      } else if (binop == JGtExpr.class) {
+        return Jimple.newGtExpr(op1, op2);
+      } else if (binop == JLeExpr.class) {
+        return Jimple.newLeExpr(op1, op2);
+      } else if (binop == JLtExpr.class) {
+        return Jimple.newLtExpr(op1, op2);
+      } else if (binop == JMulExpr.class) {
+        return Jimple.newMulExpr(op1, op2);
+      } else if (binop == JNeExpr.class) {
+        return Jimple.newNeExpr(op1, op2);
+      } else if (binop == JOrExpr.class) {
+        return Jimple.newOrExpr(op1, op2);
+      } else if (binop == JRemExpr.class) {
+        return Jimple.newRemExpr(op1, op2);
+      } else if (binop == JShlExpr.class) {
+        return Jimple.newShlExpr(op1, op2);
+      } else if (binop == JShrExpr.class) {
+        return Jimple.newShrExpr(op1, op2);
+      } else if (binop == JSubExpr.class) {
+        return Jimple.newSubExpr(op1, op2);
+      } else if (binop == JUshrExpr.class) {
+        return Jimple.newUshrExpr(op1, op2);
+      }
+      return Jimple.newXorExpr(op1, op2);
+    }
+
+    private List<Immediate> readImmediates() {
+      int count = readVarint();
+      List<Immediate> immediates = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        immediates.add((Immediate) readValue());
+      }
+      return immediates;
+    }
+
+    private MethodSignature readMethodSignature() {
+      ClassType declaringClass = (ClassType) readType();
+      String name = readString();
+      Type returnType = readType();
+      return identifierFactory.getMethodSignature(declaringClass, name, returnType, readTypes());
+    }
+
+    private FieldSignature readFieldSignature() {
+      ClassType declaringClass = (ClassType) readType();
+      String name = readString();
+      return identifierFactory.getFieldSignature(name, declaringClass, readType());
+    }
+
+    private List<Type> readTypes() {
+      int count = readVarint();
+      List<Type> types = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+
+    private Type readType() {
+      int id = readVarint();
+      if (id > 0) {
+        return typePool.get(id - 1);
+      }
+      Type type;
+      int kind = buffer.get();
+      switch (kind) {
+        case PRIMITIVE_TYPE:
+          type = identifierFactory.getPrimitiveType(readString()).get();
+          break;
+        case CLASS_TYPE:
+          type = identifierFactory.getClassType(readString());
+          break;
+        case ARRAY_TYPE:
+          type = identifierFactory.getArrayType(readType(), readVarint());
+          break;
+        case NULL_TYPE:
+          type = NullType.getInstance();
+          break;
+        case VOID_TYPE:
+          type = VoidType.getInstance();
+          break;
+        case UNKNOWN_TYPE:
+          type = UnknownType.getInstance();
+          break;
+        default:
+          throw new IllegalStateException("unknown Type kind " + kind);
+      }
+      typePool.add(type);
+      return type;
+    }
+
+    private StmtPositionInfo readPositionInfo() {
+      if (buffer.get() == 0) {
+        return StmtPositionInfo.getNoStmtPositionInfo();
+      }
+      return new SimpleStmtPositionInfo(readPosition());
+    }
+
+    private Position readPosition() {
+      int kind = buffer.get();
+      switch (kind) {
+        case NO_POSITION:
+          return NoPositionInformation.getInstance();
+        case LINE_POSITION:
+          return new LinePosition(readSignedVarint());
+        case FULL_POSITION:
+          return new FullPosition(
+              readSignedVarint(), readSignedVarint(), readSignedVarint(), readSignedVarint());
+        default:
+          throw new IllegalStateException("unknown Position kind " + kind);
+      }
+    }
+
+    private String readString() {
+      int id = readVarint();
+      if (id > 0) {
+        return stringPool.get(id - 1);
+      }
+      byte[] bytes = new byte[readVarint()];
+      buffer.get(bytes);
+      String str = new String(bytes, StandardCharsets.UTF_8);
+      stringPool.add(str);
+      return str;
+    }
+
+    private int readSignedVarint() {
+      int value = readVarint();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarint() {
+      int value = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = buffer.get();
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,256 @@
+package sootup.java.bytecode.frontend.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.transform.BodyInterceptor;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.conversion.AsmMethodSource;
+import sootup.java.core.JavaSootClassSource;
+
+/**
+ * A cache of Bodies that survives the JVM: the Bodies that the bytecode frontend creates (i.e.
+ * after all {@link BodyInterceptor}s were applied) are stored in a binary format in a directory,
+ * so a subsequent run over unchanged inputs can load them instead of converting the bytecode and
+ * applying the BodyInterceptors again.
+ *
+ * <p>The cache consists of one {@link BodyCacheSegment} file per input, class path and
+ * BodyInterceptor chain. The chain is identified by the {@link BodyInterceptor#getCacheKey() cache
+ * keys} of its interceptors, i.e. including their configuration - a chain with an interceptor that
+ * provides no key can not be cached - and by the digests of the code of the frontend and of the
+ * interceptors, so an updated implementation does not load the Bodies of the previous one. An
+ * input is identified by the SHA-256 digest of its content (jar files) or its absolute path
+ * (directories) - every Body is additionally keyed by the hash of its class file, so changed
+ * classes are never served from the cache. The class path, i.e. the other inputs of the view, is
+ * part of the key as the Bodies depend on its type hierarchy (e.g. the types of the locals).
+ *
+ * <pre>
+ * try (PersistentBodyCache bodyCache = new PersistentBodyCache(Paths.get("sootup-cache"))) {
+ *   AnalysisInputLocation inputLocation =
+ *       new ArchiveBasedAnalysisInputLocation(
+ *           jarPath, SourceType.Library, interceptors, Collections.emptyList(), bodyCache);
+ *   ...
+ * } // close() flushes the Bodies that were created in this run
+ * </pre>
+ */
+public class PersistentBodyCache implements Closeable {
+
+  /** the modules whose code creates the Bodies besides the BodyInterceptors themselves */
+  private static final List<Class<?>> FRONTEND_CLASSES =
+      Arrays.asList(
+          BodyInterceptor.class, // core
+          JavaSootClassSource.class, // java.core
+          BytecodeBodyInterceptors.class, // interceptors
+          AsmMethodSource.class); // bytecode frontend
+
+  @Nonnull private final Path directory;
+  @Nonnull private final Map<String, BodyCacheSegment> segments = new ConcurrentHashMap<>();
+
+  // the inputs, the class path and the code are not expected to change while they are analysed
+  @Nonnull private final Map<Path, String> inputDigests = new ConcurrentHashMap<>();
+  @Nonnull private final Map<Path, String> classPathDigests = new ConcurrentHashMap<>();
+  @Nonnull private final Map<Class<?>, String> codeDigests = new ConcurrentHashMap<>();
+
+  public PersistentBodyCache(@Nonnull Path directory) {
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Can not create the cache directory " + directory, e);
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * Returns the segment of an input that is analysed without a class path.
+   *
+   * @param input a jar file or a directory containing class files
+   * @param bodyInterceptors the BodyInterceptors that are applied to the Bodies of input
+   * @throws IllegalArgumentException if one of the BodyInterceptors provides no cache key
+   */
+  @Nonnull
+  public BodyCacheSegment getSegment(
+      @Nonnull Path input, @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    return getSegment(input, Collections.emptyList(), bodyInterceptors);
+  }
+
+  /**
+   * @param input a jar file or a directory containing class files
+   * @param classPath the digests of the other inputs of the view in their order, see {@link
+   *     #classPathDigest(Path)}
+   * @param bodyInterceptors the BodyInterceptors that are applied to the Bodies of input
+   * @throws IllegalArgumentException if one of the BodyInterceptors provides no cache key
+   */
+  @Nonnull
+  public BodyCacheSegment getSegment(
+      @Nonnull Path input,
+      @Nonnull List<String> classPath,
+      @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    Hasher hasher =
+        Hashing.sha256()
+            .newHasher()
+            .putString(fingerprint(bodyInterceptors), StandardCharsets.UTF_8)
+            .putString(codeDigest(bodyInterceptors), StandardCharsets.UTF_8);
+    for (String classPathEntry : classPath) {
+      hasher.putChar('\u0000').putString(classPathEntry, StandardCharsets.UTF_8);
+    }
+    String inputDigest =
+        inputDigests.computeIfAbsent(
+            input.toAbsolutePath().normalize(), PersistentBodyCache::digest);
+    String segmentName = inputDigest + "-" + hasher.hash().toString().substring(0, 16) + ".bodies";
+    return segments.computeIfAbsent(
+        segmentName, name -> new BodyCacheSegment(directory.resolve(name)));
+  }
+
+  /**
+   * Identifies a class path entry by the SHA-256 digest of its content (files) or of the names,
+   * sizes and modification times of the files it contains (directories) - unlike an input, whose
+   * classes are checked one by one, a changed class path entry has to result in another segment.
+   */
+  @Nonnull
+  public String classPathDigest(@Nonnull Path classPathEntry) {
+    return classPathDigests.computeIfAbsent(
+        classPathEntry.toAbsolutePath().normalize(), PersistentBodyCache::contentDigest);
+  }
+
+  @Nonnull
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /** writes the Bodies of all segments that were created since the last flush. */
+  public void flush() throws IOException {
+    for (BodyCacheSegment segment : segments.values()) {
+      segment.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  @Nonnull
+  private static String digest(@Nonnull Path input) {
+    try {
+      if (Files.isRegularFile(input)) {
+        return MoreFiles.asByteSource(input).hash(Hashing.sha256()).toString();
+      }
+      return Hashing.sha256()
+          .hashString(input.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8)
+          .toString();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Can not compute the digest of " + input, e);
+    }
+  }
+
+  @Nonnull
+  private static String contentDigest(@Nonnull Path path) {
+    try {
+      if (Files.isRegularFile(path)) {
+        return MoreFiles.asByteSource(path).hash(Hashing.sha256()).toString();
+      }
+      Hasher hasher = Hashing.sha256().newHasher();
+      try (Stream<Path> files = Files.walk(path)) {
+        for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+          hasher
+              .putString(path.relativize(file).toString(), StandardCharsets.UTF_8)
+              .putLong(Files.size(file))
+              .putLong(Files.getLastModifiedTime(file).toMillis());
+        }
+      }
+      return hasher.hash().toString();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Can not compute the digest of " + path, e);
+    }
+  }
+
+  /**
+   * Identifies the implementation of the frontend and of the BodyInterceptors by the digests of the
+   * jars (or class directories) that contain their code.
+   */
+  @Nonnull
+  private String codeDigest(@Nonnull List<BodyInterceptor> bodyInterceptors) {
+    Set<String> digests = new TreeSet<>();
+    for (Class<?> clazz : FRONTEND_CLASSES) {
+      digests.add(codeDigests.computeIfAbsent(clazz, this::codeSourceDigest));
+    }
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      digests.add(codeDigests.computeIfAbsent(bodyInterceptor.getClass(), this::codeSourceDigest));
+    }
+    return String.join(",", digests);
+  }
+
+  @Nonnull
+  private String codeSourceDigest(@Nonnull Class<?> clazz) {
+    CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+    if (codeSource == null || codeSource.getLocation() == null) {
+      // e.g. classes of the JDK, which is part of the class path
+      return clazz.getName();
+    }
+    try {
+      return classPathDigest(Paths.get(codeSource.getLocation().toURI()));
+    } catch (URISyntaxException | FileSystemNotFoundException e) {
+      throw new IllegalArgumentException("Can not locate the code of " + clazz, e);
+    }
+  }
+
+  /**
+   * Identifies the BodyInterceptor chain by the cache keys of the BodyInterceptors and the version
+   * of the encoding.
+   *
+   * @throws IllegalArgumentException if one of the BodyInterceptors provides no cache key
+   */
+  @Nonnull
+  public static String fingerprint(@Nonnull List<BodyInterceptor> bodyInterceptors) {
+    Hasher hasher = Hashing.sha256().newHasher().putInt(BodyCodec.VERSION);
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      String cacheKey =
+          bodyInterceptor
+              .getCacheKey()
+              .orElseThrow(
+                  () ->
+                      new IllegalArgumentException(
+                          "The Bodies of "
+                              + bodyInterceptor
+                              + " can not be cached as it provides no cache key."));
+      hasher.putString(cacheKey, StandardCharsets.UTF_8).putChar('\u0000');
+    }
+    return hasher.hash().toString().substring(0, 16);
+  }
+}
@@ -30,6 +30,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -69,6 +70,19 @@ public class AsmAnnotationClassSource extends JavaAnnotationSootClassSource {
     this.classNode = classNode;
   }
 
+  /** the class files of an archive are sized via the archive instead of the source path */
+  @Nonnull
+  @Override
+  public OptionalLong getSourceSize() {
+    if (classNode instanceof AsmJavaClassProvider.SootClassNode) {
+      OptionalLong size = ((AsmJavaClassProvider.SootClassNode) classNode).getClassFileSize();
+      if (size.isPresent()) {
+        return size;
+      }
+    }
+    return super.getSourceSize();
+  }
+
   private static Set<JavaSootField> resolveFields(
       List<FieldNode> fieldNodes, IdentifierFactory signatureFactory, ClassType classSignature) {
     return fieldNodes.stream()
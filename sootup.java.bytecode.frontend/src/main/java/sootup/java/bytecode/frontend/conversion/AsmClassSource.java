@@ -55,6 +55,19 @@ class AsmClassSource extends JavaSootClassSource {
     this.classNode = classNode;
   }
 
+  /** the class files of an archive are sized via the archive instead of the source path */
+  @Nonnull
+  @Override
+  public OptionalLong getSourceSize() {
+    if (classNode instanceof AsmJavaClassProvider.SootClassNode) {
+      OptionalLong size = ((AsmJavaClassProvider.SootClassNode) classNode).getClassFileSize();
+      if (size.isPresent()) {
+        return size;
+      }
+    }
+    return super.getSourceSize();
+  }
+
   private static Set<JavaSootField> resolveFields(
       List<FieldNode> fieldNodes, IdentifierFactory signatureFactory, ClassType classSignature) {
     return fieldNodes.stream()
@@ -20,21 +20,30 @@ package sootup.java.bytecode.frontend.conversion;
  * <http://www.gnu.org/licenses/lgpl-2.1.html>.
  * #L%
  */
+import com.google.common.io.ByteSource;
+import com.google.common.io.MoreFiles;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.OptionalLong;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.FileType;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
+import sootup.java.bytecode.frontend.cache.BodyCacheSegment;
 import sootup.java.core.JavaModuleIdentifierFactory;
 import sootup.java.core.types.JavaClassType;
 import sootup.java.core.types.ModuleJavaClassType;
@@ -43,10 +52,21 @@ import sootup.java.core.types.ModuleJavaClassType;
 public class AsmJavaClassProvider implements ClassProvider {
 
   @Nonnull private final View view;
+  @Nonnull private final BodyConversionOptions options;
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(AsmJavaClassProvider.class);
 
   public AsmJavaClassProvider(@Nonnull View view) {
+    this(view, BodyConversionOptions.DEFAULT);
+  }
+
+  /**
+   * @param options determine how the Bodies of the methods of the created class sources are
+   *     converted and kept - with a body cache, the instructions of classes whose Bodies are all
+   *     cached are not even read.
+   */
+  public AsmJavaClassProvider(@Nonnull View view, @Nonnull BodyConversionOptions options) {
     this.view = view;
+    this.options = options;
   }
 
   @Override
@@ -54,12 +74,31 @@ public class AsmJavaClassProvider implements ClassProvider {
       @Nonnull AnalysisInputLocation analysisInputLocation,
       @Nonnull Path sourcePath,
       @Nonnull ClassType classType) {
+    return createClassSource(
+        analysisInputLocation, sourcePath, MoreFiles.asByteSource(sourcePath), classType);
+  }
+
+  /**
+   * @param sourcePath identifies the class file
+   * @param classBytes the contents of the class file e.g. an entry of an archive that is not opened
+   *     as a {@link java.nio.file.FileSystem}
+   */
+  public Optional<SootClassSource> createClassSource(
+      @Nonnull AnalysisInputLocation analysisInputLocation,
+      @Nonnull Path sourcePath,
+      @Nonnull ByteSource classBytes,
+      @Nonnull ClassType classType) {
 
     SootClassNode classNode;
     final String actualClassSignature;
     try {
-      classNode = new SootClassNode(analysisInputLocation);
-      actualClassSignature = AsmUtil.initAsmClassSource(sourcePath, classNode);
+      classNode = new SootClassNode(analysisInputLocation, sourcePath, classBytes);
+      BodyCacheSegment bodyCache = options.getBodyCache();
+      if (bodyCache == null) {
+        actualClassSignature = AsmUtil.initAsmClassSource(classBytes, classNode);
+      } else {
+        actualClassSignature = initCachedClassSource(classBytes, classNode, bodyCache);
+      }
     } catch (IOException exception) {
       logger.warn("ioe: " + sourcePath, exception);
       return Optional.empty();
@@ -95,6 +134,76 @@ public class AsmJavaClassProvider implements ClassProvider {
     }
   }
 
+  /**
+   * Reads the header of a class file, i.e. its access flags, its superclass and its interfaces,
+   * without parsing its fields and methods.
+   *
+   * @param sourcePath identifies the class file
+   * @param classBytes the contents of the class file
+   * @return the header or an empty Optional if the class file does not contain the given class
+   */
+  @Nonnull
+  public static Optional<ClassHeader> createClassHeader(
+      @Nonnull Path sourcePath, @Nonnull ByteSource classBytes, @Nonnull ClassType classType) {
+    if (classType instanceof ModuleJavaClassType
+        && classType.getClassName().equals(JavaModuleIdentifierFactory.MODULE_INFO_FILE)) {
+      return Optional.empty();
+    }
+
+    ClassReader clsr;
+    try {
+      clsr = new ClassReader(classBytes.read());
+    } catch (IOException exception) {
+      logger.warn("ioe: " + sourcePath, exception);
+      return Optional.empty();
+    } catch (IllegalArgumentException exception) {
+      logger.warn("iae: " + sourcePath, exception);
+      return Optional.empty();
+    }
+
+    String requestedName = classType.getPackageName().getName();
+    String requestedFQClassName =
+        requestedName + (requestedName.isEmpty() ? "" : ".") + classType.getClassName();
+    if (!clsr.getClassName().replace('/', '.').equals(requestedFQClassName)) {
+      return Optional.empty();
+    }
+
+    String superName = clsr.getSuperName();
+    return Optional.of(
+        new ClassHeader(
+            classType,
+            superName == null ? null : AsmUtil.toJimpleClassType(superName),
+            AsmUtil.asmIdToSignature(Arrays.asList(clsr.getInterfaces())),
+            (clsr.getAccess() & Opcodes.ACC_INTERFACE) != 0));
+  }
+
+  @Nonnull
+  private static String initCachedClassSource(
+      @Nonnull ByteSource classSource,
+      @Nonnull SootClassNode classNode,
+      @Nonnull BodyCacheSegment bodyCache)
+      throws IOException {
+    byte[] classBytes = classSource.read();
+    BodyCacheSegment.CachedClass cachedClass =
+        bodyCache.getCachedClass(BodyCacheSegment.hashClass(classBytes));
+    classNode.cachedClass = cachedClass;
+
+    ClassReader clsr = new ClassReader(classBytes);
+    if (cachedClass.isComplete()) {
+      clsr.accept(classNode, ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE);
+    } else {
+      clsr.accept(classNode, ClassReader.SKIP_FRAMES);
+      int bodyCount = 0;
+      for (MethodNode method : classNode.methods) {
+        if (method.instructions.size() > 0) {
+          bodyCount++;
+        }
+      }
+      cachedClass.setBodyCount(bodyCount);
+    }
+    return clsr.getClassName();
+  }
+
   @Override
   @Nonnull
   public FileType getHandledFileType() {
@@ -104,10 +213,25 @@ public class AsmJavaClassProvider implements ClassProvider {
   class SootClassNode extends ClassNode {
 
     private final AnalysisInputLocation analysisInputLocation;
+    @Nonnull private final Path sourcePath;
+    @Nonnull private final ByteSource classBytes;
+    @Nullable private BodyCacheSegment.CachedClass cachedClass;
 
-    SootClassNode(AnalysisInputLocation analysisInputLocation) {
+    SootClassNode(
+        AnalysisInputLocation analysisInputLocation,
+        @Nonnull Path sourcePath,
+        @Nonnull ByteSource classBytes) {
       super(AsmUtil.SUPPORTED_ASM_OPCODE);
       this.analysisInputLocation = analysisInputLocation;
+      this.sourcePath = sourcePath;
+      this.classBytes = classBytes;
+    }
+
+    /** @return the size of the class file if it is known without reading it */
+    @Nonnull
+    OptionalLong getClassFileSize() {
+      com.google.common.base.Optional<Long> size = classBytes.sizeIfKnown();
+      return size.isPresent() ? OptionalLong.of(size.get()) : OptionalLong.empty();
     }
 
     @Override
@@ -127,7 +251,11 @@ public class AsmJavaClassProvider implements ClassProvider {
               signature,
               exceptions,
               view,
-              analysisInputLocation.getBodyInterceptors());
+              analysisInputLocation.getBodyInterceptors(),
+              options,
+              cachedClass,
+              sourcePath,
+              classBytes);
       methods.add(mn);
       return mn;
     }
@@ -27,6 +27,9 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Table;
+import com.google.common.io.ByteSource;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.function.BiFunction;
@@ -36,9 +39,12 @@ import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.commons.JSRInlinerAdapter;
 import org.objectweb.asm.tree.*;
+import sootup.core.frontend.BodyRetention;
 import sootup.core.frontend.BodySource;
+import sootup.core.frontend.ResolveException;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.*;
@@ -51,9 +57,11 @@ import sootup.core.model.*;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyPipelineMetrics;
 import sootup.core.types.*;
 import sootup.core.util.Modifiers;
 import sootup.core.views.View;
+import sootup.java.bytecode.frontend.cache.BodyCacheSegment;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.jimple.basic.JavaLocal;
 import sootup.java.core.language.JavaJimple;
@@ -105,6 +113,16 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
   private final View view;
   private final List<BodyInterceptor> bodyInterceptors;
+  @Nullable private final BodyCacheSegment.CachedClass cachedClass;
+  @Nullable private final Path classFile;
+  @Nullable private final ByteSource classBytes;
+  @Nonnull private final BodyRetention bodyRetention;
+  private final boolean releasingInstructions;
+  @Nullable private final BodyPipelineMetrics metrics;
+  private final boolean validatingInterceptors;
+
+  /** true if the instructions have to be read from the class file before the next conversion */
+  private boolean instructionsReleased = false;
 
   @Nonnull private final Set<LabelNode> inlineExceptionLabels = new HashSet<>();
 
@@ -123,9 +141,51 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       @Nonnull String[] exceptions,
       View view,
       @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    this(
+        access,
+        name,
+        desc,
+        signature,
+        exceptions,
+        view,
+        bodyInterceptors,
+        BodyConversionOptions.DEFAULT,
+        null,
+        null,
+        null);
+  }
+
+  /**
+   * @param options determine how the Body is converted and kept - the body cache of the options is
+   *     not used, the cached Bodies of the declaring class are passed as cachedClass
+   * @param cachedClass the cached Bodies of the declaring class file
+   * @param classFile the declaring class file
+   * @param classBytes the contents of the declaring class file - necessary to read the
+   *     instructions if they were skipped as the class is complete in the cache or released
+   */
+  AsmMethodSource(
+      int access,
+      @Nonnull String name,
+      @Nonnull String desc,
+      @Nonnull String signature,
+      @Nonnull String[] exceptions,
+      View view,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nonnull BodyConversionOptions options,
+      @Nullable BodyCacheSegment.CachedClass cachedClass,
+      @Nullable Path classFile,
+      @Nullable ByteSource classBytes) {
     super(AsmUtil.SUPPORTED_ASM_OPCODE, null, access, name, desc, signature, exceptions);
     this.bodyInterceptors = bodyInterceptors;
     this.view = view;
+    this.cachedClass = cachedClass;
+    this.classFile = classFile;
+    this.classBytes = classBytes;
+    this.bodyRetention = options.getBodyRetention();
+    // without the class file, released instructions could not be read again
+    this.releasingInstructions = options.isReleasingInstructions() && classBytes != null;
+    this.metrics = options.getBodyMetrics();
+    this.validatingInterceptors = options.isValidatingInterceptors();
 
     identifierFactory = (JavaIdentifierFactory) view.getIdentifierFactory();
     lazyMethodSignature =
@@ -156,9 +216,38 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
   @Override
   @Nonnull
-  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
+  public BodyRetention getBodyRetention() {
+    return bodyRetention;
+  }
+
+  @Override
+  @Nonnull
+  public synchronized Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
 
-    /* initialize */
+    if (cachedClass != null) {
+      Optional<Body> cachedBody = cachedClass.getBody(lazyMethodSignature.get());
+      if (cachedBody.isPresent()) {
+        return cachedBody.get();
+      }
+      if (cachedClass.isComplete() && instructions.size() == 0) {
+        readSkippedInstructions();
+      }
+    }
+    if (instructionsReleased) {
+      readSkippedInstructions();
+      instructionsReleased = false;
+    }
+
+    /* initialize - the Body may be resolved more than once e.g. after it was released */
+    startTrapHandler.clear();
+    endTrapHandler.clear();
+    activeTrapHandlers = new HashSet<>();
+    replacedStmt.clear();
+    inlineExceptionLabels.clear();
+    inlineExceptionHandlers.clear();
+    labelsToStmt.clear();
+    currentLineNumber = -1;
+    maxLineNumber = 0;
     nextLocal = maxLocals;
     locals =
         new NonIndexOutofBoundsArrayList<>(
@@ -185,28 +274,10 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
     List<Stmt> preambleStmts = buildPreambleLocals(bodyBuilder);
 
-    /* convert instructions */
-    try {
-      convert();
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to convert " + lazyMethodSignature.get(), e);
-    }
-
-    // collect used Locals
-    Set<Local> bodyLocals =
-        locals.stream()
-            .filter(Objects::nonNull)
-            // [ms] find out why some Local indices are not assigned(null)
-            // ms -> guess because of dword values i.e. +=2 ?
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-    bodyBuilder.setLocals(bodyLocals);
-
-    // add converted insn as stmts into the graph
-    try {
-      arrangeStmts(graph, bodyBuilder, preambleStmts);
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to convert " + lazyMethodSignature.get(), e);
-    }
+    runStage(
+        BodyPipelineMetrics.CONVERSION,
+        bodyBuilder,
+        () -> convertToGraph(graph, bodyBuilder, preambleStmts));
 
     // propagate position information
     final Stmt startingStmt = graph.getStartingStmt();
@@ -227,21 +298,123 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     stmtsThatBranchToLabel = null;
     insnToStmt = null;
     operandStack = null;
+    trapHandler = null;
+    if (releasingInstructions) {
+      releaseInstructions();
+    }
 
     bodyBuilder.setMethodSignature(lazyMethodSignature.get());
 
     for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
       try {
-        bodyInterceptor.interceptBody(bodyBuilder, view);
-        bodyBuilder
-            .getStmtGraph()
-            .validateStmtConnectionsInGraph(); // TODO: remove in the future ;-)
+        runStage(
+            BodyPipelineMetrics.nameOf(bodyInterceptor),
+            bodyBuilder,
+            () -> bodyInterceptor.interceptBody(bodyBuilder, view));
+        if (validatingInterceptors) {
+          bodyBuilder.getStmtGraph().validateStmtConnectionsInGraph();
+        }
       } catch (Exception e) {
         throw new IllegalStateException(
             "Failed to apply " + bodyInterceptor + " to " + lazyMethodSignature.get(), e);
       }
     }
-    return bodyBuilder.build();
+    Body body = bodyBuilder.build();
+    if (cachedClass != null) {
+      cachedClass.putBody(body);
+    }
+    return body;
+  }
+
+  /** Converts the instructions and adds the resulting Stmts and Locals to the Body. */
+  private void convertToGraph(
+      @Nonnull MutableBlockStmtGraph graph,
+      @Nonnull Body.BodyBuilder bodyBuilder,
+      @Nonnull List<Stmt> preambleStmts) {
+    /* convert instructions */
+    try {
+      convert();
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to convert " + lazyMethodSignature.get(), e);
+    }
+
+    // collect used Locals
+    Set<Local> bodyLocals =
+        locals.stream()
+            .filter(Objects::nonNull)
+            // [ms] find out why some Local indices are not assigned(null)
+            // ms -> guess because of dword values i.e. +=2 ?
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    bodyBuilder.setLocals(bodyLocals);
+
+    // add converted insn as stmts into the graph
+    try {
+      arrangeStmts(graph, bodyBuilder, preambleStmts);
+    } catch (Exception e) {
+      throw new RuntimeException("Failed to convert " + lazyMethodSignature.get(), e);
+    }
+  }
+
+  /** Runs a stage of the Body creation and measures it if metrics are collected. */
+  private void runStage(
+      @Nonnull String stageName, @Nonnull Body.BodyBuilder bodyBuilder, @Nonnull Runnable stage) {
+    if (metrics == null) {
+      stage.run();
+    } else {
+      metrics.measure(stageName, bodyBuilder, stage);
+    }
+  }
+
+  /** Drops the instructions of this method, the remaining MethodNode is just a declaration. */
+  private void releaseInstructions() {
+    instructions = new InsnList();
+    tryCatchBlocks = new ArrayList<>();
+    localVariables = null;
+    visibleLocalVariableAnnotations = null;
+    invisibleLocalVariableAnnotations = null;
+    instructionsReleased = true;
+  }
+
+  /**
+   * The instructions of a class that is complete in the body cache are not read upfront - but its
+   * cached Body can still be missing e.g. if the cache file was damaged. Released instructions are
+   * read again in the same way.
+   */
+  private void readSkippedInstructions() {
+    ClassNode classNode =
+        new ClassNode(AsmUtil.SUPPORTED_ASM_OPCODE) {
+          @Override
+          public MethodVisitor visitMethod(
+              int access, String name, String desc, String signature, String[] exceptions) {
+            MethodNode method =
+                new JSRInlinerAdapter(null, access, name, desc, signature, exceptions);
+            methods.add(method);
+            return method;
+          }
+        };
+    try {
+      AsmUtil.initAsmClassSource(Objects.requireNonNull(classBytes), classNode);
+    } catch (IOException e) {
+      throw new ResolveException(
+          "Failed to read the instructions of " + lazyMethodSignature.get(),
+          Objects.requireNonNull(classFile),
+          e);
+    }
+    for (MethodNode method : classNode.methods) {
+      if (method.name.equals(name) && method.desc.equals(desc)) {
+        instructions = method.instructions;
+        tryCatchBlocks = method.tryCatchBlocks;
+        maxLocals = method.maxLocals;
+        maxStack = method.maxStack;
+        localVariables = method.localVariables;
+        visibleLocalVariableAnnotations = method.visibleLocalVariableAnnotations;
+        invisibleLocalVariableAnnotations = method.invisibleLocalVariableAnnotations;
+        return;
+      }
+    }
+    // e.g. the class file was changed since the method was read
+    throw new IllegalStateException(
+        "The class file " + classFile + " does not contain " + lazyMethodSignature.get());
   }
 
   @Override
@@ -20,6 +20,7 @@ package sootup.java.bytecode.frontend.conversion;
  * <http://www.gnu.org/licenses/lgpl-2.1.html>.
  * #L%
  */
+import com.google.common.io.ByteSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
@@ -67,8 +68,8 @@ public final class AsmUtil {
    * @return the actual class signature found in the compilation unit
    */
   protected static String initAsmClassSource(
-      @Nonnull Path classSource, @Nonnull ClassVisitor classNode) throws IOException {
-    try (InputStream sourceFileInputStream = Files.newInputStream(classSource)) {
+      @Nonnull ByteSource classSource, @Nonnull ClassVisitor classNode) throws IOException {
+    try (InputStream sourceFileInputStream = classSource.openStream()) {
       ClassReader clsr = new ClassReader(sourceFileInputStream);
       clsr.accept(classNode, ClassReader.SKIP_FRAMES);
       return clsr.getClassName();
@@ -0,0 +1,142 @@
+package sootup.java.bytecode.frontend.conversion;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.frontend.BodyRetention;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyPipelineMetrics;
+import sootup.java.bytecode.frontend.cache.BodyCacheSegment;
+
+/**
+ * Determines how the Bodies of methods are converted from bytecode and kept. The options are
+ * immutable, each <code>with</code> method returns a copy with a single option changed.
+ *
+ * <pre>
+ * inputLocation.setBodyConversionOptions(
+ *     BodyConversionOptions.DEFAULT
+ *         .withBodyRetention(BodyRetention.SOFT)
+ *         .withReleasingInstructions(true));
+ * </pre>
+ */
+public final class BodyConversionOptions {
+
+  /** Bodies are converted without a cache, measurement or extra validation and kept strongly. */
+  @Nonnull
+  public static final BodyConversionOptions DEFAULT =
+      new BodyConversionOptions(null, BodyRetention.STRONG, false, null, false);
+
+  @Nullable private final BodyCacheSegment bodyCache;
+  @Nonnull private final BodyRetention bodyRetention;
+  private final boolean releasingInstructions;
+  @Nullable private final BodyPipelineMetrics bodyMetrics;
+  private final boolean validatingInterceptors;
+
+  private BodyConversionOptions(
+      @Nullable BodyCacheSegment bodyCache,
+      @Nonnull BodyRetention bodyRetention,
+      boolean releasingInstructions,
+      @Nullable BodyPipelineMetrics bodyMetrics,
+      boolean validatingInterceptors) {
+    this.bodyCache = bodyCache;
+    this.bodyRetention = bodyRetention;
+    this.releasingInstructions = releasingInstructions;
+    this.bodyMetrics = bodyMetrics;
+    this.validatingInterceptors = validatingInterceptors;
+  }
+
+  /**
+   * If present, Bodies are taken from it instead of converting their bytecode - the instructions
+   * of classes whose Bodies are all cached are not even read.
+   */
+  @Nullable
+  public BodyCacheSegment getBodyCache() {
+    return bodyCache;
+  }
+
+  /**
+   * Determines how a method keeps its resolved Body, e.g. with {@link BodyRetention#SOFT} the Body
+   * can be dropped under memory pressure and is converted again on demand.
+   */
+  @Nonnull
+  public BodyRetention getBodyRetention() {
+    return bodyRetention;
+  }
+
+  /**
+   * If true, the bytecode instructions of a method are dropped as soon as its Body is converted -
+   * they are read from the class file again if the Body has to be converted once more.
+   */
+  public boolean isReleasingInstructions() {
+    return releasingInstructions;
+  }
+
+  /**
+   * If present, the conversion and each {@link BodyInterceptor} are measured whenever a Body is
+   * created from the bytecode.
+   */
+  @Nullable
+  public BodyPipelineMetrics getBodyMetrics() {
+    return bodyMetrics;
+  }
+
+  /**
+   * If true, the StmtGraph of a Body is validated after each {@link BodyInterceptor} instead of
+   * once when the Body is built - a debugging aid to find the interceptor that breaks a Body, which
+   * costs a traversal of the whole graph per interceptor.
+   */
+  public boolean isValidatingInterceptors() {
+    return validatingInterceptors;
+  }
+
+  @Nonnull
+  public BodyConversionOptions withBodyCache(@Nullable BodyCacheSegment bodyCache) {
+    return new BodyConversionOptions(
+        bodyCache, bodyRetention, releasingInstructions, bodyMetrics, validatingInterceptors);
+  }
+
+  @Nonnull
+  public BodyConversionOptions withBodyRetention(@Nonnull BodyRetention bodyRetention) {
+    return new BodyConversionOptions(
+        bodyCache, bodyRetention, releasingInstructions, bodyMetrics, validatingInterceptors);
+  }
+
+  @Nonnull
+  public BodyConversionOptions withReleasingInstructions(boolean releasingInstructions) {
+    return new BodyConversionOptions(
+        bodyCache, bodyRetention, releasingInstructions, bodyMetrics, validatingInterceptors);
+  }
+
+  @Nonnull
+  public BodyConversionOptions withBodyMetrics(@Nullable BodyPipelineMetrics bodyMetrics) {
+    return new BodyConversionOptions(
+        bodyCache, bodyRetention, releasingInstructions, bodyMetrics, validatingInterceptors);
+  }
+
+  @Nonnull
+  public BodyConversionOptions withValidatingInterceptors(boolean validatingInterceptors) {
+    return new BodyConversionOptions(
+        bodyCache, bodyRetention, releasingInstructions, bodyMetrics, validatingInterceptors);
+  }
+}
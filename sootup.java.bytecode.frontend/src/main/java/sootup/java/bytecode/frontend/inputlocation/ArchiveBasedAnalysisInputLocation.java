@@ -22,6 +22,7 @@ package sootup.java.bytecode.frontend.inputlocation;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -30,18 +31,36 @@ import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
+import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.cache.BodyCacheSegment;
+import sootup.java.bytecode.frontend.cache.PersistentBodyCache;
 import sootup.java.bytecode.frontend.conversion.AsmJavaClassProvider;
 import sootup.java.core.JavaSootClassSource;
 import sootup.java.core.types.JavaClassType;
+import sootup.java.core.views.JavaView;
 
+/**
+ * An {@link PathBasedAnalysisInputLocation} for jar archives. Its class files are looked up in an
+ * index of the archive's central directory and read directly from the archive, so classes that are
+ * not contained are rejected without touching the archive. The source path of a class is the path
+ * of the archive followed by the name of the class file entry.
+ */
 public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLocation {
 
   // We cache the FileSystem instances as their creation is expensive.
@@ -74,6 +93,47 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
                     }
                   }));
 
+  // shares the index of an archive between all input locations that currently use it
+  private static final LoadingCache<Path, ArchiveIndex> archiveIndexCache =
+      CacheBuilder.newBuilder()
+          .weakValues()
+          .removalListener(
+              (RemovalNotification<Path, ArchiveIndex> removalNotification) -> {
+                try {
+                  ArchiveIndex value = removalNotification.getValue();
+                  if (value != null) {
+                    value.close();
+                  }
+                } catch (IOException e) {
+                  throw new RuntimeException(
+                      "Could not close archive " + removalNotification.getKey(), e);
+                }
+              })
+          .build(
+              CacheLoader.from(
+                  path -> {
+                    try {
+                      return ArchiveIndex.open(Objects.requireNonNull(path));
+                    } catch (IOException e) {
+                      throw new RuntimeException("Could not open archive " + path, e);
+                    }
+                  }));
+
+  // lazy and strongly referenced: the index is built once classes are requested and stays
+  // available as long as this input location is used
+  @Nonnull
+  private final Supplier<ArchiveIndex> archiveIndex =
+      Suppliers.memoize(
+          () -> {
+            try {
+              return archiveIndexCache.get(path.toAbsolutePath());
+            } catch (ExecutionException e) {
+              throw new RuntimeException("Failed to retrieve archive index for " + path, e);
+            }
+          });
+
+  @Nullable private final PersistentBodyCache bodyCache;
+
   public ArchiveBasedAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
     this(path, srcType, BytecodeBodyInterceptors.Default.getBodyInterceptors());
   }
@@ -91,31 +151,175 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
       List<BodyInterceptor> bodyInterceptors,
       Collection<Path> ignoredPaths) {
     super(path, srcType, bodyInterceptors, ignoredPaths);
+    this.bodyCache = null;
+  }
+
+  /**
+   * @param bodyCache stores the Bodies of this archive across runs: Bodies of unchanged classes are
+   *     loaded from it instead of being converted and intercepted again. The other input locations
+   *     of the view have to be identifiable across runs, i.e. jars, directories and the runtime of
+   *     the JDK.
+   * @throws IllegalArgumentException if one of the BodyInterceptors provides no cache key
+   */
+  public ArchiveBasedAnalysisInputLocation(
+      @Nonnull Path path,
+      @Nonnull SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nonnull Collection<Path> ignoredPaths,
+      @Nonnull PersistentBodyCache bodyCache) {
+    super(path, srcType, bodyInterceptors, ignoredPaths);
+    // fail early if the chain can not be cached
+    PersistentBodyCache.fingerprint(bodyInterceptors);
+    this.bodyCache = bodyCache;
+  }
+
+  @Override
+  @Nonnull
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    if (bodyCache == null) {
+      return new AsmJavaClassProvider(view, bodyConversionOptions);
+    }
+    // the segment is looked up per view, as the Bodies depend on the type hierarchy of the view
+    BodyCacheSegment segment = bodyCache.getSegment(path, classPathOf(view), bodyInterceptors);
+    return new AsmJavaClassProvider(view, bodyConversionOptions.withBodyCache(segment));
+  }
+
+  /**
+   * Identifies the other input locations of the view for the body cache.
+   *
+   * @throws IllegalArgumentException if an input location can not be identified across runs
+   */
+  @Nonnull
+  private List<String> classPathOf(@Nonnull View view) {
+    if (!(view instanceof JavaView)) {
+      throw new IllegalArgumentException(
+          "The class path of "
+              + view
+              + " is unknown, so the Bodies of "
+              + path
+              + " can not be cached.");
+    }
+    List<String> classPath = new ArrayList<>();
+    for (AnalysisInputLocation inputLocation : ((JavaView) view).getInputLocations()) {
+      if (inputLocation != this) {
+        addClassPathEntries(inputLocation, classPath);
+      }
+    }
+    return classPath;
+  }
+
+  private void addClassPathEntries(
+      @Nonnull AnalysisInputLocation inputLocation, @Nonnull List<String> classPath) {
+    if (inputLocation instanceof JavaClassPathAnalysisInputLocation) {
+      for (AnalysisInputLocation entry :
+          ((JavaClassPathAnalysisInputLocation) inputLocation).getClassPathEntries()) {
+        addClassPathEntries(entry, classPath);
+      }
+    } else if (inputLocation instanceof MultiReleaseJarAnalysisInputLocation) {
+      // the language level selects the versions of the classes
+      MultiReleaseJarAnalysisInputLocation multiReleaseJar =
+          (MultiReleaseJarAnalysisInputLocation) inputLocation;
+      classPath.add(
+          bodyCache.classPathDigest(multiReleaseJar.path)
+              + "@"
+              + multiReleaseJar.getLanguage().getVersion());
+    } else if (inputLocation instanceof PathBasedAnalysisInputLocation) {
+      PathBasedAnalysisInputLocation pathBased = (PathBasedAnalysisInputLocation) inputLocation;
+      classPath.add(bodyCache.classPathDigest(pathBased.path));
+    } else if (inputLocation instanceof JrtFileSystemAnalysisInputLocation) {
+      // the runtime image of the running JDK
+      classPath.add(bodyCache.classPathDigest(Paths.get(System.getProperty("java.home"))));
+    } else {
+      throw new IllegalArgumentException(
+          inputLocation
+              + " can not be identified across runs, so the Bodies of "
+              + path
+              + " can not be cached.");
+    }
+  }
+
+  @Override
+  @Nonnull
+  public Optional<Set<String>> getPackageNames() {
+    return Optional.of(archiveIndex.get().getPackageNames());
   }
 
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
-    try {
-      FileSystem fs = fileSystemCache.get(path);
-      final Path archiveRoot = fs.getPath("/");
-      return getClassSourceInternal(
-          (JavaClassType) type, archiveRoot, new AsmJavaClassProvider(view));
-    } catch (ExecutionException e) {
-      throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
+    JavaClassType klassType = (JavaClassType) type;
+    ArchiveIndex index = archiveIndex.get();
+    String entryName = index.getEntryName(klassType.getFullyQualifiedName());
+    if (entryName == null) {
+      return Optional.empty();
     }
+    return createClassSource(index, entryName, klassType, createClassProvider(view));
   }
 
   @Override
   @Nonnull
   public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
-    try {
-      FileSystem fs = fileSystemCache.get(path);
-      final Path archiveRoot = fs.getPath("/");
-      return walkDirectory(
-          archiveRoot, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
-    } catch (ExecutionException e) {
-      throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
+    try (Stream<JavaSootClassSource> classSources = streamClassSources(view)) {
+      return classSources.collect(Collectors.toList());
     }
   }
+
+  @Override
+  @Nonnull
+  public Stream<JavaSootClassSource> streamClassSources(@Nonnull View view) {
+    ArchiveIndex index = archiveIndex.get();
+    IdentifierFactory factory = view.getIdentifierFactory();
+    AsmJavaClassProvider classProvider = createClassProvider(view);
+    return index.getEntryNames().stream()
+        .filter(entryName -> !isIgnored(entryName))
+        .flatMap(
+            entryName ->
+                StreamUtils.optionalToStream(
+                    createClassSource(
+                        index,
+                        entryName,
+                        factory.getClassType(ArchiveIndex.toClassName(entryName)),
+                        classProvider)));
+  }
+
+  /** Reads the headers directly from the archive entries without creating class sources. */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+    ArchiveIndex index = archiveIndex.get();
+    IdentifierFactory factory = view.getIdentifierFactory();
+    return index.getEntryNames().stream()
+        .filter(entryName -> !isIgnored(entryName))
+        .flatMap(
+            entryName ->
+                StreamUtils.optionalToStream(
+                    AsmJavaClassProvider.createClassHeader(
+                        path.resolve(entryName),
+                        index.getEntryContents(entryName),
+                        factory.getClassType(ArchiveIndex.toClassName(entryName)))));
+  }
+
+  /**
+   * ignored paths are matched against the path of the entry inside the archive (e.g.
+   * "/ds/Department.class"), as they were when the archive was walked as a file system.
+   */
+  private boolean isIgnored(@Nonnull String entryName) {
+    if (ignoredPaths.isEmpty()) {
+      return false;
+    }
+    String entryPath = "/" + entryName;
+    return ignoredPaths.stream().anyMatch(p -> entryPath.startsWith(p.toString()));
+  }
+
+  @Nonnull
+  private Optional<JavaSootClassSource> createClassSource(
+      @Nonnull ArchiveIndex index,
+      @Nonnull String entryName,
+      @Nonnull ClassType classType,
+      @Nonnull AsmJavaClassProvider classProvider) {
+    return classProvider
+        .createClassSource(
+            this, path.resolve(entryName), index.getEntryContents(entryName), classType)
+        .map(src -> (JavaSootClassSource) src);
+  }
 }
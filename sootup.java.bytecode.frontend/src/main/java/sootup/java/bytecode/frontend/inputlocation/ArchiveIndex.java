@@ -0,0 +1,179 @@
+package sootup.java.bytecode.frontend.inputlocation;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.io.ByteSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.java.core.JavaModuleIdentifierFactory;
+
+/**
+ * The class files of an archive, indexed by their fully qualified class name. The index is built
+ * once from the central directory of the archive, so looking up a class that is not contained does
+ * not touch the archive at all - class files are read directly via a {@link ZipFile}.
+ */
+final class ArchiveIndex implements Closeable {
+
+  private static final String CLASS_FILE_EXTENSION = ".class";
+
+  @Nonnull private final ZipFile zipFile;
+
+  /** open addressing hash table of the fully qualified class names */
+  @Nonnull private final String[] classNames;
+
+  /** the names of the archive entries, at the same index as their class name */
+  @Nonnull private final String[] entryNames;
+
+  /** the names of the archive entries of all contained classes, in central directory order */
+  @Nonnull private final List<String> orderedEntryNames;
+
+  @Nonnull private final Set<String> packageNames;
+
+  private ArchiveIndex(@Nonnull ZipFile zipFile, @Nonnull List<String> classFileEntries) {
+    this.zipFile = zipFile;
+    // keep the load factor at or below 0.5 so that probe sequences stay short
+    int capacity = Integer.highestOneBit(Math.max(classFileEntries.size(), 1) * 2 - 1) << 1;
+    this.classNames = new String[capacity];
+    this.entryNames = new String[capacity];
+    List<String> orderedEntryNames = new ArrayList<>(classFileEntries.size());
+    Set<String> packageNames = new HashSet<>();
+    for (String entryName : classFileEntries) {
+      String className = toClassName(entryName);
+      int packageEnd = className.lastIndexOf('.');
+      packageNames.add(packageEnd < 0 ? "" : className.substring(0, packageEnd));
+      int slot = findSlot(className);
+      // the first entry of a class name wins
+      if (classNames[slot] == null) {
+        classNames[slot] = className;
+        entryNames[slot] = entryName;
+        orderedEntryNames.add(entryName);
+      }
+    }
+    this.orderedEntryNames = Collections.unmodifiableList(orderedEntryNames);
+    this.packageNames = Collections.unmodifiableSet(packageNames);
+  }
+
+  @Nonnull
+  static ArchiveIndex open(@Nonnull Path archive) throws IOException {
+    ZipFile zipFile = new ZipFile(archive.toFile());
+    List<String> classFileEntries = new ArrayList<>(zipFile.size());
+    String moduleInfoFile = JavaModuleIdentifierFactory.MODULE_INFO_FILE + CLASS_FILE_EXTENSION;
+    Enumeration<? extends ZipEntry> entries = zipFile.entries();
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      String entryName = entry.getName();
+      if (!entry.isDirectory()
+          && entryName.endsWith(CLASS_FILE_EXTENSION)
+          && !entryName.endsWith(moduleInfoFile)) {
+        classFileEntries.add(entryName);
+      }
+    }
+    return new ArchiveIndex(zipFile, classFileEntries);
+  }
+
+  @Nonnull
+  static String toClassName(@Nonnull String entryName) {
+    int start = entryName.startsWith("/") ? 1 : 0;
+    return entryName
+        .substring(start, entryName.length() - CLASS_FILE_EXTENSION.length())
+        .replace('/', '.');
+  }
+
+  private int findSlot(@Nonnull String className) {
+    int mask = classNames.length - 1;
+    // spread the bits of String.hashCode() as the table index only uses the lower ones
+    int hash = className.hashCode() * 0x9E3779B9;
+    int slot = (hash ^ (hash >>> 16)) & mask;
+    while (classNames[slot] != null && !classNames[slot].equals(className)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /** @return the name of the archive entry of the given class or null if it is not contained. */
+  @Nullable
+  String getEntryName(@Nonnull String className) {
+    return entryNames[findSlot(className)];
+  }
+
+  /** @return the names of the archive entries of all contained classes in archive order */
+  @Nonnull
+  List<String> getEntryNames() {
+    return orderedEntryNames;
+  }
+
+  int size() {
+    return orderedEntryNames.size();
+  }
+
+  /** @return the names of the packages of all contained classes */
+  @Nonnull
+  Set<String> getPackageNames() {
+    return packageNames;
+  }
+
+  /**
+   * @return the contents of the given entry - read from the archive whenever they are opened. Its
+   *     size is taken from the central directory.
+   */
+  @Nonnull
+  ByteSource getEntryContents(@Nonnull String entryName) {
+    return new ByteSource() {
+      @Override
+      @Nonnull
+      public com.google.common.base.Optional<Long> sizeIfKnown() {
+        ZipEntry entry = zipFile.getEntry(entryName);
+        return entry == null || entry.getSize() < 0
+            ? com.google.common.base.Optional.absent()
+            : com.google.common.base.Optional.of(entry.getSize());
+      }
+
+      @Override
+      @Nonnull
+      public InputStream openStream() throws IOException {
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+          throw new IOException("'" + entryName + "' is not contained in " + zipFile.getName());
+        }
+        return zipFile.getInputStream(entry);
+      }
+    };
+  }
+
+  @Override
+  public void close() throws IOException {
+    zipFile.close();
+  }
+}
@@ -22,9 +22,11 @@ package sootup.java.bytecode.frontend.inputlocation;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
@@ -32,8 +34,10 @@ import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassPathIndex;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
@@ -41,6 +45,7 @@ import sootup.core.util.PathUtils;
 import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.conversion.BodyConversionOptions;
 import sootup.java.core.JavaSootClassSource;
 
 /**
@@ -58,6 +63,9 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
 
   @Nonnull private final Collection<AnalysisInputLocation> cpEntries;
 
+  /** routes class lookups to the class path entries that can contain the class */
+  @Nonnull private final Supplier<ClassPathIndex> classPathIndex;
+
   /** Variable to track if user has specified the SourceType. By default, it will be set to null. */
   private final SourceType srcType;
 
@@ -93,6 +101,8 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     this.bodyInterceptors = bodyInterceptors;
 
     cpEntries = classPath.length() <= 0 ? Collections.emptyList() : explodeClassPath(classPath);
+    List<AnalysisInputLocation> entries = new ArrayList<>(cpEntries);
+    classPathIndex = Suppliers.memoize(() -> new ClassPathIndex(entries));
     if (cpEntries.isEmpty()) {
       throw new IllegalArgumentException(
           "The given classpath does not point to any existing directory/directories.");
@@ -111,6 +121,27 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return bodyInterceptors;
   }
 
+  /**
+   * Applies the options to all entries, e.g. the metrics then contain the totals of the whole class
+   * path.
+   *
+   * @see PathBasedAnalysisInputLocation#setBodyConversionOptions(BodyConversionOptions)
+   */
+  public void setBodyConversionOptions(@Nonnull BodyConversionOptions bodyConversionOptions) {
+    for (AnalysisInputLocation inputLocation : cpEntries) {
+      if (inputLocation instanceof PathBasedAnalysisInputLocation) {
+        ((PathBasedAnalysisInputLocation) inputLocation)
+            .setBodyConversionOptions(bodyConversionOptions);
+      }
+    }
+  }
+
+  /** the input locations of the class path entries in their order */
+  @Nonnull
+  Collection<AnalysisInputLocation> getClassPathEntries() {
+    return cpEntries;
+  }
+
   /**
    * Explode the class or modulepath entries, separated by {@link File#pathSeparator}.
    *
@@ -186,8 +217,36 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
 
   @Override
   @Nonnull
-  public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
+  public Stream<JavaSootClassSource> streamClassSources(@Nonnull View view) {
+    return cpEntries.stream()
+        .flatMap(inputLocation -> inputLocation.streamClassSources(view))
+        .map(src -> (JavaSootClassSource) src);
+  }
+
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+    return cpEntries.stream().flatMap(inputLocation -> inputLocation.streamClassHeaders(view));
+  }
+
+  @Override
+  @Nonnull
+  public Optional<Set<String>> getPackageNames() {
+    Set<String> packageNames = new HashSet<>();
     for (AnalysisInputLocation inputLocation : cpEntries) {
+      Optional<Set<String>> packageNamesOfEntry = inputLocation.getPackageNames();
+      if (!packageNamesOfEntry.isPresent()) {
+        return Optional.empty();
+      }
+      packageNames.addAll(packageNamesOfEntry.get());
+    }
+    return Optional.of(packageNames);
+  }
+
+  @Override
+  @Nonnull
+  public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
+    for (AnalysisInputLocation inputLocation : classPathIndex.get().getCandidates(type)) {
       final Optional<? extends SootClassSource> classSource =
           inputLocation.getClassSource(type, view);
       if (classSource.isPresent()) {
@@ -21,6 +21,7 @@ package sootup.java.bytecode.frontend.inputlocation;
  * #L%
  */
 
+import com.google.common.io.MoreFiles;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.*;
@@ -30,9 +31,11 @@ import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import org.apache.commons.io.FilenameUtils;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.FileType;
 import sootup.core.model.SourceType;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
@@ -143,10 +146,19 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
       @Nonnull View view) {
 
     ClassProvider classProvider = new AsmJavaClassProvider(view);
+    return walkModule(moduleSignature, classProvider.getHandledFileType().getExtensionWithDot())
+        .flatMap(
+            p ->
+                StreamUtils.optionalToStream(
+                    classProvider.createClassSource(this, p, fromPath(p, identifierFactory))))
+        .map(src -> (JavaSootClassSource) src);
+  }
 
-    String moduleInfoFilename =
-        JavaModuleIdentifierFactory.MODULE_INFO_FILE
-            + classProvider.getHandledFileType().getExtensionWithDot();
+  /** Returns the files of the module with the given extension except its module info. */
+  @Nonnull
+  private Stream<Path> walkModule(
+      @Nonnull ModuleSignature moduleSignature, @Nonnull String extensionWithDot) {
+    String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + extensionWithDot;
 
     final Path archiveRoot = theFileSystem.getPath("modules", moduleSignature.getModuleName());
     try {
@@ -155,15 +167,8 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
           .filter(
               filePath ->
                   !Files.isDirectory(filePath)
-                      && filePath
-                          .toString()
-                          .endsWith(classProvider.getHandledFileType().getExtensionWithDot())
-                      && !filePath.toString().endsWith(moduleInfoFilename))
-          .flatMap(
-              p ->
-                  StreamUtils.optionalToStream(
-                      classProvider.createClassSource(this, p, fromPath(p, identifierFactory))))
-          .map(src -> (JavaSootClassSource) src);
+                      && filePath.toString().endsWith(extensionWithDot)
+                      && !filePath.toString().endsWith(moduleInfoFilename));
     } catch (IOException e) {
       throw new ResolveException("Error loading module " + moduleSignature, archiveRoot, e);
     }
@@ -178,6 +183,21 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
         .collect(Collectors.toList());
   }
 
+  /** Reads the headers of the class files of all modules without creating class sources. */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+    IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    return discoverModules().stream()
+        .flatMap(
+            moduleSignature -> walkModule(moduleSignature, FileType.CLASS.getExtensionWithDot()))
+        .flatMap(
+            p ->
+                StreamUtils.optionalToStream(
+                    AsmJavaClassProvider.createClassHeader(
+                        p, MoreFiles.asByteSource(p), fromPath(p, identifierFactory))));
+  }
+
   /**
    * Discover and return all modules contained in the jrt filesystem.
    *
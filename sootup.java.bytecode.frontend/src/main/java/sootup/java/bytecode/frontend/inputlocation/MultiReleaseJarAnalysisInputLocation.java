@@ -37,6 +37,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.Language;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -158,6 +159,13 @@ public class MultiReleaseJarAnalysisInputLocation extends ArchiveBasedAnalysisIn
         Collections.singletonList(Paths.get("/META-INF")));
   }
 
+  /** the versioned classes are not indexed - so this input location is asked for every class */
+  @Override
+  @Nonnull
+  public Optional<Set<String>> getPackageNames() {
+    return Optional.empty();
+  }
+
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
@@ -198,6 +206,31 @@ public class MultiReleaseJarAnalysisInputLocation extends ArchiveBasedAnalysisIn
     return classSources;
   }
 
+  /** the versions of a class have to be selected - so its class sources are not streamed lazily */
+  @Override
+  @Nonnull
+  public Stream<JavaSootClassSource> streamClassSources(@Nonnull View view) {
+    return getClassSources(view).stream();
+  }
+
+  /**
+   * the headers are taken from the selected version of each class - like in getClassSources - so
+   * the type hierarchy contains the classes which exist only in a versioned directory and the
+   * supertypes of the versions which redefine a class
+   */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+    Map<ClassType, ClassHeader> headers = new LinkedHashMap<>();
+    for (AnalysisInputLocation location : inputLocations.values()) {
+      try (Stream<ClassHeader> locationHeaders = location.streamClassHeaders(view)) {
+        // the highest matching version comes first and wins
+        locationHeaders.forEach(header -> headers.putIfAbsent(header.getType(), header));
+      }
+    }
+    return headers.values().stream();
+  }
+
   @Nonnull
   public Language getLanguage() {
     return language;
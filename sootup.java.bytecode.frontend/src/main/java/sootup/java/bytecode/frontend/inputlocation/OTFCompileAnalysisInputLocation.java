@@ -33,8 +33,10 @@ import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.tools.*;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SourceType;
@@ -99,6 +101,12 @@ public class OTFCompileAnalysisInputLocation implements AnalysisInputLocation {
     return inputLocation.getClassSources(view);
   }
 
+  @Nonnull
+  @Override
+  public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+    return inputLocation.streamClassHeaders(view);
+  }
+
   @Nonnull
   @Override
   public SourceType getSourceType() {
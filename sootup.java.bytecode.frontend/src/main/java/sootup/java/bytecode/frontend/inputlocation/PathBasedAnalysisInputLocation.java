@@ -1,5 +1,6 @@
 package sootup.java.bytecode.frontend.inputlocation;
 
+import com.google.common.io.MoreFiles;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
@@ -18,6 +19,8 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.BodyRetention;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
@@ -30,6 +33,7 @@ import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.interceptors.BytecodeBodyInterceptors;
 import sootup.java.bytecode.frontend.conversion.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.conversion.BodyConversionOptions;
 import sootup.java.core.*;
 import sootup.java.core.types.JavaClassType;
 
@@ -67,6 +71,7 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
   @Nonnull protected Collection<Path> ignoredPaths;
   @Nonnull protected final SourceType sourceType;
   @Nonnull protected final List<BodyInterceptor> bodyInterceptors;
+  @Nonnull protected BodyConversionOptions bodyConversionOptions = BodyConversionOptions.DEFAULT;
 
   protected PathBasedAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
     this(path, srcType, Collections.emptyList());
@@ -109,6 +114,25 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     return bodyInterceptors;
   }
 
+  /**
+   * Determines how the Bodies of classes from this location are converted and kept, e.g. with
+   * {@link BodyRetention#SOFT} the Bodies can be dropped under memory pressure and are converted
+   * again on demand. Applies to class sources that are created afterwards.
+   */
+  public void setBodyConversionOptions(@Nonnull BodyConversionOptions bodyConversionOptions) {
+    this.bodyConversionOptions = bodyConversionOptions;
+  }
+
+  @Nonnull
+  public BodyConversionOptions getBodyConversionOptions() {
+    return bodyConversionOptions;
+  }
+
+  @Nonnull
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view, bodyConversionOptions);
+  }
+
   @Nonnull
   public static PathBasedAnalysisInputLocation create(
       @Nonnull Path path, @Nonnull SourceType sourceType) {
@@ -160,30 +184,64 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       @Nonnull Path dirPath,
       @Nonnull IdentifierFactory factory,
       @Nonnull ClassProvider classProvider) {
+    try (Stream<JavaSootClassSource> classSources =
+        streamDirectory(dirPath, factory, classProvider)) {
+      return classSources.collect(Collectors.toList());
+    }
+  }
 
-    final FileType handledFileType = classProvider.getHandledFileType();
-    final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
-    try (final Stream<Path> walk = Files.walk(dirPath)) {
-      return walk.filter(
-              filePath ->
-                  PathUtils.hasExtension(filePath, handledFileType)
-                      && !filePath.toString().endsWith(moduleInfoFilename)
-                      && ignoredPaths.stream()
-                          .noneMatch(p -> filePath.toString().startsWith(p.toString())))
-          .flatMap(
-              p -> {
-                final String fullyQualifiedName = fromPath(dirPath, p);
-
-                return StreamUtils.optionalToStream(
-                    classProvider.createClassSource(
-                        this, p, factory.getClassType(fullyQualifiedName)));
-              })
-          .map(src -> (JavaSootClassSource) src)
-          .collect(Collectors.toList());
+  /**
+   * Creates the class sources of the class files in the given directory lazily while the returned
+   * stream is consumed. The stream has to be closed.
+   */
+  @Nonnull
+  Stream<JavaSootClassSource> streamDirectory(
+      @Nonnull Path dirPath,
+      @Nonnull IdentifierFactory factory,
+      @Nonnull ClassProvider classProvider) {
+    return walkClassFiles(dirPath, classProvider.getHandledFileType())
+        .flatMap(
+            p -> {
+              final String fullyQualifiedName = fromPath(dirPath, p);
+
+              return StreamUtils.optionalToStream(
+                  classProvider.createClassSource(
+                      this, p, factory.getClassType(fullyQualifiedName)));
+            })
+        .map(src -> (JavaSootClassSource) src);
+  }
 
+  /**
+   * Reads the headers of the class files in the given directory lazily while the returned stream is
+   * consumed. The stream has to be closed.
+   */
+  @Nonnull
+  Stream<ClassHeader> streamDirectoryHeaders(
+      @Nonnull Path dirPath, @Nonnull IdentifierFactory factory) {
+    return walkClassFiles(dirPath, FileType.CLASS)
+        .flatMap(
+            p ->
+                StreamUtils.optionalToStream(
+                    AsmJavaClassProvider.createClassHeader(
+                        p, MoreFiles.asByteSource(p), factory.getClassType(fromPath(dirPath, p)))));
+  }
+
+  /** Returns the files of the given type in the directory except module infos and ignored paths. */
+  @Nonnull
+  private Stream<Path> walkClassFiles(@Nonnull Path dirPath, @Nonnull FileType handledFileType) {
+    final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+    final Stream<Path> walk;
+    try {
+      walk = Files.walk(dirPath);
     } catch (IOException e) {
       throw new IllegalArgumentException(e);
     }
+    return walk.filter(
+        filePath ->
+            PathUtils.hasExtension(filePath, handledFileType)
+                && !filePath.toString().endsWith(moduleInfoFilename)
+                && ignoredPaths.stream()
+                    .noneMatch(p -> filePath.toString().startsWith(p.toString())));
   }
 
   @Nonnull
@@ -269,13 +327,13 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
         return Optional.empty();
       }
 
-      return getSingleClass((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getSingleClass((JavaClassType) type, path, createClassProvider(view));
     }
 
     @Nonnull
     @Override
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
-      AsmJavaClassProvider classProvider = new AsmJavaClassProvider(view);
+      AsmJavaClassProvider classProvider = createClassProvider(view);
       IdentifierFactory factory = view.getIdentifierFactory();
       Path dirPath = this.path.getParent();
 
@@ -323,14 +381,26 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
       // FIXME: 1) store the classprovider reference as a field; 2) and above too; and 3) move view
       // which is only used in SootNode to be just there?
-      return walkDirectory(path, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+      return walkDirectory(path, view.getIdentifierFactory(), createClassProvider(view));
+    }
+
+    @Override
+    @Nonnull
+    public Stream<JavaSootClassSource> streamClassSources(@Nonnull View view) {
+      return streamDirectory(path, view.getIdentifierFactory(), createClassProvider(view));
+    }
+
+    @Override
+    @Nonnull
+    public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+      return streamDirectoryHeaders(path, view.getIdentifierFactory());
     }
 
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
         @Nonnull ClassType type, @Nonnull View view) {
-      return getClassSourceInternal((JavaClassType) type, path, new AsmJavaClassProvider(view));
+      return getClassSourceInternal((JavaClassType) type, path, createClassProvider(view));
     }
   }
 
@@ -392,6 +462,15 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
       this(path, srcType, bodyInterceptors, Collections.emptyList());
     }
 
+    @Override
+    public void setBodyConversionOptions(@Nonnull BodyConversionOptions bodyConversionOptions) {
+      super.setBodyConversionOptions(bodyConversionOptions);
+      for (AnalysisInputLocation inputLocation : containedInputLocations) {
+        ((PathBasedAnalysisInputLocation) inputLocation)
+            .setBodyConversionOptions(bodyConversionOptions);
+      }
+    }
+
     @Override
     @Nonnull
     public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
@@ -406,6 +485,21 @@ public abstract class PathBasedAnalysisInputLocation implements AnalysisInputLoc
           .collect(Collectors.toList());
     }
 
+    @Override
+    @Nonnull
+    public Stream<JavaSootClassSource> streamClassSources(@Nonnull View view) {
+      return containedInputLocations.stream()
+          .flatMap(inputLoc -> inputLoc.streamClassSources(view))
+          .map(src -> (JavaSootClassSource) src);
+    }
+
+    @Override
+    @Nonnull
+    public Stream<ClassHeader> streamClassHeaders(@Nonnull View view) {
+      return containedInputLocations.stream()
+          .flatMap(inputLoc -> inputLoc.streamClassHeaders(view));
+    }
+
     @Override
     @Nonnull
     public Optional<JavaSootClassSource> getClassSource(
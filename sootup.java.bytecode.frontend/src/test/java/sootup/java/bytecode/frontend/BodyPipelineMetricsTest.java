@@ -0,0 +1,106 @@
+package sootup.java.bytecode.frontend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyPipelineMetrics;
+import sootup.core.transform.RunTimeBodyInterceptor;
+import sootup.interceptors.CopyPropagator;
+import sootup.interceptors.NopEliminator;
+import sootup.interceptors.TypeAssigner;
+import sootup.java.bytecode.frontend.conversion.BodyConversionOptions;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Tests the metrics of the conversion and the interceptors per input location. */
+@Tag("Java8")
+public class BodyPipelineMetricsTest {
+
+  private static ArchiveBasedAnalysisInputLocation createInputLocation(
+      String jar, List<BodyInterceptor> bodyInterceptors) {
+    return new ArchiveBasedAnalysisInputLocation(
+        Paths.get("../shared-test-resources/" + jar), SourceType.Application, bodyInterceptors);
+  }
+
+  private static long resolveBodies(JavaView view) {
+    return view.getClasses()
+        .flatMap(sootClass -> sootClass.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .peek(SootMethod::getBody)
+        .count();
+  }
+
+  @Test
+  public void testStagesOfInputLocations() {
+    ArchiveBasedAnalysisInputLocation miniApp =
+        createInputLocation(
+            "java-miniapps/MiniApp.jar",
+            Arrays.asList(new NopEliminator(), new RunTimeBodyInterceptor(new TypeAssigner())));
+    ArchiveBasedAnalysisInputLocation jpush =
+        createInputLocation(
+            "soot-1580/jpush-android_v3.0.5.jar", Arrays.asList(new CopyPropagator()));
+    BodyPipelineMetrics miniAppMetrics = new BodyPipelineMetrics();
+    BodyPipelineMetrics jpushMetrics = new BodyPipelineMetrics();
+    miniApp.setBodyConversionOptions(BodyConversionOptions.DEFAULT.withBodyMetrics(miniAppMetrics));
+    jpush.setBodyConversionOptions(BodyConversionOptions.DEFAULT.withBodyMetrics(jpushMetrics));
+    assertSame(miniAppMetrics, miniApp.getBodyConversionOptions().getBodyMetrics());
+
+    long miniAppBodies = resolveBodies(new JavaView(miniApp));
+    long jpushBodies = resolveBodies(new JavaView(jpush));
+
+    // the metrics are kept apart per input location and list the stages in pipeline order
+    assertEquals(
+        Arrays.asList(BodyPipelineMetrics.CONVERSION, "NopEliminator", "TypeAssigner"),
+        miniAppMetrics.getStages().stream()
+            .map(BodyPipelineMetrics.StageMetrics::getName)
+            .collect(Collectors.toList()));
+    assertEquals(
+        Arrays.asList(BodyPipelineMetrics.CONVERSION, "CopyPropagator"),
+        jpushMetrics.getStages().stream()
+            .map(BodyPipelineMetrics.StageMetrics::getName)
+            .collect(Collectors.toList()));
+
+    for (BodyPipelineMetrics.StageMetrics stage : miniAppMetrics.getStages()) {
+      assertEquals(miniAppBodies, stage.getInvocations());
+      assertEquals(miniAppBodies, Arrays.stream(stage.getInvocationHistogram()).sum());
+      assertEquals(stage.getNanos(), Arrays.stream(stage.getNanoHistogram()).sum());
+      assertTrue(stage.getNanos() > 0);
+    }
+    BodyPipelineMetrics.StageMetrics conversion =
+        jpushMetrics.getStage(BodyPipelineMetrics.CONVERSION).get();
+    assertEquals(jpushBodies, conversion.getInvocations());
+    assertEquals(0, conversion.getStmtsBefore());
+    assertTrue(conversion.getStmtsAfter() > 0);
+    assertTrue(conversion.getLocalsAfter() > 0);
+    // the following stage starts with the result of the conversion
+    BodyPipelineMetrics.StageMetrics copyPropagator = jpushMetrics.getStage("CopyPropagator").get();
+    assertEquals(conversion.getStmtsAfter(), copyPropagator.getStmtsBefore());
+    assertEquals(conversion.getLocalsAfter(), copyPropagator.getLocalsBefore());
+    if (BodyPipelineMetrics.isAllocationMeasured()) {
+      assertTrue(conversion.getAllocatedBytes() > 0);
+    }
+
+    jpushMetrics.reset();
+    assertTrue(jpushMetrics.getStages().isEmpty());
+  }
+
+  @Test
+  public void testBuckets() {
+    assertEquals(0, BodyPipelineMetrics.bucketOf(0));
+    assertEquals(1, BodyPipelineMetrics.bucketOf(1));
+    assertEquals(2, BodyPipelineMetrics.bucketOf(3));
+    assertEquals(3, BodyPipelineMetrics.bucketOf(4));
+    assertEquals(BodyPipelineMetrics.BUCKET_COUNT - 1, BodyPipelineMetrics.bucketOf(1 << 20));
+    for (int bucket = 0; bucket < BodyPipelineMetrics.BUCKET_COUNT; bucket++) {
+      assertEquals(bucket, BodyPipelineMetrics.bucketOf(BodyPipelineMetrics.lowerBoundOf(bucket)));
+    }
+  }
+}
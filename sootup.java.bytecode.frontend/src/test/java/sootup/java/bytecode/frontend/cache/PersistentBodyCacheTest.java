@@ -0,0 +1,182 @@
+package sootup.java.bytecode.frontend.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.RunTimeBodyInterceptor;
+import sootup.interceptors.Aggregator;
+import sootup.interceptors.BytecodeBodyInterceptors;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class PersistentBodyCacheTest {
+
+  private final Path jar = Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+  private Path cacheDir;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    cacheDir = Files.createTempDirectory("sootup-body-cache");
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(cacheDir.toFile());
+  }
+
+  private Map<String, String> resolveBodies(AnalysisInputLocation inputLocation) {
+    return resolveBodies(Collections.singletonList(inputLocation));
+  }
+
+  private Map<String, String> resolveBodies(List<AnalysisInputLocation> inputLocations) {
+    JavaView view = new JavaView(inputLocations);
+    Map<String, String> bodies = new HashMap<>();
+    view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(JavaSootMethod::hasBody)
+        .forEach(m -> bodies.put(m.getSignature().toString(), m.getBody().toString()));
+    return bodies;
+  }
+
+  private AnalysisInputLocation cachedInputLocation(PersistentBodyCache bodyCache) {
+    return new ArchiveBasedAnalysisInputLocation(
+        jar,
+        SourceType.Application,
+        BytecodeBodyInterceptors.Default.getBodyInterceptors(),
+        Collections.emptyList(),
+        bodyCache);
+  }
+
+  private BodyCacheSegment segment(PersistentBodyCache bodyCache) {
+    return bodyCache.getSegment(jar, BytecodeBodyInterceptors.Default.getBodyInterceptors());
+  }
+
+  @Test
+  public void testWarmRunLoadsAllBodiesFromCache() throws IOException {
+    Map<String, String> expected;
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      expected = resolveBodies(cachedInputLocation(bodyCache));
+      assertFalse(expected.isEmpty());
+      assertEquals(0, segment(bodyCache).getHitCount());
+      assertEquals(expected.size(), segment(bodyCache).size());
+    }
+
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      assertEquals(expected, resolveBodies(cachedInputLocation(bodyCache)));
+      assertEquals(expected.size(), segment(bodyCache).getHitCount());
+      assertEquals(0, segment(bodyCache).getMissCount());
+    }
+  }
+
+  @Test
+  public void testDifferentInterceptorChainUsesAnotherSegment() throws IOException {
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      resolveBodies(cachedInputLocation(bodyCache));
+    }
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      BodyCacheSegment segment = bodyCache.getSegment(jar, Collections.emptyList());
+      assertNotEquals(segment(bodyCache).getFile(), segment.getFile());
+      assertEquals(0, segment.size());
+    }
+  }
+
+  @Test
+  public void testClassPathIsPartOfTheKey() throws IOException {
+    Path classPathJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+    Map<String, String> expected;
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      expected = resolveBodies(cachedInputLocation(bodyCache));
+    }
+
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      // the type hierarchy of another class path may result in other Bodies
+      resolveBodies(
+          Arrays.asList(
+              cachedInputLocation(bodyCache),
+              new ArchiveBasedAnalysisInputLocation(classPathJar, SourceType.Library)));
+      BodyCacheSegment segment =
+          bodyCache.getSegment(
+              jar,
+              Collections.singletonList(bodyCache.classPathDigest(classPathJar)),
+              BytecodeBodyInterceptors.Default.getBodyInterceptors());
+      assertNotEquals(segment(bodyCache).getFile(), segment.getFile());
+      assertEquals(0, segment.getHitCount());
+      assertEquals(expected.size(), segment.size());
+      assertEquals(0, segment(bodyCache).getHitCount());
+    }
+  }
+
+  @Test
+  public void testInterceptorConfigurationIsPartOfTheKey() throws IOException {
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      BodyCacheSegment segment =
+          bodyCache.getSegment(jar, Collections.singletonList(new Aggregator(false)));
+      assertSame(
+          segment, bodyCache.getSegment(jar, Collections.singletonList(new Aggregator(false))));
+      assertNotEquals(
+          segment.getFile(),
+          bodyCache.getSegment(jar, Collections.singletonList(new Aggregator(true))).getFile());
+      // measuring an interceptor does not change its Bodies
+      assertSame(
+          segment,
+          bodyCache.getSegment(
+              jar,
+              Collections.singletonList(new RunTimeBodyInterceptor(new Aggregator(false)))));
+
+      // an interceptor without a key is refused instead of serving Bodies of another configuration
+      List<BodyInterceptor> unkeyed = Collections.singletonList((builder, view) -> {});
+      assertThrows(IllegalArgumentException.class, () -> bodyCache.getSegment(jar, unkeyed));
+      assertThrows(
+          IllegalArgumentException.class,
+          () ->
+              new ArchiveBasedAnalysisInputLocation(
+                  jar, SourceType.Application, unkeyed, Collections.emptyList(), bodyCache));
+    }
+  }
+
+  @Test
+  public void testDamagedCacheFallsBackToBytecode() throws IOException {
+    Map<String, String> expected;
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      expected = resolveBodies(cachedInputLocation(bodyCache));
+    }
+
+    Path file;
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      file = files.findFirst().get();
+    }
+    // overwrite the encoded Bodies at the end of the file, the index stays intact
+    try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+      byte[] garbage = new byte[(int) (raf.length() / 4)];
+      Arrays.fill(garbage, (byte) 0x7F);
+      raf.seek(raf.length() - garbage.length);
+      raf.write(garbage);
+    }
+
+    try (PersistentBodyCache bodyCache = new PersistentBodyCache(cacheDir)) {
+      // damaged entries fail their checksum and are rebuilt from the bytecode
+      Map<String, String> bodies = resolveBodies(cachedInputLocation(bodyCache));
+      assertEquals(expected.keySet(), bodies.keySet());
+      BodyCacheSegment segment = segment(bodyCache);
+      assertTrue(segment.getMissCount() > 0);
+      assertEquals(expected.size(), segment.getHitCount() + segment.getMissCount());
+    }
+  }
+}
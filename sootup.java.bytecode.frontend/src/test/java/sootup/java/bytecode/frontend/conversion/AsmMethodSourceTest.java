@@ -1,18 +1,37 @@
 package sootup.java.bytecode.frontend.conversion;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import categories.TestCategories;
+import com.google.common.io.ByteSource;
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipFile;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.frontend.BodyRetention;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.model.Body;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 import sootup.core.model.SourceType;
 import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
 import sootup.java.bytecode.frontend.inputlocation.DefaultRTJarAnalysisInputLocation;
 import sootup.java.bytecode.frontend.inputlocation.JavaClassPathAnalysisInputLocation;
 import sootup.java.core.JavaIdentifierFactory;
@@ -23,6 +42,119 @@ import sootup.java.core.views.JavaView;
 @Tag(TestCategories.JAVA_8_CATEGORY)
 public class AsmMethodSourceTest {
 
+  private List<JavaSootMethod> getConcreteMethodsOfMiniApp(
+      BodyRetention bodyRetention, boolean releasingInstructions) {
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(
+            Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+            SourceType.Application,
+            Collections.emptyList());
+    inputLocation.setBodyConversionOptions(
+        BodyConversionOptions.DEFAULT
+            .withBodyRetention(bodyRetention)
+            .withReleasingInstructions(releasingInstructions));
+    JavaView view = new JavaView(inputLocation);
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testStrongBodyIsNotReleased() {
+    List<JavaSootMethod> methods = getConcreteMethodsOfMiniApp(BodyRetention.STRONG, false);
+    assertFalse(methods.isEmpty());
+    for (JavaSootMethod method : methods) {
+      assertFalse(method.isBodyResolved());
+      Body body = method.getBody();
+      assertTrue(method.isBodyResolved());
+      assertFalse(method.releaseBody());
+      assertSame(body, method.getBody());
+      assertTrue(((AsmMethodSource) method.getBodySource()).instructions.size() > 0);
+    }
+  }
+
+  @Test
+  public void testReleasedBodyIsResolvedAgain() {
+    List<JavaSootMethod> methods = getConcreteMethodsOfMiniApp(BodyRetention.RELEASABLE, true);
+    assertFalse(methods.isEmpty());
+    for (JavaSootMethod method : methods) {
+      Body body = method.getBody();
+      // the instructions are dropped once they are converted
+      assertEquals(0, ((AsmMethodSource) method.getBodySource()).instructions.size());
+      assertSame(body, method.getBody());
+
+      assertTrue(method.releaseBody());
+      assertFalse(method.isBodyResolved());
+      Body rematerializedBody = method.getBody();
+      assertNotSame(body, rematerializedBody);
+      assertEquals(body.toString(), rematerializedBody.toString());
+      assertEquals(0, ((AsmMethodSource) method.getBodySource()).instructions.size());
+    }
+  }
+
+  @Test
+  public void testSoftBodyIsResolvedAgain() {
+    List<JavaSootMethod> methods = getConcreteMethodsOfMiniApp(BodyRetention.SOFT, false);
+    assertFalse(methods.isEmpty());
+    for (JavaSootMethod method : methods) {
+      Body body = method.getBody();
+      // strongly reachable via body, i.e. the soft reference is not cleared
+      assertSame(body, method.getBody());
+      assertTrue(method.releaseBody());
+      assertEquals(body.toString(), method.getBody().toString());
+    }
+  }
+
+  @Test
+  public void testMissingMethodInChangedClassFile() throws IOException {
+    Path jar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(jar, SourceType.Application, Collections.emptyList());
+    JavaView view = new JavaView(inputLocation);
+    byte[] employee;
+    byte[] department;
+    try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+      employee =
+          ByteStreams.toByteArray(zipFile.getInputStream(zipFile.getEntry("ds/Employee.class")));
+      department =
+          ByteStreams.toByteArray(zipFile.getInputStream(zipFile.getEntry("ds/Department.class")));
+    }
+    // the class file is replaced by another one after it was read for the first time
+    AtomicInteger reads = new AtomicInteger();
+    ByteSource classBytes =
+        new ByteSource() {
+          @Override
+          public InputStream openStream() {
+            return new ByteArrayInputStream(reads.getAndIncrement() == 0 ? employee : department);
+          }
+        };
+    AsmJavaClassProvider classProvider =
+        new AsmJavaClassProvider(
+            view,
+            BodyConversionOptions.DEFAULT
+                .withBodyRetention(BodyRetention.RELEASABLE)
+                .withReleasingInstructions(true));
+    SootClassSource classSource =
+        classProvider
+            .createClassSource(
+                inputLocation,
+                Paths.get("ds/Employee.class"),
+                classBytes,
+                view.getIdentifierFactory().getClassType("ds.Employee"))
+            .get();
+    SootMethod method =
+        classSource.resolveMethods().stream()
+            .filter(m -> m.isConcrete() && m.getName().equals("getEmpName"))
+            .findFirst()
+            .get();
+    method.getBody();
+    assertTrue(method.releaseBody());
+
+    // the released instructions can not be read again instead of resolving an empty Body
+    assertThrows(IllegalStateException.class, method::getBody);
+  }
+
   @Test
   public void testFix_StackUnderrun_convertPutFieldInsn_init() {
 
@@ -26,16 +26,26 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import categories.TestCategories;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
 import sootup.core.model.SourceType;
 import sootup.core.signatures.MethodSubSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 import sootup.java.core.language.JavaLanguage;
 import sootup.java.core.views.JavaView;
@@ -168,6 +178,51 @@ public class MultiReleaseJarAnalysisInputLocationTest extends AnalysisInputLocat
     assertTrue(collectedClassesWPrintBody10.get(0).contains("java 10"));
   }
 
+  @Test
+  public void testTypeHierarchyOfSelectedVersions() throws IOException {
+    Path jar = Files.createTempFile("sootup-mrjar", ".jar");
+    try {
+      Manifest manifest = new Manifest();
+      manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+      manifest.getMainAttributes().put(new Attributes.Name("Multi-Release"), "true");
+      try (OutputStream out = Files.newOutputStream(jar);
+          JarOutputStream jarStream = new JarOutputStream(out, manifest)) {
+        writeClass(jarStream, "mr/Base", "java/lang/Object");
+        writeClass(jarStream, "mr/Redefined", "java/lang/Object");
+        writeClass(jarStream, "META-INF/versions/9/mr/Redefined", "mr/Base");
+        writeClass(jarStream, "META-INF/versions/9/mr/OnlyIn9", "mr/Base");
+      }
+
+      JavaView view =
+          new JavaView(
+              new MultiReleaseJarAnalysisInputLocation(
+                  jar, SourceType.Application, new JavaLanguage(9)));
+      ClassType base = getIdentifierFactory().getClassType("mr.Base");
+      ClassType redefined = getIdentifierFactory().getClassType("mr.Redefined");
+      ClassType onlyIn9 = getIdentifierFactory().getClassType("mr.OnlyIn9");
+
+      TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+      assertTrue(typeHierarchy.contains(onlyIn9));
+      assertEquals(Optional.of(base), typeHierarchy.superClassOf(onlyIn9));
+      assertEquals(Optional.of(base), typeHierarchy.superClassOf(redefined));
+      assertEquals(2, typeHierarchy.directSubtypesOf(base).count());
+    } finally {
+      Files.delete(jar);
+    }
+  }
+
+  private static void writeClass(JarOutputStream jarStream, String entryName, String superName)
+      throws IOException {
+    String className = entryName.replaceFirst("^META-INF/versions/\\d+/", "");
+    ClassWriter classWriter = new ClassWriter(0);
+    classWriter.visit(
+        Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className, null, superName, null);
+    classWriter.visitEnd();
+    jarStream.putNextEntry(new JarEntry(entryName + ".class"));
+    jarStream.write(classWriter.toByteArray());
+    jarStream.closeEntry();
+  }
+
   @Test
   public void testVersions() {
     List<Integer> languageVersions = MultiReleaseJarAnalysisInputLocation.getLanguageVersions(mrj);
@@ -23,16 +23,23 @@ package sootup.java.bytecode.frontend.inputlocation;
  */
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import categories.TestCategories;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.cache.ClassWeigher;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.EagerInputLocation;
 import sootup.core.jimple.basic.NoPositionInformation;
@@ -96,6 +103,103 @@ public class PathBasedAnalysisInputLocationTest extends AnalysisInputLocationTes
     testClassReceival(pathBasedNamespace, sigs, 6);
   }
 
+  @Test
+  public void testJarIndex() {
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(jar, SourceType.Application);
+    JavaView view = new JavaView(inputLocation);
+
+    ClassType employee = getIdentifierFactory().getClassType("Employee", "ds");
+    Optional<JavaSootClassSource> classSource = inputLocation.getClassSource(employee, view);
+    assertTrue(classSource.isPresent());
+    assertEquals(jar.resolve("ds/Employee.class"), classSource.get().getSourcePath());
+    assertTrue(classSource.get().resolveMethods().size() > 0);
+
+    // misses are answered by the index
+    assertFalse(
+        inputLocation
+            .getClassSource(getIdentifierFactory().getClassType("Employee"), view)
+            .isPresent());
+    assertFalse(
+        inputLocation
+            .getClassSource(getIdentifierFactory().getClassType("ds.employee"), view)
+            .isPresent());
+
+    assertEquals(6, inputLocation.getClassSources(view).size());
+  }
+
+  @Test
+  public void testJarIgnoredPaths() {
+    // ignored paths denote paths inside the archive
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(
+            jar,
+            SourceType.Application,
+            Collections.emptyList(),
+            Collections.singletonList(Paths.get("/ds")));
+    JavaView view = new JavaView(inputLocation);
+
+    Collection<JavaSootClassSource> classSources = inputLocation.getClassSources(view);
+    assertEquals(3, classSources.size());
+    assertTrue(
+        classSources.stream()
+            .noneMatch(cs -> cs.getClassType().getPackageName().getName().equals("ds")));
+  }
+
+  @Test
+  public void testJarClassSourcesInArchiveOrder() throws IOException {
+    List<String> classNames = new ArrayList<>();
+    try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        String entryName = entries.nextElement().getName();
+        if (entryName.endsWith(".class")) {
+          classNames.add(entryName.substring(0, entryName.length() - 6).replace('/', '.'));
+        }
+      }
+    }
+
+    ArchiveBasedAnalysisInputLocation inputLocation =
+        new ArchiveBasedAnalysisInputLocation(jar, SourceType.Application);
+    JavaView view = new JavaView(inputLocation);
+    List<String> classSourceNames = new ArrayList<>();
+    for (JavaSootClassSource classSource : inputLocation.getClassSources(view)) {
+      classSourceNames.add(classSource.getClassType().getFullyQualifiedName());
+    }
+    // NoClass.class does not contain a valid class file
+    classNames.remove("NoClass");
+    assertEquals(classNames, classSourceNames);
+  }
+
+  @Test
+  public void testJarClassWeighsLikeClassFile() throws IOException {
+    ArchiveBasedAnalysisInputLocation archiveLocation =
+        new ArchiveBasedAnalysisInputLocation(jar, SourceType.Application);
+    ClassType employee = getIdentifierFactory().getClassType("Employee", "ds");
+
+    Path directory = Files.createTempDirectory("sootup-miniapp");
+    Path classFile = directory.resolve("ds/Employee.class");
+    Files.createDirectories(classFile.getParent());
+    try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+      ZipEntry entry = zipFile.getEntry("ds/Employee.class");
+      Files.copy(zipFile.getInputStream(entry), classFile);
+
+      SootClass fromJar = new JavaView(archiveLocation).getClass(employee).get();
+      assertEquals(entry.getSize(), fromJar.getClassSource().getSourceSize().getAsLong());
+
+      SootClass fromDirectory =
+          new JavaView(PathBasedAnalysisInputLocation.create(directory, SourceType.Application))
+              .getClass(employee)
+              .get();
+      ClassWeigher weigher = ClassWeigher.approximateRetainedSize();
+      assertEquals(weigher.weigh(fromDirectory), weigher.weigh(fromJar));
+    } finally {
+      Files.delete(classFile);
+      Files.delete(classFile.getParent());
+      Files.delete(directory);
+    }
+  }
+
   @Test
   public void testWar() {
     PathBasedAnalysisInputLocation pathBasedNamespace =
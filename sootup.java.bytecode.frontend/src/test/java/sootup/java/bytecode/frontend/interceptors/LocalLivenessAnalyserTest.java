@@ -1,6 +1,9 @@
 package sootup.java.bytecode.frontend.interceptors;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 import categories.TestCategories;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 import org.junit.jupiter.api.Tag;
@@ -12,11 +15,13 @@ import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.common.constant.IntConstant;
 import sootup.core.jimple.common.stmt.BranchingStmt;
 import sootup.core.jimple.common.stmt.FallsThroughStmt;
+import sootup.core.jimple.common.stmt.JGotoStmt;
 import sootup.core.jimple.common.stmt.JIfStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.model.Position;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
 import sootup.core.types.VoidType;
 import sootup.core.util.ImmutableUtils;
 import sootup.interceptors.LocalLivenessAnalyser;
@@ -91,6 +96,71 @@ public class LocalLivenessAnalyserTest {
     AssertUtils.assertSetsEquiv(Collections.emptySet(), analyser.getLiveLocalsAfterStmt(ret));
   }
 
+  /**
+   * a = 0;
+   *
+   * <p>label1: b = a + 0;
+   *
+   * <p>c = c + b;
+   *
+   * <p>a = b + 2;
+   *
+   * <p>goto label1;
+   */
+  @Test
+  public void testLoopWithoutExit() {
+    Body.BodyBuilder builder = Body.builder();
+    MutableStmtGraph stmtGraph = builder.getStmtGraph();
+    BranchingStmt gotoLabel1 = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    stmtGraph.putEdge(aeq0, beqaplus1);
+    stmtGraph.putEdge(beqaplus1, ceqcplusb);
+    stmtGraph.putEdge(ceqcplusb, aeqbplus2);
+    stmtGraph.putEdge(aeqbplus2, gotoLabel1);
+    stmtGraph.putEdge(gotoLabel1, JGotoStmt.BRANCH_IDX, beqaplus1);
+    stmtGraph.setStartingStmt(aeq0);
+
+    LocalLivenessAnalyser analyser = new LocalLivenessAnalyser(stmtGraph);
+    Set<Local> cSet = ImmutableUtils.immutableSet(c);
+    Set<Local> ac = ImmutableUtils.immutableSet(a, c);
+    Set<Local> bc = ImmutableUtils.immutableSet(b, c);
+    AssertUtils.assertSetsEquiv(cSet, analyser.getLiveLocalsBeforeStmt(aeq0));
+    AssertUtils.assertSetsEquiv(ac, analyser.getLiveLocalsBeforeStmt(beqaplus1));
+    AssertUtils.assertSetsEquiv(bc, analyser.getLiveLocalsAfterStmt(ceqcplusb));
+    AssertUtils.assertSetsEquiv(ac, analyser.getLiveLocalsAfterStmt(aeqbplus2));
+    AssertUtils.assertSetsEquiv(ac, analyser.getLiveLocalsAfterStmt(gotoLabel1));
+    assertThrows(RuntimeException.class, () -> analyser.getLiveLocalsBeforeStmt(ret));
+  }
+
+  /**
+   * a = 0; and b = a + 0; are covered by a trap whose handler is return c;
+   *
+   * <p>the Locals that are live in the handler are live after each Stmt of the covered block
+   */
+  @Test
+  public void testExceptionalSuccessor() {
+    Body.BodyBuilder builder = Body.builder();
+    MutableStmtGraph stmtGraph = builder.getStmtGraph();
+    Stmt returnB = JavaJimple.newReturnStmt(b, noStmtPositionInfo);
+    ClassType exception = factory.getClassType("java.lang.Exception");
+    stmtGraph.addBlock(Arrays.asList(aeq0, beqaplus1), Collections.singletonMap(exception, ret));
+    stmtGraph.addNode(returnB, Collections.emptyMap());
+    stmtGraph.putEdge(beqaplus1, returnB);
+    stmtGraph.setStartingStmt(aeq0);
+
+    LocalLivenessAnalyser analyser = new LocalLivenessAnalyser(stmtGraph);
+    Set<Local> cSet = ImmutableUtils.immutableSet(c);
+    AssertUtils.assertSetsEquiv(cSet, analyser.getLiveLocalsBeforeStmt(aeq0));
+    AssertUtils.assertSetsEquiv(
+        ImmutableUtils.immutableSet(a, c), analyser.getLiveLocalsAfterStmt(aeq0));
+    AssertUtils.assertSetsEquiv(
+        ImmutableUtils.immutableSet(b, c), analyser.getLiveLocalsAfterStmt(beqaplus1));
+    AssertUtils.assertSetsEquiv(
+        ImmutableUtils.immutableSet(b), analyser.getLiveLocalsBeforeStmt(returnB));
+    AssertUtils.assertSetsEquiv(cSet, analyser.getLiveLocalsBeforeStmt(ret));
+    assertTrue(analyser.getLiveLocalsBeforeStmt(ret).contains(c));
+    assertFalse(analyser.getLiveLocalsBeforeStmt(ret).contains(a));
+  }
+
   private Body createBody() {
 
     Body.BodyBuilder builder = Body.builder();
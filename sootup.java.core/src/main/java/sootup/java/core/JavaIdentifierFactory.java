@@ -24,6 +24,7 @@ package sootup.java.core;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -37,6 +38,7 @@ import sootup.core.signatures.FieldSubSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.MethodSubSignature;
 import sootup.core.signatures.PackageName;
+import sootup.core.signatures.SignatureInterner;
 import sootup.core.types.ArrayType;
 import sootup.core.types.ClassType;
 import sootup.core.types.NullType;
@@ -55,7 +57,9 @@ public class JavaIdentifierFactory implements IdentifierFactory {
 
   @Nonnull
   public static final MethodSubSignature STATIC_INITIALIZER =
-      new MethodSubSignature("<clinit>", Collections.emptyList(), VoidType.getInstance());
+      SignatureInterner.getInstance()
+          .intern(
+              new MethodSubSignature("<clinit>", Collections.emptyList(), VoidType.getInstance()));
 
   @Nonnull
   private static final Pattern SOOT_FIELD_SUB_SIGNATURE_PATTERN =
@@ -238,7 +242,7 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   }
 
   /**
-   * Always creates a new MethodSignature AND a new ClassSignature.
+   * Returns the interned MethodSignature, see {@link SignatureInterner}.
    *
    * @param fullyQualifiedNameDeclClass the fully-qualified name of the declaring class
    * @param methodName the method's name
@@ -253,17 +257,11 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       final String fqReturnType,
       final List<String> parameters) {
     JavaClassType declaringClass = getClassType(fullyQualifiedNameDeclClass);
-    Type returnType = getType(fqReturnType);
-    List<Type> parameterSignatures = new ArrayList<>();
-    for (String fqParameterName : parameters) {
-      Type parameterSignature = getType(fqParameterName);
-      parameterSignatures.add(parameterSignature);
-    }
-    return new MethodSignature(declaringClass, methodName, parameterSignatures, returnType);
+    return getMethodSignature(declaringClass, methodName, fqReturnType, parameters);
   }
 
   /**
-   * Always creates a new MethodSignature reusing the given ClassSignature.
+   * Returns the interned MethodSignature, see {@link SignatureInterner}.
    *
    * @param declaringClassSignature the ClassSignature of the declaring class
    * @param methodName the method's name
@@ -278,13 +276,13 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       final String fqReturnType,
       final List<String> parameters) {
     Type returnType = getType(fqReturnType);
-    List<Type> parameterSignatures = new ArrayList<>();
+    ImmutableList.Builder<Type> parameterSignatures =
+        ImmutableList.builderWithExpectedSize(parameters.size());
     for (String fqParameterName : parameters) {
-      Type parameterSignature = getType(fqParameterName);
-      parameterSignatures.add(parameterSignature);
+      parameterSignatures.add(getType(fqParameterName));
     }
-    return new MethodSignature(
-        declaringClassSignature, methodName, parameterSignatures, returnType);
+    return getMethodSignature(
+        declaringClassSignature, methodName, returnType, parameterSignatures.build());
   }
 
   @Override
@@ -294,14 +292,17 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       final Type fqReturnType,
       final List<Type> parameters) {
 
-    return new MethodSignature(declaringClassSignature, methodName, parameters, fqReturnType);
+    return getMethodSignature(
+        declaringClassSignature, getMethodSubSignature(methodName, fqReturnType, parameters));
   }
 
   @Override
   @Nonnull
   public MethodSignature getMethodSignature(
       @Nonnull ClassType declaringClassSignature, @Nonnull MethodSubSignature subSignature) {
-    return new MethodSignature(declaringClassSignature, subSignature);
+    SignatureInterner interner = SignatureInterner.getInstance();
+    return interner.intern(
+        new MethodSignature(declaringClassSignature, interner.intern(subSignature)));
   }
 
   private static final class MethodSignatureParserPatternHolder {
@@ -405,7 +406,8 @@ public class JavaIdentifierFactory implements IdentifierFactory {
       @Nonnull String name,
       @Nonnull Type returnType,
       @Nonnull Iterable<? extends Type> parameterSignatures) {
-    return new MethodSubSignature(name, parameterSignatures, returnType);
+    return SignatureInterner.getInstance()
+        .intern(new MethodSubSignature(name, parameterSignatures, returnType));
   }
 
   @Nonnull
@@ -561,27 +563,28 @@ public class JavaIdentifierFactory implements IdentifierFactory {
   @Override
   public FieldSignature getFieldSignature(
       final String fieldName, final ClassType declaringClassSignature, final String fieldType) {
-    Type type = getType(fieldType);
-    return new FieldSignature(declaringClassSignature, fieldName, type);
+    return getFieldSignature(fieldName, declaringClassSignature, getType(fieldType));
   }
 
   @Override
   public FieldSignature getFieldSignature(
       final String fieldName, final ClassType declaringClassSignature, final Type fieldType) {
-    return new FieldSignature(declaringClassSignature, fieldName, fieldType);
+    return getFieldSignature(declaringClassSignature, getFieldSubSignature(fieldName, fieldType));
   }
 
   @Override
   @Nonnull
   public FieldSignature getFieldSignature(
       @Nonnull ClassType declaringClassSignature, @Nonnull FieldSubSignature subSignature) {
-    return new FieldSignature(declaringClassSignature, subSignature);
+    SignatureInterner interner = SignatureInterner.getInstance();
+    return interner.intern(
+        new FieldSignature(declaringClassSignature, interner.intern(subSignature)));
   }
 
   @Nonnull
   @Override
   public FieldSubSignature getFieldSubSignature(@Nonnull String name, @Nonnull Type type) {
-    return new FieldSubSignature(name, type);
+    return SignatureInterner.getInstance().intern(new FieldSubSignature(name, type));
   }
 
   @Nonnull
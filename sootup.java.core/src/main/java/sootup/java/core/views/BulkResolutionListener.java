@@ -0,0 +1,68 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import sootup.core.inputlocation.AnalysisInputLocation;
+
+/**
+ * Receives notifications about the progress of a parallel bulk resolution of the classes of a
+ * {@link JavaView}, see {@link JavaView#getClasses(java.util.concurrent.Executor,
+ * BulkResolutionListener)}.
+ *
+ * <p>The notifications are sent from the threads of the executor that resolves the classes, so
+ * implementations have to be thread-safe.
+ */
+public interface BulkResolutionListener {
+
+  /** A listener that ignores all notifications. */
+  BulkResolutionListener NONE = new BulkResolutionListener() {};
+
+  /**
+   * Called after the class sources of an input location have been discovered.
+   *
+   * @param location the input location that was scanned
+   * @param classSourceCount the number of class sources that were found in the location
+   * @param discoveryNanos the time spent to discover the class sources
+   */
+  default void classSourcesDiscovered(
+      @Nonnull AnalysisInputLocation location, int classSourceCount, long discoveryNanos) {}
+
+  /**
+   * Called after a class has been resolved.
+   *
+   * @param resolvedClasses the number of classes that are resolved so far
+   * @param totalClasses the number of classes that will be resolved in total
+   */
+  default void progress(int resolvedClasses, int totalClasses) {}
+
+  /**
+   * Called after all classes of an input location have been resolved.
+   *
+   * @param location the input location whose classes were resolved
+   * @param resolvedClasses the number of classes that were built from the location
+   * @param buildNanos the accumulated time of all threads spent to build the classes
+   */
+  default void locationResolved(
+      @Nonnull AnalysisInputLocation location, int resolvedClasses, long buildNanos) {}
+}
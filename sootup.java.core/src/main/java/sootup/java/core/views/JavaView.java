@@ -22,27 +22,59 @@ package sootup.java.core.views;
  * #L%
  */
 
+import com.google.common.base.Suppliers;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import sootup.core.cache.BoundedClassCache;
+import sootup.core.cache.CacheStatistics;
 import sootup.core.cache.ClassCache;
 import sootup.core.cache.FullCache;
 import sootup.core.cache.provider.ClassCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassPathIndex;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.types.ClassType;
 import sootup.core.views.AbstractView;
+import sootup.core.views.TraversalCacheMode;
 import sootup.java.core.*;
 
 /**
  * The Class JavaView manages the Java classes of the application being analyzed. This view cannot
  * be altered after its creation.
  *
+ * <p>The view can be queried concurrently: a class that is already cached is returned without any
+ * locking, and a class that is requested by several threads at the same time is built exactly once
+ * while the other threads wait for its result.
+ *
  * @author Linghui Luo created on 31.07.2018
  * @author Jan Martin Persch
  */
@@ -54,6 +86,17 @@ public class JavaView extends AbstractView {
 
   protected volatile boolean isFullyResolved = false;
 
+  /**
+   * Routes a class lookup to the input locations that can contain the class. Built on the first
+   * lookup and replaced if the input locations change.
+   */
+  @Nonnull private volatile Supplier<ClassPathIndex> classPathIndex = createClassPathIndex();
+
+  /** The resolutions that are currently in progress, indexed by the type of the resolved class. */
+  @Nonnull
+  private final ConcurrentHashMap<ClassType, ClassResolution> inFlightResolutions =
+      new ConcurrentHashMap<>();
+
   public JavaView(@Nonnull AnalysisInputLocation inputLocation) {
     this(Collections.singletonList(inputLocation));
   }
@@ -80,7 +123,7 @@ public class JavaView extends AbstractView {
   /** Resolves all classes that are part of the view and stores them in the cache. */
   @Override
   @Nonnull
-  public synchronized Stream<JavaSootClass> getClasses() {
+  public Stream<JavaSootClass> getClasses() {
     if (isFullyResolved && cache instanceof FullCache) {
       return cache.getClasses().stream().map(clazz -> (JavaSootClass) clazz);
     }
@@ -97,17 +140,314 @@ public class JavaView extends AbstractView {
     return resolvedClasses;
   }
 
+  /**
+   * Resolves all classes that are part of the view in parallel and stores them in the cache.
+   *
+   * @see #getClasses(Executor, BulkResolutionListener)
+   */
+  @Nonnull
+  public Stream<JavaSootClass> getClasses(@Nonnull Executor executor) {
+    return getClasses(executor, BulkResolutionListener.NONE);
+  }
+
+  /**
+   * Resolves all classes that are part of the view in parallel and stores them in the cache. The
+   * discovery of the class sources of each input location and the building of each class are
+   * submitted as separate tasks to the given executor. In contrast to {@link #getClasses()}, all
+   * classes are resolved before this method returns.
+   *
+   * <p>The returned stream contains the classes in the same order as the sequential {@link
+   * #getClasses()}, and if a type is provided by multiple input locations the class of the first
+   * input location is used.
+   *
+   * @param executor the executor that runs the discovery and build tasks
+   * @param listener is notified about the progress and the timing of each input location
+   */
+  @Nonnull
+  public Stream<JavaSootClass> getClasses(
+      @Nonnull Executor executor, @Nonnull BulkResolutionListener listener) {
+    if (isFullyResolved && cache instanceof FullCache) {
+      return getClasses();
+    }
+
+    List<CompletableFuture<List<JavaSootClassSource>>> discoveries =
+        new ArrayList<>(inputLocations.size());
+    for (AnalysisInputLocation location : inputLocations) {
+      discoveries.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                long start = System.nanoTime();
+                List<JavaSootClassSource> classSources = new ArrayList<>();
+                for (AbstractClassSource classSource : location.getClassSources(this)) {
+                  classSources.add((JavaSootClassSource) classSource);
+                }
+                listener.classSourcesDiscovered(
+                    location, classSources.size(), System.nanoTime() - start);
+                return classSources;
+              },
+              executor));
+    }
+
+    List<List<JavaSootClassSource>> classSourcesPerLocation = new ArrayList<>();
+    // like the sequential resolution: the first class source of a type wins (see splitpackage)
+    Map<ClassType, JavaSootClassSource> firstClassSources = new LinkedHashMap<>();
+    for (CompletableFuture<List<JavaSootClassSource>> discovery : discoveries) {
+      List<JavaSootClassSource> classSources = join(discovery);
+      classSourcesPerLocation.add(classSources);
+      for (JavaSootClassSource classSource : classSources) {
+        firstClassSources.putIfAbsent(classSource.getClassType(), classSource);
+      }
+    }
+
+    int totalClasses = firstClassSources.size();
+    AtomicInteger resolvedClasses = new AtomicInteger();
+    Map<ClassType, CompletableFuture<JavaSootClass>> builds = new HashMap<>(totalClasses);
+    List<CompletableFuture<Void>> locationsResolved = new ArrayList<>(inputLocations.size());
+    for (int i = 0; i < inputLocations.size(); i++) {
+      AnalysisInputLocation location = inputLocations.get(i);
+      LongAdder buildNanos = new LongAdder();
+      List<CompletableFuture<JavaSootClass>> buildsOfLocation = new ArrayList<>();
+      for (JavaSootClassSource classSource : classSourcesPerLocation.get(i)) {
+        ClassType classType = classSource.getClassType();
+        if (firstClassSources.get(classType) != classSource) {
+          continue;
+        }
+        CompletableFuture<JavaSootClass> build =
+            CompletableFuture.supplyAsync(
+                () -> {
+                  long start = System.nanoTime();
+                  JavaSootClass theClass = buildClassFrom(classSource).orElse(null);
+                  buildNanos.add(System.nanoTime() - start);
+                  listener.progress(resolvedClasses.incrementAndGet(), totalClasses);
+                  return theClass;
+                },
+                executor);
+        builds.put(classType, build);
+        buildsOfLocation.add(build);
+      }
+      locationsResolved.add(
+          CompletableFuture.allOf(buildsOfLocation.toArray(new CompletableFuture[0]))
+              .thenRun(
+                  () ->
+                      listener.locationResolved(
+                          location, buildsOfLocation.size(), buildNanos.sum())));
+    }
+
+    List<JavaSootClass> classes = new ArrayList<>();
+    for (List<JavaSootClassSource> classSources : classSourcesPerLocation) {
+      for (JavaSootClassSource classSource : classSources) {
+        JavaSootClass theClass = join(builds.get(classSource.getClassType()));
+        if (theClass != null) {
+          classes.add(theClass);
+        }
+      }
+    }
+    locationsResolved.forEach(JavaView::join);
+
+    isFullyResolved = true;
+
+    return classes.stream();
+  }
+
+  /**
+   * Resolves the Bodies of all methods of the given classes in parallel.
+   *
+   * @see #resolveBodies(Collection, Executor, int)
+   */
+  @Nonnull
+  public BodyResolutionResult resolveBodiesOfClasses(
+      @Nonnull Collection<? extends SootClass> classes,
+      @Nonnull Executor executor,
+      int maxPendingMethods) {
+    List<SootMethod> methods = new ArrayList<>();
+    for (SootClass sootClass : classes) {
+      methods.addAll(sootClass.getMethods());
+    }
+    return resolveBodies(methods, executor, maxPendingMethods);
+  }
+
+  /**
+   * Resolves the Bodies of the given methods in parallel, each method as a separate task of the
+   * given executor. Methods without a Body are skipped. At most <code>maxPendingMethods</code>
+   * tasks are submitted at the same time: the calling thread waits for a task to finish before it
+   * submits the next one, so a bounded executor is not flooded with the tasks of a large batch. If
+   * the executor rejects a task, the calling thread resolves the Body itself.
+   *
+   * <p>A method whose Body can not be resolved does not abort the resolution of the other methods,
+   * its exception is reported in the returned result. All Bodies are resolved when this method
+   * returns.
+   *
+   * @param executor the executor that runs the resolution tasks, e.g. a fixed thread pool
+   * @param maxPendingMethods the maximum number of submitted tasks that are not finished yet
+   */
+  @Nonnull
+  public BodyResolutionResult resolveBodies(
+      @Nonnull Collection<? extends SootMethod> methods,
+      @Nonnull Executor executor,
+      int maxPendingMethods) {
+    if (maxPendingMethods < 1) {
+      throw new IllegalArgumentException(
+          "The number of pending methods has to be positive: " + maxPendingMethods);
+    }
+
+    Semaphore pendingMethods = new Semaphore(maxPendingMethods);
+    AtomicInteger resolvedBodies = new AtomicInteger();
+    Map<MethodSignature, Throwable> failures = new ConcurrentHashMap<>();
+    AtomicReference<Error> fatalError = new AtomicReference<>();
+    for (SootMethod method : methods) {
+      if (!method.hasBody()) {
+        continue;
+      }
+      pendingMethods.acquireUninterruptibly();
+      Runnable task =
+          () -> {
+            try {
+              method.getBody();
+              resolvedBodies.incrementAndGet();
+            } catch (RuntimeException | StackOverflowError e) {
+              // e.g. malformed bytecode or a failing interceptor; a deeply nested method can
+              // overflow the stack of the recursive interceptors
+              failures.put(method.getSignature(), e);
+            } catch (Error e) {
+              fatalError.compareAndSet(null, e);
+            } finally {
+              pendingMethods.release();
+            }
+          };
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        task.run();
+      }
+      if (fatalError.get() != null) {
+        break;
+      }
+    }
+    // all tasks are finished once every permit is released again
+    pendingMethods.acquireUninterruptibly(maxPendingMethods);
+
+    if (fatalError.get() != null) {
+      throw fatalError.get();
+    }
+    return new BodyResolutionResult(resolvedBodies.get(), failures);
+  }
+
+  /**
+   * Reads the headers of the classes without resolving the classes. The input locations are
+   * scanned one after another in the calling thread, and if a type is provided by multiple input
+   * locations the header of the first input location is used like in {@link #getClasses()}. Once
+   * all classes are resolved, the headers of the cached classes are returned.
+   *
+   * @see #getClassHeaders(Executor)
+   */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> getClassHeaders() {
+    // scanning reads the class files, so it is not run on the common pool but in the caller
+    return getClassHeaders(Runnable::run);
+  }
+
+  /**
+   * Reads the headers of the classes without resolving the classes, like {@link
+   * #getClassHeaders()}. The scan of each input location is submitted as a separate task to the
+   * given executor.
+   *
+   * @param executor the executor that runs the scans of the input locations
+   */
+  @Nonnull
+  public Stream<ClassHeader> getClassHeaders(@Nonnull Executor executor) {
+    if (isFullyResolved && cache instanceof FullCache) {
+      return cache.getClasses().stream().map(ClassHeader::of);
+    }
+
+    List<CompletableFuture<List<ClassHeader>>> scans = new ArrayList<>(inputLocations.size());
+    for (AnalysisInputLocation location : inputLocations) {
+      scans.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                try (Stream<ClassHeader> headers = location.streamClassHeaders(this)) {
+                  return headers.collect(Collectors.toList());
+                }
+              },
+              executor));
+    }
+
+    Map<ClassType, ClassHeader> firstHeaders = new LinkedHashMap<>();
+    for (CompletableFuture<List<ClassHeader>> scan : scans) {
+      for (ClassHeader header : join(scan)) {
+        firstHeaders.putIfAbsent(header.getType(), header);
+      }
+    }
+    return firstHeaders.values().stream();
+  }
+
+  /**
+   * Visits the classes of the input locations in the order of {@link #getClasses()}. The class
+   * sources of an input location are created while the classes are visited (see {@link
+   * AnalysisInputLocation#streamClassSources(sootup.core.views.View)}), and besides the current
+   * batch only the types of the visited classes are retained - to skip classes that are shadowed by
+   * a class of an earlier input location.
+   */
+  @Override
+  public void traverseClasses(
+      int batchSize,
+      @Nonnull TraversalCacheMode cacheMode,
+      @Nonnull Consumer<? super List<? extends SootClass>> batchVisitor) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("The batch size has to be positive: " + batchSize);
+    }
+    Set<ClassType> visitedTypes = new HashSet<>();
+    List<JavaSootClass> batch = new ArrayList<>(batchSize);
+    for (AnalysisInputLocation location : inputLocations) {
+      try (Stream<? extends AbstractClassSource> classSources =
+          location.streamClassSources(this)) {
+        Iterator<? extends AbstractClassSource> iterator = classSources.iterator();
+        while (iterator.hasNext()) {
+          AbstractClassSource classSource = iterator.next();
+          if (!visitedTypes.add(classSource.getClassType())) {
+            continue;
+          }
+          batch.add(
+              cacheMode == TraversalCacheMode.CACHE
+                  ? buildClassFrom(classSource).get()
+                  : touchClass(classSource));
+          if (batch.size() == batchSize) {
+            batchVisitor.accept(Collections.unmodifiableList(batch));
+            batch = new ArrayList<>(batchSize);
+          }
+        }
+      }
+    }
+    if (!batch.isEmpty()) {
+      batchVisitor.accept(Collections.unmodifiableList(batch));
+    }
+
+    if (cacheMode == TraversalCacheMode.CACHE) {
+      isFullyResolved = true;
+    }
+  }
+
+  /** Returns the cached class of the given class source or builds it without caching it. */
+  @Nonnull
+  private JavaSootClass touchClass(@Nonnull AbstractClassSource classSource) {
+    JavaSootClass cachedClass = (JavaSootClass) cache.getClass(classSource.getClassType());
+    if (cachedClass != null) {
+      return cachedClass;
+    }
+    return (JavaSootClass)
+        classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+  }
+
   /** Resolves the class matching the provided {@link ClassType ClassType}. */
   @Override
   @Nonnull
-  public synchronized Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+  public Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
     JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
     if (cachedClass != null) {
       return Optional.of(cachedClass);
     }
 
-    Optional<JavaSootClassSource> abstractClass = getClassSource(type);
-    return abstractClass.flatMap(this::buildClassFrom);
+    return resolveClass(type, () -> getClassSource(type));
   }
 
   @Nonnull
@@ -135,38 +475,136 @@ public class JavaView extends AbstractView {
     return identifierFactory;
   }
 
+  /** Returns the input locations of this view in the order in which they are searched. */
+  @Nonnull
+  public List<AnalysisInputLocation> getInputLocations() {
+    return Collections.unmodifiableList(inputLocations);
+  }
+
   /** Returns the number of classes that are currently stored in the cache. */
   public int getCachedClassesCount() {
     return cache.size();
   }
 
+  /**
+   * Returns the hit, miss and eviction counters of the cache, if the cache is a {@link
+   * BoundedClassCache}.
+   */
+  @Nonnull
+  public Optional<CacheStatistics> getCacheStatistics() {
+    if (cache instanceof BoundedClassCache) {
+      return Optional.of(((BoundedClassCache) cache).getStatistics());
+    }
+    return Optional.empty();
+  }
+
   @Nonnull
   protected Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type) {
-    return inputLocations
-        .parallelStream()
-        .map(location -> location.getClassSource(type, this))
-        .filter(Optional::isPresent)
-        // like javas behaviour: if multiple matching Classes(ClassTypes) are found on the
-        // classpath the first is returned (see splitpackage)
-        .limit(1)
-        .map(Optional::get)
-        .map(classSource -> (JavaSootClassSource) classSource)
-        .findAny();
+    // like javas behaviour: if multiple matching Classes(ClassTypes) are found on the
+    // classpath the first is returned (see splitpackage)
+    for (AnalysisInputLocation location : getClassPathIndex().getCandidates(type)) {
+      Optional<? extends AbstractClassSource> classSource = location.getClassSource(type, this);
+      if (classSource.isPresent()) {
+        return Optional.of((JavaSootClassSource) classSource.get());
+      }
+    }
+    return Optional.empty();
+  }
+
+  /** Returns the index that routes class lookups to the input locations of this view. */
+  @Nonnull
+  protected ClassPathIndex getClassPathIndex() {
+    return classPathIndex.get();
+  }
+
+  /**
+   * Discards the index of the input locations, it is rebuilt on the next lookup. Has to be called
+   * whenever the input locations of the view change.
+   */
+  protected void invalidateClassPathIndex() {
+    classPathIndex = createClassPathIndex();
   }
 
   @Nonnull
-  protected synchronized Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+  private Supplier<ClassPathIndex> createClassPathIndex() {
+    return Suppliers.memoize(() -> new ClassPathIndex(inputLocations));
+  }
 
+  @Nonnull
+  protected Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
     ClassType classType = classSource.getClassType();
-    JavaSootClass theClass;
-    if (cache.hasClass(classType)) {
-      theClass = (JavaSootClass) cache.getClass(classType);
-    } else {
-      theClass =
-          (JavaSootClass)
-              classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
-      cache.putClass(classType, theClass);
-    }
-    return Optional.of(theClass);
+    JavaSootClass cachedClass = (JavaSootClass) cache.getClass(classType);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
+    }
+    return resolveClass(classType, () -> Optional.of(classSource));
+  }
+
+  /**
+   * Builds the class of the given type from the class source that is provided by <code>
+   * classSourceSupplier</code> and stores it in the cache. If another thread is already resolving
+   * the same type, the current thread waits for that resolution instead of building the class a
+   * second time.
+   */
+  @Nonnull
+  private Optional<JavaSootClass> resolveClass(
+      @Nonnull ClassType type,
+      @Nonnull Supplier<Optional<? extends AbstractClassSource>> classSourceSupplier) {
+    ClassResolution resolution = new ClassResolution();
+    ClassResolution inFlight = inFlightResolutions.putIfAbsent(type, resolution);
+    if (inFlight != null) {
+      if (inFlight.owner == Thread.currentThread()) {
+        // reentrant request of the same type while it is built: do not wait for ourselves
+        return classSourceSupplier.get().map(this::buildAndCacheClass);
+      }
+      return join(inFlight);
+    }
+
+    try {
+      // the class could have been cached after our cache lookup and before we registered the
+      // resolution (hasClass first, to not count a second miss of the same lookup)
+      JavaSootClass cachedClass =
+          cache.hasClass(type) ? (JavaSootClass) cache.getClass(type) : null;
+      Optional<JavaSootClass> result =
+          cachedClass != null
+              ? Optional.of(cachedClass)
+              : classSourceSupplier.get().map(this::buildAndCacheClass);
+      resolution.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      resolution.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightResolutions.remove(type, resolution);
+    }
+  }
+
+  @Nonnull
+  private JavaSootClass buildAndCacheClass(@Nonnull AbstractClassSource classSource) {
+    JavaSootClass theClass =
+        (JavaSootClass)
+            classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+    // prefer the class that made it into the cache so every caller sees the same instance
+    return (JavaSootClass) cache.putClassIfAbsent(classSource.getClassType(), theClass);
+  }
+
+  /** Waits for the given future and rethrows unchecked exceptions of its computation as is. */
+  private static <T> T join(@Nonnull CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /** A pending resolution of a class, remembering the thread that builds the class. */
+  private static class ClassResolution extends CompletableFuture<Optional<JavaSootClass>> {
+    @Nonnull private final Thread owner = Thread.currentThread();
   }
 }
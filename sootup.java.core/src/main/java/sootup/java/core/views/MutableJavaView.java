@@ -23,26 +23,38 @@ package sootup.java.core.views;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.core.ViewChangeListener;
 import sootup.core.cache.MutableClassCache;
 import sootup.core.cache.provider.MutableFullCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.ClassHeader;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.signatures.MethodSubSignature;
 import sootup.core.types.ClassType;
 import sootup.core.views.MutableView;
 import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootClassSource;
 import sootup.java.core.JavaSootMethod;
 
 /**
  * This view, in contrast to other views, can be modified. Classes and methods can be added, removed
- * and replaced within the view.
+ * and replaced within the view. After each modification {@link #getTypeHierarchy()} returns a
+ * hierarchy of the modified classes: an added class is inserted into a copy of the current
+ * hierarchy, any other modification discards it. A type hierarchy that was obtained before a
+ * modification still describes the classes at that time.
  */
 public class MutableJavaView extends JavaView implements MutableView {
   private final List<ViewChangeListener> changeListeners = new LinkedList<>();
+  /** Types that were removed from the view and must not be resolved from the input locations. */
+  private final Set<ClassType> removedTypes = ConcurrentHashMap.newKeySet();
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(MutableJavaView.class);
 
   public MutableJavaView(@Nonnull AnalysisInputLocation inputLocation) {
@@ -50,7 +62,70 @@ public class MutableJavaView extends JavaView implements MutableView {
   }
 
   public MutableJavaView(@Nonnull List<AnalysisInputLocation> inputLocations) {
-    super(inputLocations, new MutableFullCacheProvider());
+    super(new CopyOnWriteArrayList<>(inputLocations), new MutableFullCacheProvider());
+  }
+
+  /**
+   * Appends the provided input location to the input locations of the view. Classes that are
+   * already resolved are not affected, i.e. a class of the new input location only shadows a class
+   * of another input location if that class was removed from the view.
+   */
+  public void addInputLocation(@Nonnull AnalysisInputLocation inputLocation) {
+    inputLocations.add(inputLocation);
+    invalidateClassPathIndex();
+    isFullyResolved = false;
+  }
+
+  /**
+   * Removes the provided input location from the view. Classes that were already resolved from it
+   * stay in the view until they are removed.
+   */
+  public void removeInputLocation(@Nonnull AnalysisInputLocation inputLocation) {
+    if (inputLocations.remove(inputLocation)) {
+      invalidateClassPathIndex();
+    }
+  }
+
+  /**
+   * Returns the headers of the classes in the view. The classes of a mutable view do not have to
+   * match its input locations, as classes can be added and removed - so the classes of the input
+   * locations are resolved and the headers are taken from the cache, which then contains every
+   * class of the view.
+   */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> getClassHeaders() {
+    getClasses().forEach(theClass -> {});
+    return new ArrayList<>(cache.getClasses()).stream().map(ClassHeader::of);
+  }
+
+  /**
+   * Returns the headers of the classes in the view like {@link #getClassHeaders()}, the classes of
+   * the input locations are resolved by the given executor.
+   */
+  @Override
+  @Nonnull
+  public Stream<ClassHeader> getClassHeaders(@Nonnull Executor executor) {
+    getClasses(executor).forEach(theClass -> {});
+    return new ArrayList<>(cache.getClasses()).stream().map(ClassHeader::of);
+  }
+
+  @Override
+  @Nonnull
+  protected Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type) {
+    if (removedTypes.contains(type)) {
+      return Optional.empty();
+    }
+    return super.getClassSource(type);
+  }
+
+  @Override
+  @Nonnull
+  protected Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+    if (removedTypes.contains(classSource.getClassType())) {
+      return Optional.empty();
+    }
+    return super.buildClassFrom(classSource);
   }
 
   /**
@@ -63,16 +138,22 @@ public class MutableJavaView extends JavaView implements MutableView {
       logger.warn("Class " + classType + " already exists in view.");
       return;
     }
+    removedTypes.remove(classType);
+    // before the class is cached, as a hierarchy that is not scanned yet would contain it already
+    addToTypeHierarchy(clazz);
     this.cache.putClass(classType, clazz);
     this.fireAddition(clazz);
   }
 
   /**
    * Removes the class that matches the provided {@link ClassType ClassType} from the mutable view.
+   * The class is not resolved from the input locations again, unless it is added to the view.
    */
   public void removeClass(ClassType classType) {
+    removedTypes.add(classType);
     JavaSootClass removedClass =
         (JavaSootClass) ((MutableClassCache) this.cache).removeClass(classType);
+    invalidateTypeHierarchy();
     this.fireRemoval(removedClass);
   }
 
@@ -33,6 +33,7 @@ import sootup.core.IdentifierFactory;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.PackageName;
+import sootup.core.signatures.SignatureInterner;
 import sootup.core.types.*;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaModuleIdentifierFactory;
@@ -369,6 +370,80 @@ public class JavaIdentifierFactoryTest {
     assertEquals(((ArrayType) classSignature2).getBaseType(), base);
   }
 
+  @Test
+  public void getInternedMethodSignature() {
+    JavaIdentifierFactory typeFactory = JavaIdentifierFactory.getInstance();
+    JavaClassType declClass = typeFactory.getClassType("java.lang.System");
+    MethodSignature methodSignature1 =
+        typeFactory.getMethodSignature(
+            declClass, "arraycopy", "void", Collections.singletonList("java.lang.Object"));
+    MethodSignature methodSignature2 =
+        typeFactory.parseMethodSignature("<java.lang.System: void arraycopy(java.lang.Object)>");
+    assertSame(methodSignature1, methodSignature2);
+    assertSame(methodSignature1.getSubSignature(), methodSignature2.getSubSignature());
+    assertTrue(methodSignature1.isInterned());
+    assertSame(
+        methodSignature1,
+        typeFactory.getMethodSignature(declClass, methodSignature1.getSubSignature()));
+
+    MethodSignature otherMethodSignature =
+        typeFactory.getMethodSignature(
+            declClass, "arraycopy", "void", Collections.singletonList("java.lang.String"));
+    assertNotEquals(methodSignature1, otherMethodSignature);
+    assertNotEquals(methodSignature1.getId(), otherMethodSignature.getId());
+
+    // signatures created via their constructor are equal, but not interned
+    MethodSignature constructedSignature =
+        new MethodSignature(
+            declClass,
+            "arraycopy",
+            Collections.singletonList(typeFactory.getType("java.lang.Object")),
+            VoidType.getInstance());
+    assertFalse(constructedSignature.isInterned());
+    assertEquals(MethodSignature.NOT_INTERNED, constructedSignature.getId());
+    assertEquals(methodSignature1, constructedSignature);
+    assertEquals(methodSignature1.hashCode(), constructedSignature.hashCode());
+    assertSame(methodSignature1, SignatureInterner.getInstance().intern(constructedSignature));
+  }
+
+  @Test
+  public void getInternedFieldSignature() {
+    JavaIdentifierFactory typeFactory = JavaIdentifierFactory.getInstance();
+    JavaClassType declClass = typeFactory.getClassType("java.lang.System");
+    FieldSignature fieldSignature1 =
+        typeFactory.getFieldSignature("out", declClass, "java.io.PrintStream");
+    FieldSignature fieldSignature2 =
+        typeFactory.parseFieldSignature("<java.lang.System: java.io.PrintStream out>");
+    assertSame(fieldSignature1, fieldSignature2);
+    assertTrue(fieldSignature1.getSubSignature().isInterned());
+
+    FieldSignature otherFieldSignature =
+        typeFactory.getFieldSignature("err", declClass, "java.io.PrintStream");
+    assertNotEquals(fieldSignature1, otherFieldSignature);
+    assertNotEquals(fieldSignature1.getId(), otherFieldSignature.getId());
+    assertEquals(
+        fieldSignature1,
+        new FieldSignature(declClass, "out", typeFactory.getType("java.io.PrintStream")));
+  }
+
+  @Test
+  public void getStableSignatureIds() {
+    JavaIdentifierFactory typeFactory = JavaIdentifierFactory.getInstance();
+    JavaClassType declClass = typeFactory.getClassType("StableIds");
+    int methodId =
+        typeFactory.getMethodSignature(declClass, "m", "void", Collections.emptyList()).getId();
+    int fieldId = typeFactory.getFieldSignature("f", declClass, "int").getId();
+    assertNotEquals(MethodSignature.NOT_INTERNED, methodId);
+    assertNotEquals(FieldSignature.NOT_INTERNED, fieldId);
+
+    // the unreferenced signatures are not collected, so they keep their ids
+    System.gc();
+    assertEquals(
+        methodId,
+        typeFactory.getMethodSignature(declClass, "m", "void", Collections.emptyList()).getId());
+    assertEquals(fieldId, typeFactory.getFieldSignature("f", declClass, "int").getId());
+  }
+
   @Test
   public void testParse() {
     // not ok!
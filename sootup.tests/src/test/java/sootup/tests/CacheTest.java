@@ -1,6 +1,8 @@
 package sootup.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -9,9 +11,14 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.cache.CacheStatistics;
+import sootup.core.cache.ClassWeigher;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.cache.provider.LRUCacheProvider;
+import sootup.core.cache.provider.SoftReferenceCacheProvider;
+import sootup.core.cache.provider.TinyLfuCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
 import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
@@ -75,4 +82,56 @@ public class CacheTest {
     newView.getClasses().count();
     assertEquals(6, newView.getCachedClassesCount());
   }
+
+  /** Test the {@link sootup.core.cache.TinyLfuCache} class */
+  @Test
+  public void tinyLfuCacheTest() {
+    JavaView view =
+        new JavaView(inputLocations, new TinyLfuCacheProvider(3, ClassWeigher.singleton(), false));
+    assertEquals(0, view.getCachedClassesCount());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    SootClass miniAppClass = view.getClassOrThrow(miniAppClassType);
+    for (int i = 0; i < 10; i++) {
+      assertSame(miniAppClass, view.getClassOrThrow(miniAppClassType));
+    }
+
+    // a scan over all classes must not evict the frequently used class
+    assertEquals(6, view.getClasses().count());
+    assertTrue(view.getCachedClassesCount() <= 3);
+    assertSame(miniAppClass, view.getClassOrThrow(miniAppClassType));
+
+    CacheStatistics statistics = view.getCacheStatistics().get();
+    assertTrue(statistics.getHitCount() >= 11);
+    assertTrue(statistics.getEvictionCount() >= 3);
+    assertTrue(statistics.getMissCount() >= 6);
+  }
+
+  /** Test the {@link sootup.core.cache.TinyLfuCache} class bounded by the approximate heap size */
+  @Test
+  public void weightedTinyLfuCacheTest() {
+    JavaView view = new JavaView(inputLocations, new TinyLfuCacheProvider(16 * 1024));
+    view.getClasses().count();
+    assertTrue(view.getCachedClassesCount() < 6);
+
+    JavaView unboundedView = new JavaView(inputLocations, new TinyLfuCacheProvider(Long.MAX_VALUE));
+    unboundedView.getClasses().count();
+    assertEquals(6, unboundedView.getCachedClassesCount());
+    assertEquals(0, unboundedView.getCacheStatistics().get().getEvictionCount());
+  }
+
+  /** Test the {@link sootup.core.cache.SoftReferenceCache} class */
+  @Test
+  public void softReferenceCacheTest() {
+    JavaView view = new JavaView(inputLocations, new SoftReferenceCacheProvider());
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    SootClass miniAppClass = view.getClassOrThrow(miniAppClassType);
+    // the class is strongly reachable, so it can not be reclaimed
+    assertSame(miniAppClass, view.getClassOrThrow(miniAppClassType));
+
+    assertEquals(6, view.getClasses().count());
+    CacheStatistics statistics = view.getCacheStatistics().get();
+    assertEquals(2, statistics.getHitCount());
+    assertEquals(6, statistics.getMissCount());
+  }
 }
@@ -0,0 +1,152 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.SootClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassPathIndex;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+import sootup.java.core.views.MutableJavaView;
+
+/** Checks that the {@link ClassPathIndex} of a view only routes lookups to matching locations. */
+@Tag("Java8")
+public class ClassPathIndexTest {
+  static final Path miniAppJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+  static final Path jpushJar =
+      Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+  static final Path classDirectory =
+      Paths.get("../shared-test-resources/miniTestSuite/java6/binary");
+
+  @Test
+  public void testLookupOnlyProbesMatchingLocations() {
+    CountingInputLocation miniApp = new CountingInputLocation(archive(miniAppJar));
+    CountingInputLocation jpush = new CountingInputLocation(archive(jpushJar));
+    JavaView view = new JavaView(Arrays.asList(miniApp, jpush));
+
+    ClassType jpushClass =
+        view.getIdentifierFactory().getClassType("cn.jpush.android.service.TagAliasReceiver");
+    assertTrue(view.getClass(jpushClass).isPresent());
+    assertEquals(0, miniApp.probes.get());
+    assertEquals(1, jpush.probes.get());
+
+    ClassType employee = view.getIdentifierFactory().getClassType("ds.Employee");
+    assertTrue(view.getClass(employee).isPresent());
+    assertEquals(1, miniApp.probes.get());
+    assertEquals(1, jpush.probes.get());
+
+    // a class of a package that no location contains does not probe any location
+    assertFalse(view.getClass(view.getIdentifierFactory().getClassType("a.b.Missing")).isPresent());
+    assertEquals(1, miniApp.probes.get());
+    assertEquals(1, jpush.probes.get());
+  }
+
+  @Test
+  public void testUnindexedLocationsAreAlwaysProbed() {
+    CountingInputLocation directory =
+        new CountingInputLocation(
+            PathBasedAnalysisInputLocation.create(classDirectory, SourceType.Application));
+    CountingInputLocation jpush = new CountingInputLocation(archive(jpushJar));
+    JavaView view = new JavaView(Arrays.asList(directory, jpush));
+
+    assertTrue(view.getClass(view.getIdentifierFactory().getClassType("Employee")).isPresent());
+    assertFalse(view.getClass(view.getIdentifierFactory().getClassType("a.b.Missing")).isPresent());
+    assertEquals(2, directory.probes.get());
+    assertEquals(0, jpush.probes.get());
+  }
+
+  @Test
+  public void testFirstLocationWins() {
+    AnalysisInputLocation first = archive(miniAppJar);
+    AnalysisInputLocation second = archive(miniAppJar);
+    JavaView view = new JavaView(Arrays.asList(first, second));
+
+    JavaSootClass employee =
+        view.getClass(view.getIdentifierFactory().getClassType("ds.Employee")).get();
+    assertSame(first, employee.getClassSource().getAnalysisInputLocation());
+  }
+
+  @Test
+  public void testMutableViewRebuildsIndex() {
+    AnalysisInputLocation miniApp = archive(miniAppJar);
+    MutableJavaView view = new MutableJavaView(Collections.singletonList(miniApp));
+    ClassType jpushClass =
+        view.getIdentifierFactory().getClassType("cn.jpush.android.service.TagAliasReceiver");
+    assertFalse(view.getClass(jpushClass).isPresent());
+
+    AnalysisInputLocation jpush = archive(jpushJar);
+    view.addInputLocation(jpush);
+    assertTrue(view.getClass(jpushClass).isPresent());
+
+    view.removeClass(jpushClass);
+    view.removeInputLocation(jpush);
+    assertFalse(view.getClass(jpushClass).isPresent());
+  }
+
+  private static AnalysisInputLocation archive(Path jar) {
+    return new ArchiveBasedAnalysisInputLocation(jar, SourceType.Application);
+  }
+
+  /** Counts how often a class is requested from the wrapped input location. */
+  private static class CountingInputLocation implements AnalysisInputLocation {
+    private final AnalysisInputLocation delegate;
+    private final AtomicInteger probes = new AtomicInteger();
+
+    CountingInputLocation(AnalysisInputLocation delegate) {
+      this.delegate = delegate;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<? extends SootClassSource> getClassSource(
+        @Nonnull ClassType type, @Nonnull View view) {
+      probes.incrementAndGet();
+      return delegate.getClassSource(type, view);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<? extends SootClassSource> getClassSources(@Nonnull View view) {
+      return delegate.getClassSources(view);
+    }
+
+    @Nonnull
+    @Override
+    public SourceType getSourceType() {
+      return delegate.getSourceType();
+    }
+
+    @Nonnull
+    @Override
+    public List<BodyInterceptor> getBodyInterceptors() {
+      return delegate.getBodyInterceptors();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<Set<String>> getPackageNames() {
+      return delegate.getPackageNames();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.core.views.TraversalCacheMode;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+/** Checks the batched traversal of all classes of a view. */
+@Tag("Java8")
+public class ClassTraversalTest {
+  static final Path pathToJar =
+      Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+
+  private static JavaView createView() {
+    return new JavaView(
+        PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application));
+  }
+
+  private static Set<ClassType> allClassTypes() {
+    return createView().getClasses().map(SootClass::getType).collect(Collectors.toSet());
+  }
+
+  @Test
+  public void testTouchOnceDoesNotCacheClasses() {
+    JavaView view = createView();
+    List<Integer> batchSizes = new ArrayList<>();
+    Set<ClassType> visitedTypes = new HashSet<>();
+    view.traverseClasses(
+        50,
+        TraversalCacheMode.TOUCH_ONCE,
+        batch -> {
+          batchSizes.add(batch.size());
+          batch.forEach(sootClass -> assertTrue(visitedTypes.add(sootClass.getType())));
+        });
+
+    assertEquals(allClassTypes(), visitedTypes);
+    assertTrue(batchSizes.stream().allMatch(size -> size > 0 && size <= 50));
+    assertEquals(visitedTypes.size(), batchSizes.stream().mapToInt(Integer::intValue).sum());
+    assertEquals(0, view.getCachedClassesCount());
+  }
+
+  @Test
+  public void testCacheModeCachesClasses() {
+    JavaView view = createView();
+    AtomicInteger visitedClasses = new AtomicInteger();
+    view.traverseClasses(
+        64, TraversalCacheMode.CACHE, batch -> visitedClasses.addAndGet(batch.size()));
+
+    assertEquals(visitedClasses.get(), view.getCachedClassesCount());
+    assertEquals(allClassTypes().size(), visitedClasses.get());
+  }
+
+  @Test
+  public void testTraverseBodies() {
+    JavaView view = createView();
+    AtomicInteger bodies = new AtomicInteger();
+    view.traverseBodies(
+        100,
+        TraversalCacheMode.TOUCH_ONCE,
+        (method, body) -> {
+          assertEquals(method.getSignature(), body.getMethodSignature());
+          bodies.incrementAndGet();
+        });
+
+    long concreteMethods =
+        createView()
+            .getClasses()
+            .flatMap(sootClass -> sootClass.getMethods().stream())
+            .filter(method -> method.hasBody())
+            .count();
+    assertEquals(concreteMethods, bodies.get());
+    assertEquals(0, view.getCachedClassesCount());
+  }
+
+  @Test
+  public void testShadowedClassesAreVisitedOnce() {
+    List<AnalysisInputLocation> inputLocations =
+        Arrays.asList(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application),
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Library));
+    JavaView view = new JavaView(inputLocations);
+    List<SootClass> visitedClasses = new ArrayList<>();
+    view.traverseClasses(500, TraversalCacheMode.TOUCH_ONCE, visitedClasses::addAll);
+
+    assertEquals(allClassTypes().size(), visitedClasses.size());
+    assertTrue(visitedClasses.stream().allMatch(SootClass::isApplicationClass));
+  }
+
+  @Test
+  public void testInvalidBatchSize() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> createView().traverseClasses(0, TraversalCacheMode.CACHE, batch -> {}));
+  }
+}
@@ -0,0 +1,174 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.cache.ClassWeigher;
+import sootup.core.cache.provider.ClassCacheProvider;
+import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.cache.provider.LRUCacheProvider;
+import sootup.core.cache.provider.TinyLfuCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Resolves the classes of a jar from many threads at the same time and checks that every class is
+ * built exactly once, i.e. all threads observe the same {@link SootClass} instance.
+ */
+@Tag("Java8")
+public class ConcurrentClassResolutionTest {
+  static final Path pathToJar =
+      Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+  static final int THREADS = 16;
+  static final int ROUNDS = 5;
+
+  private static AnalysisInputLocation createInputLocation() {
+    return PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application);
+  }
+
+  private static List<ClassType> collectClassTypes(JavaView view, AnalysisInputLocation location) {
+    return location.getClassSources(view).stream()
+        .map(AbstractClassSource::getClassType)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Lets all threads resolve all classes in a different order and collects every returned
+   * instance per type.
+   */
+  private static Map<ClassType, Set<SootClass>> resolveConcurrently(
+      JavaView view, List<ClassType> classTypes) throws Exception {
+    Map<ClassType, Set<SootClass>> seenInstances = new ConcurrentHashMap<>();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        final List<ClassType> shuffled = new ArrayList<>(classTypes);
+        Collections.shuffle(shuffled, new Random(i));
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int round = 0; round < ROUNDS; round++) {
+                    for (ClassType type : shuffled) {
+                      SootClass sc = view.getClassOrThrow(type);
+                      seenInstances
+                          .computeIfAbsent(
+                              type, t -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                          .add(sc);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return seenInstances;
+  }
+
+  @Test
+  public void everyClassIsBuiltOnce() throws Exception {
+    AnalysisInputLocation location = createInputLocation();
+    JavaView view = new JavaView(Collections.singletonList(location));
+    List<ClassType> classTypes = collectClassTypes(view, location);
+    assertTrue(classTypes.size() > 50);
+
+    Map<ClassType, Set<SootClass>> seenInstances = resolveConcurrently(view, classTypes);
+
+    assertEquals(classTypes.size(), seenInstances.size());
+    seenInstances.forEach(
+        (type, instances) -> assertEquals(1, instances.size(), type + " was built more than once"));
+    assertEquals(classTypes.size(), view.getCachedClassesCount());
+  }
+
+  @Test
+  public void concurrentGetClassesReturnsCachedInstances() throws Exception {
+    AnalysisInputLocation location = createInputLocation();
+    JavaView view = new JavaView(Collections.singletonList(location));
+    List<ClassType> classTypes = collectClassTypes(view, location);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<JavaSootClass>> bulk =
+          executor.submit(() -> view.getClasses().collect(Collectors.toList()));
+      Future<Map<ClassType, Set<SootClass>>> single =
+          executor.submit(() -> resolveConcurrently(view, classTypes));
+
+      Map<ClassType, Set<SootClass>> seenInstances = single.get();
+      for (JavaSootClass sc : bulk.get()) {
+        Set<SootClass> instances = seenInstances.get(sc.getType());
+        assertEquals(1, instances.size());
+        assertSame(instances.iterator().next(), sc);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void boundedCacheIsSafeUnderConcurrency() throws Exception {
+    ClassCacheProvider cacheProvider = new LRUCacheProvider(10);
+    AnalysisInputLocation location = createInputLocation();
+    JavaView view = new JavaView(Collections.singletonList(location), cacheProvider);
+    List<ClassType> classTypes = collectClassTypes(view, location);
+
+    Map<ClassType, Set<SootClass>> seenInstances = resolveConcurrently(view, classTypes);
+
+    // evicted classes are rebuilt, but every resolution has to succeed
+    assertEquals(classTypes.size(), seenInstances.size());
+    assertTrue(view.getCachedClassesCount() <= 10);
+  }
+
+  @Test
+  public void tinyLfuCacheIsSafeUnderConcurrency() throws Exception {
+    ClassCacheProvider cacheProvider = new TinyLfuCacheProvider(10, ClassWeigher.singleton(), true);
+    AnalysisInputLocation location = createInputLocation();
+    JavaView view = new JavaView(Collections.singletonList(location), cacheProvider);
+    List<ClassType> classTypes = collectClassTypes(view, location);
+
+    Map<ClassType, Set<SootClass>> seenInstances = resolveConcurrently(view, classTypes);
+
+    assertEquals(classTypes.size(), seenInstances.size());
+    assertTrue(view.getCachedClassesCount() <= 10);
+    assertTrue(view.getCacheStatistics().get().getHitCount() > 0);
+  }
+
+  @Test
+  public void getClassesAfterConcurrentResolution() throws Exception {
+    AnalysisInputLocation location = createInputLocation();
+    JavaView view = new JavaView(Collections.singletonList(location), new FullCacheProvider());
+    List<ClassType> classTypes = collectClassTypes(view, location);
+    resolveConcurrently(view, classTypes);
+    assertEquals(classTypes.size(), view.getClasses().count());
+  }
+}
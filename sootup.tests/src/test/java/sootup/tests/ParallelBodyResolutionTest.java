@@ -0,0 +1,154 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.BodyResolutionResult;
+import sootup.java.core.views.JavaView;
+
+/** Tests the parallel resolution of the Bodies of a {@link JavaView}. */
+@Tag("Java8")
+public class ParallelBodyResolutionTest {
+
+  private static JavaView createView() {
+    return new JavaView(
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+            SourceType.Application));
+  }
+
+  private static List<JavaSootMethod> concreteMethods(List<JavaSootClass> classes) {
+    return classes.stream()
+        .flatMap(sootClass -> sootClass.getMethods().stream())
+        .filter(SootMethod::isConcrete)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void resolveBodiesOfClasses() {
+    JavaView view = createView();
+    List<JavaSootClass> classes = view.getClasses().collect(Collectors.toList());
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      BodyResolutionResult result = view.resolveBodiesOfClasses(classes, executor, 8);
+
+      List<JavaSootMethod> methods = concreteMethods(classes);
+      assertTrue(result.isSuccessful());
+      assertEquals(methods.size(), result.getResolvedBodyCount());
+      methods.forEach(method -> assertTrue(method.isBodyResolved()));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void failingMethodDoesNotAbortTheBatch() {
+    JavaView view = createView();
+    List<JavaSootMethod> methods =
+        new ArrayList<>(concreteMethods(view.getClasses().limit(20).collect(Collectors.toList())));
+    JavaSootMethod failingMethod = methods.get(0).withSource(new FailingBodySource(methods.get(0)));
+    methods.add(methods.size() / 2, failingMethod);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      BodyResolutionResult result = view.resolveBodies(methods, executor, 4);
+
+      assertFalse(result.isSuccessful());
+      assertEquals(methods.size() - 1, result.getResolvedBodyCount());
+      assertEquals(1, result.getFailures().size());
+      assertTrue(
+          result.getFailures().get(failingMethod.getSignature()) instanceof IllegalStateException);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void pendingMethodsAreBounded() {
+    JavaView view = createView();
+    List<JavaSootMethod> methods =
+        concreteMethods(view.getClasses().limit(50).collect(Collectors.toList()));
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    AtomicInteger pending = new AtomicInteger();
+    AtomicInteger maxPending = new AtomicInteger();
+    try {
+      BodyResolutionResult result =
+          view.resolveBodies(
+              methods,
+              task -> {
+                maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+                pool.execute(
+                    () -> {
+                      pending.decrementAndGet();
+                      task.run();
+                    });
+              },
+              3);
+
+      assertEquals(methods.size(), result.getResolvedBodyCount());
+      assertTrue(maxPending.get() <= 3, "pending: " + maxPending.get());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    // a rejecting executor leaves the resolution to the calling thread
+    List<JavaSootMethod> otherMethods =
+        concreteMethods(createView().getClasses().limit(10).collect(Collectors.toList()));
+    BodyResolutionResult result =
+        view.resolveBodies(
+            otherMethods,
+            task -> {
+              throw new RejectedExecutionException();
+            },
+            2);
+    assertEquals(otherMethods.size(), result.getResolvedBodyCount());
+    assertThrows(
+        IllegalArgumentException.class, () -> view.resolveBodies(methods, Runnable::run, 0));
+  }
+
+  private static class FailingBodySource implements BodySource {
+    private final MethodSignature signature;
+
+    FailingBodySource(SootMethod method) {
+      this.signature = method.getSignature();
+    }
+
+    @Nonnull
+    @Override
+    public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers) {
+      throw new IllegalStateException("malformed method " + signature);
+    }
+
+    @Override
+    public Object resolveAnnotationsDefaultValue() {
+      return null;
+    }
+
+    @Nonnull
+    @Override
+    public MethodSignature getSignature() {
+      return signature;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.BulkResolutionListener;
+import sootup.java.core.views.JavaView;
+
+/** Tests the parallel bulk resolution of the classes of a {@link JavaView}. */
+@Tag("Java8")
+public class ParallelBulkResolutionTest {
+
+  private static List<AnalysisInputLocation> createInputLocations() {
+    AnalysisInputLocation miniApp =
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+            SourceType.Application);
+    AnalysisInputLocation jpush =
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar"),
+            SourceType.Library);
+    // the second MiniApp location provides the same types again, i.e. its classes must be ignored
+    AnalysisInputLocation miniAppAgain =
+        PathBasedAnalysisInputLocation.create(
+            Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"), SourceType.Library);
+    return Arrays.asList(miniApp, jpush, miniAppAgain);
+  }
+
+  @Test
+  public void parallelResolutionKeepsSequentialOrder() {
+    List<AnalysisInputLocation> inputLocations = createInputLocations();
+    List<ClassType> sequential =
+        new JavaView(inputLocations)
+            .getClasses()
+            .map(SootClass::getType)
+            .collect(Collectors.toList());
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      JavaView view = new JavaView(inputLocations);
+      List<JavaSootClass> parallel = view.getClasses(executor).collect(Collectors.toList());
+
+      assertEquals(
+          sequential, parallel.stream().map(SootClass::getType).collect(Collectors.toList()));
+      // first wins: the duplicated MiniApp classes stem from the first input location
+      for (JavaSootClass sc : parallel) {
+        assertSame(view.getClassOrThrow(sc.getType()), sc);
+        if (sc.getType().getClassName().equals("MiniApp")) {
+          assertEquals(
+              SourceType.Application,
+              sc.getClassSource().getAnalysisInputLocation().getSourceType());
+        }
+      }
+      // a second call is answered from the cache
+      assertEquals(view.getCachedClassesCount(), view.getClasses(executor).count());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void listenerReportsProgressAndTiming() {
+    List<AnalysisInputLocation> inputLocations = createInputLocations();
+    RecordingListener listener = new RecordingListener();
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      JavaView view = new JavaView(inputLocations);
+      view.getClasses(executor, listener).count();
+
+      assertEquals(3, listener.discovered.size());
+      assertEquals(3, listener.resolved.size());
+      int total = view.getCachedClassesCount();
+      assertEquals(total, listener.progressCalls.get());
+      assertEquals(total, listener.lastProgress.get());
+      // all classes of the duplicated location were already provided by the first location
+      assertEquals(0, (int) listener.resolved.get(inputLocations.get(2)));
+      assertEquals(total, listener.resolved.values().stream().mapToInt(Integer::intValue).sum());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void sameThreadExecutor() {
+    List<AnalysisInputLocation> inputLocations = createInputLocations();
+    List<ClassType> sequential =
+        new JavaView(inputLocations)
+            .getClasses()
+            .map(SootClass::getType)
+            .collect(Collectors.toList());
+    List<ClassType> types =
+        new JavaView(inputLocations)
+            .getClasses(Runnable::run)
+            .map(SootClass::getType)
+            .collect(Collectors.toList());
+    assertEquals(sequential, types);
+    assertTrue(types.size() > 6);
+  }
+
+  private static class RecordingListener implements BulkResolutionListener {
+    final Map<AnalysisInputLocation, Integer> discovered = new ConcurrentHashMap<>();
+    final Map<AnalysisInputLocation, Integer> resolved = new ConcurrentHashMap<>();
+    final AtomicInteger progressCalls = new AtomicInteger();
+    final AtomicInteger lastProgress = new AtomicInteger();
+
+    @Override
+    public void classSourcesDiscovered(
+        @Nonnull AnalysisInputLocation location, int classSourceCount, long discoveryNanos) {
+      discovered.put(location, classSourceCount);
+    }
+
+    @Override
+    public void progress(int resolvedClasses, int totalClasses) {
+      progressCalls.incrementAndGet();
+      lastProgress.accumulateAndGet(resolvedClasses, Math::max);
+    }
+
+    @Override
+    public void locationResolved(
+        @Nonnull AnalysisInputLocation location, int resolvedClasses, long buildNanos) {
+      resolved.put(location, resolvedClasses);
+    }
+  }
+}
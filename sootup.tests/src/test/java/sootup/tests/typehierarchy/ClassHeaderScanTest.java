@@ -0,0 +1,183 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.frontend.ClassHeader;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.JavaView;
+import sootup.java.core.views.MutableJavaView;
+
+/**
+ * Compares the headers that the type hierarchy is scanned from with the resolved classes and tests
+ * the incremental insertion of classes into the hierarchy of a mutable view.
+ */
+@Tag("Java8")
+public class ClassHeaderScanTest {
+
+  private static AnalysisInputLocation createInputLocation(String jar) {
+    return new ArchiveBasedAnalysisInputLocation(
+        Paths.get("../shared-test-resources/" + jar), SourceType.Application);
+  }
+
+  private static Map<ClassType, ClassHeader> headersByType(JavaView view) {
+    return view.getClassHeaders()
+        .collect(Collectors.toMap(ClassHeader::getType, Function.identity()));
+  }
+
+  private static void assertSameHeader(ClassHeader expected, ClassHeader actual) {
+    assertEquals(expected.getType(), actual.getType());
+    assertEquals(expected.getSuperclass(), actual.getSuperclass());
+    assertEquals(new HashSet<>(expected.getInterfaces()), new HashSet<>(actual.getInterfaces()));
+    assertEquals(expected.isInterface(), actual.isInterface());
+  }
+
+  @Test
+  public void testHeadersOfArchive() {
+    JavaView view = new JavaView(createInputLocation("soot-1580/jpush-android_v3.0.5.jar"));
+    Map<ClassType, ClassHeader> headers = headersByType(view);
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    ClassType objectType = view.getIdentifierFactory().getClassType("java.lang.Object");
+    assertTrue(typeHierarchy.subtypesOf(objectType).count() > 0);
+    // neither the headers nor the hierarchy resolve a class
+    assertEquals(0, view.getCachedClassesCount());
+
+    Set<ClassType> types = new HashSet<>();
+    for (JavaSootClass sootClass : view.getClasses().collect(Collectors.toList())) {
+      types.add(sootClass.getType());
+      assertSameHeader(ClassHeader.of(sootClass), headers.get(sootClass.getType()));
+    }
+    assertEquals(types, headers.keySet());
+    // once the classes are resolved, the headers are taken from the cache
+    assertEquals(headers.keySet(), headersByType(view).keySet());
+  }
+
+  @Test
+  public void testHeadersOfMultipleInputLocations() {
+    AnalysisInputLocation miniApp = createInputLocation("java-miniapps/MiniApp.jar");
+    AnalysisInputLocation jpush = createInputLocation("soot-1580/jpush-android_v3.0.5.jar");
+    JavaView view = new JavaView(Arrays.asList(miniApp, jpush, miniApp));
+
+    Set<ClassType> expected = new HashSet<>();
+    expected.addAll(headersByType(new JavaView(miniApp)).keySet());
+    expected.addAll(headersByType(new JavaView(jpush)).keySet());
+    // every type is contained once although the first input location is scanned twice
+    assertEquals(expected.size(), view.getClassHeaders().count());
+    assertEquals(expected, headersByType(view).keySet());
+  }
+
+  @Test
+  public void testHeadersScannedByExecutor() {
+    AnalysisInputLocation miniApp = createInputLocation("java-miniapps/MiniApp.jar");
+    AnalysisInputLocation jpush = createInputLocation("soot-1580/jpush-android_v3.0.5.jar");
+    JavaView view = new JavaView(Arrays.asList(miniApp, jpush));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      List<ClassType> types =
+          view.getClassHeaders(executor).map(ClassHeader::getType).collect(Collectors.toList());
+      // the order of the input locations is kept
+      assertEquals(
+          view.getClassHeaders().map(ClassHeader::getType).collect(Collectors.toList()), types);
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(0, view.getCachedClassesCount());
+  }
+
+  @Test
+  public void testIncrementalAddition() {
+    AnalysisInputLocation inputLocation = createInputLocation("java-miniapps/MiniApp.jar");
+    MutableJavaView view = new MutableJavaView(inputLocation);
+    ClassType employee = view.getIdentifierFactory().getClassType("ds.Employee");
+    ClassType abstractDataStructure =
+        view.getIdentifierFactory().getClassType("ds.AbstractDataStrcture");
+    JavaSootClass employeeClass = view.getClass(employee).get();
+    assertTrue(view.getClasses().count() > 0);
+    view.removeInputLocation(inputLocation);
+    view.removeClass(employeeClass);
+
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    assertFalse(typeHierarchy.contains(employee));
+    assertThrows(IllegalArgumentException.class, () -> typeHierarchy.subtypesOf(employee));
+
+    view.addClass(employeeClass);
+    // the class is inserted into a copy of the hierarchy instead of scanning the view again
+    TypeHierarchy updatedTypeHierarchy = view.getTypeHierarchy();
+    assertNotSame(typeHierarchy, updatedTypeHierarchy);
+    assertFalse(typeHierarchy.contains(employee));
+    assertTrue(updatedTypeHierarchy.contains(employee));
+    Set<ClassType> subclasses =
+        updatedTypeHierarchy.subclassesOf(abstractDataStructure).collect(Collectors.toSet());
+    assertTrue(subclasses.contains(employee));
+    assertEquals(abstractDataStructure, updatedTypeHierarchy.superClassOf(employee).get());
+  }
+
+  @Test
+  public void testHandedOutHierarchiesAreNotModified() {
+    JavaView miniApp = new JavaView(createInputLocation("java-miniapps/MiniApp.jar"));
+    MutableJavaView view =
+        new MutableJavaView(createInputLocation("soot-1580/jpush-android_v3.0.5.jar"));
+    ClassType employee = view.getIdentifierFactory().getClassType("ds.Employee");
+    ClassType department = view.getIdentifierFactory().getClassType("ds.Department");
+    ClassType abstractDataStructure =
+        view.getIdentifierFactory().getClassType("ds.AbstractDataStrcture");
+    TypeHierarchy initialTypeHierarchy = view.getTypeHierarchy();
+
+    // the first class is inserted into a copy, the second one into the same copy
+    view.addClass(miniApp.getClass(abstractDataStructure).get());
+    view.addClass(miniApp.getClass(employee).get());
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    assertFalse(initialTypeHierarchy.contains(abstractDataStructure));
+    assertFalse(initialTypeHierarchy.contains(employee));
+    assertEquals(
+        Collections.singleton(employee),
+        typeHierarchy.subclassesOf(abstractDataStructure).collect(Collectors.toSet()));
+
+    view.addClass(miniApp.getClass(department).get());
+    assertFalse(typeHierarchy.contains(department));
+    assertEquals(
+        new HashSet<>(Arrays.asList(employee, department)),
+        view.getTypeHierarchy().subclassesOf(abstractDataStructure).collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void testAddedClassesSurviveRemoval() {
+    // the added classes are not provided by the input location of the mutable view
+    JavaView miniApp = new JavaView(createInputLocation("java-miniapps/MiniApp.jar"));
+    MutableJavaView view =
+        new MutableJavaView(createInputLocation("soot-1580/jpush-android_v3.0.5.jar"));
+    ClassType employee = view.getIdentifierFactory().getClassType("ds.Employee");
+    ClassType abstractDataStructure =
+        view.getIdentifierFactory().getClassType("ds.AbstractDataStrcture");
+    view.addClass(miniApp.getClass(abstractDataStructure).get());
+    view.addClass(miniApp.getClass(employee).get());
+
+    ClassType removedType = view.getIdentifierFactory().getClassType("cn.jpush.android.d.h");
+    view.removeClass(removedType);
+
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    assertFalse(typeHierarchy.contains(removedType));
+    assertTrue(typeHierarchy.isSubtype(abstractDataStructure, employee));
+    assertEquals(
+        Collections.singleton(employee),
+        typeHierarchy.subclassesOf(abstractDataStructure).collect(Collectors.toSet()));
+  }
+}
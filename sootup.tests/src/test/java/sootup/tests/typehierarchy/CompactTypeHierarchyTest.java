@@ -0,0 +1,138 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootClass;
+import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.CompactTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.types.NullType;
+import sootup.core.types.PrimitiveType;
+import sootup.java.bytecode.frontend.inputlocation.ArchiveBasedAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class CompactTypeHierarchyTest {
+
+  private static JavaView createView(String jar) {
+    return new JavaView(
+        new ArchiveBasedAnalysisInputLocation(
+            Paths.get("../shared-test-resources/" + jar), SourceType.Application));
+  }
+
+  @Test
+  public void testMiniApp() {
+    JavaView view = createView("java-miniapps/MiniApp.jar");
+    ViewTypeHierarchy expected = new ViewTypeHierarchy(view);
+    CompactTypeHierarchy actual = new CompactTypeHierarchy(view);
+    List<ClassType> types = assertSameHierarchy(view, expected, actual);
+
+    for (ClassType supertype : types) {
+      for (ClassType potentialSubtype : types) {
+        assertEquals(
+            expected.isSubtype(supertype, potentialSubtype),
+            actual.isSubtype(supertype, potentialSubtype),
+            supertype + " <: " + potentialSubtype);
+      }
+    }
+
+    JavaIdentifierFactory factory = view.getIdentifierFactory();
+    ClassType abstractDataStructure = factory.getClassType("ds.AbstractDataStrcture");
+    assertEquals(
+        Stream.of(factory.getClassType("ds.Employee"), factory.getClassType("ds.Department"))
+            .collect(Collectors.toSet()),
+        actual.subclassesOf(abstractDataStructure).collect(Collectors.toSet()));
+    assertEquals(
+        factory.getClassType("utils.Operations"),
+        actual.implementersOf(factory.getClassType("utils.IFaceOperations")).findFirst().get());
+    assertTrue(actual.isSubtype(abstractDataStructure, NullType.getInstance()));
+    assertFalse(actual.isSubtype(PrimitiveType.getInt(), PrimitiveType.getInt()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> actual.subclassesOf(factory.getClassType("utils.IFaceOperations")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> actual.subtypesOf(factory.getClassType("does.not.Exist")));
+  }
+
+  @Test
+  public void testJar() {
+    JavaView view = createView("soot-1580/jpush-android_v3.0.5.jar");
+    ViewTypeHierarchy expected = new ViewTypeHierarchy(view);
+    CompactTypeHierarchy actual = new CompactTypeHierarchy(view);
+    List<ClassType> types = assertSameHierarchy(view, expected, actual);
+
+    for (ClassType supertype : types) {
+      Set<ClassType> subtypes = expected.subtypesOf(supertype).collect(Collectors.toSet());
+      for (ClassType potentialSubtype : types) {
+        assertEquals(
+            subtypes.contains(potentialSubtype) || isObject(supertype, potentialSubtype),
+            actual.isSubtype(supertype, potentialSubtype),
+            supertype + " <: " + potentialSubtype);
+      }
+    }
+  }
+
+  private static boolean isObject(ClassType supertype, ClassType potentialSubtype) {
+    return supertype.getFullyQualifiedName().equals("java.lang.Object")
+        && !potentialSubtype.getFullyQualifiedName().equals("java.lang.Object");
+  }
+
+  /** compares all queries except isSubtype for all types of the view and returns these types */
+  private static List<ClassType> assertSameHierarchy(
+      JavaView view, TypeHierarchy expected, CompactTypeHierarchy actual) {
+    Set<ClassType> types = view.getClasses().map(SootClass::getType).collect(Collectors.toSet());
+    // include the referenced types that are not contained in the view
+    for (ClassType type : new HashSet<>(types)) {
+      types.addAll(expected.superClassesOf(type).collect(Collectors.toSet()));
+      types.addAll(expected.implementedInterfacesOf(type).collect(Collectors.toSet()));
+    }
+    assertEquals(types.size(), actual.size());
+
+    for (ClassType type : types) {
+      assertTrue(actual.contains(type));
+      assertEquals(expected.isInterface(type), actual.isInterface(type), type.toString());
+      assertEquals(set(expected.subtypesOf(type)), set(actual.subtypesOf(type)), type.toString());
+      assertEquals(set(actual.subtypesOf(type)).size(), actual.subtypesOf(type).count());
+      assertEquals(
+          set(expected.directSubtypesOf(type)),
+          set(actual.directSubtypesOf(type)),
+          type.toString());
+      assertEquals(
+          set(expected.implementedInterfacesOf(type)),
+          set(actual.implementedInterfacesOf(type)),
+          type.toString());
+      assertEquals(expected.superClassOf(type), actual.superClassOf(type), type.toString());
+      assertEquals(
+          expected.superClassesOf(type).collect(Collectors.toList()),
+          actual.superClassesOf(type).collect(Collectors.toList()),
+          type.toString());
+      if (expected.isInterface(type)) {
+        assertEquals(
+            set(expected.directlyExtendedInterfacesOf(type)),
+            set(actual.directlyExtendedInterfacesOf(type)));
+      } else {
+        assertEquals(
+            set(expected.directlyImplementedInterfacesOf(type)),
+            set(actual.directlyImplementedInterfacesOf(type)));
+      }
+    }
+    return new ArrayList<>(types);
+  }
+
+  private static Set<ClassType> set(Stream<ClassType> types) {
+    return types.collect(Collectors.toSet());
+  }
+}